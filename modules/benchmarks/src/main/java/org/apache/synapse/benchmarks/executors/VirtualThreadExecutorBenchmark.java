@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.executors;
+
+import org.apache.synapse.commons.executors.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to run a burst of tasks which block the way a callout or database lookup does, on the
+ * {@link VirtualThreadExecutor} and on a platform thread pool sized like the default worker pools.
+ * <p>
+ * The virtual thread executor needs a Java 21 or later runtime; on older runtimes run only the platform pool with
+ * {@code -p executor=platform}. Add {@code -prof gc} to compare the memory allocated by the two executors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadExecutorBenchmark {
+
+    private static final int PLATFORM_THREADS = 400;
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    @Param({"5000"})
+    private int tasks;
+
+    @Param({"20"})
+    private int blockMillis;
+
+    @Param({"1000"})
+    private int concurrency;
+
+    private ExecutorService executorService;
+
+    @Setup
+    public void setUp() {
+        if ("virtual".equals(executor)) {
+            if (!VirtualThreadExecutor.isSupported()) {
+                throw new IllegalStateException("Virtual threads are not supported by this Java runtime");
+            }
+            executorService = new VirtualThreadExecutor("BenchmarkWorker", concurrency, -1);
+        } else {
+            executorService = new ThreadPoolExecutor(PLATFORM_THREADS, PLATFORM_THREADS, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public void blockingTasks() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executorService.execute(new Runnable() {
+                public void run() {
+                    try {
+                        Thread.sleep(blockMillis);
+                    } catch (InterruptedException ignored) {
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
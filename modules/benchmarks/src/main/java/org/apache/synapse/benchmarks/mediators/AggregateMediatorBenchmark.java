@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.mediators;
+
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.util.AXIOMUtil;
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.config.SynapseConfiguration;
+import org.apache.synapse.core.SynapseEnvironment;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.core.axis2.Axis2SynapseEnvironment;
+import org.apache.synapse.mediators.MediatorFaultHandler;
+import org.apache.synapse.mediators.base.SequenceMediator;
+import org.apache.synapse.mediators.eip.EIPConstants;
+import org.apache.synapse.mediators.eip.aggregator.AggregateMediator;
+import org.apache.synapse.util.MessageHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clones a message and aggregates the clones in an {@link AggregateMediator} holding the given number of open
+ * correlations, as the messages of concurrent split or iterate operations are aggregated. Each operation completes
+ * the oldest open correlation with its second clone, and opens a new one with a first clone, so that the number of
+ * active aggregates, each with a completion timeout, stays constant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AggregateMediatorBenchmark {
+
+    private static final long COMPLETION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Param({"1000", "10000", "50000"})
+    private int correlations;
+
+    private MessageContext message;
+
+    private AggregateMediator aggregateMediator;
+
+    /** Oldest open correlation, which is completed next */
+    private final AtomicLong nextCorrelation = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        SynapseConfiguration synapseConfiguration = new SynapseConfiguration();
+        AxisConfiguration axisConfiguration = new AxisConfiguration();
+        synapseConfiguration.setAxisConfiguration(axisConfiguration);
+        SynapseEnvironment synapseEnvironment = new Axis2SynapseEnvironment(
+                new ConfigurationContext(axisConfiguration), synapseConfiguration);
+
+        message = new Axis2MessageContext(new org.apache.axis2.context.MessageContext(), synapseConfiguration,
+                synapseEnvironment);
+        SOAPEnvelope envelope = OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope();
+        OMAbstractFactory.getSOAP11Factory().createOMDocument().addChild(envelope);
+        envelope.getBody().addChild(AXIOMUtil.stringToOM(
+                "<m:getQuote xmlns:m=\"http://services.samples\"><m:request><m:symbol>WSO2</m:symbol>"
+                        + "</m:request></m:getQuote>"));
+        message.setEnvelope(envelope);
+        message.pushFaultHandler(new MediatorFaultHandler(new SequenceMediator()));
+
+        aggregateMediator = new AggregateMediator();
+        aggregateMediator.setCompletionTimeoutMillis(COMPLETION_TIMEOUT_MILLIS);
+        aggregateMediator.setOnCompleteSequence(new SequenceMediator());
+        aggregateMediator.init(synapseEnvironment);
+
+        nextCorrelation.set(0);
+        for (long correlation = 0; correlation < correlations; correlation++) {
+            aggregate(correlation, 0);
+        }
+    }
+
+    @Benchmark
+    public boolean cloneAndAggregate() throws Exception {
+        long correlation = nextCorrelation.getAndIncrement();
+        aggregate(correlation + correlations, 0);
+        return aggregate(correlation, 1);
+    }
+
+    private boolean aggregate(long correlation, int index) throws Exception {
+        MessageContext clone = MessageHelper.cloneMessageContext(message);
+        clone.setProperty(EIPConstants.AGGREGATE_CORRELATION, String.valueOf(correlation));
+        clone.setProperty(EIPConstants.MESSAGE_SEQUENCE, index + EIPConstants.MESSAGE_SEQUENCE_DELEMITER + "2");
+        return aggregateMediator.mediate(clone);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.axiom.om.util.AXIOMUtil;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.description.TransportInDescription;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.axis2.transport.base.threads.WorkerPool;
+import org.apache.axis2.transport.base.threads.WorkerPoolFactory;
+import org.apache.synapse.transport.http.conn.Scheme;
+import org.apache.synapse.transport.passthru.config.SourceConfiguration;
+import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Creates the transport configurations and payloads shared by the benchmarks. The configurations are built from
+ * the passthru-http.properties found on the class path, or the defaults if there is none.
+ */
+public final class BenchmarkSupport {
+
+    /** Bytes handed to the handlers per read or write, as a socket would deliver them */
+    public static final int CHUNK_SIZE = 8 * 1024;
+
+    private static final int PORT = 8280;
+
+    private BenchmarkSupport() {
+    }
+
+    public static ConfigurationContext createConfigurationContext() throws AxisFault {
+        ConfigurationContext configurationContext = new ConfigurationContext(new AxisConfiguration());
+        configurationContext.setServicePath("services");
+        configurationContext.setContextRoot("/");
+        return configurationContext;
+    }
+
+    public static SourceConfiguration createSourceConfiguration() throws Exception {
+        TransportInDescription transportIn = new TransportInDescription("http");
+        Parameter portParam = new Parameter("port", String.valueOf(PORT));
+        portParam.setParameterElement(AXIOMUtil.stringToOM(
+                "<parameter name=\"port\" locked=\"false\">" + PORT + "</parameter>"));
+        transportIn.addParameter(portParam);
+        Scheme scheme = new Scheme("http", PORT, false);
+        SourceConfiguration sourceConfiguration = new SourceConfiguration(createConfigurationContext(),
+                transportIn, scheme, createWorkerPool(),
+                new PassThroughTransportMetricsCollector(true, scheme.getName()));
+        sourceConfiguration.build();
+        return sourceConfiguration;
+    }
+
+    public static TargetConfiguration createTargetConfiguration() throws AxisFault {
+        TargetConfiguration targetConfiguration = new TargetConfiguration(createConfigurationContext(), null,
+                createWorkerPool(), new PassThroughTransportMetricsCollector(false, "http"), null);
+        targetConfiguration.build();
+        return targetConfiguration;
+    }
+
+    private static WorkerPool createWorkerPool() {
+        // the benchmarks drive the handlers directly, the workers are never used
+        return WorkerPoolFactory.getWorkerPool(1, 1, 60, -1, "Benchmark worker thread group", "BenchmarkWorker");
+    }
+
+    /**
+     * @param size payload size in bytes
+     * @return payload of the given size
+     */
+    public static byte[] createPayload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+        return payload;
+    }
+
+    /**
+     * @param size approximate payload size in bytes
+     * @return XML document of about the given size, made of repeated elements
+     */
+    public static byte[] createXmlPayload(int size) {
+        StringBuilder xml = new StringBuilder(size + 64);
+        xml.append("<orders>");
+        for (int i = 0; xml.length() < size - 9; i++) {
+            xml.append("<order id=\"").append(i).append("\"><symbol>WSO2</symbol><qty>").append(i % 100)
+                    .append("</qty></order>");
+        }
+        xml.append("</orders>");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param size approximate payload size in bytes
+     * @return JSON document of about the given size, made of an array of objects
+     */
+    public static byte[] createJsonPayload(int size) {
+        StringBuilder json = new StringBuilder(size + 64);
+        json.append("{\"orders\":[");
+        for (int i = 0; json.length() < size - 3; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"symbol\":\"WSO2\",\"qty\":").append(i % 100).append('}');
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.synapse.transport.passthru.util.BufferFactory;
+import org.apache.synapse.transport.passthru.util.ControlledByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of taking a buffer from the {@link BufferFactory} and returning it, as done for every connection and
+ * relayed message, from 1 to 64 threads sharing one factory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BufferFactoryBenchmark {
+
+    @Param({"8192", "16384"})
+    private int bufferSize;
+
+    private BufferFactory bufferFactory;
+
+    @Setup
+    public void setUp() {
+        bufferFactory = new BufferFactory(bufferSize, HeapByteBufferAllocator.INSTANCE, 512);
+    }
+
+    private ControlledByteBuffer getAndRelease() {
+        ControlledByteBuffer buffer = bufferFactory.getBuffer();
+        bufferFactory.release(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ControlledByteBuffer threads01() {
+        return getAndRelease();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ControlledByteBuffer threads08() {
+        return getAndRelease();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ControlledByteBuffer threads64() {
+        return getAndRelease();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.nio.NHttpClientConnection;
+
+/**
+ * In-process backend facing connection, see {@link FakeConnection}.
+ */
+public class FakeClientConnection extends FakeConnection implements NHttpClientConnection {
+
+    private boolean requestSubmitted;
+
+    public void submitRequest(HttpRequest request) {
+        setHttpRequest(request);
+        requestSubmitted = true;
+    }
+
+    public boolean isRequestSubmitted() {
+        return requestSubmitted;
+    }
+
+    public void resetOutput() {
+        requestSubmitted = false;
+    }
+
+    public void resetInput() {
+    }
+}
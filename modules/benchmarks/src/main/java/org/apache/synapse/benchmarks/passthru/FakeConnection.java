@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.nio.NHttpConnection;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * In-process {@link NHttpConnection} without a socket, for driving the pass-through handlers directly. Interest
+ * in input and output is recorded but has no other effect.
+ */
+public abstract class FakeConnection implements NHttpConnection {
+
+    private final HttpContext context = new BasicHttpContext();
+
+    private final FakeConnectionMetrics metrics = new FakeConnectionMetrics();
+
+    private HttpRequest request;
+
+    private HttpResponse response;
+
+    private boolean inputSuspended;
+
+    private boolean outputSuspended;
+
+    private boolean open = true;
+
+    public int getStatus() {
+        return open ? ACTIVE : CLOSED;
+    }
+
+    public HttpRequest getHttpRequest() {
+        return request;
+    }
+
+    public void setHttpRequest(HttpRequest request) {
+        this.request = request;
+    }
+
+    public HttpResponse getHttpResponse() {
+        return response;
+    }
+
+    public void setHttpResponse(HttpResponse response) {
+        this.response = response;
+    }
+
+    public HttpContext getContext() {
+        return context;
+    }
+
+    public void requestInput() {
+        inputSuspended = false;
+    }
+
+    public void suspendInput() {
+        inputSuspended = true;
+    }
+
+    public void requestOutput() {
+        outputSuspended = false;
+    }
+
+    public void suspendOutput() {
+        outputSuspended = true;
+    }
+
+    public boolean isInputSuspended() {
+        return inputSuspended;
+    }
+
+    public boolean isOutputSuspended() {
+        return outputSuspended;
+    }
+
+    public void close() {
+        open = false;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public boolean isStale() {
+        return !open;
+    }
+
+    public void setSocketTimeout(int timeout) {
+    }
+
+    public int getSocketTimeout() {
+        return 0;
+    }
+
+    public void shutdown() {
+        open = false;
+    }
+
+    public HttpConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static class FakeConnectionMetrics implements HttpConnectionMetrics {
+
+        public long getRequestCount() {
+            return 0;
+        }
+
+        public long getResponseCount() {
+            return 0;
+        }
+
+        public long getSentBytesCount() {
+            return 0;
+        }
+
+        public long getReceivedBytesCount() {
+            return 0;
+        }
+
+        public Object getMetric(String metricName) {
+            return null;
+        }
+
+        public void reset() {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.nio.ContentDecoder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * In-process {@link ContentDecoder} which hands out a payload held in memory, at most a fixed number of bytes per
+ * read the way a socket delivers a message in chunks.
+ */
+public class FakeContentDecoder implements ContentDecoder {
+
+    private final byte[] payload;
+
+    private final int chunkSize;
+
+    private int position;
+
+    private boolean completed;
+
+    public FakeContentDecoder(byte[] payload, int chunkSize) {
+        this.payload = payload;
+        this.chunkSize = chunkSize;
+    }
+
+    public int read(ByteBuffer dst) {
+        if (completed) {
+            return -1;
+        }
+        int length = Math.min(Math.min(dst.remaining(), chunkSize), payload.length - position);
+        dst.put(payload, position, length);
+        position += length;
+        if (position == payload.length) {
+            completed = true;
+        }
+        return length;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void reset() {
+        position = 0;
+        completed = false;
+    }
+}
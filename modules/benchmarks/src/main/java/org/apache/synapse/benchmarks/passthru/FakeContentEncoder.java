@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.nio.ContentEncoder;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+
+/**
+ * In-process {@link ContentEncoder} which discards what is written to it, at most a fixed number of bytes per
+ * write the way a socket accepts a message in chunks. The encoder completes once the expected number of bytes has
+ * been written.
+ */
+public class FakeContentEncoder implements ContentEncoder {
+
+    private final int chunkSize;
+
+    private final long expectedLength;
+
+    private final Blackhole blackhole;
+
+    private long written;
+
+    private boolean completed;
+
+    public FakeContentEncoder(long expectedLength, int chunkSize, Blackhole blackhole) {
+        this.expectedLength = expectedLength;
+        this.chunkSize = chunkSize;
+        this.blackhole = blackhole;
+    }
+
+    public int write(ByteBuffer src) {
+        int length = Math.min(src.remaining(), chunkSize);
+        if (length > 0) {
+            blackhole.consume(src.get(src.position() + length - 1));
+            src.position(src.position() + length);
+            written += length;
+        }
+        if (written >= expectedLength) {
+            completed = true;
+        }
+        return length;
+    }
+
+    public void complete() {
+        completed = true;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public void reset() {
+        written = 0;
+        completed = false;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.nio.NHttpServerConnection;
+
+/**
+ * In-process client facing connection, see {@link FakeConnection}.
+ */
+public class FakeServerConnection extends FakeConnection implements NHttpServerConnection {
+
+    private boolean responseSubmitted;
+
+    public void submitResponse(HttpResponse response) {
+        setHttpResponse(response);
+        responseSubmitted = true;
+    }
+
+    public boolean isResponseSubmitted() {
+        return responseSubmitted;
+    }
+
+    public void resetInput() {
+    }
+
+    public void resetOutput() {
+        responseSubmitted = false;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts payloads end to end over loopback sockets to a local echo backend, and reads back the echoed response.
+ * <p>
+ * With the default empty {@code gatewayUrl} the requests go straight to the backend, which gives the baseline cost
+ * of the client and backend. To measure the pass-through transport, start a server with a proxy or API forwarding
+ * to {@code http://localhost:<backendPort>/echo} and pass its URL:
+ * <pre>
+ * java -jar target/benchmarks.jar LoopbackBenchmark -p gatewayUrl=http://localhost:8280/echo -t 16
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoopbackBenchmark {
+
+    @Param({""})
+    private String gatewayUrl;
+
+    @Param({"9000"})
+    private int backendPort;
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    private int payloadSize;
+
+    private byte[] payload;
+
+    private URL url;
+
+    private HttpServer backend;
+
+    private ExecutorService backendExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = BenchmarkSupport.createPayload(payloadSize);
+        backend = HttpServer.create(new InetSocketAddress("localhost", backendPort), 1024);
+        backend.createContext("/echo", new EchoHandler());
+        backendExecutor = Executors.newCachedThreadPool();
+        backend.setExecutor(backendExecutor);
+        backend.start();
+        url = new URL(gatewayUrl.isEmpty() ? "http://localhost:" + backendPort + "/echo" : gatewayUrl);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.stop(0);
+        backendExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public long post() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(payload.length);
+        connection.setRequestProperty("Content-Type", "application/octet-stream");
+        OutputStream out = connection.getOutputStream();
+        try {
+            out.write(payload);
+        } finally {
+            out.close();
+        }
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Unexpected response " + connection.getResponseCode() + " from " + url);
+        }
+        // reading the response to the end lets the connection be kept alive and reused
+        return drain(connection.getInputStream());
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[BenchmarkSupport.CHUNK_SIZE];
+        long total = 0;
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        } finally {
+            in.close();
+        }
+        return total;
+    }
+
+    /**
+     * Echoes the request body back with the content type of the request.
+     */
+    private static class EchoHandler implements HttpHandler {
+
+        public void handle(HttpExchange exchange) throws IOException {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (contentType != null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+            }
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            // echo with the request length when known, chunked otherwise
+            exchange.sendResponseHeaders(200, length != null ? Long.parseLong(length) : 0);
+            InputStream in = exchange.getRequestBody();
+            OutputStream out = exchange.getResponseBody();
+            try {
+                byte[] buffer = new byte[BenchmarkSupport.CHUNK_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.axis2.Constants;
+import org.apache.axis2.builder.ApplicationXMLBuilder;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.transport.TransportUtils;
+import org.apache.synapse.commons.json.JsonStreamBuilder;
+import org.apache.synapse.transport.passthru.util.DeferredMessageBuilder;
+import org.apache.synapse.transport.passthru.util.RelayUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds XML and JSON payloads into an envelope, through {@link RelayUtils#buildMessage} as a mediator reading the
+ * message does, and directly through {@link DeferredMessageBuilder#getDocument}. The envelope is fully built so
+ * that the deferred parsing is part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageBuilderBenchmark {
+
+    @Param({"application/xml", "application/json"})
+    private String contentType;
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    private int payloadSize;
+
+    private byte[] payload;
+
+    private ConfigurationContext configurationContext;
+
+    private DeferredMessageBuilder messageBuilder;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = "application/json".equals(contentType) ? BenchmarkSupport.createJsonPayload(payloadSize)
+                : BenchmarkSupport.createXmlPayload(payloadSize);
+        configurationContext = BenchmarkSupport.createConfigurationContext();
+        configurationContext.getAxisConfiguration().addMessageBuilder("application/xml",
+                new ApplicationXMLBuilder());
+        configurationContext.getAxisConfiguration().addMessageBuilder("application/json",
+                new JsonStreamBuilder());
+        messageBuilder = new DeferredMessageBuilder();
+    }
+
+    @Benchmark
+    public SOAPEnvelope relayUtilsBuildMessage() throws Exception {
+        MessageContext messageContext = createMessageContext();
+        // early build skips the addressing handlers, which need a deployed service
+        RelayUtils.buildMessage(messageContext, true, new ByteArrayInputStream(payload));
+        SOAPEnvelope envelope = messageContext.getEnvelope();
+        envelope.buildWithAttachments();
+        return envelope;
+    }
+
+    @Benchmark
+    public SOAPEnvelope deferredMessageBuilder() throws Exception {
+        MessageContext messageContext = createMessageContext();
+        messageContext.setEnvelope(TransportUtils.createSOAPEnvelope(
+                messageBuilder.getDocument(messageContext, new ByteArrayInputStream(payload))));
+        SOAPEnvelope envelope = messageContext.getEnvelope();
+        envelope.buildWithAttachments();
+        return envelope;
+    }
+
+    private MessageContext createMessageContext() throws Exception {
+        MessageContext messageContext = configurationContext.createMessageContext();
+        messageContext.setProperty(Constants.Configuration.CONTENT_TYPE, contentType);
+        messageContext.setDoingREST(true);
+        return messageContext;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.synapse.transport.passthru.Pipe;
+import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays a payload through a {@link Pipe}, producing from a decoder and consuming into an encoder in chunks the
+ * way the IO reactor does when a message is passed through without being built. Run with {@code -t} to relay on
+ * several threads at once, each with its own pipe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PipeBenchmark {
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    private int payloadSize;
+
+    private TargetConfiguration configuration;
+
+    private FakeClientConnection ioControl;
+
+    private FakeContentDecoder decoder;
+
+    @Setup
+    public void setUp() throws Exception {
+        configuration = BenchmarkSupport.createTargetConfiguration();
+        ioControl = new FakeClientConnection();
+        decoder = new FakeContentDecoder(BenchmarkSupport.createPayload(payloadSize), BenchmarkSupport.CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public long relay(Blackhole blackhole) throws IOException {
+        decoder.reset();
+        FakeContentEncoder encoder = new FakeContentEncoder(payloadSize, BenchmarkSupport.CHUNK_SIZE, blackhole);
+        Pipe pipe = new Pipe(ioControl, configuration.getBufferFactory().getBuffer(), "benchmark", configuration);
+        pipe.attachConsumer(ioControl);
+        try {
+            while (!encoder.isCompleted()) {
+                if (!decoder.isCompleted()) {
+                    pipe.produce(decoder);
+                }
+                pipe.consume(encoder);
+            }
+        } finally {
+            configuration.getBufferFactory().release(pipe.getBuffer());
+            pipe.releaseRingBuffers();
+            pipe.releaseSpool();
+        }
+        return encoder.getWritten();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.synapse.transport.passthru.Pipe;
+import org.apache.synapse.transport.passthru.ProtocolState;
+import org.apache.synapse.transport.passthru.SourceContext;
+import org.apache.synapse.transport.passthru.SourceHandler;
+import org.apache.synapse.transport.passthru.SourceRequest;
+import org.apache.synapse.transport.passthru.config.SourceConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a request body through {@link SourceHandler#inputReady}, draining the source pipe as the worker serializing
+ * the message to the backend would. Each invocation also sets up the source context and request of the connection,
+ * as done when the request head arrives. Run with {@code -t} to read on several connections at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SourceHandlerBenchmark {
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    private int payloadSize;
+
+    private FakeContentDecoder decoder;
+
+    @State(Scope.Benchmark)
+    public static class Handler {
+
+        private SourceConfiguration configuration;
+
+        private SourceHandler handler;
+
+        @Setup
+        public void setUp() throws Exception {
+            configuration = BenchmarkSupport.createSourceConfiguration();
+            handler = new SourceHandler(configuration);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        decoder = new FakeContentDecoder(BenchmarkSupport.createPayload(payloadSize), BenchmarkSupport.CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public long inputReady(Handler handler, Blackhole blackhole) throws Exception {
+        SourceConfiguration configuration = handler.configuration;
+        FakeServerConnection conn = new FakeServerConnection();
+        BasicHttpEntityEnclosingRequest request =
+                new BasicHttpEntityEnclosingRequest("POST", "/services/echo", HttpVersion.HTTP_1_1);
+        request.setHeader(HttpHeaders.CONTENT_TYPE, "application/octet-stream");
+        request.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(payloadSize));
+        conn.setHttpRequest(request);
+
+        SourceContext.create(conn, ProtocolState.REQUEST_HEAD, configuration);
+        SourceRequest sourceRequest = new SourceRequest(configuration, request, conn);
+        SourceContext.setRequest(conn, sourceRequest);
+        sourceRequest.start(conn);
+        Pipe pipe = sourceRequest.getPipe();
+        pipe.attachConsumer(conn);
+
+        decoder.reset();
+        FakeContentEncoder encoder = new FakeContentEncoder(payloadSize, BenchmarkSupport.CHUNK_SIZE, blackhole);
+        try {
+            while (!encoder.isCompleted()) {
+                if (!decoder.isCompleted()) {
+                    handler.handler.inputReady(conn, decoder);
+                }
+                pipe.consume(encoder);
+            }
+        } finally {
+            configuration.getBufferFactory().release(pipe.getBuffer());
+            pipe.releaseRingBuffers();
+            pipe.releaseSpool();
+            SourceContext.get(conn).reset();
+        }
+        return encoder.getWritten();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.benchmarks.passthru;
+
+import org.apache.axis2.context.MessageContext;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.synapse.transport.passthru.Pipe;
+import org.apache.synapse.transport.passthru.ProtocolState;
+import org.apache.synapse.transport.passthru.TargetContext;
+import org.apache.synapse.transport.passthru.TargetHandler;
+import org.apache.synapse.transport.passthru.TargetRequest;
+import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a request body to the backend through {@link TargetHandler#outputReady}, with the target pipe fed from a
+ * decoder as it is by the source connection when a message is passed through. Run with {@code -t} to write on
+ * several connections at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TargetHandlerBenchmark {
+
+    private static final String BACKEND_URL = "http://localhost:9000/services/echo";
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    private int payloadSize;
+
+    private FakeContentDecoder decoder;
+
+    private URL url;
+
+    private HttpRoute route;
+
+    @State(Scope.Benchmark)
+    public static class Handler {
+
+        private TargetConfiguration configuration;
+
+        private TargetHandler handler;
+
+        @Setup
+        public void setUp() throws Exception {
+            configuration = BenchmarkSupport.createTargetConfiguration();
+            handler = new TargetHandler(null, null, configuration);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        decoder = new FakeContentDecoder(BenchmarkSupport.createPayload(payloadSize), BenchmarkSupport.CHUNK_SIZE);
+        url = new URL(BACKEND_URL);
+        route = new HttpRoute(new HttpHost(url.getHost(), url.getPort(), url.getProtocol()));
+    }
+
+    @Benchmark
+    public long outputReady(Handler handler, Blackhole blackhole) throws Exception {
+        TargetConfiguration configuration = handler.configuration;
+        FakeClientConnection conn = new FakeClientConnection();
+        TargetContext.create(conn, ProtocolState.REQUEST_HEAD, configuration);
+        TargetContext targetContext = TargetContext.get(conn);
+        targetContext.setRequestMsgCtx(new MessageContext());
+
+        Pipe pipe = new Pipe(conn, configuration.getBufferFactory().getBuffer(), "benchmark", configuration);
+        pipe.attachConsumer(conn);
+        TargetRequest request = new TargetRequest(configuration, route, url, "POST", true);
+        request.connect(pipe);
+        TargetContext.setRequest(conn, request);
+        targetContext.setWriter(pipe);
+
+        decoder.reset();
+        FakeContentEncoder encoder = new FakeContentEncoder(payloadSize, BenchmarkSupport.CHUNK_SIZE, blackhole);
+        try {
+            while (!encoder.isCompleted()) {
+                if (!decoder.isCompleted()) {
+                    pipe.produce(decoder);
+                }
+                handler.handler.outputReady(conn, encoder);
+            }
+        } finally {
+            // releases the pipe buffer to the factory
+            targetContext.reset();
+        }
+        return encoder.getWritten();
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.executors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor which runs each task on its own virtual thread, with at most a configured number of tasks running at
+ * the same time. Tasks submitted while the limit is reached wait in a queue and are picked up by the virtual
+ * threads as the running tasks complete, so {@link #execute(Runnable)} never blocks the caller. This makes it safe
+ * to use from the IO reactor threads.
+ * <p>
+ * Virtual threads are only available from Java 21. The runtime support is looked up reflectively so that this
+ * class can be compiled for older releases; check {@link #isSupported()} before creating an instance.
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private static final Log log = LogFactory.getLog(VirtualThreadExecutor.class);
+
+    private static final ThreadFactoryProvider THREAD_FACTORY_PROVIDER = lookupThreadFactoryProvider();
+
+    private final ThreadFactory threadFactory;
+
+    private final int maxConcurrency;
+
+    private final int maxQueueLength;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+
+    private final AtomicInteger queueSize = new AtomicInteger(0);
+
+    private final AtomicInteger running = new AtomicInteger(0);
+
+    private volatile boolean shutdown = false;
+
+    private final ReentrantLock terminationLock = new ReentrantLock();
+
+    private final Condition terminated = terminationLock.newCondition();
+
+    /**
+     * Create an executor.
+     *
+     * @param threadNamePrefix prefix of the names of the virtual threads
+     * @param maxConcurrency   maximum number of tasks running at the same time
+     * @param maxQueueLength   maximum number of tasks waiting to run, -1 for no limit
+     */
+    public VirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, int maxQueueLength) {
+        this(createVirtualThreadFactory(threadNamePrefix), maxConcurrency, maxQueueLength);
+    }
+
+    /**
+     * Create an executor on top of the given thread factory, used by the tests to run on platform threads.
+     */
+    VirtualThreadExecutor(ThreadFactory threadFactory, int maxConcurrency, int maxQueueLength) {
+        this.threadFactory = threadFactory;
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        this.maxQueueLength = maxQueueLength;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+        if (THREAD_FACTORY_PROVIDER == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this Java runtime");
+        }
+        return THREAD_FACTORY_PROVIDER.create(threadNamePrefix);
+    }
+
+    /**
+     * @return whether the Java runtime supports virtual threads
+     */
+    public static boolean isSupported() {
+        return THREAD_FACTORY_PROVIDER != null;
+    }
+
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        if (tryReserve()) {
+            start(task);
+            return;
+        }
+        if (queueSize.incrementAndGet() > maxQueueLength && maxQueueLength >= 0) {
+            queueSize.decrementAndGet();
+            throw new RejectedExecutionException("Task queue is full");
+        }
+        queue.offer(task);
+        // a running task may have completed between the failed reservation and the offer
+        drainIfIdle();
+    }
+
+    private boolean tryReserve() {
+        int current = running.get();
+        while (current < maxConcurrency) {
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = running.get();
+        }
+        return false;
+    }
+
+    private void drainIfIdle() {
+        while (!queue.isEmpty() && tryReserve()) {
+            Runnable next = poll();
+            if (next == null) {
+                completed();
+                continue;
+            }
+            start(next);
+        }
+    }
+
+    private Runnable poll() {
+        Runnable task = queue.poll();
+        if (task != null) {
+            queueSize.decrementAndGet();
+        }
+        return task;
+    }
+
+    private void start(final Runnable first) {
+        try {
+            threadFactory.newThread(new Runnable() {
+                public void run() {
+                    runTasks(first);
+                }
+            }).start();
+        } catch (RuntimeException e) {
+            completed();
+            throw e;
+        } catch (Error e) {
+            completed();
+            throw e;
+        }
+    }
+
+    private void runTasks(Runnable task) {
+        while (task != null) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Uncaught exception in a virtual thread task", t);
+            }
+            task = poll();
+        }
+        completed();
+        drainIfIdle();
+    }
+
+    private void completed() {
+        running.decrementAndGet();
+        if (shutdown) {
+            signalIfTerminated();
+        }
+    }
+
+    private void signalIfTerminated() {
+        if (isTerminated()) {
+            terminationLock.lock();
+            try {
+                terminated.signalAll();
+            } finally {
+                terminationLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return number of tasks currently running
+     */
+    public int getActiveCount() {
+        return running.get();
+    }
+
+    /**
+     * @return number of tasks waiting to run
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        signalIfTerminated();
+    }
+
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> pending = new ArrayList<Runnable>();
+        Runnable task;
+        while ((task = poll()) != null) {
+            pending.add(task);
+        }
+        signalIfTerminated();
+        return pending;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public boolean isTerminated() {
+        return shutdown && running.get() == 0 && queue.isEmpty();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        terminationLock.lock();
+        try {
+            while (!isTerminated()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = terminated.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            terminationLock.unlock();
+        }
+    }
+
+    private static ThreadFactoryProvider lookupThreadFactoryProvider() {
+        try {
+            final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Method name = builderClass.getMethod("name", String.class, long.class);
+            final Method factory = builderClass.getMethod("factory");
+            ThreadFactoryProvider provider = new ThreadFactoryProvider() {
+                public ThreadFactory create(String threadNamePrefix) {
+                    try {
+                        Object builder = name.invoke(ofVirtual.invoke(null), threadNamePrefix + "-", 0L);
+                        return (ThreadFactory) factory.invoke(builder);
+                    } catch (Exception e) {
+                        throw new UnsupportedOperationException("Unable to create a virtual thread factory", e);
+                    }
+                }
+            };
+            // preview releases expose the API but throw when it is used without --enable-preview
+            provider.create("probe").newThread(new Runnable() {
+                public void run() {
+                }
+            });
+            return provider;
+        } catch (Throwable t) {
+            if (log.isDebugEnabled()) {
+                log.debug("Virtual threads are not available: " + t);
+            }
+            return null;
+        }
+    }
+
+    private interface ThreadFactoryProvider {
+        ThreadFactory create(String threadNamePrefix);
+    }
+}
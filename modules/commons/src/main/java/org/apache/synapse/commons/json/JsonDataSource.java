@@ -37,7 +37,7 @@ final class JsonDataSource implements OMDataSource {
     private final InputStream inputStream;
 
     public JsonDataSource(InputStream inputStream) {
-        if (inputStream instanceof BufferedInputStream) {
+        if (inputStream instanceof BufferedInputStream || inputStream instanceof ByteArrayInputStream) {
             this.inputStream = inputStream;
             // and we assume that this passed in input stream is fresh and it has been marked first.
         } else if (inputStream != null) {
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.json;
+
+import org.apache.axis2.context.MessageContext;
+import org.apache.synapse.commons.jmx.MBeanRegistrar;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Keeps the parsed document of the JSON payload of a message context, so that the JSON paths, Synapse expressions
+ * and mediators evaluated against the same payload parse it only once.
+ * <p>
+ * The document is kept as a property of the message context, together with the JSON stream it was parsed from. Any
+ * change to the payload sets a new JSON stream on the message context, which makes the cached document stale; it is
+ * also dropped when the payload is removed. Callers must not modify the document or the values read from it, as it
+ * is shared by every evaluation on the message and on the clones of the message.
+ */
+public final class JsonDocumentCache {
+
+    /** Axis2 message context property holding the cached document */
+    public static final String PARSED_JSON_DOCUMENT = "org.apache.synapse.commons.json.ParsedJsonDocument";
+
+    private static final String JSON_DOCUMENT_CACHE_VIEW = "JsonDocumentCache";
+
+    private static volatile JsonDocumentCacheView view;
+
+    private JsonDocumentCache() {
+    }
+
+    /**
+     * Parses a JSON stream into the document model of the caller.
+     */
+    public interface DocumentParser {
+
+        Object parse(InputStream json) throws IOException;
+    }
+
+    /**
+     * Returns the parsed document of the JSON payload of the message context, parsing the payload with the given
+     * parser if it has not been parsed since it was last set.
+     *
+     * @param messageContext Axis2 message context
+     * @param parser         parser used when there is no document for the current payload
+     * @return parsed document, or null if the message context does not have a JSON payload
+     * @throws IOException if the payload could not be parsed
+     */
+    public static Object getDocument(MessageContext messageContext, DocumentParser parser) throws IOException {
+        if (!JsonUtil.hasAJsonPayload(messageContext)) {
+            return null;
+        }
+        Object source = messageContext.getProperty(Constants.ORG_APACHE_SYNAPSE_COMMONS_JSON_JSON_INPUT_STREAM);
+        Object cached = messageContext.getProperty(PARSED_JSON_DOCUMENT);
+        if (cached instanceof CachedDocument && ((CachedDocument) cached).source == source) {
+            CachedDocument document = (CachedDocument) cached;
+            getView().notifyHit(document.parseTime);
+            return document.document;
+        }
+        long start = System.nanoTime();
+        Object document = parser.parse(JsonUtil.getJsonPayload(messageContext));
+        long parseTime = System.nanoTime() - start;
+        messageContext.setProperty(PARSED_JSON_DOCUMENT, new CachedDocument(source, document, parseTime));
+        getView().notifyParse(parseTime);
+        return document;
+    }
+
+    /**
+     * Drops the cached document of the message context.
+     *
+     * @param messageContext Axis2 message context
+     */
+    public static void invalidate(MessageContext messageContext) {
+        if (messageContext != null) {
+            messageContext.removeProperty(PARSED_JSON_DOCUMENT);
+        }
+    }
+
+    /**
+     * Keeps the document parsed from a JSON stream of a message context for another stream with the same content,
+     * which may be set on another message context.
+     *
+     * @param source       message context the document was parsed for
+     * @param sourceStream JSON stream the document was parsed from
+     * @param target       message context to keep the document for
+     * @param targetStream JSON stream of the target with the same content as the source stream
+     */
+    static void share(MessageContext source, Object sourceStream, MessageContext target, Object targetStream) {
+        Object cached = source.getProperty(PARSED_JSON_DOCUMENT);
+        if (targetStream != null && cached instanceof CachedDocument
+                && ((CachedDocument) cached).source == sourceStream) {
+            CachedDocument document = (CachedDocument) cached;
+            target.setProperty(PARSED_JSON_DOCUMENT,
+                    new CachedDocument(targetStream, document.document, document.parseTime));
+        }
+    }
+
+    /**
+     * @return metrics of the cache, shared by all message contexts
+     */
+    public static JsonDocumentCacheView getView() {
+        JsonDocumentCacheView current = view;
+        if (current == null) {
+            synchronized (JsonDocumentCache.class) {
+                current = view;
+                if (current == null) {
+                    current = new JsonDocumentCacheView();
+                    MBeanRegistrar.getInstance().registerMBean(current, JSON_DOCUMENT_CACHE_VIEW,
+                            JSON_DOCUMENT_CACHE_VIEW);
+                    view = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A parsed document and the JSON stream it was parsed from.
+     */
+    private static class CachedDocument {
+
+        private final Object source;
+
+        private final Object document;
+
+        private final long parseTime;
+
+        CachedDocument(Object source, Object document, long parseTime) {
+            this.source = source;
+            this.document = document;
+            this.parseTime = parseTime;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.json;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the payloads parsed by the {@link JsonDocumentCache} and the evaluations which reused a parsed payload. The
+ * parse time saved by a reuse is taken as the time it took to parse the payload the first time.
+ */
+public class JsonDocumentCacheView implements JsonDocumentCacheViewMBean {
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong parses = new AtomicLong();
+
+    private final AtomicLong parseTime = new AtomicLong();
+
+    private final AtomicLong parseTimeSaved = new AtomicLong();
+
+    private volatile Date lastResetTime = new Date();
+
+    void notifyHit(long savedNanos) {
+        hits.incrementAndGet();
+        parseTimeSaved.addAndGet(savedNanos);
+    }
+
+    void notifyParse(long parseNanos) {
+        parses.incrementAndGet();
+        parseTime.addAndGet(parseNanos);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getParseCount() {
+        return parses.get();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + parses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long getTotalParseTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parseTime.get());
+    }
+
+    public long getParseTimeSavedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parseTimeSaved.get());
+    }
+
+    public void reset() {
+        hits.set(0);
+        parses.set(0);
+        parseTime.set(0);
+        parseTimeSaved.set(0);
+        lastResetTime = new Date();
+    }
+
+    public Date getLastResetTime() {
+        return lastResetTime;
+    }
+}
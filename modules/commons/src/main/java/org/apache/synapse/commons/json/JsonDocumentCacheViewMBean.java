@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.json;
+
+import java.util.Date;
+
+/**
+ * Provides metrics of the per message cache of parsed JSON payloads.
+ */
+public interface JsonDocumentCacheViewMBean {
+
+    public long getHitCount();
+    public long getParseCount();
+    public double getHitRatio();
+    public long getTotalParseTimeMillis();
+    public long getParseTimeSavedMillis();
+    public void reset();
+    public Date getLastResetTime();
+
+}
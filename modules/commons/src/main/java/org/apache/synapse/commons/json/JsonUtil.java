@@ -988,6 +988,8 @@ public final class JsonUtil {
     public static InputStream setJsonStream(MessageContext messageContext, InputStream inputStream) {
         InputStream json = toReadOnlyStream(inputStream);
         messageContext.setProperty(Constants.ORG_APACHE_SYNAPSE_COMMONS_JSON_JSON_INPUT_STREAM, json);
+        // a document parsed from the previous stream is stale now
+        JsonDocumentCache.invalidate(messageContext);
         return json;
     }
 
@@ -998,6 +1000,7 @@ public final class JsonUtil {
      */
     public static void removeJsonStream(MessageContext messageContext) {
         messageContext.removeProperty(Constants.ORG_APACHE_SYNAPSE_COMMONS_JSON_JSON_INPUT_STREAM);
+        JsonDocumentCache.invalidate(messageContext);
     }
 
     /**
@@ -1105,6 +1108,7 @@ public final class JsonUtil {
     public static boolean removeJsonPayload(MessageContext messageContext) {
         messageContext.removeProperty(Constants.ORG_APACHE_SYNAPSE_COMMONS_JSON_JSON_INPUT_STREAM);
         messageContext.removeProperty(ORG_APACHE_SYNAPSE_COMMONS_JSON_IS_JSON_OBJECT);
+        JsonDocumentCache.invalidate(messageContext);
         boolean removeChildren = true;
         if (!removeChildren) { // don't change this.
             if (logger.isTraceEnabled()) {
@@ -1389,6 +1393,10 @@ public final class JsonUtil {
 
     /**
      * Clones the JSON stream payload contained in the source message context, if any, to the target message context.
+     * <br/>
+     * The payload is read into memory once, and the source and all of its clones share the same bytes through
+     * their own read only streams. A message context that changes its payload sets a new stream, so the shared
+     * bytes are never written to. The parsed document of the payload, if any, is shared as well.
      *
      * @param sourceMc Where to get the payload
      * @param targetMc Where to clone and copy the payload
@@ -1400,8 +1408,15 @@ public final class JsonUtil {
         }
         InputStream json = jsonStream(sourceMc, true);
         try {
-            byte[] stream = IOUtils.toByteArray(json);
-            getNewJsonPayload(targetMc, new ByteArrayInputStream(stream), true, true);
+            if (!(json instanceof ReadOnlyBAIS)) {
+                InputStream shared = new ReadOnlyBAIS(IOUtils.toByteArray(json));
+                sourceMc.setProperty(Constants.ORG_APACHE_SYNAPSE_COMMONS_JSON_JSON_INPUT_STREAM, shared);
+                JsonDocumentCache.share(sourceMc, json, sourceMc, shared);
+                json = shared;
+            }
+            getNewJsonPayload(targetMc, json, true, true);
+            JsonDocumentCache.share(sourceMc, json, targetMc,
+                    targetMc.getProperty(Constants.ORG_APACHE_SYNAPSE_COMMONS_JSON_JSON_INPUT_STREAM));
         } catch (IOException e) {
             logger.error("#cloneJsonPayload. Could not clone JSON stream. Error>>> " + e.getLocalizedMessage());
             return false;
@@ -1432,6 +1447,10 @@ public final class JsonUtil {
         if (inputStream == null) {
             return null;
         }
+        if (inputStream instanceof ReadOnlyBAIS) {
+            // the bytes are never written to, so a new stream can share them instead of buffering a copy
+            return ((ReadOnlyBAIS) inputStream).newStream();
+        }
         return new ReadOnlyBIS(inputStream);
     }
 
@@ -1556,6 +1575,41 @@ public final class JsonUtil {
         }
     }
 
+    /**
+     * An Un-closable, Read-Only, Reusable, ByteArrayInputStream over bytes shared with the streams created from it
+     */
+    private static class ReadOnlyBAIS extends ByteArrayInputStream {
+
+        public ReadOnlyBAIS(byte[] bytes) {
+            super(bytes);
+        }
+
+        private ReadOnlyBAIS(byte[] bytes, int offset, int length) {
+            super(bytes, offset, length);
+        }
+
+        /**
+         * @return a new stream over the remaining bytes of this stream, which shares the bytes with this stream
+         */
+        synchronized ReadOnlyBAIS newStream() {
+            return new ReadOnlyBAIS(buf, pos, count - pos);
+        }
+
+        @Override
+        public void close() {
+            reset();
+        }
+
+        @Override
+        public void mark(int readlimit) {
+        }
+
+        @Override
+        public long skip(long n) {
+            return 0;
+        }
+    }
+
     /**
      * Check whether the request HTTP method is required valid payload
      *
@@ -32,7 +32,7 @@ public class AccessRateController {
 
     private static Log log = LogFactory.getLog(AccessRateController.class.getName());
 
-    private static final String ACCESS_DENIED_TEMPORALLY =
+    static final String ACCESS_DENIED_TEMPORALLY =
             "You cannot access this service since you have exceeded the allocated quota.";
 
     private static final String ACCESS_DENIED =
@@ -103,40 +103,68 @@ public class AccessRateController {
             accessInformation.setAccessAllowed(true);
             return accessInformation;
         } else if (configuration.getAccessState() == ThrottleConstants.ACCESS_CONTROLLED) {
-            synchronized (lock) {
-                CallerContext caller = throttleContext.getCallerContext(callerID);
-                if (caller == null) {
-                    //if caller has not already registered ,then create new caller description and
-                    //set it in throttle
-                    caller = CallerContextFactory.createCaller(callerType, callerID);
-                }
-                if (caller != null) {
-                    long currentTime = System.currentTimeMillis();
-
-                    if (!caller.canAccess(throttleContext, configuration, currentTime)) {
-                        //if current caller cannot access , then perform cleaning
-                        log.info(ACCESS_DENIED_TEMPORALLY);
-                        throttleContext.processCleanList(currentTime);
-                        accessInformation.setAccessAllowed(false);
-                        accessInformation.setFaultReason(ACCESS_DENIED_TEMPORALLY);
-                        return accessInformation;
-                    } else {
-                        if (debugOn) {
-                            log.debug("Access  from " + type + " " + callerID + " is successful.");
-                        }
-                        accessInformation.setAccessAllowed(true);
-                        return accessInformation;
-                    }
+            return controlAccess(throttleContext, callerID, callerType, configuration, accessInformation);
+        }
+        accessInformation.setAccessAllowed(true);
+        return accessInformation;
+    }
+
+    /**
+     * Decides the access of a caller whose access is controlled by the policy, ie: limited to a number of requests
+     * in a unit of time
+     *
+     * @param throttleContext   - current states of throttle - RunTime Data
+     * @param callerID          - Identifier for remote caller - ex: ip or domainname
+     * @param callerType        - the type of the caller
+     * @param configuration     - the policy of the caller
+     * @param accessInformation - the access information to fill in
+     * @return access information
+     * @throws ThrottleException if the policy of the caller is invalid
+     */
+    protected AccessInformation controlAccess(ThrottleContext throttleContext, String callerID, int callerType,
+                                              CallerConfiguration configuration,
+                                              AccessInformation accessInformation) throws ThrottleException {
+        String type = ThrottleConstants.IP_BASE == callerType ? "IP address" : "domain";
+        synchronized (lock) {
+            CallerContext caller = throttleContext.getCallerContext(callerID);
+            if (caller == null) {
+                //if caller has not already registered ,then create new caller description and
+                //set it in throttle
+                caller = CallerContextFactory.createCaller(callerType, callerID);
+            }
+            if (caller != null) {
+                long currentTime = System.currentTimeMillis();
+
+                if (!caller.canAccess(throttleContext, configuration, currentTime)) {
+                    //if current caller cannot access , then perform cleaning
+                    log.info(ACCESS_DENIED_TEMPORALLY);
+                    throttleContext.processCleanList(currentTime);
+                    accessInformation.setAccessAllowed(false);
+                    accessInformation.setFaultReason(ACCESS_DENIED_TEMPORALLY);
+                    return accessInformation;
                 } else {
                     if (debugOn) {
-                        log.debug("Caller " + type + " not found! " + callerID);
+                        log.debug("Access  from " + type + " " + callerID + " is successful.");
                     }
                     accessInformation.setAccessAllowed(true);
                     return accessInformation;
                 }
+            } else {
+                if (debugOn) {
+                    log.debug("Caller " + type + " not found! " + callerID);
+                }
+                accessInformation.setAccessAllowed(true);
+                return accessInformation;
             }
         }
-        accessInformation.setAccessAllowed(true);
-        return accessInformation;
+    }
+
+    /**
+     * Drops the state this controller keeps for a throttle context which is no longer used. The callers of this
+     * controller are kept in the throttle context itself, so there is nothing to drop.
+     *
+     * @param throttleContext the removed throttle context
+     */
+    public void removeThrottleContext(ThrottleContext throttleContext) {
     }
 }
\ No newline at end of file
@@ -490,6 +490,25 @@ public abstract class CallerContext implements Serializable, Cloneable {
         localCount.set(0);
     }
 
+    /**
+     * Resets the local counter and returns the requests counted since the last reset, without losing the requests
+     * counted concurrently
+     *
+     * @return value of the local counter before the reset
+     */
+    public long drainLocalCounter() {
+        return localCount.getAndSet(0);
+    }
+
+    /**
+     * Adds requests back to the local counter, e.g. when they could not be replicated
+     *
+     * @param count number of requests to add
+     */
+    public void addLocalCounter(long count) {
+        localCount.addAndGet(count);
+    }
+
     public void resetGlobalCounter() {
         globalCount.set(0);
     }
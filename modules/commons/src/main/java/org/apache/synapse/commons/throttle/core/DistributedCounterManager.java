@@ -17,6 +17,9 @@
  */
 package org.apache.synapse.commons.throttle.core;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This interface used to replicate throttling counters and windows in distributed manner.
  */
@@ -80,6 +83,23 @@ public interface DistributedCounterManager {
      */
     public long asyncAddCounter(String key, long value);
 
+    /**
+     * This method is used to get and then increment a set of distributed counters in one operation. Implementations
+     * backed by a remote store should override this to send all the increments in a single round-trip, e.g. as a
+     * pipeline or a script, instead of calling {@link #asyncGetAndAddCounter(String, long)} for each key.
+     *
+     * @param values values to add to the distributed counters, by key.
+     * @return the original distributed counter values, by key. A key whose counter could not be updated is not
+     * included in the result.
+     */
+    default Map<String, Long> asyncGetAndAddCounters(Map<String, Long> values) {
+        Map<String, Long> originalValues = new HashMap<String, Long>(values.size());
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            originalValues.put(entry.getKey(), asyncGetAndAddCounter(entry.getKey(), entry.getValue()));
+        }
+        return originalValues;
+    }
+
     /**
      * This method used to alter the DistributedCounter.
      *
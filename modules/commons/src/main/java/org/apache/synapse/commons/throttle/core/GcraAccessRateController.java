@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.commons.throttle.core.internal.DistributedThrottleProcessor;
+import org.apache.synapse.commons.throttle.core.internal.ThrottleServiceDataHolder;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controls the access rate of callers with the generic cell rate algorithm (GCRA), a token bucket which keeps the
+ * state of a caller in a single {@link AtomicLong}: the theoretical arrival time of its next request. A caller may
+ * send the maximum number of requests of its policy in a burst, after which its requests are spaced by the unit time
+ * divided by the maximum number of requests. If a prohibit time period is configured, a caller exceeding its rate
+ * is denied for that period. Access checks are lock free and do not allocate once the caller is known.
+ * <p>
+ * Callers are evicted by a hierarchical timing wheel once they have been idle for a unit time, when their state is
+ * the same as that of a new caller. The number of callers tracked for a throttle is bounded; once the bound is
+ * reached a new caller takes the place of an idle caller found among a sample of the tracked callers, and is denied
+ * if there is none, so that a flood of callers cannot bypass the throttle.
+ * <p>
+ * The state of the callers is local to this node. When a distributed counter or throttle processor is enabled,
+ * access is controlled by the window based {@link AccessRateController}, whose state is shared by the cluster.
+ */
+public class GcraAccessRateController extends AccessRateController {
+
+    private static final Log log = LogFactory.getLog(GcraAccessRateController.class.getName());
+
+    /** State of a caller which has been evicted, which has to be looked up again */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private static final long PROHIBITED = 1L;
+
+    private static final long TICK_MILLIS = 100;
+
+    /** Number of tracked callers looked at for an idle one when the bound is reached */
+    private static final int EVICTION_SAMPLE = 16;
+
+    /** Caller tables of all the controllers, advanced by the expiry thread */
+    private static final CopyOnWriteArrayList<WeakReference<CallerTable>> callerTables =
+            new CopyOnWriteArrayList<WeakReference<CallerTable>>();
+
+    private static ScheduledExecutorService expiryExecutor;
+
+    private final Map<ThrottleContext, CallerTable> tables = new ConcurrentHashMap<ThrottleContext, CallerTable>();
+
+    private final int maxCallers;
+
+    private final boolean debugOn;
+
+    public GcraAccessRateController(int maxCallers) {
+        this.maxCallers = maxCallers;
+        this.debugOn = log.isDebugEnabled();
+    }
+
+    @Override
+    protected AccessInformation controlAccess(ThrottleContext throttleContext, String callerID, int callerType,
+                                              CallerConfiguration configuration,
+                                              AccessInformation accessInformation) throws ThrottleException {
+        if (isDistributed()) {
+            return super.controlAccess(throttleContext, callerID, callerType, configuration, accessInformation);
+        }
+        if (configuration.getMaximumRequestPerUnitTime() < 0
+                || configuration.getUnitTime() <= 0
+                || configuration.getProhibitTimePeriod() < 0) {
+            throw new ThrottleException("Invalid Throttle Configuration");
+        }
+        if (canAccess(throttleContext, callerID, configuration, System.currentTimeMillis())) {
+            if (debugOn) {
+                log.debug("Access from " + callerID + " is successful.");
+            }
+            accessInformation.setAccessAllowed(true);
+        } else {
+            log.info(ACCESS_DENIED_TEMPORALLY);
+            accessInformation.setAccessAllowed(false);
+            accessInformation.setFaultReason(ACCESS_DENIED_TEMPORALLY);
+        }
+        return accessInformation;
+    }
+
+    /**
+     * Checks and records an access of a caller at the given time.
+     *
+     * @param throttleContext the throttle of the caller
+     * @param callerID        the caller
+     * @param configuration   the policy of the caller
+     * @param now             current time in milliseconds
+     * @return whether the access is allowed
+     */
+    boolean canAccess(ThrottleContext throttleContext, String callerID, CallerConfiguration configuration,
+                      long now) {
+        int maximumRequests = configuration.getMaximumRequestPerUnitTime();
+        if (maximumRequests == 0) {
+            return false;
+        }
+        long unitTime = TimeUnit.MILLISECONDS.toMicros(configuration.getUnitTime());
+        // the interval between requests at the allowed rate, and how far ahead of it a burst may go
+        long emissionInterval = Math.max(1, unitTime / maximumRequests);
+        long tolerance = unitTime - emissionInterval;
+        long prohibitTime = TimeUnit.MILLISECONDS.toMicros(configuration.getProhibitTimePeriod());
+        long nowMicros = TimeUnit.MILLISECONDS.toMicros(now);
+
+        CallerTable table = getCallerTable(throttleContext);
+        while (true) {
+            Caller caller = table.callers.get(callerID);
+            if (caller == null) {
+                if (table.callers.size() >= maxCallers && !table.evictIdleCaller(nowMicros)) {
+                    table.notifyOverflow();
+                    return false;
+                }
+                Caller created = new Caller(callerID, configuration.getUnitTime());
+                caller = table.callers.putIfAbsent(callerID, created);
+                if (caller == null) {
+                    caller = created;
+                    table.wheel.schedule(caller, now + configuration.getUnitTime());
+                }
+            }
+            while (true) {
+                long state = caller.get();
+                if (state == EVICTED) {
+                    // evicted while being looked up, the caller starts afresh
+                    table.callers.remove(callerID, caller);
+                    break;
+                }
+                long arrival = Math.max(state >>> 1, nowMicros);
+                if (arrival - nowMicros <= tolerance) {
+                    if (caller.compareAndSet(state, (arrival + emissionInterval) << 1)) {
+                        return true;
+                    }
+                    continue;
+                }
+                if ((state & PROHIBITED) != 0 || prohibitTime == 0) {
+                    return false;
+                }
+                // the caller just exceeded its rate, deny it for the prohibit time period
+                long prohibited = ((nowMicros + prohibitTime + tolerance) << 1) | PROHIBITED;
+                if (prohibited <= state || caller.compareAndSet(state, prohibited)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param throttleContext a throttle
+     * @return number of callers currently tracked for the throttle
+     */
+    int getCallerCount(ThrottleContext throttleContext) {
+        CallerTable table = tables.get(throttleContext);
+        return table == null ? 0 : table.callers.size();
+    }
+
+    /**
+     * Drops the callers of a throttle context which is no longer used.
+     *
+     * @param throttleContext the removed throttle context
+     */
+    @Override
+    public void removeThrottleContext(ThrottleContext throttleContext) {
+        if (throttleContext == null) {
+            return;
+        }
+        CallerTable table = tables.remove(throttleContext);
+        if (table != null) {
+            synchronized (table) {
+                table.callers.clear();
+            }
+        }
+    }
+
+    /**
+     * Stops the thread evicting idle callers, called when Synapse shuts down. The thread is started again when a
+     * controller starts tracking the callers of another throttle.
+     */
+    public static synchronized void shutdown() {
+        if (expiryExecutor != null) {
+            expiryExecutor.shutdownNow();
+            expiryExecutor = null;
+        }
+    }
+
+    /**
+     * Evicts the callers of all throttles which have been idle for their unit time.
+     *
+     * @param now current time in milliseconds
+     */
+    void expireCallers(long now) {
+        for (CallerTable table : tables.values()) {
+            synchronized (table) {
+                table.wheel.advance(now, table);
+            }
+        }
+    }
+
+    private CallerTable getCallerTable(ThrottleContext throttleContext) {
+        CallerTable table = tables.get(throttleContext);
+        if (table == null) {
+            synchronized (tables) {
+                table = tables.get(throttleContext);
+                if (table == null) {
+                    table = new CallerTable(throttleContext.getThrottleId());
+                    tables.put(throttleContext, table);
+                    register(table);
+                }
+            }
+        }
+        return table;
+    }
+
+    private static boolean isDistributed() {
+        ThrottleServiceDataHolder dataHolder = ThrottleServiceDataHolder.getInstance();
+        DistributedCounterManager counterManager = dataHolder.getDistributedCounterManager();
+        if (counterManager != null && counterManager.isEnable()) {
+            return true;
+        }
+        DistributedThrottleProcessor throttleProcessor = dataHolder.getDistributedThrottleProcessor();
+        return throttleProcessor != null && throttleProcessor.isEnable();
+    }
+
+    private static synchronized void register(CallerTable table) {
+        callerTables.add(new WeakReference<CallerTable>(table));
+        if (expiryExecutor == null) {
+            expiryExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r);
+                    t.setName("Throttle Caller Expiry");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            expiryExecutor.scheduleWithFixedDelay(new ExpiryTask(), TICK_MILLIS, TICK_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static class ExpiryTask implements Runnable {
+
+        public void run() {
+            long now = System.currentTimeMillis();
+            Iterator<WeakReference<CallerTable>> iterator = callerTables.iterator();
+            while (iterator.hasNext()) {
+                WeakReference<CallerTable> reference = iterator.next();
+                CallerTable table = reference.get();
+                if (table == null) {
+                    // the controller of the table is gone
+                    callerTables.remove(reference);
+                    continue;
+                }
+                try {
+                    synchronized (table) {
+                        table.wheel.advance(now, table);
+                    }
+                } catch (Throwable e) {
+                    log.error("Error while evicting the expired callers of throttle " + table.throttleId, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The state of a caller: the theoretical arrival time of its next request in microseconds, shifted left by one
+     * bit, with the lowest bit set while the caller is prohibited.
+     */
+    private static final class Caller extends AtomicLong {
+
+        private final String id;
+
+        /** How long the caller is kept after the arrival time of its next request */
+        private final long retentionMillis;
+
+        Caller(String id, long retentionMillis) {
+            this.id = id;
+            this.retentionMillis = retentionMillis;
+        }
+    }
+
+    /**
+     * The callers of a throttle.
+     */
+    private static final class CallerTable implements TimingWheel.Expiry<Caller> {
+
+        private final String throttleId;
+
+        private final ConcurrentHashMap<String, Caller> callers = new ConcurrentHashMap<String, Caller>();
+
+        private final TimingWheel<Caller> wheel = new TimingWheel<Caller>(TICK_MILLIS, System.currentTimeMillis());
+
+        private volatile boolean overflowLogged;
+
+        CallerTable(String throttleId) {
+            this.throttleId = throttleId;
+        }
+
+        public long expire(Caller caller, long now) {
+            while (true) {
+                long state = caller.get();
+                if (state == EVICTED) {
+                    return 0;
+                }
+                long deadline = TimeUnit.MICROSECONDS.toMillis(state >>> 1) + caller.retentionMillis;
+                if (deadline > now) {
+                    return deadline;
+                }
+                if (caller.compareAndSet(state, EVICTED)) {
+                    callers.remove(caller.id, caller);
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Evicts a caller whose next request is already due, so that its state is the same as that of a new caller,
+         * from a sample of the tracked callers.
+         *
+         * @param nowMicros current time in microseconds
+         * @return whether a caller was evicted
+         */
+        boolean evictIdleCaller(long nowMicros) {
+            int sampled = 0;
+            for (Caller caller : callers.values()) {
+                if (++sampled > EVICTION_SAMPLE) {
+                    break;
+                }
+                long state = caller.get();
+                if (state != EVICTED && (state & PROHIBITED) == 0 && (state >>> 1) <= nowMicros
+                        && caller.compareAndSet(state, EVICTED)) {
+                    callers.remove(caller.id, caller);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void notifyOverflow() {
+            if (!overflowLogged) {
+                overflowLogged = true;
+                log.warn("Maximum number of callers tracked for throttle " + throttleId + " reached, further "
+                        + "callers are denied until idle callers are evicted");
+            }
+        }
+    }
+}
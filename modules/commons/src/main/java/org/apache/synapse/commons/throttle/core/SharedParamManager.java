@@ -4,6 +4,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.commons.throttle.core.internal.ThrottleServiceDataHolder;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -157,6 +158,42 @@ public class SharedParamManager {
 		}
 	}
 
+	/**
+	 * Asynchronously add the given values to the distributed counters of the caller contexts with the given ids, in
+	 * a single operation on the distributed counter store. If it's not distributed the local counters are updated.
+	 * This will return the global values before adding the provided values
+	 *
+	 * @param values to add to the global counters, by caller context id
+	 * @return global values before adding, by caller context id. Ids whose counters could not be updated are not
+	 * included
+	 */
+	public static Map<String, Long> asyncGetAndAddDistributedCounters(Map<String, Long> values) {
+		if (log.isDebugEnabled()) {
+			log.debug("ASYNC ADDING TO " + values.size() + " COUNTERS");
+		}
+		DistributedCounterManager distributedCounterManager =
+				ThrottleServiceDataHolder.getInstance().getDistributedCounterManager();
+		Map<String, Long> originalValues = new HashMap<String, Long>(values.size());
+		if (distributedCounterManager != null && distributedCounterManager.isEnable()) {
+			Map<String, Long> sharedValues = new HashMap<String, Long>(values.size());
+			for (Map.Entry<String, Long> entry : values.entrySet()) {
+				sharedValues.put(ThrottleConstants.THROTTLE_SHARED_COUNTER_KEY + entry.getKey(), entry.getValue());
+			}
+			Map<String, Long> sharedOriginalValues = distributedCounterManager.asyncGetAndAddCounters(sharedValues);
+			for (String id : values.keySet()) {
+				Long originalValue = sharedOriginalValues.get(ThrottleConstants.THROTTLE_SHARED_COUNTER_KEY + id);
+				if (originalValue != null) {
+					originalValues.put(id, originalValue);
+				}
+			}
+		} else {
+			for (Map.Entry<String, Long> entry : values.entrySet()) {
+				originalValues.put(entry.getKey(), asyncGetAndAddDistributedCounter(entry.getKey(), entry.getValue()));
+			}
+		}
+		return originalValues;
+	}
+
 	/**
 	 * Asynchronously add given value to the distribute counter of caller context of given id. If it's not
 	 * distributed return local counter. This will return global value before add the provided counter
@@ -183,6 +183,7 @@ public final class ThrottleConstants {
     public static final String THROTTLING_POOL_SIZE = "throttling.pool.size";
     public static final String THROTTLING_REPLICATION_FREQUENCY = "throttling.replication.frequency";
     public static final String THROTTLING_KEYS_TO_REPLICATE = "throttling.keys.to.replicate";
+    public static final String THROTTLING_REPLICATION_BATCH_ENABLED = "throttling.replication.batch.enable";
     public static final String WINDOW_REPLICATOR_POOL_SIZE = "throttlingWindowReplicator.pool.size";
     public static final String WINDOW_REPLICATOR_FREQUENCY = "throttlingWindowReplicator.replication.frequency";
     public static final String DISTRIBUTED_COUNTER_TYPE = "throttling.distributed.counter.type";
@@ -190,4 +191,8 @@ public final class ThrottleConstants {
     public static final String THROTTLE_SYNC_ASYNC_HYBRID_MODE_ENABLED = "throttling.sync-async_hybrid_mode.enable";
     public static final String HYBRID_THROTTLE_PROCESSOR_WINDOW_TYPE = "throttling.hybrid_throttle_processor_window.type";
     public static final String LOCAL_QUOTA_BUFFER_PERCENTAGE = "throttling.local_quota_buffer_percentage";
+    public static final String ACCESS_RATE_CONTROLLER_TYPE = "throttling.access_rate_controller.type";
+    public static final String WINDOW_ACCESS_RATE_CONTROLLER = "window";
+    public static final String GCRA_ACCESS_RATE_CONTROLLER = "gcra";
+    public static final String GCRA_MAX_CALLERS = "throttling.gcra.max_callers";
 }
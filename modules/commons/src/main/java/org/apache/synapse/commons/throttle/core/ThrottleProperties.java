@@ -33,12 +33,15 @@ public class ThrottleProperties implements Serializable {
 	private String throttlingPoolSize = "1";
 	private String throttlingReplicationFrequency = "50";
 	private String throttlingKeysToReplicates = "25000";
+	private boolean throttlingReplicationBatchEnabled = false;
 	private Map<String, String> distributedCounterConfigurations = new HashMap<>();
 	private String distributedCounterType = ThrottleConstants.HAZELCAST;
 	private boolean throttleSyncAsyncHybridModeEnabled = false;
 	private String distributedThrottleProcessorType = "hybrid";
 	private String hybridThrottleProcessorWindowType = "start_time_based";
 	private String localQuotaBufferPercentage = "20";
+	private String accessRateControllerType = ThrottleConstants.WINDOW_ACCESS_RATE_CONTROLLER;
+	private String gcraMaxCallers = "1000000";
 
 	public String getWindowReplicatorPoolSize() {
 		return windowReplicatorPoolSize;
@@ -141,6 +144,14 @@ public class ThrottleProperties implements Serializable {
 		this.throttlingKeysToReplicates = throttlingKeysToReplicates;
 	}
 
+	public boolean isThrottlingReplicationBatchEnabled() {
+		return throttlingReplicationBatchEnabled;
+	}
+
+	public void setThrottlingReplicationBatchEnabled(boolean throttlingReplicationBatchEnabled) {
+		this.throttlingReplicationBatchEnabled = throttlingReplicationBatchEnabled;
+	}
+
 	public Map<String, String> getDistributedCounterConfigurations() {
 
 		return distributedCounterConfigurations;
@@ -193,4 +204,20 @@ public class ThrottleProperties implements Serializable {
 	public String getLocalQuotaBufferPercentage() {
 		return localQuotaBufferPercentage;
 	}
+
+	public String getAccessRateControllerType() {
+		return accessRateControllerType;
+	}
+
+	public void setAccessRateControllerType(String accessRateControllerType) {
+		this.accessRateControllerType = accessRateControllerType;
+	}
+
+	public String getGcraMaxCallers() {
+		return gcraMaxCallers;
+	}
+
+	public void setGcraMaxCallers(String gcraMaxCallers) {
+		this.gcraMaxCallers = gcraMaxCallers;
+	}
 }
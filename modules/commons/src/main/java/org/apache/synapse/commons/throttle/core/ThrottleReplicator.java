@@ -23,11 +23,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.commons.throttle.core.internal.ThrottleServiceDataHolder;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
 
 /* Runs a scheduled task, which replicates CallerContexts through the cluster.
- * Frequency of the job can be controlled
+ * Frequency of the job can be controlled. In batch mode the counters of up to
+ * throttling.keys.to.replicate callers are replicated with a single call to the distributed counter store
  */
 
 public class ThrottleReplicator {
@@ -40,23 +44,42 @@ public class ThrottleReplicator {
     private ConfigurationContext configContext;
     private ThrottleProperties throttleProperties;
     private int replicatorCount;
+    private boolean batchEnabled;
 
     private Set<String> set = new ConcurrentSkipListSet<String>();
 
     public ThrottleReplicator() {
-        throttleProperties = ThrottleServiceDataHolder.getInstance().getThrottleProperties();
+        this(ThrottleServiceDataHolder.getInstance().getThrottleProperties(), true);
+    }
+
+    /**
+     * @param throttleProperties throttle properties of the replicator
+     * @param scheduled          whether to schedule the replicator tasks, or leave them to {@link #replicate()}
+     */
+    ThrottleReplicator(ThrottleProperties throttleProperties, boolean scheduled) {
+        this.throttleProperties = throttleProperties;
         replicatorPoolSize = Integer.parseInt(throttleProperties.getThrottlingPoolSize());
 
         if (log.isDebugEnabled()) {
             log.debug("Replicator pool size set to " + replicatorPoolSize);
         }
-        if (ThrottleServiceDataHolder.getInstance().getThrottleProperties().isThrottleSyncAsyncHybridModeEnabled()) {
+        if (throttleProperties.isThrottleSyncAsyncHybridModeEnabled()) {
             if (log.isDebugEnabled()) {
                 log.debug(
                         "Throttle Sync Async Hybrid Mode is enabled. So throttle replicator task will not be scheduled.");
             }
             return;
         }
+        String throttleFrequency = throttleProperties.getThrottlingReplicationFrequency();
+
+        log.debug("Throttling Frequency set to " + throttleFrequency);
+        keysToReplicate = Integer.parseInt(throttleProperties.getThrottlingKeysToReplicates());
+        log.debug("Max keys to Replicate " + keysToReplicate);
+        batchEnabled = throttleProperties.isThrottlingReplicationBatchEnabled();
+        log.debug("Batched replication enabled " + batchEnabled);
+        if (!scheduled) {
+            return;
+        }
         ScheduledExecutorService executor = Executors.newScheduledThreadPool(replicatorPoolSize,
                 new ThreadFactory() {
                     @Override
@@ -67,14 +90,9 @@ public class ThrottleReplicator {
                         return t;
                     }
                 });
-        String throttleFrequency =throttleProperties.getThrottlingReplicationFrequency();
-
-        log.debug("Throttling Frequency set to " + throttleFrequency);
-            keysToReplicate = Integer.parseInt(throttleProperties.getThrottlingKeysToReplicates());
-        log.debug("Max keys to Replicate " + keysToReplicate);
         for (int i = 0; i < replicatorPoolSize; i++) {
-            executor.scheduleAtFixedRate(new ReplicatorTask(), Integer.parseInt(throttleFrequency),
-                    Integer.parseInt(throttleFrequency), TimeUnit.MILLISECONDS);
+            executor.scheduleAtFixedRate(batchEnabled ? new BatchReplicatorTask() : new ReplicatorTask(),
+                    Integer.parseInt(throttleFrequency), Integer.parseInt(throttleFrequency), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -96,6 +114,13 @@ public class ThrottleReplicator {
         }
     }
 
+    /**
+     * Replicates the counters of the pending callers once, on the calling thread.
+     */
+    void replicate() {
+        (batchEnabled ? new BatchReplicatorTask() : new ReplicatorTask()).run();
+    }
+
     private class ReplicatorTask implements Runnable {
         public void run() {
             log.debug("Start running ThrottleReplicatorTask.");
@@ -141,4 +166,82 @@ public class ThrottleReplicator {
         }
     }
 
+    /**
+     * Replicates the local counters of the callers in batches. The local counter of each caller is drained under the
+     * caller lock, the counters of the batch are added to the distributed counters in one call, and the global counter
+     * of each caller is then reconciled with the distributed value. Counters which could not be replicated are added
+     * back to the local counters to be replicated in the next run.
+     */
+    private class BatchReplicatorTask implements Runnable {
+        public void run() {
+            log.debug("Start running batched ThrottleReplicatorTask.");
+            try {
+                if (set.isEmpty()) {
+                    return;
+                }
+                ThrottleDataHolder dataHolder = (ThrottleDataHolder)
+                        configContext.getProperty(ThrottleConstants.THROTTLE_INFO_KEY);
+                Map<String, CallerContext> callerContexts = new HashMap<String, CallerContext>();
+                Map<String, Long> localCounters = new HashMap<String, Long>();
+                for (String key : set) {
+                    synchronized (key.intern()) {
+                        //The key may have been taken by another replicator thread
+                        if (!set.remove(key)) {
+                            continue;
+                        }
+                        CallerContext callerContext = dataHolder.getCallerContext(key);
+                        if (callerContext != null &&
+                                callerContext.getNextTimeWindow() > System.currentTimeMillis()) {
+                            long localCounter = callerContext.drainLocalCounter();
+                            if (localCounter > 0) {
+                                callerContexts.put(callerContext.getId(), callerContext);
+                                localCounters.put(callerContext.getId(), localCounter);
+                            }
+                        }
+                    }
+                    if (localCounters.size() >= keysToReplicate) {
+                        replicate(callerContexts, localCounters);
+                        callerContexts.clear();
+                        localCounters.clear();
+                    }
+                }
+                if (!localCounters.isEmpty()) {
+                    replicate(callerContexts, localCounters);
+                }
+            } catch (Throwable t) {
+                log.error("Could not replicate throttle data", t);
+            }
+        }
+
+        private void replicate(Map<String, CallerContext> callerContexts, Map<String, Long> localCounters) {
+            Map<String, Long> distributedCounters;
+            try {
+                distributedCounters = SharedParamManager.asyncGetAndAddDistributedCounters(localCounters);
+            } catch (Throwable t) {
+                log.error("Could not replicate the counters of " + localCounters.size() + " callers", t);
+                distributedCounters = Collections.emptyMap();
+            }
+            for (Map.Entry<String, Long> entry : localCounters.entrySet()) {
+                String id = entry.getKey();
+                long localCounter = entry.getValue();
+                CallerContext callerContext = callerContexts.get(id);
+                Long distributedCounter = distributedCounters.get(id);
+                synchronized (id.intern()) {
+                    if (distributedCounter != null) {
+                        //Update instance global counter with distributed counter
+                        callerContext.setGlobalCounter(distributedCounter + localCounter);
+                    } else {
+                        callerContext.addLocalCounter(localCounter);
+                        set.add(id);
+                    }
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Increasing counters of context :" + id + " "
+                              + "Replicated Count After  Update : distributedCounter =" + distributedCounter
+                              + " localCounter=" + localCounter);
+                }
+            }
+        }
+    }
+
 }
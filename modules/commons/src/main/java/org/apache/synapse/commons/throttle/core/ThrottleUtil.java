@@ -131,6 +131,13 @@ public class ThrottleUtil {
 							throttleProperties.setThrottlingKeysToReplicates(throttlingKeysToReplicate);
 						}
 					}
+					if (ThrottleConstants.THROTTLING_REPLICATION_BATCH_ENABLED.equals(key)) {
+						String throttlingReplicationBatchEnabled = properties.getProperty(key);
+						if (StringUtils.isNotEmpty(throttlingReplicationBatchEnabled)) {
+							throttleProperties.setThrottlingReplicationBatchEnabled(
+									Boolean.parseBoolean(throttlingReplicationBatchEnabled.trim()));
+						}
+					}
 					if (ThrottleConstants.WINDOW_REPLICATOR_POOL_SIZE.equals(key)) {
 						String windowReplicatorPoolSize = properties.getProperty(key);
 						if (windowReplicatorPoolSize != null && windowReplicatorPoolSize != "") {
@@ -178,6 +185,18 @@ public class ThrottleUtil {
 							throttleProperties.setLocalQuotaBufferPercentage(localQuotaBufferPercentage);
 						}
 					}
+					if (ThrottleConstants.ACCESS_RATE_CONTROLLER_TYPE.equals(key)) {
+						String accessRateControllerType = properties.getProperty(key);
+						if (StringUtils.isNotEmpty(accessRateControllerType)) {
+							throttleProperties.setAccessRateControllerType(accessRateControllerType.trim());
+						}
+					}
+					if (ThrottleConstants.GCRA_MAX_CALLERS.equals(key)) {
+						String gcraMaxCallers = properties.getProperty(key);
+						if (StringUtils.isNotEmpty(gcraMaxCallers)) {
+							throttleProperties.setGcraMaxCallers(gcraMaxCallers.trim());
+						}
+					}
 				}
 			} catch (IOException e) {
 				log.debug("Setting the Default Throttle Properties");
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A hierarchical timing wheel of deadlines. Scheduling is O(1) and lock free, so that it can be done from the
+ * request threads, while the wheel is advanced by a single thread. The first level has a slot for each tick, and
+ * each further level covers {@value #SLOTS} slots of the level below it; the entries of a slot of a higher level are
+ * moved to the lower levels when the wheel reaches the slot. Deadlines beyond the last level are kept in its
+ * furthest slot and rescheduled when it is reached.
+ * <p>
+ * The wheel is approximate: an entry expires within a tick after its deadline, or a rotation of its level later if
+ * it was scheduled concurrently with the advance over its slot. Owners must check that an expired entry is really
+ * due before acting on it.
+ *
+ * @param <E> type of the scheduled entries
+ */
+class TimingWheel<E> {
+
+    static final int SLOTS = 64;
+
+    private static final int SLOT_BITS = 6;
+
+    private static final int LEVELS = 4;
+
+    /**
+     * Decides what to do with an entry whose deadline has been reached.
+     *
+     * @param <E> type of the scheduled entries
+     */
+    interface Expiry<E> {
+
+        /**
+         * @param element the expired entry
+         * @param now     current time in milliseconds
+         * @return a new deadline to reschedule the entry at, or a value not after now to drop it
+         */
+        long expire(E element, long now);
+    }
+
+    private final long tickMillis;
+
+    private final long startMillis;
+
+    private final Queue<Node<E>>[][] slots;
+
+    /** Number of ticks the wheel has been advanced over, only written by the advancing thread */
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new Queue[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new ConcurrentLinkedQueue<Node<E>>();
+            }
+        }
+    }
+
+    /**
+     * Schedules an entry to expire at a deadline.
+     *
+     * @param element  the entry
+     * @param deadline time in milliseconds
+     */
+    void schedule(E element, long deadline) {
+        add(new Node<E>(element, Math.max(toTick(deadline), currentTick + 1)));
+    }
+
+    /**
+     * Advances the wheel to the given time, passing the entries whose deadline has been reached to the expiry.
+     * Must only be called by one thread at a time.
+     *
+     * @param now    current time in milliseconds
+     * @param expiry decides whether the expired entries are dropped or rescheduled
+     */
+    void advance(long now, Expiry<E> expiry) {
+        long targetTick = toTick(now);
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            currentTick = tick;
+            // move the entries of the higher level slots reached at this tick down the wheel
+            for (int level = 1; level < LEVELS; level++) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                Queue<Node<E>> slot = slots[level][slotIndex(tick, level)];
+                Node<E> node;
+                while ((node = slot.poll()) != null) {
+                    add(node);
+                }
+            }
+            Queue<Node<E>> slot = slots[0][slotIndex(tick, 0)];
+            Node<E> node;
+            while ((node = slot.poll()) != null) {
+                if (node.deadlineTick > tick) {
+                    add(node);
+                    continue;
+                }
+                long deadline = expiry.expire(node.element, now);
+                if (deadline > now) {
+                    node.deadlineTick = Math.max(toTick(deadline), tick + 1);
+                    add(node);
+                }
+            }
+        }
+    }
+
+    private void add(Node<E> node) {
+        long delta = node.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        long tick = node.deadlineTick;
+        long levelSpan = 1L << (SLOT_BITS * (level + 1));
+        if (delta >= levelSpan) {
+            // beyond the last level, park in its furthest slot
+            tick = currentTick + levelSpan - 1;
+        }
+        slots[level][slotIndex(tick, level)].add(node);
+    }
+
+    private long toTick(long millis) {
+        return Math.max(0, (millis - startMillis) / tickMillis);
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    private static final class Node<E> {
+
+        private final E element;
+
+        private long deadlineTick;
+
+        Node(E element, long deadlineTick) {
+            this.element = element;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
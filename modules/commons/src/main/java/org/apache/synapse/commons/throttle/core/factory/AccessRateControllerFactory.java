@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core.factory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.commons.throttle.core.AccessRateController;
+import org.apache.synapse.commons.throttle.core.GcraAccessRateController;
+import org.apache.synapse.commons.throttle.core.ThrottleConstants;
+import org.apache.synapse.commons.throttle.core.ThrottleProperties;
+import org.apache.synapse.commons.throttle.core.internal.ThrottleServiceDataHolder;
+
+/**
+ * Factory for creating the AccessRateController configured with the
+ * {@value ThrottleConstants#ACCESS_RATE_CONTROLLER_TYPE} throttle property
+ */
+public class AccessRateControllerFactory {
+
+    private static final Log log = LogFactory.getLog(AccessRateControllerFactory.class);
+
+    /**
+     * To create the configured AccessRateController
+     *
+     * @return the window based controller, or the GCRA controller if configured
+     */
+    public static AccessRateController createAccessRateController() {
+        ThrottleProperties throttleProperties = ThrottleServiceDataHolder.getInstance().getThrottleProperties();
+        if (ThrottleConstants.GCRA_ACCESS_RATE_CONTROLLER.equalsIgnoreCase(
+                throttleProperties.getAccessRateControllerType())) {
+            int maxCallers;
+            try {
+                maxCallers = Integer.parseInt(throttleProperties.getGcraMaxCallers());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value " + throttleProperties.getGcraMaxCallers() + " for "
+                        + ThrottleConstants.GCRA_MAX_CALLERS + ", using 1000000");
+                maxCallers = 1000000;
+            }
+            return new GcraAccessRateController(maxCallers);
+        }
+        return new AccessRateController();
+    }
+}
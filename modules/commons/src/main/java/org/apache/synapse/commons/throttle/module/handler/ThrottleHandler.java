@@ -37,6 +37,7 @@ import org.apache.synapse.commons.throttle.core.ThrottleConfiguration;
 import org.apache.synapse.commons.throttle.core.ThrottleException;
 import org.apache.synapse.commons.throttle.core.ThrottleContext;
 import org.apache.synapse.commons.throttle.core.AccessInformation;
+import org.apache.synapse.commons.throttle.core.factory.AccessRateControllerFactory;
 import org.apache.synapse.commons.throttle.module.utils.impl.DummyHandler;
 import org.apache.synapse.commons.throttle.module.utils.impl.DummyAuthenticator;
 import org.apache.synapse.commons.throttle.module.utils.StatCollector;
@@ -64,7 +65,7 @@ public abstract class ThrottleHandler extends AbstractHandler {
 
     public ThrottleHandler() {
         this.debugOn = log.isDebugEnabled();
-        this.accessRateController = new AccessRateController();
+        this.accessRateController = AccessRateControllerFactory.createAccessRateController();
         this.roleBasedAccessController = new RoleBasedAccessRateController();
     }
 
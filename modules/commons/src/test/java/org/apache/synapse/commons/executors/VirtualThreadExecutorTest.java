@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the concurrency bound and queueing of {@link VirtualThreadExecutor}. Platform threads are used so that the
+ * test runs on any Java runtime.
+ */
+public class VirtualThreadExecutorTest {
+
+    @Test
+    public void testConcurrencyBound() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor(Executors.defaultThreadFactory(), 4, -1);
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        final int tasks = 200;
+        final CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    int current = running.incrementAndGet();
+                    int max = maxRunning.get();
+                    while (current > max && !maxRunning.compareAndSet(max, current)) {
+                        max = maxRunning.get();
+                    }
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException ignored) {
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        Assert.assertTrue("All tasks should complete", done.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue("At most 4 tasks should run at the same time", maxRunning.get() <= 4);
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void testQueueLimit() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor(Executors.defaultThreadFactory(), 1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        executor.execute(blocked);
+        executor.execute(blocked);
+        Assert.assertEquals(1, executor.getQueueSize());
+        try {
+            executor.execute(blocked);
+            Assert.fail("Task over the queue limit should be rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        try {
+            executor.execute(blocked);
+            Assert.fail("Task submitted after shutdown should be rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+    }
+}
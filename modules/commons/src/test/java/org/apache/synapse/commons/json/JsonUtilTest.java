@@ -22,6 +22,7 @@ import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.util.AXIOMUtil;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.context.MessageContext;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 
 import javax.xml.stream.XMLStreamException;
@@ -157,4 +158,59 @@ public class JsonUtilTest extends TestCase {
         assertEquals("Empty array expected", 0, bytes.length);
     }
 
+    public void testParsedDocumentReusedUntilPayloadChanges() throws IOException {
+        MessageContext messageContext = Util.newMessageContext();
+        JsonUtil.getNewJsonPayload(messageContext, "{\"id\":1}", true, true);
+        final int[] parses = new int[1];
+        JsonDocumentCache.DocumentParser parser = new JsonDocumentCache.DocumentParser() {
+            public Object parse(InputStream json) throws IOException {
+                parses[0]++;
+                return IOUtils.toString(json, "UTF-8");
+            }
+        };
+
+        Object document = JsonDocumentCache.getDocument(messageContext, parser);
+        assertEquals("Invalid document received", "{\"id\":1}", document);
+        assertSame("Cached document expected", document, JsonDocumentCache.getDocument(messageContext, parser));
+        assertEquals("Payload should be parsed once", 1, parses[0]);
+
+        JsonUtil.getNewJsonPayload(messageContext, "{\"id\":2}", true, true);
+        assertEquals("Document of the new payload expected", "{\"id\":2}",
+                JsonDocumentCache.getDocument(messageContext, parser));
+        assertEquals("New payload should be parsed", 2, parses[0]);
+
+        JsonUtil.removeJsonPayload(messageContext);
+        assertNull("Cached document should be removed with the payload",
+                messageContext.getProperty(JsonDocumentCache.PARSED_JSON_DOCUMENT));
+        assertNull("No document expected without a payload", JsonDocumentCache.getDocument(messageContext, parser));
+    }
+
+    public void testClonedJsonPayloadSharesParsedDocument() throws IOException {
+        MessageContext sourceContext = Util.newMessageContext();
+        JsonUtil.getNewJsonPayload(sourceContext, "{\"id\":1}", true, true);
+        final int[] parses = new int[1];
+        JsonDocumentCache.DocumentParser parser = new JsonDocumentCache.DocumentParser() {
+            public Object parse(InputStream json) throws IOException {
+                parses[0]++;
+                return IOUtils.toString(json, "UTF-8");
+            }
+        };
+        Object document = JsonDocumentCache.getDocument(sourceContext, parser);
+
+        MessageContext firstClone = Util.newMessageContext();
+        MessageContext secondClone = Util.newMessageContext();
+        assertTrue("Json payload should be cloned", JsonUtil.cloneJsonPayload(sourceContext, firstClone));
+        assertTrue("Json payload should be cloned", JsonUtil.cloneJsonPayload(sourceContext, secondClone));
+        assertEquals("Invalid payload received", "{\"id\":1}", JsonUtil.jsonPayloadToString(firstClone));
+        assertSame("Document of the source expected", document, JsonDocumentCache.getDocument(firstClone, parser));
+        assertSame("Document of the source expected", document, JsonDocumentCache.getDocument(sourceContext, parser));
+        assertEquals("Payload should be parsed once", 1, parses[0]);
+
+        JsonUtil.getNewJsonPayload(firstClone, "{\"id\":2}", true, true);
+        assertEquals("Invalid payload received", "{\"id\":2}", JsonUtil.jsonPayloadToString(firstClone));
+        assertEquals("Payload of the source should not change", "{\"id\":1}",
+                JsonUtil.jsonPayloadToString(sourceContext));
+        assertEquals("Payload of a clone should not change", "{\"id\":1}",
+                JsonUtil.jsonPayloadToString(secondClone));
+    }
 }
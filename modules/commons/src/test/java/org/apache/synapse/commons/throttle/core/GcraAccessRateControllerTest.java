@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core;
+
+import junit.framework.TestCase;
+import org.apache.synapse.commons.throttle.core.impl.ipbase.IPBaseCallerConfiguration;
+import org.apache.synapse.commons.throttle.core.impl.ipbase.IPBaseThrottleConfiguration;
+import org.apache.synapse.commons.throttle.core.impl.ipbase.IPBaseThrottleContext;
+
+public class GcraAccessRateControllerTest extends TestCase {
+
+    private static final String CALLER = "127.0.0.1";
+
+    private ThrottleContext throttleContext;
+
+    private long now;
+
+    @Override
+    protected void setUp() throws Exception {
+        throttleContext = new IPBaseThrottleContext(new IPBaseThrottleConfiguration(), null);
+        now = System.currentTimeMillis();
+    }
+
+    public void testBurstThenSpacedRequests() {
+        GcraAccessRateController controller = new GcraAccessRateController(100);
+        // 10 requests in 1 second, a request every 100 ms once the burst is used
+        CallerConfiguration configuration = new IPBaseCallerConfiguration(1000, 10, 0, CALLER);
+        for (int i = 0; i < 10; i++) {
+            assertTrue("Request " + i + " of the burst should be allowed",
+                    controller.canAccess(throttleContext, CALLER, configuration, now));
+        }
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now));
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now + 50));
+        assertTrue(controller.canAccess(throttleContext, CALLER, configuration, now + 100));
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now + 150));
+        assertTrue("Other callers should not be limited",
+                controller.canAccess(throttleContext, "127.0.0.2", configuration, now + 150));
+    }
+
+    public void testProhibitTimePeriod() {
+        GcraAccessRateController controller = new GcraAccessRateController(100);
+        CallerConfiguration configuration = new IPBaseCallerConfiguration(1000, 2, 5000, CALLER);
+        assertTrue(controller.canAccess(throttleContext, CALLER, configuration, now));
+        assertTrue(controller.canAccess(throttleContext, CALLER, configuration, now));
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now));
+        // denied requests while prohibited do not extend the period
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now + 4000));
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now + 4900));
+        assertTrue(controller.canAccess(throttleContext, CALLER, configuration, now + 5000));
+    }
+
+    public void testNoRequestsAllowed() {
+        GcraAccessRateController controller = new GcraAccessRateController(100);
+        CallerConfiguration configuration = new IPBaseCallerConfiguration(1000, 0, 0, CALLER);
+        assertFalse(controller.canAccess(throttleContext, CALLER, configuration, now));
+    }
+
+    public void testIdleCallersEvicted() {
+        GcraAccessRateController controller = new GcraAccessRateController(100);
+        CallerConfiguration configuration = new IPBaseCallerConfiguration(1000, 10, 0, CALLER);
+        controller.canAccess(throttleContext, CALLER, configuration, now);
+        controller.canAccess(throttleContext, "127.0.0.2", configuration, now + 3000);
+        assertEquals(2, controller.getCallerCount(throttleContext));
+
+        controller.expireCallers(now + 2500);
+        assertEquals("Idle caller should be evicted", 1, controller.getCallerCount(throttleContext));
+        controller.expireCallers(now + 6000);
+        assertEquals(0, controller.getCallerCount(throttleContext));
+    }
+
+    public void testCallersBounded() {
+        GcraAccessRateController controller = new GcraAccessRateController(2);
+        CallerConfiguration configuration = new IPBaseCallerConfiguration(1000, 1, 0, CALLER);
+        assertTrue(controller.canAccess(throttleContext, "127.0.0.1", configuration, now));
+        assertTrue(controller.canAccess(throttleContext, "127.0.0.2", configuration, now));
+        assertFalse("Callers over the bound should be denied while no caller is idle",
+                controller.canAccess(throttleContext, "127.0.0.3", configuration, now));
+        assertEquals(2, controller.getCallerCount(throttleContext));
+        assertFalse(controller.canAccess(throttleContext, "127.0.0.1", configuration, now));
+
+        assertTrue("A caller over the bound should take the place of an idle caller",
+                controller.canAccess(throttleContext, "127.0.0.3", configuration, now + 1000));
+        assertEquals(2, controller.getCallerCount(throttleContext));
+        assertFalse(controller.canAccess(throttleContext, "127.0.0.3", configuration, now + 1000));
+    }
+
+    public void testRemoveThrottleContext() {
+        GcraAccessRateController controller = new GcraAccessRateController(100);
+        CallerConfiguration configuration = new IPBaseCallerConfiguration(1000, 1, 0, CALLER);
+        assertTrue(controller.canAccess(throttleContext, CALLER, configuration, now));
+        assertEquals(1, controller.getCallerCount(throttleContext));
+
+        controller.removeThrottleContext(throttleContext);
+        assertEquals(0, controller.getCallerCount(throttleContext));
+        controller.removeThrottleContext(null);
+    }
+}
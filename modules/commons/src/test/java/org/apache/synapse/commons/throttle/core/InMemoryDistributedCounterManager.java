@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reference DistributedCounterManager keeping the counters in memory, which counts the calls made to it the way a
+ * remote counter store would see round-trips.
+ */
+public class InMemoryDistributedCounterManager implements DistributedCounterManager {
+
+    private final String type;
+
+    private final Map<String, Long> counters = new ConcurrentHashMap<String, Long>();
+
+    private final Map<String, Long> timestamps = new ConcurrentHashMap<String, Long>();
+
+    private final Map<String, Long> expiryTimes = new ConcurrentHashMap<String, Long>();
+
+    private final Map<String, String> locks = new ConcurrentHashMap<String, String>();
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+
+    private volatile boolean failing;
+
+    public InMemoryDistributedCounterManager(String type) {
+        this.type = type;
+    }
+
+    /**
+     * @return number of calls made to this counter manager
+     */
+    public int getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * Makes the calls adding to many counters fail, the way they would if the counter store could not be reached.
+     *
+     * @param failing whether the calls should fail
+     */
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public long getCounter(String key) {
+        roundTrips.incrementAndGet();
+        Long counter = counters.get(key);
+        return counter != null ? counter : 0;
+    }
+
+    public void setCounter(String key, long value) {
+        roundTrips.incrementAndGet();
+        counters.put(key, value);
+    }
+
+    public void setCounterWithExpiry(String key, long value, long expiryTime) {
+        setCounter(key, value);
+        expiryTimes.put(key, expiryTime);
+    }
+
+    public synchronized long addAndGetCounter(String key, long value) {
+        return asyncGetAndAddCounter(key, value) + value;
+    }
+
+    public void removeCounter(String key) {
+        roundTrips.incrementAndGet();
+        counters.remove(key);
+    }
+
+    public synchronized long asyncGetAndAddCounter(String key, long value) {
+        roundTrips.incrementAndGet();
+        return getAndAdd(key, value);
+    }
+
+    public long asyncAddCounter(String key, long value) {
+        return asyncGetAndAddCounter(key, value) + value;
+    }
+
+    @Override
+    public synchronized Map<String, Long> asyncGetAndAddCounters(Map<String, Long> values) {
+        roundTrips.incrementAndGet();
+        if (failing) {
+            throw new IllegalStateException("Counter store is not reachable");
+        }
+        Map<String, Long> originalValues = new HashMap<String, Long>(values.size());
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            originalValues.put(entry.getKey(), getAndAdd(entry.getKey(), entry.getValue()));
+        }
+        return originalValues;
+    }
+
+    private long getAndAdd(String key, long value) {
+        Long counter = counters.get(key);
+        long original = counter != null ? counter : 0;
+        counters.put(key, original + value);
+        return original;
+    }
+
+    public synchronized long asyncGetAndAlterCounter(String key, long value) {
+        roundTrips.incrementAndGet();
+        Long counter = counters.put(key, value);
+        return counter != null ? counter : 0;
+    }
+
+    public long asyncGetAlterAndSetExpiryOfCounter(String key, long value, long expiryTimeStamp) {
+        long original = asyncGetAndAlterCounter(key, value);
+        expiryTimes.put(key, expiryTimeStamp);
+        return original;
+    }
+
+    public long getTimestamp(String key) {
+        roundTrips.incrementAndGet();
+        Long timestamp = timestamps.get(key);
+        return timestamp != null ? timestamp : 0;
+    }
+
+    public void setTimestamp(String key, long timeStamp) {
+        roundTrips.incrementAndGet();
+        timestamps.put(key, timeStamp);
+    }
+
+    public void setTimestampWithExpiry(String key, long timeStamp, long expiryTimeStamp) {
+        setTimestamp(key, timeStamp);
+        expiryTimes.put(key, expiryTimeStamp);
+    }
+
+    public void removeTimestamp(String key) {
+        roundTrips.incrementAndGet();
+        timestamps.remove(key);
+    }
+
+    public boolean isEnable() {
+        return true;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setExpiry(String key, long expiryTimeStamp) {
+        roundTrips.incrementAndGet();
+        expiryTimes.put(key, expiryTimeStamp);
+    }
+
+    public long getTtl(String key) {
+        roundTrips.incrementAndGet();
+        Long expiryTime = expiryTimes.get(key);
+        return expiryTime != null ? expiryTime - System.currentTimeMillis() : -1;
+    }
+
+    public long setLock(String key, String value) {
+        roundTrips.incrementAndGet();
+        return locks.putIfAbsent(key, value) == null ? 1 : 0;
+    }
+
+    public boolean setLockWithExpiry(String key, String value, long expiryTimeStamp) {
+        return setLock(key, value) == 1;
+    }
+
+    public long getKeyLockRetrievalTimeout() {
+        return 0;
+    }
+
+    public void removeLock(String key) {
+        roundTrips.incrementAndGet();
+        locks.remove(key);
+    }
+}
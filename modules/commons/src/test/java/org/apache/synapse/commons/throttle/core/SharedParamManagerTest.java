@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core;
+
+import junit.framework.TestCase;
+import org.apache.synapse.commons.throttle.core.internal.ThrottleServiceDataHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class SharedParamManagerTest extends TestCase {
+
+    private InMemoryDistributedCounterManager counterManager;
+
+    @Override
+    protected void setUp() throws Exception {
+        ThrottleServiceDataHolder dataHolder = ThrottleServiceDataHolder.getInstance();
+        counterManager = new InMemoryDistributedCounterManager(
+                dataHolder.getThrottleProperties().getDistributedCounterType());
+        dataHolder.addDistributedCounterManager(counterManager);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ThrottleServiceDataHolder.getInstance().removeDistributedCounterManager(counterManager);
+    }
+
+    public void testCountersAddedInOneRoundTrip() {
+        Map<String, Long> values = new HashMap<String, Long>();
+        for (int i = 0; i < 100; i++) {
+            values.put("caller" + i, (long) i + 1);
+        }
+        Map<String, Long> originalValues = SharedParamManager.asyncGetAndAddDistributedCounters(values);
+        assertEquals(1, counterManager.getRoundTrips());
+        assertEquals(100, originalValues.size());
+        assertEquals(Long.valueOf(0), originalValues.get("caller10"));
+
+        originalValues = SharedParamManager.asyncGetAndAddDistributedCounters(values);
+        assertEquals(2, counterManager.getRoundTrips());
+        assertEquals(Long.valueOf(11), originalValues.get("caller10"));
+        assertEquals(22, SharedParamManager.getDistributedCounter("caller10"));
+    }
+
+    public void testLocalCountersWithoutDistributedCounterManager() {
+        ThrottleServiceDataHolder.getInstance().removeDistributedCounterManager(counterManager);
+        Map<String, Long> values = new HashMap<String, Long>();
+        values.put("localCaller1", 1L);
+        values.put("localCaller2", 2L);
+        Map<String, Long> originalValues = SharedParamManager.asyncGetAndAddDistributedCounters(values);
+        assertEquals(Long.valueOf(0), originalValues.get("localCaller2"));
+        originalValues = SharedParamManager.asyncGetAndAddDistributedCounters(values);
+        assertEquals(Long.valueOf(2), originalValues.get("localCaller2"));
+        assertEquals(0, counterManager.getRoundTrips());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.commons.throttle.core;
+
+import junit.framework.TestCase;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.synapse.commons.throttle.core.impl.ipbase.IPBaseCallerContext;
+import org.apache.synapse.commons.throttle.core.internal.ThrottleServiceDataHolder;
+
+public class ThrottleReplicatorTest extends TestCase {
+
+    private InMemoryDistributedCounterManager counterManager;
+
+    private ThrottleDataHolder dataHolder;
+
+    private ThrottleReplicator replicator;
+
+    @Override
+    protected void setUp() throws Exception {
+        ThrottleServiceDataHolder serviceDataHolder = ThrottleServiceDataHolder.getInstance();
+        counterManager = new InMemoryDistributedCounterManager(
+                serviceDataHolder.getThrottleProperties().getDistributedCounterType());
+        serviceDataHolder.addDistributedCounterManager(counterManager);
+
+        ThrottleProperties throttleProperties = new ThrottleProperties();
+        throttleProperties.setThrottlingReplicationBatchEnabled(true);
+        throttleProperties.setThrottlingKeysToReplicates("2");
+        replicator = new ThrottleReplicator(throttleProperties, false);
+        dataHolder = new ThrottleDataHolder();
+        ConfigurationContext configContext = new ConfigurationContext(new AxisConfiguration());
+        configContext.setProperty(ThrottleConstants.THROTTLE_INFO_KEY, dataHolder);
+        replicator.setConfigContext(configContext);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ThrottleServiceDataHolder.getInstance().removeDistributedCounterManager(counterManager);
+    }
+
+    public void testDeltasMergedPerKey() {
+        CallerContext first = createCaller("first");
+        CallerContext second = createCaller("second");
+        CallerContext third = createCaller("third");
+        hit(first, 3);
+        hit(second, 1);
+        hit(third, 2);
+
+        replicator.replicate();
+        assertEquals("Three callers should be replicated in two batches of two", 2, counterManager.getRoundTrips());
+        assertEquals(0, first.getLocalCounter());
+        assertEquals(3, first.getGlobalCounter());
+        assertEquals(1, second.getGlobalCounter());
+        assertEquals(2, third.getGlobalCounter());
+
+        hit(first, 2);
+        replicator.replicate();
+        assertEquals(3, counterManager.getRoundTrips());
+        assertEquals(5, first.getGlobalCounter());
+        assertEquals(5, counterManager.getCounter("first"));
+        assertEquals(1, counterManager.getCounter("second"));
+        assertEquals(2, counterManager.getCounter("third"));
+    }
+
+    public void testFailedReplicationRetried() {
+        CallerContext caller = createCaller("caller");
+        hit(caller, 3);
+
+        counterManager.setFailing(true);
+        replicator.replicate();
+        assertEquals(1, counterManager.getRoundTrips());
+        assertEquals("Requests which could not be replicated should be kept", 3, caller.getLocalCounter());
+        assertEquals(0, caller.getGlobalCounter());
+
+        // counted while the replication failed, the caller is not added again
+        caller.incrementLocalCounter();
+        caller.incrementLocalCounter();
+        counterManager.setFailing(false);
+        replicator.replicate();
+        assertEquals("The caller should be retried in one call", 2, counterManager.getRoundTrips());
+        assertEquals(0, caller.getLocalCounter());
+        assertEquals(5, caller.getGlobalCounter());
+        assertEquals(5, counterManager.getCounter("caller"));
+    }
+
+    public void testGlobalCounterReconciledWithDistributedCounter() {
+        CallerContext caller = createCaller("caller");
+        // requests counted by the other members of the cluster
+        counterManager.setCounter("caller", 10);
+        hit(caller, 3);
+
+        replicator.replicate();
+        assertEquals(0, caller.getLocalCounter());
+        assertEquals(13, caller.getGlobalCounter());
+        assertEquals(13, counterManager.getCounter("caller"));
+
+        CallerContext expired = createCaller("expired");
+        expired.setNextTimeWindow(System.currentTimeMillis() - 1);
+        hit(expired, 2);
+        replicator.replicate();
+        assertEquals("The callers of an expired window should not be replicated",
+                0, counterManager.getCounter("expired"));
+    }
+
+    private CallerContext createCaller(String id) {
+        CallerContext callerContext = new IPBaseCallerContext(id);
+        callerContext.setNextTimeWindow(System.currentTimeMillis() + 60000);
+        dataHolder.addCallerContext(id, callerContext);
+        return callerContext;
+    }
+
+    private void hit(CallerContext callerContext, int requests) {
+        for (int i = 0; i < requests; i++) {
+            callerContext.incrementLocalCounter();
+            replicator.add(callerContext.getId());
+        }
+    }
+}
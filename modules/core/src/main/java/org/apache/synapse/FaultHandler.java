@@ -21,6 +21,7 @@ package org.apache.synapse;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.util.logging.LoggingUtils;
 
 import java.util.Iterator;
@@ -48,6 +49,7 @@ public abstract class FaultHandler {
         boolean traceOrDebugOn = traceOn || log.isDebugEnabled();
 
         executeExtendedSynapseHandlerOnFault(synCtx);
+        MetricsRegistry.notifyFault(synCtx);
 
         if (traceOrDebugOn) {
             traceOrDebugWarn(traceOn, "FaultHandler executing impl: " + this.getClass().getName());
@@ -78,6 +80,7 @@ public abstract class FaultHandler {
         boolean traceOrDebugOn = traceOn || log.isDebugEnabled();
 
         executeExtendedSynapseHandlerOnFault(synCtx);
+        MetricsRegistry.notifyFault(synCtx);
 
         if (e != null && synCtx.getProperty(SynapseConstants.ERROR_CODE) == null) {
             synCtx.setProperty(SynapseConstants.ERROR_CODE, SynapseConstants.DEFAULT_ERROR);
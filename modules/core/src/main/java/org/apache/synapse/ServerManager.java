@@ -23,9 +23,11 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.aspects.flow.statistics.collectors.RuntimeStatisticCollector;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.OpenTelemetryManagerHolder;
 import org.apache.synapse.commons.jmx.MBeanRegistrar;
+import org.apache.synapse.commons.throttle.core.GcraAccessRateController;
 import org.apache.synapse.config.SynapsePropertiesLoader;
 import org.apache.synapse.data.ConfigDataHolder;
 import org.apache.synapse.mediators.eip.EIPUtils;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.wso2.securevault.PasswordManager;
 import org.wso2.securevault.SecurityConstants;
 
@@ -113,6 +115,7 @@ public class ServerManager {
         doInit();
         initialized = true;
         RuntimeStatisticCollector.init();
+        MetricsRegistry.init();
 
         return this.serverContextInformation.getServerState();
     }
@@ -452,6 +455,8 @@ public class ServerManager {
             if(OpenTelemetryManagerHolder.getOpenTelemetryManager() != null) {
                 OpenTelemetryManagerHolder.getOpenTelemetryManager().close();
             }
+            MetricsRegistry.destroy();
+            GcraAccessRateController.shutdown();
         } else {
             // if the server cannot be destroyed just set the current state as the server state
             changeState(serverState);
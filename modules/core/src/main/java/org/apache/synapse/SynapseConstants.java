@@ -544,6 +544,10 @@ public final class SynapseConstants {
     //Streaming Json Path
     public static final String STREAMING_JSONPATH_PROCESSING = "synapse.streaming.jsonpath.enabled";
 
+    //Number of compiled JSON paths and Synapse expressions cached for reuse, 0 disables the caches
+    public static final String EXPRESSION_CACHE_SIZE = "synapse.expression.cache.size";
+    public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 1000;
+
     //Enable message building when doing failover
     public static final String BUILD_MESSAGE_ON_FAILOVER = "build.message.on.failover.enable";
 
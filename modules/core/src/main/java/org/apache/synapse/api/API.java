@@ -37,6 +37,7 @@ import org.apache.synapse.commons.CorrelationConstants;
 import org.apache.synapse.config.xml.rest.VersionStrategyFactory;
 import org.apache.synapse.core.SynapseEnvironment;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.api.dispatch.DispatcherHelper;
 import org.apache.synapse.api.dispatch.RESTDispatcher;
 import org.apache.synapse.api.version.DefaultStrategy;
@@ -607,6 +608,7 @@ public class API extends AbstractRequestProcessor implements ManagedLifecycle, A
                 ((ManagedLifecycle) handler).destroy();
             }
         }
+        MetricsRegistry.remove(ComponentType.API, getName());
     }
 
     public VersionStrategy getVersionStrategy() {
@@ -32,6 +32,7 @@ import org.apache.synapse.api.version.URLBasedVersionStrategy;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -84,6 +85,39 @@ public abstract class AbstractApiHandler {
         return false;
     }
 
+    /**
+     * Dispatch the message to the first of the candidate APIs of the router which can process it. The candidates
+     * are tried in the same order as {@link #dispatchToAPI(Collection, MessageContext)} tries the whole collection.
+     *
+     * @param router router over the APIs the message may be dispatched to
+     * @param synCtx message to be dispatched
+     * @return whether the message was dispatched to an API
+     */
+    protected boolean dispatchToAPI(ApiRouter router, MessageContext synCtx) {
+        ApiRouter.Candidates candidates = router.select(synCtx);
+        List<API> versionedApis = candidates.getVersionedApis();
+        for (int i = 0; i < versionedApis.size(); i++) {
+            // versioned APIs are never deferred, so the list of APIs with the default strategy is not used
+            if (identifyAPI(versionedApis.get(i), synCtx, Collections.emptyList())) {
+                return true;
+            }
+        }
+
+        List<API> deferredApis = candidates.getDeferredApis();
+        for (int i = 0; i < deferredApis.size(); i++) {
+            API api = deferredApis.get(i);
+            api.setLogSetterValue();
+            if (api.canProcess(synCtx)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Located specific API: " + api.getName() + " for processing message");
+                }
+                apiProcess(synCtx, api);
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected void apiProcess(MessageContext synCtx, API api) {
         Integer statisticReportingIndex = 0;
         if (RuntimeStatisticCollector.isStatisticsEnabled()) {
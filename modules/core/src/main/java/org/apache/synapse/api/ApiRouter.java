@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.api;
+
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.api.version.DefaultStrategy;
+import org.apache.synapse.rest.RESTConstants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of a collection of APIs by context, used to find the APIs which may process a request without
+ * calling {@link API#canProcess(MessageContext)} on every deployed API.
+ * <p>
+ * The contexts are held in a radix tree. A request path is looked up by walking the tree along the path, which
+ * finds the APIs whose context matches the path as {@link ApiUtils#matchApiPath(String, String)} does. The APIs
+ * matching a path are computed when the router is built, so a lookup does not allocate. The candidates keep the
+ * order of the collection the router was built from, and are split the same way the handlers have always tried
+ * them: APIs with a version strategy first, then APIs with the default strategy or the "/" context. Host, port,
+ * protocol and version checks are still done by {@link API#canProcess(MessageContext)} on the candidates.
+ * <p>
+ * A router is built for a snapshot of the APIs; {@link org.apache.synapse.config.SynapseConfiguration} replaces it
+ * whenever an API is added, updated or removed.
+ */
+public final class ApiRouter {
+
+    public static final ApiRouter EMPTY = new ApiRouter(Collections.<API>emptyList());
+
+    private static final String ROOT_CONTEXT = "/";
+
+    private final Node root;
+
+    /** Every API, used when the request path does not decide the candidates */
+    private final Candidates allCandidates;
+
+    /** APIs with the "/" context, which match any path */
+    private final Candidates rootCandidates;
+
+    private final boolean empty;
+
+    /**
+     * Build a router for the given APIs.
+     *
+     * @param apis APIs in the order they are to be tried
+     */
+    public ApiRouter(Collection<API> apis) {
+        List<API> ordered = new ArrayList<API>(apis);
+        final Map<API, Integer> order = new IdentityHashMap<API, Integer>();
+        List<API> rootApis = new ArrayList<API>();
+        root = new Node("");
+        for (API api : ordered) {
+            order.put(api, order.size());
+            if (ROOT_CONTEXT.equals(api.getContext())) {
+                rootApis.add(api);
+            } else {
+                root.insert(api.getContext(), 0).apis.add(api);
+            }
+        }
+        Comparator<API> byOrder = new Comparator<API>() {
+            public int compare(API api1, API api2) {
+                return order.get(api1) - order.get(api2);
+            }
+        };
+        allCandidates = new Candidates(ordered);
+        rootCandidates = new Candidates(rootApis);
+        root.freeze("", new ArrayList<Node>(), rootApis, byOrder);
+        empty = ordered.isEmpty();
+    }
+
+    /**
+     * @return whether the router was built without any APIs
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Find the APIs which may process the given message. Responses are matched by API name rather than path, so
+     * every API is a candidate for a response.
+     *
+     * @param synCtx message to be dispatched
+     * @return candidate APIs for the message
+     */
+    public Candidates select(MessageContext synCtx) {
+        if (empty || synCtx.isResponse() || synCtx.getProperty(RESTConstants.IS_PROMETHEUS_ENGAGED) != null) {
+            return allCandidates;
+        }
+        return select(ApiUtils.getFullRequestPath(synCtx));
+    }
+
+    /**
+     * Find the APIs whose context matches the given request path.
+     *
+     * @param path full request path, including the query string
+     * @return candidate APIs for the path
+     */
+    public Candidates select(String path) {
+        Node node = root;
+        Node matched = null;
+        int index = 0;
+        int length = path.length();
+        while (true) {
+            if (node.candidates != null && isBoundary(path, index)) {
+                matched = node;
+            }
+            if (index == length) {
+                break;
+            }
+            Node child = node.getChild(path.charAt(index));
+            if (child == null || !path.regionMatches(index, child.label, 0, child.label.length())) {
+                break;
+            }
+            index += child.label.length();
+            node = child;
+        }
+        return matched != null ? matched.candidates : rootCandidates;
+    }
+
+    /**
+     * @return every API of the router, in order
+     */
+    public Candidates getAll() {
+        return allCandidates;
+    }
+
+    private static boolean isBoundary(String value, int index) {
+        if (index == value.length()) {
+            return true;
+        }
+        char c = value.charAt(index);
+        return c == '/' || c == '?';
+    }
+
+    private static boolean isDeferred(API api) {
+        return ROOT_CONTEXT.equals(api.getContext())
+                || api.getVersionStrategy().getClass().getName().equals(DefaultStrategy.class.getName());
+    }
+
+    /**
+     * APIs which may process a message, split in the order they are to be tried.
+     */
+    public static final class Candidates {
+
+        private final List<API> versionedApis;
+
+        private final List<API> deferredApis;
+
+        Candidates(List<API> apis) {
+            List<API> versioned = new ArrayList<API>();
+            List<API> deferred = new ArrayList<API>();
+            for (API api : apis) {
+                if (isDeferred(api)) {
+                    deferred.add(api);
+                } else {
+                    versioned.add(api);
+                }
+            }
+            this.versionedApis = Collections.unmodifiableList(Arrays.asList(versioned.toArray(new API[0])));
+            this.deferredApis = Collections.unmodifiableList(Arrays.asList(deferred.toArray(new API[0])));
+        }
+
+        /**
+         * @return APIs with a version strategy, which are tried first
+         */
+        public List<API> getVersionedApis() {
+            return versionedApis;
+        }
+
+        /**
+         * @return APIs with the default version strategy or the "/" context, which are tried last
+         */
+        public List<API> getDeferredApis() {
+            return deferredApis;
+        }
+    }
+
+    /**
+     * Node of the radix tree. A node is only modified while the router is being built.
+     */
+    private static final class Node {
+
+        private String label;
+
+        private char[] childKeys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        /** APIs whose context ends at this node */
+        private List<API> apis = new ArrayList<API>();
+
+        /** APIs matching a path which reaches this node at a segment boundary, null if no context ends here */
+        private Candidates candidates;
+
+        /** Length of the context ending at this node, set when the router is built */
+        private int depth;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node getChild(char c) {
+            char[] keys = childKeys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return node at which the given context ends, created if needed
+         */
+        Node insert(String context, int index) {
+            if (index == context.length()) {
+                return this;
+            }
+            Node child = getChild(context.charAt(index));
+            if (child == null) {
+                child = new Node(context.substring(index));
+                addChild(child);
+                return child;
+            }
+            int common = 0;
+            int max = Math.min(child.label.length(), context.length() - index);
+            while (common < max && child.label.charAt(common) == context.charAt(index + common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                // split the edge where the contexts diverge
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.addChild(child);
+                replaceChild(split);
+                child = split;
+            }
+            return child.insert(context, index + common);
+        }
+
+        private void addChild(Node child) {
+            childKeys = Arrays.copyOf(childKeys, childKeys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            childKeys[childKeys.length - 1] = child.label.charAt(0);
+            children[children.length - 1] = child;
+        }
+
+        private void replaceChild(Node child) {
+            for (int i = 0; i < childKeys.length; i++) {
+                if (childKeys[i] == child.label.charAt(0)) {
+                    children[i] = child;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Compute the candidates of this node and its descendants. The APIs of an enclosing context match a path
+         * reaching this node when this context continues the enclosing one at a segment boundary.
+         */
+        void freeze(String context, List<Node> enclosing, List<API> rootApis, Comparator<API> byOrder) {
+            if (!apis.isEmpty()) {
+                List<API> matching = new ArrayList<API>(rootApis);
+                for (Node node : enclosing) {
+                    if (isBoundary(context, node.depth)) {
+                        matching.addAll(node.apis);
+                    }
+                }
+                matching.addAll(apis);
+                Collections.sort(matching, byOrder);
+                candidates = new Candidates(matching);
+                depth = context.length();
+                enclosing.add(this);
+            }
+            for (Node child : children) {
+                child.freeze(context + child.label, enclosing, rootApis, byOrder);
+            }
+            if (!apis.isEmpty()) {
+                enclosing.remove(enclosing.size() - 1);
+            }
+        }
+    }
+}
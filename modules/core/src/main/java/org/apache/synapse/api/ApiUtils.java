@@ -25,9 +25,6 @@ import org.apache.http.HttpStatus;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseConstants;
 import org.apache.synapse.SynapseException;
-import org.apache.synapse.api.version.ContextVersionStrategy;
-import org.apache.synapse.api.version.DefaultStrategy;
-import org.apache.synapse.api.version.URLBasedVersionStrategy;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.RESTConstants;
 import org.apache.synapse.api.dispatch.DefaultDispatcher;
@@ -206,49 +203,31 @@ public class ApiUtils {
      * @return Selected API
      */
     public static API getSelectedAPI(MessageContext synCtx) {
-        //getting the API collection from the synapse configuration to find the invoked API
-        Collection<API> apiSet = synCtx.getEnvironment().getSynapseConfiguration().getAPIs();
-        //Since swapping elements are not possible with sets, Collection is converted to a List
-        List<API> defaultStrategyApiSet = new ArrayList<API>(apiSet);
-        //To avoid apiSet being modified concurrently
-        List<API> duplicateApiSet = new ArrayList<>(apiSet);
-        //identify the api using canProcess method
-        for (API api : duplicateApiSet) {
-            if (identifySelectedAPI(api, synCtx, defaultStrategyApiSet)) {
+        //getting the APIs which may process the request from the router of the synapse configuration
+        ApiRouter.Candidates candidates = synCtx.getEnvironment().getSynapseConfiguration().getApiRouter()
+                .select(synCtx);
+        //APIs with a version strategy are tried first, otherwise the APIs with the default strategy would
+        //always be chosen to process the request without matching the version
+        List<API> versionedApis = candidates.getVersionedApis();
+        for (int i = 0; i < versionedApis.size(); i++) {
+            API api = versionedApis.get(i);
+            if (identifySelectedAPI(api, synCtx)) {
                 return api;
             }
         }
-        for (API api : defaultStrategyApiSet) {
-            api.setLogSetterValue();
-            if (api.canProcess(synCtx)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Located specific API: " + api.getName() + " for processing message");
-                }
+        List<API> deferredApis = candidates.getDeferredApis();
+        for (int i = 0; i < deferredApis.size(); i++) {
+            API api = deferredApis.get(i);
+            if (identifySelectedAPI(api, synCtx)) {
                 return api;
             }
         }
         return null;
     }
 
-    private static boolean identifySelectedAPI(API api, MessageContext synCtx, List defaultStrategyApiSet) {
-        API defaultAPI = null;
+    private static boolean identifySelectedAPI(API api, MessageContext synCtx) {
         api.setLogSetterValue();
-        if ("/".equals(api.getContext())) {
-            defaultAPI = api;
-        } else if (api.getVersionStrategy().getClass().getName().equals(DefaultStrategy.class.getName())) {
-            //APIs whose VersionStrategy is bound to an instance of DefaultStrategy, should be skipped and processed at
-            // last.Otherwise they will be always chosen to process the request without matching the version.
-            defaultStrategyApiSet.add(api);
-        } else if (api.getVersionStrategy().getClass().getName().equals(ContextVersionStrategy.class.getName())
-                || api.getVersionStrategy().getClass().getName().equals(URLBasedVersionStrategy.class.getName())) {
-            api.setLogSetterValue();
-            if (api.canProcess(synCtx)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Located specific API: " + api.getName() + " for processing message");
-                }
-                return true;
-            }
-        } else if (api.canProcess(synCtx)) {
+        if (api.canProcess(synCtx)) {
             if (log.isDebugEnabled()) {
                 log.debug("Located specific API: " + api.getName() + " for processing message");
             }
@@ -25,49 +25,42 @@ import org.apache.synapse.api.ApiUtils;
 import org.apache.synapse.api.Resource;
 import org.apache.synapse.rest.RESTConstants;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class URLMappingBasedDispatcher implements RESTDispatcher {
 
     private static final Log log = LogFactory.getLog(URLMappingBasedDispatcher.class);
 
     public Resource findResource(MessageContext synCtx, Collection<Resource> resources) {
-        List<URLMappingHelper> mappings = new ArrayList<URLMappingHelper>();
-        List<Resource> filteredResources = new ArrayList<Resource>();
-
+        String url = null;
         for (Resource r : resources) {
-            DispatcherHelper helper = r.getDispatcherHelper();
-            if (helper instanceof URLMappingHelper) {
-                mappings.add((URLMappingHelper) helper);
-                filteredResources.add(r);
+            if (r.getDispatcherHelper() instanceof URLMappingHelper) {
+                if (url == null) {
+                    url = ApiUtils.getSubRequestPath(synCtx);
+                }
+                if (((URLMappingHelper) r.getDispatcherHelper()).isExactMatch(url)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Found exact URL match for: " + url);
+                    }
+                    synCtx.setProperty(RESTConstants.SELECTED_RESOURCE, r);
+                    return r;
+                }
             }
         }
-
-        int count = filteredResources.size();
-        if (count == 0) {
+        if (url == null) {
+            // none of the resources has a URL mapping
             return null;
         }
 
-        String url = ApiUtils.getSubRequestPath(synCtx);
-        for (int i = 0; i < count; i++) {
-            if (mappings.get(i).isExactMatch(url)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Found exact URL match for: " + url);
-                }
-                synCtx.setProperty(RESTConstants.SELECTED_RESOURCE, filteredResources.get(i));
-                return filteredResources.get(i);
-            }
-        }
-
         int maxLength = 0;
         Resource matchedResource = null;
-        for (int i = 0; i < count; i++) {
-            int length = mappings.get(i).getPrefixMatchingLength(url);
-            if (length > maxLength) {
-                maxLength = length;
-                matchedResource = filteredResources.get(i);
+        for (Resource r : resources) {
+            if (r.getDispatcherHelper() instanceof URLMappingHelper) {
+                int length = ((URLMappingHelper) r.getDispatcherHelper()).getPrefixMatchingLength(url);
+                if (length > maxLength) {
+                    maxLength = length;
+                    matchedResource = r;
+                }
             }
         }
         if (matchedResource != null) {
@@ -78,13 +71,14 @@ public class URLMappingBasedDispatcher implements RESTDispatcher {
             return matchedResource;
         }
 
-        for (int i = 0; i < count; i++) {
-            if (mappings.get(i).isExtensionMatch(url)) {
+        for (Resource r : resources) {
+            if (r.getDispatcherHelper() instanceof URLMappingHelper
+                    && ((URLMappingHelper) r.getDispatcherHelper()).isExtensionMatch(url)) {
                 if (log.isDebugEnabled()) {
                     log.debug("Found extension match for: " + url);
                 }
-                synCtx.setProperty(RESTConstants.SELECTED_RESOURCE, filteredResources.get(i));
-                return filteredResources.get(i);
+                synCtx.setProperty(RESTConstants.SELECTED_RESOURCE, r);
+                return r;
             }
         }
 
@@ -24,7 +24,9 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.api.API;
 import org.apache.synapse.api.AbstractApiHandler;
 import org.apache.synapse.api.ApiConstants;
+import org.apache.synapse.api.ApiRouter;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.rest.RESTConstants;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -68,9 +70,17 @@ public class InboundApiHandler extends AbstractApiHandler {
     protected boolean dispatchToAPI(MessageContext synCtx) {
         Object apiCaller = synCtx.getProperty(ApiConstants.API_CALLER);
         if (apiCaller != null) {
-            Collection<API> apis = synCtx.getEnvironment().getSynapseConfiguration().getAPIs(apiCaller.toString());
-            if (!apis.isEmpty()) {
-                return dispatchToAPI(apis, synCtx);
+            if (synCtx.getProperty(RESTConstants.PROCESSED_API) != null) {
+                Collection<API> apis = synCtx.getEnvironment().getSynapseConfiguration().getAPIs(
+                        apiCaller.toString());
+                if (!apis.isEmpty()) {
+                    return dispatchToAPI(apis, synCtx);
+                }
+                return false;
+            }
+            ApiRouter router = synCtx.getEnvironment().getSynapseConfiguration().getApiRouter(apiCaller.toString());
+            if (!router.isEmpty()) {
+                return dispatchToAPI(router, synCtx);
             }
         }
         return false;
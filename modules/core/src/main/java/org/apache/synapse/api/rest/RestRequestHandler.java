@@ -25,12 +25,12 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.api.API;
 import org.apache.synapse.api.AbstractApiHandler;
 import org.apache.synapse.api.ApiConstants;
+import org.apache.synapse.api.ApiRouter;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.RESTConstants;
 import org.apache.synapse.transport.netty.BridgeConstants;
 
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -79,15 +79,13 @@ public class RestRequestHandler extends AbstractApiHandler {
     @Override
     protected boolean dispatchToAPI(MessageContext synCtx) {
         Object apiObject = synCtx.getProperty(RESTConstants.PROCESSED_API);
-        Collection<API> apis;
         if (apiObject != null) {
-            apis = Collections.singletonList((API) apiObject);
-        } else {
-            apis = synCtx.getEnvironment().getSynapseConfiguration().getAPIs(
-                    ApiConstants.DEFAULT_BINDING_ENDPOINT_NAME);
+            return dispatchToAPI(Collections.singletonList((API) apiObject), synCtx);
         }
-        if (!apis.isEmpty()) {
-            return dispatchToAPI(apis, synCtx);
+        ApiRouter router = synCtx.getEnvironment().getSynapseConfiguration().getApiRouter(
+                ApiConstants.DEFAULT_BINDING_ENDPOINT_NAME);
+        if (!router.isEmpty()) {
+            return dispatchToAPI(router, synCtx);
         }
         return false;
     }
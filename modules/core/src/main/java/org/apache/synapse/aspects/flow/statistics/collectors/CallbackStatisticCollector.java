@@ -50,7 +50,7 @@ public class CallbackStatisticCollector extends RuntimeStatisticCollector {
 			CallbackSentEvent callbackSentEvent = new CallbackSentEvent(dataUnit);
             addEventAndIncrementCallbackCount(messageContext, callbackSentEvent);
 
-            if (isOpenTelemetryEnabled()) {
+            if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleAddCallback(messageContext, callbackId);
 			}
@@ -77,7 +77,7 @@ public class CallbackStatisticCollector extends RuntimeStatisticCollector {
 			CallbackCompletionEvent callbackCompletionEvent = new CallbackCompletionEvent(dataUnit);
             addEventAndDecrementCallbackCount(oldMessageContext, callbackCompletionEvent);
 
-            if (isOpenTelemetryEnabled()) {
+            if (isOpenTelemetryEnabled(oldMessageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleCallbackCompletionEvent(oldMessageContext, callbackId);
 			}
@@ -103,7 +103,7 @@ public class CallbackStatisticCollector extends RuntimeStatisticCollector {
 			CallbackReceivedEvent callbackReceivedEvent = new CallbackReceivedEvent(dataUnit);
             addEvent(oldMessageContext, callbackReceivedEvent);
 
-            if (isOpenTelemetryEnabled()) {
+            if (isOpenTelemetryEnabled(oldMessageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleUpdateParentsForCallback(oldMessageContext, callbackId);
 			}
@@ -129,7 +129,7 @@ public class CallbackStatisticCollector extends RuntimeStatisticCollector {
 			CallbackHandledEvent callbackHandledEvent = new CallbackHandledEvent(dataUnit);
             addEventAndDecrementCallbackCount(synapseOutMsgCtx, callbackHandledEvent);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(synapseOutMsgCtx)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleReportCallbackHandlingCompletion(synapseOutMsgCtx, callbackId);
 			}
@@ -113,7 +113,7 @@ public class CloseEventCollector extends RuntimeStatisticCollector {
 				addEventAndDecrementCount(messageContext, closeEvent);
 			}
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(messageContext)) {
 				if (isError) {
 					OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler().
 							handleCloseEntryWithErrorEvent(statisticDataUnit, messageContext);
@@ -147,7 +147,7 @@ public class CloseEventCollector extends RuntimeStatisticCollector {
                 addEventAndCloseFlow(messageContext, endFlowEvent);
             }
 
-            if (isOpenTelemetryEnabled()) {
+            if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleCloseFlowForcefully(dataUnit, messageContext);
 			}
@@ -179,7 +179,7 @@ public class CloseEventCollector extends RuntimeStatisticCollector {
 	 */
 	public static void closeEventsAfterScatterGather(MessageContext messageContext) {
 
-		if (isOpenTelemetryEnabled()) {
+		if (isOpenTelemetryEnabled(messageContext)) {
 			OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 					.handleScatterGatherFinishEvent(messageContext);
 		}
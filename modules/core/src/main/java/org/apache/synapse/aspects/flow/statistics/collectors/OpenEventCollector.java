@@ -61,6 +61,12 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			isCollectingStatistics = isCollectingStatistics || RuntimeStatisticCollector.isCollectingAllStatistics();
 		}
 
+		// The flow of a message which is not sampled for tracing is not collected, unless it is published for analytics
+		if (isCollectingStatistics && isOpenTelemetryEnabled() && !OpenTelemetryManagerHolder.getTracingSampler()
+				.sample(messageContext, componentName, componentType) && !isMediationFlowStatisticsEnabled()) {
+			isCollectingStatistics = false;
+		}
+
 		boolean isCollectingTracing = false;
 		if (isCollectingProperties() || isCollectingPayloads() || isCollectingVariables()) {
 			isCollectingTracing = (aspectConfiguration != null && aspectConfiguration.isTracingEnabled());
@@ -107,7 +113,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			StatisticsOpenEvent openEvent = new StatisticsOpenEvent(statisticDataUnit);
             addEventAndIncrementCount(messageContext, openEvent);
 
-            if (isOpenTelemetryEnabled()) {
+            if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenEntryEvent(statisticDataUnit, messageContext);
 			}
@@ -139,7 +145,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			reportMediatorStatistics(messageContext, componentName, componentType, isContentAltering, statisticDataUnit,
 			                         aspectConfiguration);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenChildEntryEvent(statisticDataUnit, messageContext);
 			}
@@ -173,7 +179,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			reportMediatorStatistics(messageContext, componentName, componentType, isContentAltering, statisticDataUnit,
 			                         aspectConfiguration);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenFlowContinuableEvent(statisticDataUnit, messageContext);
 			}
@@ -208,7 +214,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			reportMediatorStatistics(messageContext, componentName, componentType, isContentAltering, statisticDataUnit,
 			                         aspectConfiguration);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenFlowSplittingEvent(statisticDataUnit, messageContext);
 			}
@@ -242,7 +248,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			reportMediatorStatistics(messageContext, componentName, componentType, isContentAltering, statisticDataUnit,
 			                         aspectConfiguration);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenFlowAggregateEvent(statisticDataUnit, messageContext);
 			}
@@ -265,7 +271,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
 			dataUnit.setCurrentIndex(StatisticDataCollectionHelper.getParentFlowPosition(messageContext, null));
 			AsynchronousExecutionEvent asynchronousExecutionEvent = new AsynchronousExecutionEvent(dataUnit);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(messageContext)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenFlowAsynchronousEvent(dataUnit, messageContext);
 			}
@@ -312,7 +318,7 @@ public class OpenEventCollector extends RuntimeStatisticCollector {
             ParentReopenEvent parentReopenEvent = new ParentReopenEvent(basicStatisticDataUnit);
 			addEvent(synCtx, parentReopenEvent);
 
-			if (isOpenTelemetryEnabled()) {
+			if (isOpenTelemetryEnabled(synCtx)) {
 				OpenTelemetryManagerHolder.getOpenTelemetryManager().getHandler()
 						.handleOpenContinuationEvents(basicStatisticDataUnit, synCtx);
 			}
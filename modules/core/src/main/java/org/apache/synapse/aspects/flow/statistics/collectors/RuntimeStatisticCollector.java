@@ -24,6 +24,7 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.aspects.flow.statistics.log.StatisticsReportingEvent;
 import org.apache.synapse.aspects.flow.statistics.log.StatisticsReportingEventHolder;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.OpenTelemetryManagerHolder;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.sampling.TracingSampler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.TelemetryConstants;
 import org.apache.synapse.aspects.flow.statistics.util.MediationFlowController;
 import org.apache.synapse.aspects.flow.statistics.util.StatisticsConstants;
@@ -187,6 +188,16 @@ public abstract class RuntimeStatisticCollector {
         return isOpenTelemetryEnabled;
     }
 
+    /**
+     * Returns whether OpenTelemetry has been enabled, and the given message has been sampled for tracing.
+     *
+     * @param messageContext synapse message context.
+     * @return true if the spans of the message should be collected.
+     */
+    public static boolean isOpenTelemetryEnabled(MessageContext messageContext) {
+        return isOpenTelemetryEnabled && TracingSampler.isSampled(messageContext);
+    }
+
     /**
      * Returns whether mediation flow statistics (Analytics profile) has been enabled.
      *
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.aspects.flow.statistics.store;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring of events, preallocated to a power of two slots. Each slot has a sequence number telling
+ * whether it is free for the producer claiming the given position or holds an event for the consumer, so that
+ * producers only contend on the tail position and no node is allocated per event.
+ * <p>
+ * The number of events held is limited to the given capacity, and is read in constant time from the head and tail
+ * positions. Elements are normally taken by a single consumer, but {@link #poll()} may also be called by producers to
+ * evict the oldest event when the ring is full.
+ *
+ * @param <E> type of the events
+ */
+class BoundedEventRing<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> events;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong tail = new AtomicLong();
+
+    BoundedEventRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of the event ring should be positive : " + capacity);
+        }
+        this.capacity = capacity;
+        int slots = Integer.highestOneBit(capacity);
+        if (slots < capacity) {
+            slots <<= 1;
+        }
+        this.mask = slots - 1;
+        this.events = new AtomicReferenceArray<E>(slots);
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an event to the tail of the ring.
+     *
+     * @param event event to add
+     * @return false if the ring holds as many events as its capacity
+     */
+    boolean offer(E event) {
+        long position = tail.get();
+        while (true) {
+            if (position - head.get() >= capacity) {
+                return false;
+            }
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.lazySet(index, event);
+                    // publishes the event to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // the event a full round behind has not been taken yet
+                return false;
+            }
+            position = tail.get();
+        }
+    }
+
+    /**
+     * Remove the event at the head of the ring.
+     *
+     * @return the oldest event, or null if the ring is empty
+     */
+    E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position + 1) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E event = events.get(index);
+                    events.lazySet(index, null);
+                    // frees the slot for the producer of the next round
+                    sequences.set(index, position + mask + 1);
+                    return event;
+                }
+            } else if (sequence <= position) {
+                // empty, or the producer of the position has not published its event yet
+                return null;
+            }
+            position = head.get();
+        }
+    }
+
+    /**
+     * Move the events at the head of the ring to the given collection.
+     *
+     * @param collection collection to add the events to
+     * @param maxEvents  maximum number of events to move
+     * @return number of events moved
+     */
+    int drainTo(Collection<? super E> collection, int maxEvents) {
+        int count = 0;
+        E event;
+        while (count < maxEvents && (event = poll()) != null) {
+            collection.add(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of events in the ring, which may include events being added or removed concurrently
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return size < 0 ? 0 : (int) Math.min(size, capacity);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
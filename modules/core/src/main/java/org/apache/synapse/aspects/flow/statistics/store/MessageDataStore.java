@@ -24,30 +24,50 @@ import org.apache.synapse.aspects.flow.statistics.log.StatisticsReportingEventHo
 import org.apache.synapse.aspects.flow.statistics.util.StatisticsConstants;
 import org.apache.synapse.config.SynapseConfiguration;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * MessageDataCollector contains the non-blocking queue and utility methods to store and retrieve elements from the
- * queue.
+ * queue. The queue is a bounded ring preallocated to the configured queue size, so adding an event neither walks the
+ * queue to check its size nor allocates a node.
  */
 public class MessageDataStore {
 
     private static Log log = LogFactory.getLog(MessageDataStore.class);
+
+    /**
+     * Largest number of slots preallocated for the queue.
+     */
+    private static final int MAX_QUEUE_CAPACITY = 1 << 24;
+
+    /**
+     * Events added, taken by the publishers and dropped, over all the stores.
+     */
+    private static final LongAdder enqueuedEvents = new LongAdder();
+    private static final LongAdder publishedEvents = new LongAdder();
+    private static final LongAdder droppedEvents = new LongAdder();
+    private static final LongAdder evictedEvents = new LongAdder();
+
     /**
      * Queue which holds event holder objects with collected events.
      */
-    private Queue<StatisticsReportingEventHolder> queue;
+    private BoundedEventRing<StatisticsReportingEventHolder> queue;
 
     private String queueEvictionPolicy;
     private long maxStaticsReportingQueueSize;
 
     public MessageDataStore(SynapseConfiguration synCfg) {
-        queue = new ConcurrentLinkedQueue<>();
         queueEvictionPolicy = synCfg.getProperty(StatisticsConstants.STATISTIC_REPORTING_QUEUE_EVICTION_POLICY,
                                                  StatisticsConstants.QUEUE_EVICTION_POLICY_NEW_MESSAGES);
         maxStaticsReportingQueueSize = synCfg.getProperty(StatisticsConstants.STATISTIC_REPORTING_QUEUE_SIZE,
                                                           StatisticsConstants.MAX_STATISTIC_REPORTING_QUEUE_SIZE);
+        if (maxStaticsReportingQueueSize > MAX_QUEUE_CAPACITY) {
+            log.warn("Statistics queue size " + maxStaticsReportingQueueSize + " is too large, using "
+                     + MAX_QUEUE_CAPACITY);
+            maxStaticsReportingQueueSize = MAX_QUEUE_CAPACITY;
+        }
+        queue = new BoundedEventRing<>((int) Math.max(1, maxStaticsReportingQueueSize));
     }
 
     /**
@@ -56,25 +76,25 @@ public class MessageDataStore {
      * @param statisticsReportingEventHolder StatisticReportingLog to be stored in the queue
      */
     public void enqueue(StatisticsReportingEventHolder statisticsReportingEventHolder) {
-        if (queue.size() > maxStaticsReportingQueueSize) {
-            // This will does not add anymore
-            if (queueEvictionPolicy.equals(StatisticsConstants.QUEUE_EVICTION_POLICY_NEW_MESSAGES)) {
+        if (log.isDebugEnabled()) {
+            log.debug("Adding eventHolder: " + statisticsReportingEventHolder);
+        }
+        while (!queue.offer(statisticsReportingEventHolder)) {
+            if (queueEvictionPolicy.equals(StatisticsConstants.QUEUE_EVICTION_POLICY_OLD_MESSAGES)) {
+                // This will dequeue old messages and enqueue new messages
+                if (queue.poll() != null) {
+                    log.warn("Dropping old statistic messages since the queue is full");
+                    droppedEvents.increment();
+                    evictedEvents.increment();
+                }
+            } else {
+                // This will does not add anymore
                 log.warn("Dropping new statistic messages since the queue is full");
+                droppedEvents.increment();
                 return;
-            } else if (queueEvictionPolicy.equals(StatisticsConstants.QUEUE_EVICTION_POLICY_OLD_MESSAGES)) {
-                // This will dequeue old messages and enqueue new messages
-                log.warn("Dropping old statistic messages since the queue is full");
-                queue.poll();
-            }
-        }
-        try {
-            if (log.isDebugEnabled()) {
-                log.debug("Adding eventHolder: " + statisticsReportingEventHolder);
             }
-            queue.add(statisticsReportingEventHolder);
-        } catch (Exception e) {
-            log.error("Error adding statistic event holder to the Queue. Dropping statistics events.");
         }
+        enqueuedEvents.increment();
     }
 
     /**
@@ -84,15 +104,66 @@ public class MessageDataStore {
      * @throws Exception
      */
     public StatisticsReportingEventHolder dequeue() throws Exception {
-        try {
-            if (log.isDebugEnabled()) {
-                log.debug("Polling statistics event holder object from the Queue");
-            }
-            return queue.poll();
-        } catch (Exception e) {
-            log.error("Error polling statistics event holder objects from Queue");
-            return null;
+        if (log.isDebugEnabled()) {
+            log.debug("Polling statistics event holder object from the Queue");
+        }
+        StatisticsReportingEventHolder eventHolder = queue.poll();
+        if (eventHolder != null) {
+            publishedEvents.increment();
+        }
+        return eventHolder;
+    }
+
+    /**
+     * Removes StatisticReportingLogs from the queue, so that a publisher can take the events queued since its last
+     * run in one call
+     *
+     * @param eventHolders collection to add the removed event holders to
+     * @param maxEvents    maximum number of event holders to remove
+     * @return number of event holders removed
+     */
+    public int drainTo(Collection<? super StatisticsReportingEventHolder> eventHolders, int maxEvents) {
+        int count = queue.drainTo(eventHolders, maxEvents);
+        if (count > 0) {
+            publishedEvents.add(count);
         }
+        return count;
+    }
+
+    /**
+     * @return number of event holders in the queue
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of event holders added to the statistics queues
+     */
+    public static long getEnqueuedEventCount() {
+        return enqueuedEvents.sum();
+    }
+
+    /**
+     * @return number of event holders taken from the statistics queues by the publishers
+     */
+    public static long getPublishedEventCount() {
+        return publishedEvents.sum();
+    }
+
+    /**
+     * @return number of event holders dropped since a statistics queue was full
+     */
+    public static long getDroppedEventCount() {
+        return droppedEvents.sum();
     }
 
+    /**
+     * @return number of event holders waiting in the statistics queues to be taken by the publishers
+     */
+    public static long getLaggingEventCount() {
+        // read the removals first, so that events added meanwhile are not missed
+        long removed = publishedEvents.sum() + evictedEvents.sum();
+        return Math.max(0, enqueuedEvents.sum() - removed);
+    }
 }
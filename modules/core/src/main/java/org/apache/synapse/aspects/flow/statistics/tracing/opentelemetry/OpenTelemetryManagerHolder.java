@@ -23,6 +23,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.SynapseException;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.TelemetryConstants;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.OpenTelemetryManager;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.sampling.TracingSampler;
 import org.apache.synapse.config.SynapsePropertiesLoader;
 
 /**
@@ -35,6 +36,7 @@ public class OpenTelemetryManagerHolder {
     private static boolean isCollectingProperties;
     private static boolean isCollectingVariables;
     private static OpenTelemetryManager openTelemetryManager;
+    private static TracingSampler tracingSampler = new TracingSampler();
 
     /**
      * Prevents Instantiation.
@@ -48,6 +50,7 @@ public class OpenTelemetryManagerHolder {
 
         String classpath = SynapsePropertiesLoader.getPropertyValue(TelemetryConstants.OPENTELEMETRY_CLASS,
                 TelemetryConstants.DEFAULT_OPENTELEMETRY_CLASS);
+        tracingSampler = TracingSampler.load();
         try {
             openTelemetryManager = (OpenTelemetryManager) Class.forName(classpath).newInstance();
             openTelemetryManager.init();
@@ -84,4 +87,8 @@ public class OpenTelemetryManagerHolder {
     public static OpenTelemetryManager getOpenTelemetryManager() {
         return openTelemetryManager;
     }
+
+    public static TracingSampler getTracingSampler() {
+        return tracingSampler;
+    }
 }
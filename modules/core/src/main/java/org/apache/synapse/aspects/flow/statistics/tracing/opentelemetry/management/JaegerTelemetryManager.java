@@ -31,6 +31,7 @@ import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.OpenTelemetryManagerHolder;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.handling.span.OpenTelemetrySpanHandler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.handling.span.SpanHandler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.scoping.TracingScopeManager;
@@ -78,7 +79,8 @@ public class JaegerTelemetryManager implements OpenTelemetryManager {
                 TelemetryConstants.SERVICE_NAME));
 
         sdkTracerProvider = SdkTracerProvider.builder()
-                .addSpanProcessor(BatchSpanProcessor.builder(jaegerExporter).build())
+                .addSpanProcessor(OpenTelemetryManagerHolder.getTracingSampler()
+                        .wrap(BatchSpanProcessor.builder(jaegerExporter).build()))
                 .setResource(Resource.getDefault().merge(serviceNameResource))
                 .build();
 
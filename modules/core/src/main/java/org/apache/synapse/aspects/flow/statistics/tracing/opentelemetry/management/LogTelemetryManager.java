@@ -30,6 +30,7 @@ import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.OpenTelemetryManagerHolder;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.handling.span.OpenTelemetrySpanHandler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.handling.span.SpanHandler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.scoping.TracingScopeManager;
@@ -54,7 +55,8 @@ public class LogTelemetryManager implements OpenTelemetryManager {
                 TelemetryConstants.SERVICE_NAME));
 
         sdkTracerProvider = SdkTracerProvider.builder()
-                .addSpanProcessor(BatchSpanProcessor.builder(logExporter).build())
+                .addSpanProcessor(OpenTelemetryManagerHolder.getTracingSampler()
+                        .wrap(BatchSpanProcessor.builder(logExporter).build()))
                 .setResource(Resource.getDefault().merge(serviceNameResource))
                 .build();
 
@@ -33,6 +33,7 @@ import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.SynapseException;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.OpenTelemetryManagerHolder;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.handling.span.OpenTelemetrySpanHandler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.handling.span.SpanHandler;
 import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.scoping.TracingScopeManager;
@@ -67,7 +68,8 @@ public class OTLPTelemetryManager implements OpenTelemetryManager {
                 TelemetryConstants.SERVICE_NAME));
 
         sdkTracerProvider = SdkTracerProvider.builder()
-                .addSpanProcessor(BatchSpanProcessor.builder(otlpGrpcSpanExporterBuilder.build()).build())
+                .addSpanProcessor(OpenTelemetryManagerHolder.getTracingSampler()
+                        .wrap(BatchSpanProcessor.builder(otlpGrpcSpanExporterBuilder.build()).build()))
                 .setResource(Resource.getDefault().merge(serviceNameResource))
                 .build();
 
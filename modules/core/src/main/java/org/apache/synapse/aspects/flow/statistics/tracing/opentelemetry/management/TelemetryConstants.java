@@ -56,6 +56,24 @@ public class TelemetryConstants {
     public static final String DEFAULT_ZIPKIN_PORT = "9411";
     public static final String ZIPKIN_API_CONTEXT = "/api/v2/spans";
     public static final String OPENTELEMETRY_PROPERTIES_PREFIX = "opentelemetry.properties.";
+
+    /**
+     * Sampling of the traced messages.
+     */
+    public static final String OPENTELEMETRY_SAMPLING_MODE = "opentelemetry.sampling.mode";
+    public static final String OPENTELEMETRY_SAMPLING_RATE = "opentelemetry.sampling.rate";
+    public static final String OPENTELEMETRY_API_SAMPLING_RATE_PREFIX = "opentelemetry.sampling.rate.api.";
+    public static final String OPENTELEMETRY_PROXY_SAMPLING_RATE_PREFIX = "opentelemetry.sampling.rate.proxy.";
+    public static final String OPENTELEMETRY_TAIL_SAMPLING_LATENCY_THRESHOLD =
+            "opentelemetry.sampling.tail.latency_threshold";
+    public static final String OPENTELEMETRY_TAIL_SAMPLING_MAX_TRACES = "opentelemetry.sampling.tail.max_traces";
+    public static final String OPENTELEMETRY_TAIL_SAMPLING_TRACE_TIMEOUT = "opentelemetry.sampling.tail.trace_timeout";
+    public static final String HEAD_SAMPLING_MODE = "head";
+    public static final String TAIL_SAMPLING_MODE = "tail";
+    public static final long DEFAULT_TAIL_SAMPLING_LATENCY_THRESHOLD = 1000;
+    public static final int DEFAULT_TAIL_SAMPLING_MAX_TRACES = 10000;
+    public static final long DEFAULT_TAIL_SAMPLING_TRACE_TIMEOUT = 60000;
+    public static final String TRACE_SAMPLED_PROPERTY = "_OPENTELEMETRY_TRACE_SAMPLED";
     static final String LATENCY = "Latency";
     static final String SPAN_NAME = "Span Name";
     static final String ATTRIBUTES = "Tags";
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.sampling;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span processor which holds back the ended spans of each trace until the local root span of the trace ends, and
+ * passes them on to the exporting span processor only if a span of the trace has failed, or the root span took longer
+ * than the latency threshold. The spans of other traces are dropped.
+ * <p>
+ * Traces whose root span does not end within the trace timeout are passed on as well, since they are slower than the
+ * threshold. The decision taken for a trace is remembered for the trace timeout, so that the spans ending after the
+ * root span follow the rest of their trace. At most the given number of traces are buffered and as many decisions are
+ * remembered; spans of further traces are passed on without being buffered. The buffered traces are passed on when
+ * the processor is shut down.
+ */
+class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final Log log = LogFactory.getLog(TailSamplingSpanProcessor.class);
+
+    private static final long EXPIRY_INTERVAL_MILLIS = 1000;
+
+    private final SpanProcessor delegate;
+
+    private final long latencyThresholdNanos;
+
+    private final int maxBufferedTraces;
+
+    private final long traceTimeoutNanos;
+
+    private final Map<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+
+    /** Whether the spans of a decided trace are passed on, by trace id */
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService expiryScheduler;
+
+    TailSamplingSpanProcessor(SpanProcessor delegate, long latencyThresholdMillis, int maxBufferedTraces,
+                              long traceTimeoutMillis) {
+        this.delegate = delegate;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.traceTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(traceTimeoutMillis);
+        this.expiryScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "tail-sampling-trace-expiry");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        expiryScheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    expireTraces(System.nanoTime());
+                } catch (RuntimeException e) {
+                    log.error("Error while expiring the buffered traces", e);
+                }
+            }
+        }, EXPIRY_INTERVAL_MILLIS, EXPIRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData spanData = span.toSpanData();
+        SpanContext parent = spanData.getParentSpanContext();
+        boolean root = !parent.isValid() || parent.isRemote();
+        boolean failed = spanData.getStatus().getStatusCode() == StatusCode.ERROR;
+        String traceId = span.getSpanContext().getTraceId();
+
+        TraceBuffer trace = traces.get(traceId);
+        if (trace == null) {
+            Decision decision = decisions.get(traceId);
+            if (decision != null) {
+                // the span ended after the root span of its trace
+                if (decision.exported) {
+                    delegate.onEnd(span);
+                }
+                return;
+            }
+            if (root) {
+                // nothing is buffered for a trace with a single span
+                boolean exported = failed || span.getLatencyNanos() >= latencyThresholdNanos;
+                decide(traceId, exported, System.nanoTime());
+                if (exported) {
+                    delegate.onEnd(span);
+                }
+                return;
+            }
+            if (traces.size() >= maxBufferedTraces) {
+                delegate.onEnd(span);
+                return;
+            }
+            TraceBuffer created = new TraceBuffer(System.nanoTime());
+            trace = traces.putIfAbsent(traceId, created);
+            if (trace == null) {
+                trace = created;
+            }
+        }
+
+        boolean exportSpan = false;
+        List<ReadableSpan> retained = null;
+        synchronized (trace) {
+            if (trace.spans == null) {
+                // the trace has been decided while this span was ending
+                exportSpan = trace.exported;
+            } else {
+                trace.spans.add(span);
+                trace.failed |= failed;
+                if (root) {
+                    trace.exported = trace.failed || span.getLatencyNanos() >= latencyThresholdNanos;
+                    // the decision is remembered before the buffer is removed, for the spans still to end
+                    decide(traceId, trace.exported, System.nanoTime());
+                    traces.remove(traceId, trace);
+                    if (trace.exported) {
+                        retained = trace.spans;
+                    }
+                    trace.spans = null;
+                }
+            }
+        }
+        if (exportSpan) {
+            delegate.onEnd(span);
+        } else if (retained != null) {
+            for (ReadableSpan retainedSpan : retained) {
+                delegate.onEnd(retainedSpan);
+            }
+        }
+    }
+
+    private void decide(String traceId, boolean exported, long now) {
+        if (decisions.size() < maxBufferedTraces) {
+            decisions.put(traceId, new Decision(exported, now));
+        }
+    }
+
+    /**
+     * Passes on the spans of the traces buffered for longer than the trace timeout, and forgets the decisions taken
+     * before the trace timeout. Runs on the expiry scheduler.
+     *
+     * @param now current time in nanoseconds
+     */
+    void expireTraces(long now) {
+        Iterator<Map.Entry<String, TraceBuffer>> iterator = traces.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, TraceBuffer> entry = iterator.next();
+            TraceBuffer trace = entry.getValue();
+            if (now - trace.createdTime < traceTimeoutNanos) {
+                continue;
+            }
+            List<ReadableSpan> spans = flush(entry.getKey(), trace, now);
+            if (spans != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Exporting " + spans.size() + " spans of a trace which did not complete within "
+                            + TimeUnit.NANOSECONDS.toMillis(traceTimeoutNanos) + " ms");
+                }
+                for (ReadableSpan span : spans) {
+                    delegate.onEnd(span);
+                }
+            }
+        }
+        Iterator<Decision> decided = decisions.values().iterator();
+        while (decided.hasNext()) {
+            if (now - decided.next().decidedTime >= traceTimeoutNanos) {
+                decided.remove();
+            }
+        }
+    }
+
+    /**
+     * Decides to pass on an undecided trace, and removes its buffer.
+     *
+     * @return the spans of the trace, or null if it has been decided already
+     */
+    private List<ReadableSpan> flush(String traceId, TraceBuffer trace, long now) {
+        synchronized (trace) {
+            if (trace.spans == null) {
+                return null;
+            }
+            List<ReadableSpan> spans = trace.spans;
+            trace.spans = null;
+            trace.exported = true;
+            decide(traceId, true, now);
+            traces.remove(traceId, trace);
+            return spans;
+        }
+    }
+
+    int getBufferedTraceCount() {
+        return traces.size();
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        expiryScheduler.shutdownNow();
+        // the root spans of the buffered traces will not end any more, so pass them on as incomplete traces
+        long now = System.nanoTime();
+        int flushed = 0;
+        for (Map.Entry<String, TraceBuffer> entry : traces.entrySet()) {
+            List<ReadableSpan> spans = flush(entry.getKey(), entry.getValue(), now);
+            if (spans != null) {
+                flushed++;
+                for (ReadableSpan span : spans) {
+                    delegate.onEnd(span);
+                }
+            }
+        }
+        if (flushed > 0 && log.isDebugEnabled()) {
+            log.debug("Exported " + flushed + " incomplete traces on shutdown");
+        }
+        decisions.clear();
+        return delegate.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    /**
+     * Spans of a trace which have ended before its root span.
+     */
+    private static class TraceBuffer {
+
+        private final long createdTime;
+
+        private List<ReadableSpan> spans = new ArrayList<>();
+
+        private boolean failed;
+
+        private boolean exported;
+
+        TraceBuffer(long createdTime) {
+            this.createdTime = createdTime;
+        }
+    }
+
+    /**
+     * Whether the spans of a trace are passed on, and when that was decided.
+     */
+    private static class Decision {
+
+        private final boolean exported;
+
+        private final long decidedTime;
+
+        Decision(boolean exported, long decidedTime) {
+            this.exported = exported;
+            this.decidedTime = decidedTime;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.sampling;
+
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.aspects.ComponentType;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.TelemetryConstants;
+import org.apache.synapse.config.SynapsePropertiesLoader;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which messages are traced. A message is sampled once, when the first entry component of its flow is
+ * reported, with the sampling rate configured for the API or proxy service or the default sampling rate. The decision
+ * is kept in the message context, so that all the spans of a message are either started or skipped.
+ * <p>
+ * In tail sampling mode the spans of sampled messages are buffered, and a trace is only exported when one of its
+ * spans has failed or it took longer than the latency threshold.
+ */
+public class TracingSampler {
+
+    private static final Log log = LogFactory.getLog(TracingSampler.class);
+
+    private final double samplingRate;
+
+    private final Map<String, Double> apiSamplingRates;
+
+    private final Map<String, Double> proxySamplingRates;
+
+    private final boolean tailSampling;
+
+    private final long latencyThresholdMillis;
+
+    private final int maxBufferedTraces;
+
+    private final long traceTimeoutMillis;
+
+    /**
+     * Creates a sampler which traces every message.
+     */
+    public TracingSampler() {
+        this(1.0, Collections.<String, Double>emptyMap(), Collections.<String, Double>emptyMap(), false,
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_LATENCY_THRESHOLD,
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_MAX_TRACES,
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_TRACE_TIMEOUT);
+    }
+
+    TracingSampler(double samplingRate, Map<String, Double> apiSamplingRates, Map<String, Double> proxySamplingRates,
+                   boolean tailSampling, long latencyThresholdMillis, int maxBufferedTraces,
+                   long traceTimeoutMillis) {
+        this.samplingRate = samplingRate;
+        this.apiSamplingRates = apiSamplingRates;
+        this.proxySamplingRates = proxySamplingRates;
+        this.tailSampling = tailSampling;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.traceTimeoutMillis = traceTimeoutMillis;
+    }
+
+    /**
+     * Creates a sampler with the sampling configurations in the synapse.properties file.
+     *
+     * @return the configured sampler
+     */
+    public static TracingSampler load() {
+        Properties properties = SynapsePropertiesLoader.loadSynapseProperties();
+        double samplingRate = parseRate(TelemetryConstants.OPENTELEMETRY_SAMPLING_RATE,
+                properties.getProperty(TelemetryConstants.OPENTELEMETRY_SAMPLING_RATE), 1.0);
+        Map<String, Double> apiSamplingRates = new HashMap<>();
+        Map<String, Double> proxySamplingRates = new HashMap<>();
+        Enumeration<?> propertyNames = properties.propertyNames();
+        while (propertyNames.hasMoreElements()) {
+            String property = (String) propertyNames.nextElement();
+            if (property.startsWith(TelemetryConstants.OPENTELEMETRY_API_SAMPLING_RATE_PREFIX)) {
+                apiSamplingRates.put(
+                        property.substring(TelemetryConstants.OPENTELEMETRY_API_SAMPLING_RATE_PREFIX.length()),
+                        parseRate(property, properties.getProperty(property), samplingRate));
+            } else if (property.startsWith(TelemetryConstants.OPENTELEMETRY_PROXY_SAMPLING_RATE_PREFIX)) {
+                proxySamplingRates.put(
+                        property.substring(TelemetryConstants.OPENTELEMETRY_PROXY_SAMPLING_RATE_PREFIX.length()),
+                        parseRate(property, properties.getProperty(property), samplingRate));
+            }
+        }
+
+        String mode = properties.getProperty(TelemetryConstants.OPENTELEMETRY_SAMPLING_MODE,
+                TelemetryConstants.HEAD_SAMPLING_MODE).trim();
+        boolean tailSampling = TelemetryConstants.TAIL_SAMPLING_MODE.equalsIgnoreCase(mode);
+        if (!tailSampling && !TelemetryConstants.HEAD_SAMPLING_MODE.equalsIgnoreCase(mode)) {
+            log.warn("Unknown tracing sampling mode: " + mode + ", using "
+                    + TelemetryConstants.HEAD_SAMPLING_MODE + " sampling");
+        }
+        long latencyThreshold = parseLong(TelemetryConstants.OPENTELEMETRY_TAIL_SAMPLING_LATENCY_THRESHOLD,
+                properties.getProperty(TelemetryConstants.OPENTELEMETRY_TAIL_SAMPLING_LATENCY_THRESHOLD),
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_LATENCY_THRESHOLD);
+        long maxTraces = parseLong(TelemetryConstants.OPENTELEMETRY_TAIL_SAMPLING_MAX_TRACES,
+                properties.getProperty(TelemetryConstants.OPENTELEMETRY_TAIL_SAMPLING_MAX_TRACES),
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_MAX_TRACES);
+        long traceTimeout = parseLong(TelemetryConstants.OPENTELEMETRY_TAIL_SAMPLING_TRACE_TIMEOUT,
+                properties.getProperty(TelemetryConstants.OPENTELEMETRY_TAIL_SAMPLING_TRACE_TIMEOUT),
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_TRACE_TIMEOUT);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Tracing sampling rate: " + samplingRate + ", API sampling rates: " + apiSamplingRates
+                    + ", proxy sampling rates: " + proxySamplingRates + ", tail sampling: " + tailSampling);
+        }
+        return new TracingSampler(samplingRate, apiSamplingRates, proxySamplingRates, tailSampling,
+                latencyThreshold, (int) Math.min(maxTraces, Integer.MAX_VALUE), traceTimeout);
+    }
+
+    /**
+     * Returns whether the message is traced, deciding it if this is the first entry component of the message flow.
+     *
+     * @param synCtx        Message context.
+     * @param componentName Name of the entry component.
+     * @param componentType Type of the entry component.
+     * @return Whether the spans of the message should be collected.
+     */
+    public boolean sample(MessageContext synCtx, String componentName, ComponentType componentType) {
+        Object sampled = synCtx.getProperty(TelemetryConstants.TRACE_SAMPLED_PROPERTY);
+        if (sampled instanceof Boolean) {
+            return (Boolean) sampled;
+        }
+        double rate = getSamplingRate(componentName, componentType);
+        if (rate >= 1.0 && apiSamplingRates.isEmpty() && proxySamplingRates.isEmpty()) {
+            // every message is traced, no need to remember the decision
+            return true;
+        }
+        boolean decision = rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+        synCtx.setProperty(TelemetryConstants.TRACE_SAMPLED_PROPERTY, decision);
+        return decision;
+    }
+
+    /**
+     * Returns whether the spans of the message should be collected, as decided when its flow started.
+     *
+     * @param synCtx Message context.
+     * @return False if the message was not sampled.
+     */
+    public static boolean isSampled(MessageContext synCtx) {
+        return !Boolean.FALSE.equals(synCtx.getProperty(TelemetryConstants.TRACE_SAMPLED_PROPERTY));
+    }
+
+    double getSamplingRate(String componentName, ComponentType componentType) {
+        Double rate = null;
+        if (componentType == ComponentType.API) {
+            rate = apiSamplingRates.get(componentName);
+        } else if (componentType == ComponentType.PROXYSERVICE) {
+            rate = proxySamplingRates.get(componentName);
+        }
+        return rate != null ? rate : samplingRate;
+    }
+
+    /**
+     * Wraps the span processor exporting the spans, to export only the traces retained by tail sampling.
+     *
+     * @param spanProcessor Span processor exporting the spans.
+     * @return The span processor to register with the tracer provider.
+     */
+    public SpanProcessor wrap(SpanProcessor spanProcessor) {
+        if (!tailSampling) {
+            return spanProcessor;
+        }
+        return new TailSamplingSpanProcessor(spanProcessor, latencyThresholdMillis, maxBufferedTraces,
+                traceTimeoutMillis);
+    }
+
+    private static double parseRate(String key, String value, double defaultRate) {
+        if (value == null) {
+            return defaultRate;
+        }
+        try {
+            double rate = Double.parseDouble(value.trim());
+            if (rate >= 0 && rate <= 1) {
+                return rate;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        log.warn("Invalid sampling rate: " + value + " for " + key + ", it should be between 0 and 1. Using "
+                + defaultRate);
+        return defaultRate;
+    }
+
+    private static long parseLong(String key, String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value: " + value + " for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
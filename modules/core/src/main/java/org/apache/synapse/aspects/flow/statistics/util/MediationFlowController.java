@@ -18,6 +18,7 @@
 package org.apache.synapse.aspects.flow.statistics.util;
 
 import org.apache.synapse.aspects.flow.statistics.collectors.RuntimeStatisticCollector;
+import org.apache.synapse.aspects.flow.statistics.store.MessageDataStore;
 import org.apache.synapse.commons.jmx.MBeanRegistrar;
 
 public class MediationFlowController implements MediationFlowControllerMXBean {
@@ -30,4 +31,24 @@ public class MediationFlowController implements MediationFlowControllerMXBean {
         RuntimeStatisticCollector.setCollectingAllStatistics(state);
         return true;
     }
+
+    @Override
+    public long getEnqueuedStatisticEvents() {
+        return MessageDataStore.getEnqueuedEventCount();
+    }
+
+    @Override
+    public long getPublishedStatisticEvents() {
+        return MessageDataStore.getPublishedEventCount();
+    }
+
+    @Override
+    public long getDroppedStatisticEvents() {
+        return MessageDataStore.getDroppedEventCount();
+    }
+
+    @Override
+    public long getLaggingStatisticEvents() {
+        return MessageDataStore.getLaggingEventCount();
+    }
 }
@@ -19,4 +19,12 @@ package org.apache.synapse.aspects.flow.statistics.util;
 
 public interface MediationFlowControllerMXBean {
     public boolean setCollectingAllStatistics(boolean state);
+
+    public long getEnqueuedStatisticEvents();
+
+    public long getPublishedStatisticEvents();
+
+    public long getDroppedStatisticEvents();
+
+    public long getLaggingStatisticEvents();
 }
@@ -34,6 +34,7 @@ import org.apache.synapse.SynapseConstants;
 import org.apache.synapse.SynapseException;
 import org.apache.synapse.api.API;
 import org.apache.synapse.api.ApiConstants;
+import org.apache.synapse.api.ApiRouter;
 import org.apache.synapse.api.inbound.InboundApiUtils;
 import org.apache.synapse.aspects.flow.statistics.store.CompletedStructureStore;
 import org.apache.synapse.carbonext.TenantInfoConfigProvider;
@@ -216,6 +217,14 @@ public class SynapseConfiguration implements ManagedLifecycle, SynapseArtifact {
     private Map<String, Map<String, API>> apiTableWithBindsTo =
             Collections.synchronizedMap(new LinkedHashMap<String, Map<String, API>>());
 
+    /**
+     * Routers over all APIs and over the APIs of each binding. Built on first use after the APIs change, and
+     * replaced rather than modified, so that requests are dispatched without locking the configuration.
+     */
+    private volatile ApiRouter apiRouter;
+
+    private volatile Map<String, ApiRouter> boundApiRouters;
+
     /**
      * Description/documentation of the configuration
      */
@@ -454,6 +463,7 @@ public class SynapseConfiguration implements ManagedLifecycle, SynapseArtifact {
             if (reOrder) {
                 reconstructAPITable();
             }
+            invalidateApiRouters();
             for (SynapseObserver o : observers) {
                 o.apiAdded(api);
             }
@@ -528,6 +538,7 @@ public class SynapseConfiguration implements ManagedLifecycle, SynapseArtifact {
             removeBindsToMappings(name);
             addBindsToMappings(name, api);
             reconstructAPITable();
+            invalidateApiRouters();
             for (SynapseObserver o : observers) {
                 o.apiUpdated(api);
             }
@@ -549,6 +560,56 @@ public class SynapseConfiguration implements ManagedLifecycle, SynapseArtifact {
         return apis != null ? apis.values() : Collections.emptyList();
     }
 
+    /**
+     * Get the router used to select the API of a request among all the APIs.
+     *
+     * @return router over all the APIs, in the order of {@link #getAPIs()}
+     */
+    public ApiRouter getApiRouter() {
+        ApiRouter router = apiRouter;
+        if (router == null) {
+            synchronized (this) {
+                buildApiRouters();
+                router = apiRouter;
+            }
+        }
+        return router;
+    }
+
+    /**
+     * Get the router used to select the API of a request among the APIs bound to the given inbound endpoint.
+     *
+     * @param bindTo Name of inbound/binds-to
+     * @return router over the APIs bound to the specified inbound, in the order of {@link #getAPIs(String)}
+     */
+    public ApiRouter getApiRouter(String bindTo) {
+        Map<String, ApiRouter> routers = boundApiRouters;
+        if (routers == null) {
+            synchronized (this) {
+                buildApiRouters();
+                routers = boundApiRouters;
+            }
+        }
+        ApiRouter router = routers.get(bindTo);
+        return router != null ? router : ApiRouter.EMPTY;
+    }
+
+    private synchronized void buildApiRouters() {
+        if (apiRouter == null || boundApiRouters == null) {
+            Map<String, ApiRouter> routers = new HashMap<String, ApiRouter>();
+            for (Map.Entry<String, Map<String, API>> mapping : apiTableWithBindsTo.entrySet()) {
+                routers.put(mapping.getKey(), new ApiRouter(mapping.getValue().values()));
+            }
+            boundApiRouters = Collections.unmodifiableMap(routers);
+            apiRouter = new ApiRouter(apiTable.values());
+        }
+    }
+
+    private void invalidateApiRouters() {
+        apiRouter = null;
+        boundApiRouters = null;
+    }
+
     public synchronized API getAPI(String name) {
         return apiTable.get(name);
     }
@@ -558,6 +619,7 @@ public class SynapseConfiguration implements ManagedLifecycle, SynapseArtifact {
         if (api != null) {
             apiTable.remove(name);
             removeBindsToMappings(name);
+            invalidateApiRouters();
             for (SynapseObserver o : observers) {
                 o.apiRemoved(api);
             }
@@ -2455,6 +2517,7 @@ public class SynapseConfiguration implements ManagedLifecycle, SynapseArtifact {
                 Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
         apiTable = getReConstructedApiMap(apiTable);
         reconstructBindsToMappings();
+        invalidateApiRouters();
     }
 
     private Map<String, API> getReConstructedApiMap(Map<String, API> originalApiMap) {
@@ -35,7 +35,7 @@ import java.util.*;
  * <p>
  * Configuration syntax:
  * <pre>
- * &lt;validate [source="xpath"] [cache-schema = "true|false"]>
+ * &lt;validate [source="xpath"] [cache-schema = "true|false"] [streaming = "true|false"]>
  *   &lt;schema key="string">+
  *   &lt;resource location="&lt;external-schema>" key="string">+
  *   &lt;feature name="&lt;validation-feature-name>" value="true|false"/>
@@ -51,6 +51,7 @@ public class ValidateMediatorFactory extends AbstractListMediatorFactory {
     private static final QName ON_FAIL_Q  = new QName(XMLConfigConstants.SYNAPSE_NAMESPACE, "on-fail");
     private static final QName SCHEMA_Q   = new QName(XMLConfigConstants.SYNAPSE_NAMESPACE, "schema");
     private static final QName ATT_CACHE_SCHEMA = new QName("cache-schema");
+    private static final QName ATT_STREAMING = new QName("streaming");
 
     public Mediator createSpecificMediator(OMElement elem, Properties properties) {
 
@@ -108,6 +109,12 @@ public class ValidateMediatorFactory extends AbstractListMediatorFactory {
             validateMediator.setCacheSchema(cacheSchema);
         }
 
+        // process streaming validation mode.
+        OMAttribute attStreaming = elem.getAttribute(ATT_STREAMING);
+        if (attStreaming != null) {
+            validateMediator.setStreaming(Boolean.parseBoolean(attStreaming.getAttributeValue()));
+        }
+
         //process external schema resources
         validateMediator.setResourceMap(ResourceMapFactory.createResourceMap(elem));
 
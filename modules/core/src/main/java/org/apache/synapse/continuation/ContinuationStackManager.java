@@ -66,7 +66,7 @@ public class ContinuationStackManager {
         if (synCtx.isContinuationEnabled() && !SequenceType.ANON.equals(seqType)) {
             //ignore Anonymous type sequences
             synCtx.pushContinuationState(new SeqContinuationState(seqType, seqName));
-            if (RuntimeStatisticCollector.isOpenTelemetryEnabled()) {
+            if (RuntimeStatisticCollector.isOpenTelemetryEnabled(synCtx)) {
                 OpenTelemetryManager openTelemetryManager = OpenTelemetryManagerHolder.getOpenTelemetryManager();
                 if (openTelemetryManager != null) {
                     openTelemetryManager.getHandler().handleStateStackInsertion(synCtx, seqName, seqType);
@@ -215,7 +215,7 @@ public class ContinuationStackManager {
         if (synCtx.isContinuationEnabled()) {
             synchronized (continuationStack){
                 continuationStack.clear();
-                if (RuntimeStatisticCollector.isOpenTelemetryEnabled()) {
+                if (RuntimeStatisticCollector.isOpenTelemetryEnabled(synCtx)) {
                     OpenTelemetryManager openTelemetryManager = OpenTelemetryManagerHolder.getOpenTelemetryManager();
                     if (openTelemetryManager != null) {
                         openTelemetryManager.getHandler().handleStateStackClearance(synCtx);
@@ -248,7 +248,7 @@ public class ContinuationStackManager {
         synchronized (continuationStack) {
             if (!continuationStack.isEmpty()) {
                 ContinuationState poppedContinuationState = continuationStack.pop();
-                if (RuntimeStatisticCollector.isOpenTelemetryEnabled()) {
+                if (RuntimeStatisticCollector.isOpenTelemetryEnabled(synCtx)) {
                     OpenTelemetryManager openTelemetryManager = OpenTelemetryManagerHolder.getOpenTelemetryManager();
                     if (openTelemetryManager != null) {
                         openTelemetryManager.getHandler()
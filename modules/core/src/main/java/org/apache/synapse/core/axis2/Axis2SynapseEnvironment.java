@@ -45,6 +45,7 @@ import org.apache.synapse.aspects.flow.statistics.collectors.OpenEventCollector;
 import org.apache.synapse.aspects.flow.statistics.collectors.RuntimeStatisticCollector;
 import org.apache.synapse.aspects.flow.statistics.store.MessageDataStore;
 import org.apache.synapse.carbonext.TenantInfoConfigurator;
+import org.apache.synapse.commons.executors.VirtualThreadExecutor;
 import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.commons.util.ext.TenantInfoInitiator;
 import org.apache.synapse.config.SequenceFlowObserversLoader;
@@ -64,6 +65,9 @@ import org.apache.synapse.mediators.MediatorWorker;
 import org.apache.synapse.mediators.base.SequenceMediator;
 import org.apache.synapse.mediators.elementary.Source;
 import org.apache.synapse.mediators.elementary.Target;
+import org.apache.synapse.metrics.ArtifactMetrics;
+import org.apache.synapse.metrics.MetricsRegistry;
+import org.apache.synapse.rest.RESTConstants;
 import org.apache.synapse.rest.RESTRequestHandler;
 import org.apache.synapse.startup.quartz.QuartzTaskStatisticsCloseEventListener;
 import org.apache.synapse.startup.quartz.StartUpController;
@@ -180,11 +184,31 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
             keepAlive = Long.parseLong(synCfg.getProperty(SynapseThreadPool.SYN_THREAD_ALIVE));
         } catch (Exception ignore) {}
 
-        this.executorService = new SynapseThreadPool(coreThreads, maxThreads, keepAlive, qLength,
-            synCfg.getProperty(SynapseThreadPool.SYN_THREAD_GROUP,
-                SynapseThreadPool.SYNAPSE_THREAD_GROUP),
-            synCfg.getProperty(SynapseThreadPool.SYN_THREAD_IDPREFIX,
-                SynapseThreadPool.SYNAPSE_THREAD_ID_PREFIX));
+        if (Boolean.parseBoolean(synCfg.getProperty(SynapseThreadPool.SYN_THREAD_VIRTUAL))) {
+            int virtualMaxThreads = SynapseThreadPool.SYNAPSE_VIRTUAL_MAX_THREADS;
+            try {
+                virtualMaxThreads = Integer.parseInt(synCfg.getProperty(SynapseThreadPool.SYN_THREAD_VIRTUAL_MAX));
+            } catch (Exception ignore) {}
+
+            if (VirtualThreadExecutor.isSupported()) {
+                log.info("Using virtual threads for the Synapse worker pool with a maximum concurrency of "
+                        + virtualMaxThreads);
+                this.executorService = new VirtualThreadExecutor(
+                    synCfg.getProperty(SynapseThreadPool.SYN_THREAD_IDPREFIX,
+                        SynapseThreadPool.SYNAPSE_THREAD_ID_PREFIX), virtualMaxThreads, qLength);
+            } else {
+                log.warn("Virtual threads are not supported by this Java runtime, using the platform thread "
+                        + "Synapse worker pool");
+            }
+        }
+
+        if (this.executorService == null) {
+            this.executorService = new SynapseThreadPool(coreThreads, maxThreads, keepAlive, qLength,
+                synCfg.getProperty(SynapseThreadPool.SYN_THREAD_GROUP,
+                    SynapseThreadPool.SYNAPSE_THREAD_GROUP),
+                synCfg.getProperty(SynapseThreadPool.SYN_THREAD_IDPREFIX,
+                    SynapseThreadPool.SYNAPSE_THREAD_ID_PREFIX));
+        }
 
 		int ibCoreThreads = InboundThreadPool.INBOUND_CORE_THREADS;
 		int ibMaxThreads = InboundThreadPool.INBOUND_MAX_THREADS;
@@ -267,6 +291,10 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
     }
 
     public boolean injectMessage(final MessageContext synCtx) {
+        long metricsStartTime = System.nanoTime();
+        int faultMark = MetricsRegistry.getFaultMark(synCtx);
+        boolean isResponse = synCtx.isResponse();
+        boolean failed = false;
         try {
 
             if (log.isDebugEnabled()) {
@@ -392,7 +420,12 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
                 }
             }
             return true;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
         } finally {
+            recordMetrics(synCtx, metricsStartTime, isResponse,
+                    failed || MetricsRegistry.hasFaulted(synCtx, faultMark));
             if (synCtx.getEnvironment().isDebuggerEnabled()) {
                 SynapseDebugManager debugManager = synCtx.getEnvironment().getSynapseDebugManager();
                 debugManager.advertiseMediationFlowTerminatePoint(synCtx);
@@ -401,6 +434,23 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
         }
     }
 
+    /**
+     * Record the mediation of an injected message in the metrics of the API or proxy service it belongs to.
+     */
+    private void recordMetrics(MessageContext synCtx, long startTime, boolean isResponse, boolean failed) {
+        if (!MetricsRegistry.isEnabled()) {
+            return;
+        }
+        String proxyName = (String) synCtx.getProperty(SynapseConstants.PROXY_SERVICE);
+        if (proxyName != null && !proxyName.isEmpty()) {
+            // the requests of a proxy service are counted when they are received by the proxy service
+            MetricsRegistry.record(ComponentType.PROXYSERVICE, proxyName, startTime, true, failed);
+        } else {
+            MetricsRegistry.recordApi((String) synCtx.getProperty(RESTConstants.SYNAPSE_REST_API),
+                    (String) synCtx.getProperty(RESTConstants.REST_URL_PATTERN), startTime, isResponse, failed);
+        }
+    }
+
     public void injectAsync(final MessageContext synCtx, SequenceMediator seq) {
         String taskName;
         boolean isStatisticsEnabled = RuntimeStatisticCollector.isStatisticsEnabled();
@@ -495,6 +545,11 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
                 MediatorWorker mediatorWorker = new MediatorWorker(seq, synCtx);
                 mediatorWorker.setStatisticsCloseEventListener(statisticsCloseEventListener);
                 this.executorServiceInbound.execute(mediatorWorker);
+                // the latency of the message is recorded by the metrics of the sequence it is mediated through
+                ArtifactMetrics inboundMetrics = MetricsRegistry.getMetrics(ComponentType.INBOUNDENDPOINT, inboundName);
+                if (inboundMetrics != null) {
+                    inboundMetrics.incrementRequests();
+                }
                 return true;
             } catch (RejectedExecutionException re) {
                 // If the pool is full complete the execution with the same thread
@@ -512,6 +567,9 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
             statisticReportingIndex = OpenEventCollector.reportEntryEvent(synCtx, inboundName,
                     inboundAspectConfiguration, ComponentType.INBOUNDENDPOINT);
         }
+        long metricsStartTime = System.nanoTime();
+        int faultMark = MetricsRegistry.getFaultMark(synCtx);
+        boolean failed = true;
         try {
 
             if (synCtx.getEnvironment().isDebuggerEnabled()) {
@@ -521,6 +579,7 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
             }
 
             seq.mediate(synCtx);
+            failed = false;
             return true;
         } catch (SynapseException syne) {
             if (!synCtx.getFaultStack().isEmpty()) {
@@ -553,6 +612,8 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
             }
             throw new SynapseException(msg, e);
         } finally {
+            MetricsRegistry.record(ComponentType.INBOUNDENDPOINT, inboundName, metricsStartTime, false,
+                    failed || MetricsRegistry.hasFaulted(synCtx, faultMark));
             if (isStatisticsEnabled) {
                 CloseEventCollector.tryEndFlow(synCtx, inboundName, ComponentType.INBOUNDENDPOINT,
                         statisticReportingIndex, false);
@@ -1145,12 +1206,16 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
         if (!invokeHandlers(smc)) {
             return false;
         }
+        long metricsStartTime = System.nanoTime();
+        int faultMark = MetricsRegistry.getFaultMark(smc);
+        boolean failed = true;
         try {
             if (isStatisticsEnabled && inboundName != null) {
                 statisticReportingIndex = OpenEventCollector.reportEntryEvent(smc, inboundName, inboundAspectConfiguration,
                         ComponentType.INBOUNDENDPOINT);
             }
             seq.mediate(smc);
+            failed = false;
             return true;
         } catch (SynapseException syne) {
             if (!smc.getFaultStack().isEmpty()) {
@@ -1181,6 +1246,8 @@ public class Axis2SynapseEnvironment implements SynapseEnvironment {
             }
             return false;
         } finally {
+            MetricsRegistry.record(ComponentType.INBOUNDENDPOINT, inboundName, metricsStartTime, false,
+                    failed || MetricsRegistry.hasFaulted(smc, faultMark));
             if (isStatisticsEnabled && inboundName != null) {
                 CloseEventCollector.tryEndFlow(smc, inboundName, ComponentType.INBOUNDENDPOINT,
                         statisticReportingIndex, false);
@@ -53,6 +53,7 @@ import org.apache.synapse.endpoints.Endpoint;
 import org.apache.synapse.endpoints.WSDLEndpoint;
 import org.apache.synapse.mediators.MediatorFaultHandler;
 import org.apache.synapse.mediators.base.SequenceMediator;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.util.PolicyInfo;
 import org.apache.synapse.util.logging.LoggingUtils;
 import org.apache.synapse.util.resolver.CustomWSDLLocator;
@@ -1487,5 +1488,6 @@ public class ProxyService implements AspectConfigurable, SynapseArtifact {
         if (targetInLineFaultSequence != null && targetInLineFaultSequence.isInitialized()) {
             targetInLineFaultSequence.destroy();
         }
+        MetricsRegistry.remove(ComponentType.PROXYSERVICE, name);
     }
 }
@@ -40,6 +40,7 @@ import org.apache.synapse.aspects.ComponentType;
 import org.apache.synapse.carbonext.TenantInfoConfigurator;
 import org.apache.synapse.debug.SynapseDebugManager;
 import org.apache.synapse.endpoints.Endpoint;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.transport.http.conn.SynapseDebugInfoHolder;
 import org.apache.synapse.transport.http.conn.SynapseWireLogHolder;
 import org.apache.synapse.util.logging.LoggingUtils;
@@ -172,6 +173,9 @@ public class ProxyServiceMessageReceiver extends SynapseMessageReceiver {
         synCtx.setProperty(SynapseConstants.IS_CLIENT_DOING_SOAP11, mc.isSOAP11());
         synCtx.setProperty(CorrelationConstants.CORRELATION_ID, mc.getProperty(CorrelationConstants.CORRELATION_ID));
 
+        long metricsStartTime = System.nanoTime();
+        int faultMark = MetricsRegistry.getFaultMark(synCtx);
+        boolean failed = false;
         try {
             if(synCtx.getEnvironment().isDebuggerEnabled()) {
                 SynapseDebugManager debugManager = synCtx.getEnvironment().getSynapseDebugManager();
@@ -263,6 +267,7 @@ public class ProxyServiceMessageReceiver extends SynapseMessageReceiver {
             }
 
         } catch (SynapseException syne) {
+            failed = true;
 
             if (!synCtx.getFaultStack().isEmpty()) {
                 warn(traceOn, "Executing fault handler due to exception encountered", synCtx);
@@ -273,6 +278,8 @@ public class ProxyServiceMessageReceiver extends SynapseMessageReceiver {
                     "message dropped", synCtx);
             }
         } finally {
+            MetricsRegistry.record(ComponentType.PROXYSERVICE, name, metricsStartTime, false,
+                    failed || MetricsRegistry.hasFaulted(synCtx, faultMark));
             //Statistic reporting
             if (isStatisticsEnabled) {
                 CloseEventCollector.tryEndFlow(synCtx, this.name, ComponentType.PROXYSERVICE,
@@ -57,6 +57,7 @@ import org.apache.synapse.endpoints.auth.oauth.MessageCache;
 import org.apache.synapse.endpoints.auth.oauth.OAuthUtils;
 import org.apache.synapse.mediators.MediatorFaultHandler;
 import org.apache.synapse.mediators.base.SequenceMediator;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.transport.netty.BridgeConstants;
 import org.apache.synapse.transport.util.MessageHandlerProvider;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
@@ -389,6 +390,7 @@ public class SynapseCallbackReceiver extends CallbackReceiver {
             if (faultStack != null && !faultStack.isEmpty()
                 && faultStack.peek() instanceof Endpoint) {
                 successfulEndpoint = (Endpoint) faultStack.pop();
+                MetricsRegistry.endEndpointCall(synapseOutMsgCtx, successfulEndpoint.getName(), false);
             }
 
             if (log.isDebugEnabled()) {
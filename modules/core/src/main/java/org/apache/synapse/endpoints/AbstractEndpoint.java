@@ -52,6 +52,7 @@ import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.core.axis2.Axis2SynapseEnvironment;
 import org.apache.synapse.mediators.MediatorFaultHandler;
 import org.apache.synapse.mediators.MediatorProperty;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.transport.passthru.util.RelayConstants;
 import org.apache.synapse.util.logging.LoggingUtils;
 import org.json.JSONArray;
@@ -396,6 +397,7 @@ public abstract class AbstractEndpoint extends FaultHandler implements Endpoint,
         synCtx.pushFaultHandler(this);
         // add this as the last endpoint to process this message - used by statistics counting code
         synCtx.setProperty(SynapseConstants.LAST_ENDPOINT, this);
+        MetricsRegistry.startEndpointCall(synCtx, endpointName);
         // set message level metrics collector
         org.apache.axis2.context.MessageContext axis2Ctx = ((Axis2MessageContext) synCtx).getAxis2MessageContext();
         axis2Ctx.setProperty(BaseConstants.METRICS_COLLECTOR, metricsMBean);
@@ -574,6 +576,7 @@ public abstract class AbstractEndpoint extends FaultHandler implements Endpoint,
      * @param synCtx the message at hand
      */
     public void onFault(MessageContext synCtx) {
+        MetricsRegistry.endEndpointCall(synCtx, endpointName, true);
         EndpointDefinition endpointDefinition = getDefinition();
         if (endpointDefinition != null && endpointDefinition.getTimeoutAction() == SynapseConstants.DISCARD) {
             log.info("Ignoring fault handlers since the timeout action is set to DISCARD");
@@ -816,6 +819,7 @@ public abstract class AbstractEndpoint extends FaultHandler implements Endpoint,
             MBeanRegistrar.getInstance().unRegisterMBean("Endpoint", endpointName);
         }
         metricsMBean = null;
+        MetricsRegistry.remove(ComponentType.ENDPOINT, endpointName);
 
         this.initialized = false;
     }
@@ -27,12 +27,20 @@ import org.apache.synapse.config.SynapsePropertiesLoader;
 import org.apache.synapse.util.MessageHelper;
 import org.apache.synapse.util.Replicator;
 
+import java.io.Serializable;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class is one of the key classes of the Endpoint management in Synapse. It maintains the
  * runtime state of an endpoint for local and clustered endpoint configurations.
+ * <p>
+ * The state, retry time and retry counters of the endpoint are held in one immutable {@link EndpointState}
+ * record, and every transition replaces the record with a single compare-and-set. A successful send to an active
+ * endpoint is thus only a volatile read. In a clustered environment the record is replicated under a single key
+ * after each transition. Each record carries a logical version, one higher than the version of the record it was
+ * computed from, and the record with the higher version of the local and the replicated records is used.
  */
 public class EndpointContext {
 
@@ -40,11 +48,6 @@ public class EndpointContext {
 
     private static final String KEY_PREFIX = "synapse.endpoint.";
     private static final String STATE = ".state";
-    private static final String NEXT_RETRY_TIME = ".next_retry_time";
-    private static final String REMAINING_RETRIES = ".remaining_retries";
-    private static final String LAST_SUSPEND_DURATION = ".last_suspend_duration";
-    private static final String MAXIMUM_REMAINING_RETRIES = ".maximum_remaining_retries";
-    private static final String MAXIMUM_REMAINING_RECURSIVE_RETRIES = ".maximum_remaining_recursive_retries";
 
     // The different states an endpoint could exist at any point in time
     /** And active endpoint known to be functioning properly */
@@ -62,20 +65,10 @@ public class EndpointContext {
      */
     public static final int ST_OFF = 4;
 
-    /** The state of the endpoint at present */
-    private int  localState = ST_ACTIVE;
-    /** The time in ms, until the next retry - depending on a timeout or suspension */
-    private long localNextRetryTime = -1;
-    /** The number of attempts left for timeout failures, until they make the endpoint suspended */
-    private int  localRemainingRetries = -1;
-    /** The duration in ms for the last suspension */
-    private long localLastSuspendDuration = -1;
     /** The maximum number of failover attempts allowed for the endpoint */
     private int maximumRetryLimit =
             Integer.parseInt(SynapsePropertiesLoader.getPropertyValue(SynapseConstants.MAX_FAILOVER_RETRIES_CONFIG,
                     String.valueOf(SynapseConstants.DEFAULT_MAX_FAILOVER_RETRIES)));
-    /** The number of attempts left for endpoint failures, until they make the endpoint suspended */
-    private int maximumRemainingRetries = maximumRetryLimit;
     /** The endpoint suspension duration in ms if the maximum retry attempts exceeded */
     private long suspendDurationOnMaximumFailover = Long.parseLong(SynapsePropertiesLoader
             .getPropertyValue(SynapseConstants.SUSPEND_DURATION_ON_MAX_FAILOVER_CONFIG,
@@ -85,13 +78,14 @@ public class EndpointContext {
     private int maximumRecursiveRetryLimit =
             Integer.parseInt(SynapsePropertiesLoader.getPropertyValue(SynapseConstants.MAX_FAILOVER_RECUSIVE_RETRIES_CONFIG,
                     String.valueOf(SynapseConstants.DEFAULT_MAX_FAILOVER_RETRIES)));
-    /** The number of attempts left for endpoint failures, until they make the endpoint suspended */
-    private int maximumRemainingRecursiveRetries = maximumRecursiveRetryLimit;
     /** The endpoint suspension duration in ms if the maximum retry attempts exceeded */
     private long suspendDurationOnMaximumRecursiveFailover = Long.parseLong(SynapsePropertiesLoader
             .getPropertyValue(SynapseConstants.SUSPEND_DURATION_ON_MAX_RECURSIVE_FAILOVER_CONFIG,
                     String.valueOf(SynapseConstants.DEFAULT_ENDPOINT_SUSPEND_TIME)));
 
+    /** The runtime state of the endpoint at present */
+    private final AtomicReference<EndpointState> localState;
+
     /** Is the environment clustered ? */
     private boolean isClustered = false;
     /** Name of the endpoint - mainly for logging */
@@ -107,13 +101,8 @@ public class EndpointContext {
     /** Endpoint is in switch off status or not */
     private boolean isSwitchOff  = false;
 
-    // for clustered mode operation, keys pre-computed and used for replication
+    // for clustered mode operation, key pre-computed and used for replication
     private final String STATE_KEY;
-    private final String NEXT_RETRY_TIME_KEY;
-    private final String REMAINING_RETRIES_KEY;
-    private final String LAST_SUSPEND_DURATION_KEY;
-    private final String MAXIMUM_REMAINING_RETRIES_KEY;
-    private final String MAXIMUM_REMAINING_RECURSIVE_RETRIES_KEY;
 
     /**
      * Create an EndpointContext to hold runtime state of an Endpoint
@@ -148,20 +137,19 @@ public class EndpointContext {
         this.metricsBean = metricsBean;
 
         STATE_KEY = KEY_PREFIX + endpointName + STATE;
-        NEXT_RETRY_TIME_KEY = KEY_PREFIX + endpointName + NEXT_RETRY_TIME;
-        REMAINING_RETRIES_KEY = KEY_PREFIX + endpointName + REMAINING_RETRIES;
-        LAST_SUSPEND_DURATION_KEY = KEY_PREFIX + endpointName + LAST_SUSPEND_DURATION;
-        MAXIMUM_REMAINING_RETRIES_KEY = KEY_PREFIX + endpointName + MAXIMUM_REMAINING_RETRIES;
-        MAXIMUM_REMAINING_RECURSIVE_RETRIES_KEY = KEY_PREFIX + endpointName + MAXIMUM_REMAINING_RECURSIVE_RETRIES;
+
+        EndpointState initialState = new EndpointState(ST_ACTIVE, -1, -1, -1,
+                maximumRetryLimit, maximumRecursiveRetryLimit, 0);
+        localState = new AtomicReference<EndpointState>(initialState);
 
         if (isClustered && (endpointDefinition == null ||
                 !endpointDefinition.isReplicationDisabled())) {
             //In a clustered environment, we need to set the state of an Endpoint when it is created.
-            cfgCtx.setNonReplicableProperty(STATE_KEY, ST_ACTIVE);
+            cfgCtx.setNonReplicableProperty(STATE_KEY, initialState);
         }
     }
 
-    private void recordStatistics(int state) {
+    private void recordStatistics(int state, int previousState) {
         if (metricsBean == null) {
             return;
         }
@@ -177,7 +165,7 @@ public class EndpointContext {
             case ST_TIMEOUT:
                 metricsBean.resetConsecutiveSuspensions();
                 metricsBean.incrementTimeouts();
-                if (localState != ST_TIMEOUT) {
+                if (previousState != ST_TIMEOUT) {
                     metricsBean.setTimedoutAt(Calendar.getInstance().getTime());
                     metricsBean.setSuspendedAt(null);
                 }
@@ -186,7 +174,7 @@ public class EndpointContext {
             case ST_SUSPENDED:
                 metricsBean.resetConsecutiveTimeouts();
                 metricsBean.incrementSuspensions();
-                if (localState != ST_SUSPENDED) {
+                if (previousState != ST_SUSPENDED) {
                     metricsBean.setSuspendedAt(Calendar.getInstance().getTime());
                     metricsBean.setTimedoutAt(null);
                 }
@@ -194,6 +182,43 @@ public class EndpointContext {
         }
     }
 
+    /**
+     * @return the current state of the endpoint, which in a clustered environment is the replicated state if its
+     * version is higher than the version of the local one, and the local state otherwise
+     */
+    private EndpointState getCurrentState() {
+        return getCurrentState(localState.get());
+    }
+
+    private EndpointState getCurrentState(EndpointState local) {
+        if (isClustered) {
+            Object replicated = cfgCtx.getPropertyNonReplicable(STATE_KEY);
+            if (replicated instanceof EndpointState
+                    && ((EndpointState) replicated).version > local.version) {
+                return (EndpointState) replicated;
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Replace the local state of the endpoint if it is still the expected one, and replicate the new state in a
+     * clustered environment
+     *
+     * @param expected the local state the new state was computed from
+     * @param state    the new state of the endpoint
+     * @return whether the state was replaced
+     */
+    private boolean compareAndSetState(EndpointState expected, EndpointState state) {
+        if (!localState.compareAndSet(expected, state)) {
+            return false;
+        }
+        if (isClustered) {
+            Replicator.setAndReplicateState(STATE_KEY, state, cfgCtx);
+        }
+        return true;
+    }
+
     /**
      * Update the internal state of the endpoint
      *
@@ -201,153 +226,130 @@ public class EndpointContext {
      */
     private void setState(int state) {
 
-        recordStatistics(state);
+        EndpointState local;
+        EndpointState current;
+        EndpointState next;
+        do {
+            local = localState.get();
+            current = getCurrentState(local);
+            next = computeNextState(current, state, System.currentTimeMillis());
+        } while (!compareAndSetState(local, next));
+
+        recordStatistics(state, current.state);
+        if (definition == null || next.state == ST_OFF) {
+            return;
+        }
 
-        if (isClustered) {
-            Replicator.setAndReplicateState(STATE_KEY, state, cfgCtx);
-            if (definition == null) return;
-            switch (state) {
-                case ST_ACTIVE: {
-                    Replicator.setAndReplicateState(REMAINING_RETRIES_KEY,
-                            definition.getRetriesOnTimeoutBeforeSuspend(), cfgCtx);
-                    Replicator.setAndReplicateState(LAST_SUSPEND_DURATION_KEY, null, cfgCtx);
-                    Replicator.setAndReplicateState(REMAINING_RETRIES_KEY, maximumRetryLimit, cfgCtx);
-                    if (maximumRecursiveRetryLimit != -1) {
-                        Replicator.setAndReplicateState(REMAINING_RETRIES_KEY, maximumRecursiveRetryLimit, cfgCtx);
-                    }
-                    break;
-                }
-                case ST_TIMEOUT: {
-                    Integer retries
-                            = (Integer) cfgCtx.getPropertyNonReplicable(REMAINING_RETRIES_KEY);
-                    if (retries == null) {
-                        retries = definition.getRetriesOnTimeoutBeforeSuspend();
-                    }
-
-                    if (retries <= 0) {
-                        log.info("Endpoint : " + endpointName + printEndpointAddress() +
-                                " has been marked for SUSPENSION," +
-                                " but no further retries remain. Thus it will be SUSPENDED.");
-
-                        setState(ST_SUSPENDED);
-
-                    } else {
-                        Replicator.setAndReplicateState(
-                                REMAINING_RETRIES_KEY, (retries - 1), cfgCtx);
-                        long nextRetry = System.currentTimeMillis()
-                                + definition.getRetryDurationOnTimeout();
-                        Replicator.setAndReplicateState(NEXT_RETRY_TIME_KEY, nextRetry, cfgCtx);
-
-                        log.warn("Endpoint : " + endpointName + printEndpointAddress() +
-                                " is marked as TIMEOUT and " +
-                                "will be retried : " + (retries - 1) + " more time/s after : " +
-                                new Date(nextRetry) + " until its marked SUSPENDED for failure");
-                    }
-                    break;
-                }
-                case ST_SUSPENDED: {
-                    computeNextRetryTimeForSuspended();
-                    break;
-                }
-                case ST_OFF: {
-                    // mark as in maintenence, and reset all other information
-                    Replicator.setAndReplicateState(REMAINING_RETRIES_KEY,
-                            definition == null ? -1 :
-                                    definition.getRetriesOnTimeoutBeforeSuspend(), cfgCtx);
-                    Replicator.setAndReplicateState(LAST_SUSPEND_DURATION_KEY, null, cfgCtx);
-                    Replicator.setAndReplicateState(REMAINING_RETRIES_KEY, maximumRetryLimit, cfgCtx);
-                    if (maximumRecursiveRetryLimit != -1) {
-                        Replicator.setAndReplicateState(REMAINING_RETRIES_KEY, maximumRecursiveRetryLimit, cfgCtx);
-                    }
-                    break;
+        switch (state) {
+            case ST_TIMEOUT: {
+                if (next.state == ST_SUSPENDED) {
+                    log.info("Endpoint : " + endpointName + printEndpointAddress()
+                            + " has been marked for SUSPENSION, "
+                            + "but no further retries remain. Thus it will be SUSPENDED.");
+                    recordStatistics(ST_SUSPENDED, ST_TIMEOUT);
+                    logSuspension(current, next);
+                } else {
+                    log.warn("Endpoint : " + endpointName + printEndpointAddress()
+                            + " is marked as TIMEOUT and " +
+                            "will be retried : " + next.remainingRetries + " more time/s " +
+                            "after : " + new Date(next.nextRetryTime)
+                            + " until its marked SUSPENDED for failure");
                 }
+                break;
+            }
+            case ST_SUSPENDED: {
+                logSuspension(current, next);
+                break;
             }
+        }
+    }
 
-        } else {
-            /**
-             * The isSwitchOff flag becomes true when the endpoint is switched off manually. This state is maintained
-             * until the endpoint is activated.
-             */
-            if (isSwitchOff) {
-                localState = ST_OFF;
-            } else {
-                localState = state;
-                if (definition == null) return;
-                switch (state) {
-                    case ST_ACTIVE: {
-                        localRemainingRetries = definition.getRetriesOnTimeoutBeforeSuspend();
-                        localLastSuspendDuration = -1;
-                        maximumRemainingRetries = maximumRetryLimit;
-                        if (maximumRecursiveRetryLimit != -1) {
-                            maximumRemainingRetries = maximumRecursiveRetryLimit;
-                        }
-                        break;
-                    }
-                    case ST_TIMEOUT: {
-                        int retries = localRemainingRetries;
-                        if (retries == -1) {
-                            retries = definition.getRetriesOnTimeoutBeforeSuspend();
-                        }
-
-                        if (retries <= 0) {
-                            log.info("Endpoint : " + endpointName + printEndpointAddress()
-                                    + " has been marked for SUSPENSION, "
-                                    + "but no further retries remain. Thus it will be SUSPENDED.");
-
-                            setState(ST_SUSPENDED);
-
-                        } else {
-                            localRemainingRetries = retries - 1;
-                            localNextRetryTime =
-                                    System.currentTimeMillis() + definition.getRetryDurationOnTimeout();
-                            log.warn("Endpoint : " + endpointName + printEndpointAddress()
-                                    + " is marked as TIMEOUT and " +
-                                    "will be retried : " + localRemainingRetries + " more time/s " +
-                                    "after : " + new Date(localNextRetryTime)
-                                    + " until its marked SUSPENDED for failure");
-                        }
-                        break;
-                    }
-                    case ST_SUSPENDED: {
-                        computeNextRetryTimeForSuspended();
-                        break;
-                    }
-                    case ST_OFF: {
-                        // mark as in maintenence, and reset all other information
-                        localRemainingRetries = definition == null ?
-                                -1 : definition.getRetriesOnTimeoutBeforeSuspend();
-                        localLastSuspendDuration = -1;
-                        maximumRemainingRetries = maximumRetryLimit;
-                        if (maximumRecursiveRetryLimit != -1) {
-                            maximumRemainingRetries = maximumRecursiveRetryLimit;
-                        }
-                        break;
-                    }
+    /**
+     * Compute the state the endpoint moves to from the given state
+     *
+     * @param current the current state of the endpoint
+     * @param state   the new state of the endpoint
+     * @param now     the current time in ms
+     * @return the next state of the endpoint
+     */
+    private EndpointState computeNextState(EndpointState current, int state, long now) {
+        /*
+         * The isSwitchOff flag becomes true when the endpoint is switched off manually. This state is maintained
+         * until the endpoint is activated.
+         */
+        if (!isClustered && isSwitchOff) {
+            return current.withState(ST_OFF);
+        }
+        if (definition == null) {
+            return current.withState(state);
+        }
+
+        switch (state) {
+            case ST_ACTIVE:
+            case ST_OFF: {
+                // mark as active or in maintenence, and reset all other information
+                return new EndpointState(state, -1, definition.getRetriesOnTimeoutBeforeSuspend(), -1,
+                        maximumRetryLimit, maximumRecursiveRetryLimit, current.version + 1);
+            }
+            case ST_TIMEOUT: {
+                int retries = current.remainingRetries;
+                if (retries == -1) {
+                    retries = definition.getRetriesOnTimeoutBeforeSuspend();
+                }
+                if (retries <= 0) {
+                    return computeSuspendedState(current, now);
                 }
+                return new EndpointState(ST_TIMEOUT, now + definition.getRetryDurationOnTimeout(), retries - 1,
+                        current.lastSuspendDuration, current.maximumRemainingRetries,
+                        current.maximumRemainingRecursiveRetries, current.version + 1);
             }
+            case ST_SUSPENDED: {
+                return computeSuspendedState(current, now);
+            }
+            default: {
+                return current.withState(state);
+            }
+        }
+    }
+
+    /**
+     * Compute the suspension duration according to the geometric series parameters defined
+     */
+    private EndpointState computeSuspendedState(EndpointState current, long now) {
+        long nextSuspendDuration = (current.lastSuspendDuration <= 0 ?
+                definition.getInitialSuspendDuration() :
+                (long) (current.lastSuspendDuration * definition.getSuspendProgressionFactor()));
+
+        if (nextSuspendDuration > definition.getSuspendMaximumDuration()) {
+            nextSuspendDuration = definition.getSuspendMaximumDuration();
+        } else if (nextSuspendDuration < 0) {
+            nextSuspendDuration = SynapseConstants.DEFAULT_ENDPOINT_SUSPEND_TIME;
         }
+
+        return new EndpointState(ST_SUSPENDED, now + nextSuspendDuration, current.remainingRetries,
+                nextSuspendDuration, current.maximumRemainingRetries, current.maximumRemainingRecursiveRetries,
+                current.version + 1);
+    }
+
+    private void logSuspension(EndpointState previous, EndpointState suspended) {
+        boolean notYetSuspended = previous.lastSuspendDuration <= 0;
+        log.warn("Suspending endpoint : " + endpointName + printEndpointAddress() +
+                (notYetSuspended ? " -" :
+                        " - last suspend duration was : " + previous.lastSuspendDuration + "ms and") +
+                " current suspend duration is : " + suspended.lastSuspendDuration + "ms - " +
+                "Next retry after : " + new Date(suspended.nextRetryTime));
     }
 
     /**
      * Endpoint has processed a message successfully
      */
     public void onSuccess() {
-        if (isClustered) {
-            Integer state = (Integer) cfgCtx.getPropertyNonReplicable(STATE_KEY);
-
-            if ((state != null) && ((state != ST_ACTIVE) && (state != ST_OFF))) {
-                log.info("Endpoint : " + endpointName + printEndpointAddress()
-                        + " currently " + getStateAsString() +
-                        " will now be marked active since it processed its last message");
-                setState(ST_ACTIVE);
-            }
-        } else {
-            if (localState != ST_ACTIVE && localState != ST_OFF) {
-                log.info("Endpoint : " + endpointName + printEndpointAddress()
-                        + " currently " + getStateAsString() +
-                        " will now be marked active since it processed its last message");
-                setState(ST_ACTIVE);
-            }
+        int state = getCurrentState().state;
+        if (state != ST_ACTIVE && state != ST_OFF) {
+            log.info("Endpoint : " + endpointName + printEndpointAddress()
+                    + " currently " + getStateAsString(state) +
+                    " will now be marked active since it processed its last message");
+            setState(ST_ACTIVE);
         }
     }
 
@@ -371,50 +373,6 @@ public class EndpointContext {
         setState(ST_TIMEOUT);
     }
 
-    /**
-     * Compute the suspension duration according to the geometric series parameters defined
-     */
-    private void computeNextRetryTimeForSuspended() {
-        boolean notYetSuspended = true;
-        long lastSuspendDuration = definition.getInitialSuspendDuration();
-        if (isClustered) {
-            Long lastDuration = (Long) cfgCtx.getPropertyNonReplicable(LAST_SUSPEND_DURATION_KEY);
-            if (lastDuration != null) {
-                lastSuspendDuration = lastDuration;
-                notYetSuspended = false;
-            }
-        } else if (localLastSuspendDuration > 0) {
-            lastSuspendDuration = localLastSuspendDuration;
-            notYetSuspended = false;
-        }
-
-        long nextSuspendDuration = (notYetSuspended ?
-                definition.getInitialSuspendDuration() :
-                (long) (lastSuspendDuration * definition.getSuspendProgressionFactor()));
-
-        if (nextSuspendDuration > definition.getSuspendMaximumDuration()) {
-            nextSuspendDuration = definition.getSuspendMaximumDuration();
-        } else if (nextSuspendDuration < 0) {
-            nextSuspendDuration = SynapseConstants.DEFAULT_ENDPOINT_SUSPEND_TIME;
-        }
-
-        long nextRetryTime = System.currentTimeMillis() + nextSuspendDuration;
-
-        if (isClustered) {
-            Replicator.setAndReplicateState(LAST_SUSPEND_DURATION_KEY, nextSuspendDuration, cfgCtx);
-            Replicator.setAndReplicateState(NEXT_RETRY_TIME_KEY, nextRetryTime, cfgCtx);
-        } else {
-            localLastSuspendDuration = nextSuspendDuration;
-            localNextRetryTime = nextRetryTime;
-        }
-
-        log.warn("Suspending endpoint : " + endpointName + printEndpointAddress() +
-                (notYetSuspended ? " -" :
-                        " - last suspend duration was : " + lastSuspendDuration + "ms and") +
-                " current suspend duration is : " + nextSuspendDuration + "ms - " +
-                "Next retry after : " + new Date(nextRetryTime));
-    }
-
     /**
      * Checks if the endpoint is in the state ST_ACTIVE. In a clustered environment, the non
      * availability of a clustered STATE_KEY implies that this endpoint is active
@@ -423,105 +381,71 @@ public class EndpointContext {
      */
     public boolean readyToSend() {
 
+        EndpointState current = getCurrentState();
         if (log.isDebugEnabled()) {
             log.debug("Checking if endpoint : " + endpointName + printEndpointAddress() + " currently at state " +
-                    getStateAsString() + " can be used now?");
+                    getStateAsString(current.state) + " can be used now?");
         }
-        Integer state;
-        if (isClustered) {
-            if (isSwitchOff) {
-                state = ST_OFF;
-            } else {
-                // gets the value from configuration context (The shared state across all instances)
-                state = (Integer) cfgCtx.getPropertyNonReplicable(STATE_KEY);
-            }
-
-            Integer remainingRetries
-                    = (Integer) cfgCtx.getPropertyNonReplicable(REMAINING_RETRIES_KEY);
-            Long nextRetryTime = (Long) cfgCtx.getPropertyNonReplicable(NEXT_RETRY_TIME_KEY);
-
-            if (state == null) {
-                // state has not yet been replicated..
-                // first replication occurs on first timeout or fault
-                return true;
 
-            } else {
-                if (state == ST_ACTIVE) {
-                    return true;
-
-                } else if (state == ST_OFF) {
-                    return false;
-
-                } else if (System.currentTimeMillis() >= nextRetryTime) {
-                    // if we are not active, but reached the next retry time, return true but do not
-                    // make a state change. We will make the state change on a successful send
-                    // if we are in the ST_TIMEOUT state, reduce a remaining retry
-                    if (state == ST_TIMEOUT) {
-                        remainingRetries--;
-                        Replicator.setAndReplicateState(
-                                REMAINING_RETRIES_KEY, remainingRetries, cfgCtx);
-
-                        if (log.isDebugEnabled()) {
-                            log.debug("Endpoint : " + endpointName + printEndpointAddress()
-                                    + " which is currently in " +
-                                    "timeout state is ready to be retried. Remaining retries " +
-                                    "before suspension : " + remainingRetries);
-                        }
-
-                    } else {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Endpoint : " + endpointName + printEndpointAddress()
-                                    + " which is currently " +
-                                    "SUSPENDED, is ready to be retried now");
-                        }
-                    }
-                    return true;
+        int state = isClustered && isSwitchOff ? ST_OFF : current.state;
+        if (state == ST_ACTIVE) {
+            return true;
+
+        } else if (state == ST_OFF) {
+            return false;
+
+        } else if (System.currentTimeMillis() >= current.nextRetryTime) {
+            // if we are not active, but reached the next retry time, return true but do not
+            // make a state change. We will make the state change on a successful send
+            // if we are in the ST_TIMEOUT state, reduce a remaining retry
+            if (state == ST_TIMEOUT) {
+                int remainingRetries = current.remainingRetries;
+                if (isClustered) {
+                    remainingRetries = decrementRemainingRetries();
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Endpoint : " + endpointName + printEndpointAddress()
+                            + " which is currently in timeout " +
+                            "state is ready to be retried. Remaining retries before " +
+                            "suspension : " + remainingRetries);
                 }
-            }
-
-        } else {
-
-            if (localState == ST_ACTIVE) {
-                return true;
-
-            } else if (localState == ST_OFF) {
-                return false;
-
-            } else if (System.currentTimeMillis() >= localNextRetryTime) {
-
-                // if we are not active, but reached the next retry time, return true but do not
-                // make a state change. We will make the state change on a successful send
-                // if we are in the ST_TIMEOUT state, reduce a remaining retry
-                if (localState == ST_TIMEOUT) {
-
-                    if (log.isDebugEnabled()) {
-                        log.debug("Endpoint : " + endpointName + printEndpointAddress()
-                                + " which is currently in timeout " +
-                                "state is ready to be retried. Remaining retries before " +
-                                "suspension : " + localRemainingRetries);
-                    }
 
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Endpoint : " + endpointName + printEndpointAddress()
-                                + " which is currently SUSPENDED," +
-                                " is ready to be retried now");
-                    }
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug("Endpoint : " + endpointName + printEndpointAddress()
+                            + " which is currently SUSPENDED," +
+                            " is ready to be retried now");
                 }
-                return true;
             }
+            return true;
         }
 
         if (log.isDebugEnabled()) {
             log.debug("Endpoint : " + endpointName + printEndpointAddress()
                     + " not ready and is currently : "
-                    + getStateAsString() + ". Next retry will be after : "
-                    + new Date(localNextRetryTime));
+                    + getStateAsString(state) + ". Next retry will be after : "
+                    + new Date(current.nextRetryTime));
         }
 
         return false;
     }
 
+    private int decrementRemainingRetries() {
+        while (true) {
+            EndpointState local = localState.get();
+            EndpointState current = getCurrentState(local);
+            if (current.state != ST_TIMEOUT) {
+                return current.remainingRetries;
+            }
+            EndpointState next = new EndpointState(ST_TIMEOUT, current.nextRetryTime,
+                    current.remainingRetries - 1, current.lastSuspendDuration, current.maximumRemainingRetries,
+                    current.maximumRemainingRecursiveRetries, current.version + 1);
+            if (compareAndSetState(local, next)) {
+                return next.remainingRetries;
+            }
+        }
+    }
+
     /**
      * Manually turn off this endpoint (e.g. for maintenence)
      */
@@ -539,38 +463,17 @@ public class EndpointContext {
     }
 
     public boolean isState(int s) {
-        if (isClustered) {
-            Integer state = (Integer) cfgCtx.getPropertyNonReplicable(STATE_KEY);
-            // state has not yet been replicated..
-            // first replication occurs on first timeout or fault
-            boolean isState = false;
-            if (state == null) {
-                if (s == ST_ACTIVE) {
-                    isState = true;
-                }
-            } else {
-                isState = state == s;
-            }
-            return isState;
-        } else {
-            return localState == s;
-        }
+        return getCurrentState().state == s;
     }
 
 
     /**
-     * Private method to return the current state as a loggable string
+     * Private method to return a state as a loggable string
      *
-     * @return the current state as a string
+     * @param state the state of the endpoint
+     * @return the state as a string
      */
-    private String getStateAsString() {
-        Integer state = localState;
-        if (isClustered) {
-            state = (Integer) cfgCtx.getPropertyNonReplicable(STATE_KEY);
-            if (state == null) {
-                return "ACTIVE";
-            }
-        }
+    private String getStateAsString(int state) {
         switch (state) {
             case ST_ACTIVE : return "ACTIVE";
             case ST_TIMEOUT : return "TIMEOUT";
@@ -593,7 +496,7 @@ public class EndpointContext {
     public String toString() {
         StringBuffer sb = new StringBuffer();
         sb.append("[ Name : ").append(endpointName).
-                append(" ] [ State : ").append(getStateAsString()).append(" ]");
+                append(" ] [ State : ").append(getStateAsString(getCurrentState().state)).append(" ]");
         return sb.toString();
     }
 
@@ -610,70 +513,37 @@ public class EndpointContext {
      */
     public boolean isMaxRetryLimitReached(boolean isRecursiveEndpoint) {
 
-        if (isClustered) {
-            Integer remainingMaxRetries;
-            int maximumRetryLimitCount;
-            if (isRecursiveEndpoint) {
-                remainingMaxRetries = (Integer) cfgCtx.getPropertyNonReplicable(MAXIMUM_REMAINING_RECURSIVE_RETRIES_KEY);
-                maximumRetryLimitCount = maximumRecursiveRetryLimit;
-            } else {
-                remainingMaxRetries = (Integer) cfgCtx.getPropertyNonReplicable(MAXIMUM_REMAINING_RETRIES_KEY);
-                maximumRetryLimitCount = maximumRetryLimit;
-            }
-            if (remainingMaxRetries == null) {
-                remainingMaxRetries = maximumRetryLimitCount;
-            }
-
-            if (remainingMaxRetries == -1) {
-                //disable endpoint suspension
-                return false;
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("Endpoint : " + endpointName + printEndpointAddress()
-                        + " has " + remainingMaxRetries + " maximum retries before suspension");
-            }
-
-            if (remainingMaxRetries <= 0) {
-                if (isRecursiveEndpoint) {
-                    Replicator.setAndReplicateState(MAXIMUM_REMAINING_RECURSIVE_RETRIES_KEY,
-                            maximumRecursiveRetryLimit, cfgCtx);
-                }
-                return true;
-            } else {
-                if (isRecursiveEndpoint) {
-                    Replicator.setAndReplicateState(MAXIMUM_REMAINING_RECURSIVE_RETRIES_KEY,
-                            (remainingMaxRetries - 1), cfgCtx);
-                } else {
-                    Replicator.setAndReplicateState(MAXIMUM_REMAINING_RETRIES_KEY, (remainingMaxRetries - 1), cfgCtx);
-                }
-                return false;
-            }
-        } else {
-            int maximumRemainingRetriesCount = isRecursiveEndpoint ? maximumRemainingRecursiveRetries :
-                    maximumRemainingRetries;
+        while (true) {
+            EndpointState local = localState.get();
+            EndpointState current = getCurrentState(local);
+            int maximumRemainingRetriesCount = isRecursiveEndpoint ? current.maximumRemainingRecursiveRetries :
+                    current.maximumRemainingRetries;
             if (maximumRemainingRetriesCount == -1) {
                 //disable endpoint suspension
                 return false;
             }
 
-            if (log.isDebugEnabled()) {
-                log.debug("Endpoint : " + endpointName + printEndpointAddress()
-                        + " has " + maximumRemainingRetriesCount + " maximum retries before suspension");
+            boolean limitReached = maximumRemainingRetriesCount <= 0;
+            int remaining = limitReached ? maximumRecursiveRetryLimit : maximumRemainingRetriesCount - 1;
+            EndpointState next;
+            if (isRecursiveEndpoint) {
+                next = new EndpointState(current.state, current.nextRetryTime, current.remainingRetries,
+                        current.lastSuspendDuration, current.maximumRemainingRetries, remaining,
+                        current.version + 1);
+            } else if (!limitReached) {
+                next = new EndpointState(current.state, current.nextRetryTime, current.remainingRetries,
+                        current.lastSuspendDuration, remaining, current.maximumRemainingRecursiveRetries,
+                        current.version + 1);
+            } else {
+                next = current;
             }
 
-            if (maximumRemainingRetriesCount <= 0) {
-                if (isRecursiveEndpoint) {
-                    maximumRemainingRecursiveRetries = maximumRecursiveRetryLimit;
+            if (next == current || compareAndSetState(local, next)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Endpoint : " + endpointName + printEndpointAddress()
+                            + " has " + maximumRemainingRetriesCount + " maximum retries before suspension");
                 }
-                return true;
-            } else {
-                maximumRemainingRetriesCount -= 1;
-                if (isRecursiveEndpoint) {
-                    maximumRemainingRecursiveRetries = maximumRemainingRetriesCount;
-                } else {
-                    maximumRemainingRetries = maximumRemainingRetriesCount;
-                }
-                return false;
+                return limitReached;
             }
         }
     }
@@ -683,23 +553,67 @@ public class EndpointContext {
      */
     public void onFailoverRetryLimit(boolean isRecursiveEndpoint) {
 
-        recordStatistics(ST_SUSPENDED);
         long suspendDuration = isRecursiveEndpoint ? suspendDurationOnMaximumRecursiveFailover :
                 suspendDurationOnMaximumFailover;
-        long nextRetryTime = System.currentTimeMillis() + suspendDuration;
-        if (isClustered) {
-            Replicator.setAndReplicateState(STATE_KEY, ST_SUSPENDED, cfgCtx);
-            Replicator.setAndReplicateState(LAST_SUSPEND_DURATION_KEY, suspendDuration, cfgCtx);
-            Replicator.setAndReplicateState(NEXT_RETRY_TIME_KEY, nextRetryTime, cfgCtx);
-        } else {
-            localState = ST_SUSPENDED;
-            localLastSuspendDuration = suspendDuration;
-            localNextRetryTime = nextRetryTime;
-        }
-
+        long nextRetryTime;
+        EndpointState local;
+        EndpointState current;
+        EndpointState next;
+        do {
+            local = localState.get();
+            current = getCurrentState(local);
+            nextRetryTime = System.currentTimeMillis() + suspendDuration;
+            next = new EndpointState(ST_SUSPENDED, nextRetryTime, current.remainingRetries, suspendDuration,
+                    current.maximumRemainingRetries, current.maximumRemainingRecursiveRetries, current.version + 1);
+        } while (!compareAndSetState(local, next));
+
+        recordStatistics(ST_SUSPENDED, current.state);
         log.warn("Endpoint : " + endpointName + printEndpointAddress() +
                 " will be marked SUSPENDED as it failed until the maximum failover retry limit. Current suspend " +
                 "duration is : " +
                 suspendDuration + "ms - Next retry after : " + new Date(nextRetryTime));
     }
+
+    /**
+     * Immutable runtime state of an endpoint. A transition of the endpoint replaces the whole record, which is
+     * also the unit of replication in a clustered environment.
+     */
+    static final class EndpointState implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The state of the endpoint */
+        final int state;
+        /** The time in ms, until the next retry - depending on a timeout or suspension */
+        final long nextRetryTime;
+        /** The number of attempts left for timeout failures, until they make the endpoint suspended */
+        final int remainingRetries;
+        /** The duration in ms for the last suspension */
+        final long lastSuspendDuration;
+        /** The number of attempts left for endpoint failures, until they make the endpoint suspended */
+        final int maximumRemainingRetries;
+        /** The number of attempts left for recursive endpoint failures, until they make the endpoint suspended */
+        final int maximumRemainingRecursiveRetries;
+        /**
+         * The logical version of this state, one higher than the version of the state it was computed from. It
+         * orders local and replicated states independent of the clocks of the cluster members.
+         */
+        final long version;
+
+        EndpointState(int state, long nextRetryTime, int remainingRetries, long lastSuspendDuration,
+                      int maximumRemainingRetries, int maximumRemainingRecursiveRetries, long version) {
+            this.state = state;
+            this.nextRetryTime = nextRetryTime;
+            this.remainingRetries = remainingRetries;
+            this.lastSuspendDuration = lastSuspendDuration;
+            this.maximumRemainingRetries = maximumRemainingRetries;
+            this.maximumRemainingRecursiveRetries = maximumRemainingRecursiveRetries;
+            this.version = version;
+        }
+
+        EndpointState withState(int state) {
+            return new EndpointState(state, nextRetryTime, remainingRetries, lastSuspendDuration,
+                    maximumRemainingRetries, maximumRemainingRecursiveRetries, version + 1);
+        }
+    }
 }
@@ -30,6 +30,7 @@ import org.apache.synapse.aspects.flow.statistics.data.artifact.ArtifactHolder;
 import org.apache.synapse.commons.handlers.MessagingHandler;
 import org.apache.synapse.core.SynapseEnvironment;
 import org.apache.synapse.mediators.Value;
+import org.apache.synapse.metrics.MetricsRegistry;
 import org.apache.synapse.registry.Registry;
 import org.apache.synapse.util.xpath.SynapseXPath;
 import org.jaxen.JaxenException;
@@ -189,6 +190,7 @@ public class InboundEndpoint implements AspectConfigurable, ManagedLifecycle {
                 log.error("Unable to destroy Inbound endpoint", e);
             }
         }
+        MetricsRegistry.remove(ComponentType.INBOUNDENDPOINT, name);
     }
 
     /**
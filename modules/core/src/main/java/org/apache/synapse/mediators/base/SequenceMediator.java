@@ -42,6 +42,7 @@ import org.apache.synapse.mediators.AbstractListMediator;
 import org.apache.synapse.mediators.FlowContinuableMediator;
 import org.apache.synapse.mediators.MediatorFaultHandler;
 import org.apache.synapse.mediators.Value;
+import org.apache.synapse.metrics.MetricsRegistry;
 
 import java.util.Stack;
 
@@ -128,6 +129,9 @@ public class SequenceMediator extends AbstractListMediator implements Nameable,
             }
             // Setting Required property to reportForComponent the sequence aspects
 
+            long metricsStartTime = System.nanoTime();
+            int faultMark = MetricsRegistry.getFaultMark(synCtx);
+            boolean failed = true;
             try {
                 // push the errorHandler sequence into the current message as the fault handler
                 if (errorHandler != null) {
@@ -186,10 +190,14 @@ public class SequenceMediator extends AbstractListMediator implements Nameable,
                             "End : Sequence <" + (name == null ? "anonymous" : name) + ">");
                 }
 
-
+                failed = false;
                 return result;
 
             } finally {
+                if (sequenceType == SequenceType.NAMED) {
+                    MetricsRegistry.record(ComponentType.SEQUENCE, name, metricsStartTime, false,
+                            failed || MetricsRegistry.hasFaulted(synCtx, faultMark));
+                }
                 // End Statistics
                 if (RuntimeStatisticCollector.isStatisticsEnabled()) {
                     reportCloseStatistics(synCtx, statisticReportingIndex);
@@ -328,6 +336,9 @@ public class SequenceMediator extends AbstractListMediator implements Nameable,
         if (initialized) {
             super.destroy();
             initialized = false;
+            if (sequenceType == SequenceType.NAMED) {
+                MetricsRegistry.remove(ComponentType.SEQUENCE, name);
+            }
 
             if (key != null) {
                 // Clearing unavailable sequence references added by this sequence
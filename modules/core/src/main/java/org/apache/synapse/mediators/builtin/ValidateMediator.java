@@ -26,6 +26,7 @@ import com.github.fge.jsonschema.core.report.ProcessingMessage;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.OMNode;
 import org.apache.axiom.om.impl.llom.OMTextImpl;
 import org.apache.synapse.ContinuationState;
@@ -44,6 +45,7 @@ import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.config.Entry;
 import org.apache.synapse.config.SynapseConfigUtils;
 import org.apache.synapse.config.SynapseConfiguration;
+import org.apache.synapse.config.SynapsePropertiesLoader;
 import org.apache.synapse.config.xml.SynapsePath;
 import org.apache.synapse.continuation.ContinuationStackManager;
 import org.apache.synapse.core.SynapseEnvironment;
@@ -54,6 +56,7 @@ import org.apache.synapse.mediators.MediatorProperty;
 import org.apache.synapse.mediators.Value;
 import org.apache.synapse.util.AXIOMUtils;
 import org.apache.synapse.util.jaxp.SchemaResourceResolver;
+import org.apache.synapse.util.jaxp.StAXContentHandlerBridge;
 import org.apache.synapse.util.resolver.ResourceMap;
 import org.apache.synapse.util.resolver.UserDefinedXmlSchemaURIResolver;
 import org.apache.synapse.util.xpath.SourceXPathSupport;
@@ -65,17 +68,22 @@ import org.xml.sax.SAXParseException;
 import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.XMLConstants;
-import javax.xml.transform.Source;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static org.apache.synapse.SynapseConstants.SYNAPSE_VALIDATE_MEDIATOR_REDEPLOYMENT_CACHE_CLEAR;
@@ -87,9 +95,21 @@ import static org.apache.synapse.SynapseConstants.SYNAPSE_VALIDATE_MEDIATOR_REDE
  * memory leaks. Hence this initial implementation will create a single parser instance
  * for each unique mediator instance, and re-use it to validate multiple messages - even
  * concurrently - by synchronizing access
+ * <p/>
+ * In the streaming mode an XML source is validated through a pooled {@link ValidatorHandler}, fed
+ * with the events read while the source element is built, and a JSON payload is parsed straight from
+ * its stream instead of being copied to a string first.
  */
 public class ValidateMediator extends AbstractListMediator implements FlowContinuableMediator {
 
+    /**
+     * The synapse property which defines the maximum number of idle validator handlers pooled
+     * for each cached schema in the streaming mode
+     */
+    public static final String VALIDATOR_POOL_SIZE = "synapse.validate.validator.pool.size";
+
+    private static final int DEFAULT_VALIDATOR_POOL_SIZE = 16;
+
     /**
      * A list of property keys, referring to the schemas to be used for the validation
      * key can be static or dynamic(xpath) key
@@ -147,11 +167,28 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
      */
     private Map<String, JsonSchema> cachedJsonSchemaMap = new ConcurrentHashMap<String, JsonSchema>();
 
+    /**
+     * Pools of validator handlers used in the streaming mode, keyed by the combined schema key
+     */
+    private final Map<String, ValidatorHandlerPool> validatorHandlerPools =
+            new ConcurrentHashMap<String, ValidatorHandlerPool>();
+
+    /**
+     * Maximum number of idle validator handlers kept for each cached schema
+     */
+    private final int validatorPoolSize = Integer.parseInt(SynapsePropertiesLoader.getPropertyValue(
+            VALIDATOR_POOL_SIZE, String.valueOf(DEFAULT_VALIDATOR_POOL_SIZE)));
+
     /**
      * Whether schema need to cache or not. Default cache every schema.
      */
     private boolean cacheSchema = true;
 
+    /**
+     * Whether messages are validated in the streaming mode
+     */
+    private boolean streaming = false;
+
     @SuppressWarnings({"ThrowableResultOfMethodCallIgnored"})
     public boolean mediate(MessageContext synCtx) {
 
@@ -204,8 +241,8 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
             }
 
             // do not re-initialize schema unless required
-            synchronized (validatorLock) {
-                if (reCreate || cachedJsonSchema == null) {
+            if (reCreate || cachedJsonSchema == null) {
+                synchronized (validatorLock) {
                     Object jsonSchemaObj = null;
                     for (Value schemaKey : schemaKeys) {
                         // Derive actual key from message context
@@ -278,6 +315,7 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
                     handleException("Failed to create JSON Schema Validator", synCtx);
                 }
                 String jsonPayload = null;
+                JsonNode jsonPayloadNode = null;
                 if (sourcePath != null) {
                     //evaluating
                     if (sourcePath instanceof SynapseJsonPath || sourcePath instanceof SynapseExpression) {
@@ -286,17 +324,22 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
                         handleException("Could not find JSONPath or Synapse Expression to extract the message " +
                                 "to validate from the payload", synCtx);
                     }
+                } else if (streaming) {
+                    jsonPayloadNode = readJsonPayload(a2mc);
                 } else {
                     jsonPayload = JsonUtil.jsonPayloadToString(a2mc);
                 }
-                if(jsonPayload == null || jsonPayload.length() == 0) {
-                    //making empty json string
-                    jsonPayload = "{}";
+                if (jsonPayloadNode == null) {
+                    if (jsonPayload == null || jsonPayload.length() == 0) {
+                        //making empty json string
+                        jsonPayload = "{}";
+                    }
+                    jsonPayloadNode = JsonLoader.fromString(jsonPayload);
                 }
                 if (cacheSchema) {
-                    report = cachedJsonSchema.validate(JsonLoader.fromString(jsonPayload));
+                    report = cachedJsonSchema.validate(jsonPayloadNode);
                 } else {
-                    report = uncachedJsonSchema.validate(JsonLoader.fromString(jsonPayload));
+                    report = uncachedJsonSchema.validate(jsonPayloadNode);
                 }
                 if (report.isSuccess()) {
                     return true;
@@ -337,10 +380,10 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
             }
         } else {
 
-            Source validateSrc;
+            OMNode validateNode;
             try {
-                // Input source for the validation
-                validateSrc = getValidationSource(synCtx, synLog);
+                // Input node for the validation
+                validateNode = getValidationNode(synCtx, synLog);
 
             } catch (SynapseException e) {
                 /* Catches the exception here to forward to 'on-fail' sequence.
@@ -399,8 +442,8 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
             Schema uncachedSchema = null;
 
             // do not re-initialize schema unless required
-            synchronized (validatorLock) {
-                if (reCreate || cachedSchema == null) {
+            if (reCreate || cachedSchema == null) {
+                synchronized (validatorLock) {
 
                     factory.setErrorHandler(errorHandler);
                     StreamSource[] sources = new StreamSource[schemaKeys.size()];
@@ -476,16 +519,16 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
 
             // no need to synchronize, schema instances are thread-safe
             try {
-                Validator validator;
-                if (cacheSchema) {
-                    validator = cachedSchema.newValidator();
+                Schema schema = cacheSchema ? cachedSchema : uncachedSchema;
+                if (streaming) {
+                    validateStreaming(validateNode, schema, combinedPropertyKey.toString(), errorHandler);
                 } else {
-                    validator = uncachedSchema.newValidator();
-                }
-                validator.setErrorHandler(errorHandler);
+                    Validator validator = schema.newValidator();
+                    validator.setErrorHandler(errorHandler);
 
-                // perform actual validation
-                validator.validate(validateSrc);
+                    // perform actual validation
+                    validator.validate(AXIOMUtils.asSource(validateNode));
+                }
 
                 if (errorHandler.isValidationError()) {
 
@@ -519,6 +562,8 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
                 handleException("Error validating " + source + " element", e, synCtx);
             } catch (IOException e) {
                 handleException("Error validating " + source + " element", e, synCtx);
+            } catch (XMLStreamException e) {
+                handleException("Error validating " + source + " element", e, synCtx);
             }
         }
         if (synLog.isTraceOrDebugEnabled()) {
@@ -631,18 +676,105 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
     }
     
     /**
-     * Get the validation Source for the message context
+     * Get the node to be validated for the message context
      *
      * @param synCtx the current message to validate
      * @param synLog  SynapseLog instance
-     * @return the validation Source for the current message
+     * @return the node to be validated for the current message
      */
-    private Source getValidationSource(MessageContext synCtx, SynapseLog synLog) throws SynapseException {
+    private OMNode getValidationNode(MessageContext synCtx, SynapseLog synLog) throws SynapseException {
         OMNode validateSource = source.selectOMNode(synCtx, synLog);
-        if (synLog.isTraceOrDebugEnabled()) {
+        if (synLog.isTraceOrDebugEnabled() && !streaming) {
             synLog.traceOrDebug("Validation source : " + validateSource.toString());
         }
-        return AXIOMUtils.asSource(validateSource);
+        return validateSource;
+    }
+
+    /**
+     * Validate the given node through a validator handler fed with the events read while the node
+     * is built. The handler is borrowed from the pool of the schema when the schema is cached.
+     *
+     * @param validateNode the node to validate
+     * @param schema the schema to validate against
+     * @param schemaKey the combined key of the cached schema
+     * @param errorHandler the handler collecting the validation errors
+     * @throws SAXException if the validation cannot be performed
+     * @throws XMLStreamException if the node cannot be read
+     */
+    private void validateStreaming(OMNode validateNode, Schema schema, String schemaKey,
+                                   ValidateMediatorErrorHandler errorHandler)
+            throws SAXException, XMLStreamException {
+
+        ValidatorHandlerPool pool = null;
+        if (cacheSchema) {
+            pool = validatorHandlerPools.get(schemaKey);
+            if (pool == null || pool.schema != schema) {
+                // the schema has been (re)created since the pool was created
+                pool = new ValidatorHandlerPool(schema, validatorPoolSize);
+                validatorHandlerPools.put(schemaKey, pool);
+            }
+        }
+
+        ValidatorHandler validatorHandler = pool != null ? pool.borrow() : schema.newValidatorHandler();
+        boolean completed = false;
+        try {
+            validatorHandler.setErrorHandler(errorHandler);
+            StAXContentHandlerBridge.replay((OMElement) validateNode, validatorHandler);
+            completed = true;
+        } finally {
+            validatorHandler.setErrorHandler(null);
+            // a handler interrupted in the middle of a document is not reused
+            if (pool != null && completed) {
+                pool.release(validatorHandler);
+            }
+        }
+    }
+
+    /**
+     * Parse the JSON payload straight from its stream, without copying it to a string first
+     *
+     * @param a2mc axis2 message context of the current message
+     * @return the JSON payload, or an empty object if the message has no payload
+     * @throws IOException if the payload cannot be read
+     */
+    private JsonNode readJsonPayload(org.apache.axis2.context.MessageContext a2mc) throws IOException {
+        Reader reader = JsonUtil.newJsonPayloadReader(a2mc);
+        if (reader == null) {
+            return JsonLoader.fromString("{}");
+        }
+        PushbackReader payload = new PushbackReader(reader);
+        int first = payload.read();
+        if (first == -1) {
+            return JsonLoader.fromString("{}");
+        }
+        payload.unread(first);
+        return JsonLoader.fromReader(payload);
+    }
+
+    /**
+     * A bounded pool of idle validator handlers created from a schema. A validator handler is not
+     * thread-safe, so it is used by one message at a time and reused for the next document.
+     */
+    private static final class ValidatorHandlerPool {
+
+        private final Schema schema;
+
+        private final BlockingQueue<ValidatorHandler> idleHandlers;
+
+        ValidatorHandlerPool(Schema schema, int poolSize) {
+            this.schema = schema;
+            this.idleHandlers = new ArrayBlockingQueue<ValidatorHandler>(Math.max(poolSize, 1));
+        }
+
+        ValidatorHandler borrow() {
+            ValidatorHandler validatorHandler = idleHandlers.poll();
+            return validatorHandler != null ? validatorHandler : schema.newValidatorHandler();
+        }
+
+        void release(ValidatorHandler validatorHandler) {
+            // the handler is dropped if the pool is full
+            idleHandlers.offer(validatorHandler);
+        }
     }
 
     /**
@@ -817,6 +949,24 @@ public class ValidateMediator extends AbstractListMediator implements FlowContin
         return cacheSchema;
     }
 
+    /**
+     * Set whether messages are validated in the streaming mode.
+     *
+     * @param streaming validate in the streaming mode or not.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Check whether messages are validated in the streaming mode.
+     *
+     * @return whether the streaming mode is used or not.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     @Override
     public boolean isContentAware() {
         return true;
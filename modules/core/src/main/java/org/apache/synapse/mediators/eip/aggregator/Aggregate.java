@@ -55,7 +55,7 @@ public class Aggregate extends TimerTask {
     private ScatterGather scatterGatherMediator = null;
     private List<MessageContext> messages = new ArrayList<MessageContext>();
     private ReentrantLock lock = new ReentrantLock();
-    private boolean completed = false;
+    private volatile boolean completed = false;
     private SynapseEnvironment synEnv = null;
 
     /**
@@ -254,22 +254,34 @@ public class Aggregate extends TimerTask {
     }
 
     public void run() {
-        while (true) {
-            if (completed) {
-                break;
-            }
-            if (getLock()) {
-                try {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Time : " + System.currentTimeMillis() + " and this aggregator " +
-                                "expired at : " + expiryTimeMillis);
-                    }
-                    synEnv.getExecutorService().execute(new AggregateTimeout(this));
-                    break;
-                } finally {
-                    releaseLock();
-                }
+        while (!expire()) {
+            // wait for the message being aggregated to release the aggregate
+        }
+    }
+
+    /**
+     * Dispatch the timeout of this aggregation to the executor of the Synapse environment, unless a message is
+     * being aggregated at the moment.
+     *
+     * @return true if the aggregation is completed or its timeout has been dispatched, false if it is locked by a
+     * message being aggregated
+     */
+    boolean expire() {
+        if (completed) {
+            return true;
+        }
+        if (!getLock()) {
+            return false;
+        }
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Time : " + System.currentTimeMillis() + " and this aggregator " +
+                        "expired at : " + expiryTimeMillis);
             }
+            synEnv.getExecutorService().execute(new AggregateTimeout(this));
+            return true;
+        } finally {
+            releaseLock();
         }
     }
 
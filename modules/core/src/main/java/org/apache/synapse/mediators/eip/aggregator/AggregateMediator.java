@@ -63,6 +63,8 @@ import org.apache.synapse.util.xpath.SynapseXPath;
 import org.jaxen.JaxenException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Aggregate a number of messages that are determined to be for a particular group, and combine
@@ -70,8 +72,8 @@ import java.util.*;
  * an aggregator acts like a filter, and may look at a correlation XPath expression to select
  * messages for aggregation - or look at messageSequence number properties for aggregation or
  * let any other (i.e. non aggregatable) messages flow through
- * An instance of this mediator will register with a Timer to be notified after a specified timeout,
- * so that aggregations that never would complete could be timed out and cleared from memory and
+ * The aggregates of this mediator are registered with a timing wheel to be notified after a specified
+ * timeout, so that aggregations that never would complete could be timed out and cleared from memory and
  * any fault conditions handled
  */
 public class AggregateMediator extends AbstractMediator implements ManagedLifecycle,
@@ -113,17 +115,13 @@ public class AggregateMediator extends AbstractMediator implements ManagedLifecy
     private SequenceMediator onCompleteSequence = null;
 
     /** The active aggregates currently being processd */
-    private Map<String, Aggregate> activeAggregates =
-        Collections.synchronizedMap(new HashMap<String, Aggregate>());
+    private final ConcurrentMap<String, Aggregate> activeAggregates = new ConcurrentHashMap<String, Aggregate>();
 
     private String id = null;
 
     /** Property which contains the Enclosing element of the aggregated message */
     private String enclosingElementPropertyName = null;
 
-    /** Lock object to provide the synchronized access to the activeAggregates on checking */
-    private final Object lock = new Object();
-
     /** Reference to the synapse environment */
     private SynapseEnvironment synapseEnv;
 
@@ -221,50 +219,9 @@ public class AggregateMediator extends AbstractMediator implements ManagedLifecy
                 }
             }
             if (result != null) {
-
-                while (aggregate == null) {
-
-                    synchronized (lock) {
-
-                        if (activeAggregates.containsKey(correlateExpression.toString())) {
-
-                            aggregate = activeAggregates.get(correlateExpression.toString());
-                            if (aggregate != null) {
-                                if (!aggregate.getLock()) {
-                                    aggregate = null;
-                                }
-                            }
-
-                        } else {
-
-                            if (synLog.isTraceOrDebugEnabled()) {
-                                synLog.traceOrDebug("Creating new Aggregator - " +
-                                        (completionTimeoutMillis > 0 ? "expires in : "
-                                                + (completionTimeoutMillis / 1000) + "secs" :
-                                                "without expiry time"));
-                            }
-                            if (isAggregationCompleted(synCtx)) {
-                                return false;
-                            }
-
-                            Double minMsg = Double.parseDouble(minMessagesToComplete.evaluateValue(synCtx));
-                            Double maxMsg = Double.parseDouble(maxMessagesToComplete.evaluateValue(synCtx));
-                    
-                            aggregate = new Aggregate(
-                                    synCtx.getEnvironment(),
-                                    correlateExpression.toString(),
-                                    completionTimeoutMillis,
-                                    minMsg.intValue(),
-                                    maxMsg.intValue(), this, synCtx.getFaultStack().peek());
-
-                            if (completionTimeoutMillis > 0) {
-                                synCtx.getConfiguration().getSynapseTimer().
-                                        schedule(aggregate, completionTimeoutMillis);
-                            }
-                            aggregate.getLock();
-                            activeAggregates.put(correlateExpression.toString(), aggregate);
-                        }
-                    }
+                aggregate = getAggregate(synCtx, synLog, correlateExpression.toString());
+                if (aggregate == null) {
+                    return false;
                 }
 
             } else if (synCtx.getProperty(correlationIdName) != null) {
@@ -274,70 +231,12 @@ public class AggregateMediator extends AbstractMediator implements ManagedLifecy
                 // which thus can be used to uniquely group messages into aggregates
 
                 Object o = synCtx.getProperty(correlationIdName);
-                String correlation;
 
                 if (o != null && o instanceof String) {
-                    correlation = (String) o;
-                    while (aggregate == null) {
-                        synchronized (lock) {
-                            if (activeAggregates.containsKey(correlation)) {
-                                aggregate = activeAggregates.get(correlation);
-                                if (aggregate != null) {
-                                    if (!aggregate.getLock()) {
-                                        aggregate = null;
-                                    }
-                                } else {
-                                    break;
-                                }
-                            } else {
-                                if (synLog.isTraceOrDebugEnabled()) {
-                                    synLog.traceOrDebug("Creating new Aggregator - " +
-                                            (completionTimeoutMillis > 0 ? "expires in : "
-                                                    + (completionTimeoutMillis / 1000) + "secs" :
-                                                    "without expiry time"));
-                                }
-
-                                if (isAggregationCompleted(synCtx)) {
-                                    return false;
-                                }
-
-                                Double minMsg = -1.0;
-                                if (minMessagesToComplete != null) {
-                                    minMsg = Double.parseDouble(minMessagesToComplete.evaluateValue(synCtx));
-                                }
-                                Double maxMsg = -1.0;
-                                if (maxMessagesToComplete != null) {
-                                    maxMsg = Double.parseDouble(maxMessagesToComplete.evaluateValue(synCtx));
-                                }
-
-                                aggregate = new Aggregate(
-                                        synCtx.getEnvironment(),
-                                        correlation,
-                                        completionTimeoutMillis,
-                                        minMsg.intValue(),
-                                        maxMsg.intValue(), this, synCtx.getFaultStack().peek());
-
-                                if (completionTimeoutMillis > 0) {
-                                    synchronized(aggregate) {
-                                        if (!aggregate.isCompleted()) {
-                                            try {
-                                                synCtx.getConfiguration().getSynapseTimer().
-                                                        schedule(aggregate, completionTimeoutMillis);
-                                            } catch (IllegalStateException e) {
-                                                log.warn("Synapse timer already cancelled. Resetting Synapse timer");
-                                                synCtx.getConfiguration().setSynapseTimer(new Timer(true));
-                                                synCtx.getConfiguration().getSynapseTimer().
-                                                        schedule(aggregate, completionTimeoutMillis);
-                                            }
-                                        }
-                                    }
-                                }
-                                aggregate.getLock();
-                                activeAggregates.put(correlation, aggregate);
-                            }
-                        }
+                    aggregate = getAggregate(synCtx, synLog, (String) o);
+                    if (aggregate == null) {
+                        return false;
                     }
-                    
                 } else {
                     synLog.traceOrDebug("Unable to find aggrgation correlation property");
                     return true;
@@ -392,6 +291,64 @@ public class AggregateMediator extends AbstractMediator implements ManagedLifecy
         return false;
     }
 
+    /**
+     * Find the active aggregate of a correlation, or create it, and lock it for the given message. Only the
+     * messages of the same correlation contend with each other, on the lock of their aggregate.
+     *
+     * @param synCtx      message to be aggregated
+     * @param synLog      the Synapse log to use
+     * @param correlation correlation of the message
+     * @return the locked aggregate, or null if the aggregation of the message has already been completed
+     */
+    private Aggregate getAggregate(MessageContext synCtx, SynapseLog synLog, String correlation) {
+        while (true) {
+            Aggregate aggregate = activeAggregates.get(correlation);
+            if (aggregate != null) {
+                if (aggregate.getLock()) {
+                    return aggregate;
+                }
+                // another message of this correlation is being aggregated
+                Thread.yield();
+                continue;
+            }
+
+            if (synLog.isTraceOrDebugEnabled()) {
+                synLog.traceOrDebug("Creating new Aggregator - " +
+                        (completionTimeoutMillis > 0 ? "expires in : "
+                                + (completionTimeoutMillis / 1000) + "secs" :
+                                "without expiry time"));
+            }
+            if (isAggregationCompleted(synCtx)) {
+                return null;
+            }
+
+            Double minMsg = -1.0;
+            if (minMessagesToComplete != null) {
+                minMsg = Double.parseDouble(minMessagesToComplete.evaluateValue(synCtx));
+            }
+            Double maxMsg = -1.0;
+            if (maxMessagesToComplete != null) {
+                maxMsg = Double.parseDouble(maxMessagesToComplete.evaluateValue(synCtx));
+            }
+
+            aggregate = new Aggregate(
+                    synCtx.getEnvironment(),
+                    correlation,
+                    completionTimeoutMillis,
+                    minMsg.intValue(),
+                    maxMsg.intValue(), this, synCtx.getFaultStack().peek());
+            aggregate.getLock();
+            if (activeAggregates.putIfAbsent(correlation, aggregate) == null) {
+                if (completionTimeoutMillis > 0) {
+                    AggregateTimeoutWheel.getInstance().schedule(aggregate);
+                }
+                return aggregate;
+            }
+            // another message of this correlation created the aggregate first
+            aggregate.releaseLock();
+        }
+    }
+
     /*
      * Check whether aggregation is already completed by time-out/receiving required number of min/max messages,
       * and we are receiving a message after the aggregation is completed.
@@ -462,7 +419,7 @@ public class AggregateMediator extends AbstractMediator implements ManagedLifecy
         }
 
         // cancel the timer
-        synchronized(this) {
+        synchronized(aggregate) {
             if (!aggregate.isCompleted()) {
                 aggregate.cancel();
                 aggregate.setCompleted(true);
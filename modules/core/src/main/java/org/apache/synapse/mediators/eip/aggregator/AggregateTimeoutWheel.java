@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.mediators.eip.aggregator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel of the completion timeouts of the aggregates. Scheduling an aggregate is a lock free O(1)
+ * queue insertion, so that thousands of concurrent correlations do not contend on the single thread and the task
+ * queue of a {@link java.util.Timer}. The wheel is advanced by one daemon thread, which only dispatches the timed
+ * out aggregates to the executor of their Synapse environment.
+ * <p>
+ * Each slot holds the aggregates whose deadline falls on it in any rotation of the wheel, and aggregates due in a
+ * later rotation are left in their slot. Completed aggregates are not removed when they complete, but dropped when
+ * their slot is reached. An aggregate expires within a tick after its deadline, or a rotation later if its deadline
+ * is less than a tick away when it is scheduled concurrently with the advance over its slot.
+ */
+class AggregateTimeoutWheel {
+
+    private static final Log log = LogFactory.getLog(AggregateTimeoutWheel.class);
+
+    static final long TICK_MILLIS = 100;
+
+    static final int SLOTS = 512;
+
+    private static volatile AggregateTimeoutWheel instance;
+
+    private final long tickMillis;
+
+    private final long startMillis;
+
+    private final Queue<Aggregate>[] slots;
+
+    /** Number of ticks the wheel has been advanced over, only written by the advancing thread */
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    AggregateTimeoutWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new Queue[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new ConcurrentLinkedQueue<Aggregate>();
+        }
+    }
+
+    /**
+     * @return the wheel shared by all the aggregate mediators, started on first use
+     */
+    static AggregateTimeoutWheel getInstance() {
+        AggregateTimeoutWheel wheel = instance;
+        if (wheel == null) {
+            synchronized (AggregateTimeoutWheel.class) {
+                wheel = instance;
+                if (wheel == null) {
+                    wheel = new AggregateTimeoutWheel(TICK_MILLIS, System.currentTimeMillis());
+                    wheel.start();
+                    instance = wheel;
+                }
+            }
+        }
+        return wheel;
+    }
+
+    private void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "aggregate-timeout-wheel");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                try {
+                    advance(System.currentTimeMillis());
+                } catch (Throwable t) {
+                    // keep the wheel turning, a failed advance would otherwise cancel the task
+                    log.error("Error while expiring aggregates", t);
+                }
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule the completion timeout of an aggregate at its expiry time.
+     *
+     * @param aggregate aggregate with an expiry time
+     */
+    void schedule(Aggregate aggregate) {
+        // the first tick at or after the deadline, so that the aggregate is due when its slot is reached
+        long tick = Math.max(toTick(aggregate.getExpiryTimeMillis() + tickMillis - 1), currentTick + 1);
+        slots[slotIndex(tick)].add(aggregate);
+    }
+
+    /**
+     * Advance the wheel to the given time and expire the aggregates which are due. Must only be called by one
+     * thread at a time.
+     *
+     * @param now current time in milliseconds
+     */
+    void advance(long now) {
+        long targetTick = toTick(now);
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            currentTick = tick;
+            Iterator<Aggregate> iterator = slots[slotIndex(tick)].iterator();
+            while (iterator.hasNext()) {
+                Aggregate aggregate = iterator.next();
+                if (aggregate.isCompleted()) {
+                    iterator.remove();
+                } else if (aggregate.getExpiryTimeMillis() <= now) {
+                    iterator.remove();
+                    if (!aggregate.expire()) {
+                        // a message is being aggregated, try again at the next tick
+                        slots[slotIndex(tick + 1)].add(aggregate);
+                    }
+                }
+            }
+        }
+    }
+
+    private long toTick(long millis) {
+        return Math.max(0, (millis - startMillis) / tickMillis);
+    }
+
+    private static int slotIndex(long tick) {
+        return (int) (tick & (SLOTS - 1));
+    }
+}
@@ -47,6 +47,7 @@ import org.apache.synapse.mediators.eip.SharedDataHolder;
 import org.apache.synapse.mediators.eip.EIPConstants;
 import org.apache.synapse.mediators.eip.Target;
 import org.apache.synapse.util.MessageHelper;
+import org.apache.synapse.util.SharedEnvelope;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -124,13 +125,14 @@ public class CloneMediator extends AbstractMediator implements ManagedLifecycle,
             int i = 0;
             boolean isStopFlowOnFailure = "true".equalsIgnoreCase((String)
                     synCtx.getProperty(STOP_FLOW_ON_FAILURE_PROPERTY_NAME));
+            SharedEnvelope envelope = MessageHelper.shareEnvelope(synCtx, targets.size());
             while (iter.hasNext()) {
                 if (synLog.isTraceOrDebugEnabled()) {
                     synLog.traceOrDebug("Submitting " + (i + 1) + " of " + targets.size() +
                             " messages for " + (isSequential() ? "sequential processing" : "parallel processing"));
                 }
 
-                MessageContext clonedMsgCtx = getClonedMessageContext(synCtx, i++, targets.size());
+                MessageContext clonedMsgCtx = getClonedMessageContext(synCtx, i++, targets.size(), envelope);
                 ContinuationStackManager.addReliantContinuationState(clonedMsgCtx, i - 1,
                         getMediatorPosition());
                 iter.next().mediate(clonedMsgCtx);
@@ -164,13 +166,14 @@ public class CloneMediator extends AbstractMediator implements ManagedLifecycle,
         Target target = targets.get(0);
         boolean isStopFlowOnFailure = "true".equalsIgnoreCase((String)
                 synCtx.getProperty(STOP_FLOW_ON_FAILURE_PROPERTY_NAME));
+        SharedEnvelope envelope = MessageHelper.shareEnvelope(synCtx, noOfIterations);
         for (int i = 0; i < noOfIterations; ++i) {
             if (synLog.isTraceOrDebugEnabled()) {
                 synLog.traceOrDebug("Submitting " + (i + 1) + " of " + noOfIterations +
                         " messages for " + (isSequential() ? "sequential processing" : "parallel processing"));
             }
             synCtx.setProperty(ITERATION_INDEX_PROPERTY_NAME, i + 1);
-            MessageContext clonedMsgCtx = getClonedMessageContext(synCtx, i, noOfIterations);
+            MessageContext clonedMsgCtx = getClonedMessageContext(synCtx, i, noOfIterations, envelope);
             ContinuationStackManager.addReliantContinuationState(clonedMsgCtx, i - 1, getMediatorPosition());
             target.mediate(clonedMsgCtx);
             boolean isFailure = "true".equalsIgnoreCase((String)clonedMsgCtx.
@@ -234,16 +237,17 @@ public class CloneMediator extends AbstractMediator implements ManagedLifecycle,
      * @param synCtx          - MessageContext which is subjected to the cloning
      * @param messageSequence - the position of this message of the cloned set
      * @param messageCount    - total of cloned copies
+     * @param envelope        - envelope shared by the cloned copies, or null to clone the envelope
      *
      * @return MessageContext the cloned message context
      */
     private MessageContext getClonedMessageContext(MessageContext synCtx, int messageSequence,
-                                                   int messageCount) {
+                                                   int messageCount, SharedEnvelope envelope) {
 
         MessageContext newCtx = null;
         try {
         	
-            newCtx = MessageHelper.cloneMessageContext(synCtx);
+            newCtx = MessageHelper.cloneMessageContext(synCtx, envelope);
             
             // Set isServerSide property in the cloned message context
             ((Axis2MessageContext) newCtx).getAxis2MessageContext().setServerSide(
@@ -59,6 +59,7 @@ import org.apache.synapse.mediators.eip.EIPConstants;
 import org.apache.synapse.mediators.eip.EIPUtils;
 import org.apache.synapse.mediators.eip.Target;
 import org.apache.synapse.util.MessageHelper;
+import org.apache.synapse.util.SharedEnvelope;
 import org.apache.synapse.util.xpath.SynapseJsonPath;
 import org.apache.synapse.util.xpath.SynapseXPath;
 import org.jaxen.JaxenException;
@@ -230,6 +231,8 @@ public class IterateMediator extends AbstractMediator implements ManagedLifecycl
 
                 int msgCount = splitElements.size();
                 int msgNumber = 0;
+                // each iteration gets its own copy of the envelope, and the last one the envelope itself
+                SharedEnvelope sharedEnvelope = SharedEnvelope.of(envelope, msgCount);
 
                 // iterate through the list
                 for (Object o : splitElements) {
@@ -248,7 +251,7 @@ public class IterateMediator extends AbstractMediator implements ManagedLifecycl
                     }
 
                     MessageContext iteratedMsgCtx =
-                            getIteratedMessage(synCtx, msgNumber++, msgCount, envelope, (OMNode) o);
+                            getIteratedMessage(synCtx, msgNumber++, msgCount, sharedEnvelope, (OMNode) o);
                     ContinuationStackManager.
                             addReliantContinuationState(iteratedMsgCtx, 0, getMediatorPosition());
                     if (target.isAsynchronous()) {
@@ -436,14 +439,14 @@ public class IterateMediator extends AbstractMediator implements ManagedLifecycl
      * @param synCtx    - original message context
      * @param msgNumber - message number in the iteration
      * @param msgCount  - total number of messages in the split
-     * @param envelope  - envelope to be used in the iteration
+     * @param envelope  - envelope to be used in the iteration, shared by all the iterations
      * @param o         - element which participates in the iteration replacement
      * @return newCtx created by the iteration
      * @throws AxisFault if there is a message creation failure
      * @throws JaxenException if the expression evauation failure
      */
     private MessageContext getIteratedMessage(MessageContext synCtx, int msgNumber, int msgCount,
-        SOAPEnvelope envelope, OMNode o) throws AxisFault, JaxenException {
+        SharedEnvelope envelope, OMNode o) throws AxisFault, JaxenException {
 
         // clone the message context without cloning the SOAP envelope, for the mediation in iteration.
         MessageContext newCtx = MessageHelper.cloneMessageContext(synCtx, false, false);
@@ -464,7 +467,7 @@ public class IterateMediator extends AbstractMediator implements ManagedLifecycl
         }
 
         // get a clone of the envelope to be attached
-        SOAPEnvelope newEnvelope = MessageHelper.cloneSOAPEnvelope(envelope);
+        SOAPEnvelope newEnvelope = envelope.getCopy();
 
         // if payload should be preserved then attach the iteration element to the
         // node specified by the attachPath
@@ -41,6 +41,7 @@ import org.apache.synapse.util.InlineExpressionUtil;
 import org.apache.synapse.util.MessageHelper;
 import org.apache.synapse.util.xpath.SynapseJsonPath;
 import org.jaxen.JaxenException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -268,6 +269,23 @@ public class Source {
                                     JsonElement sourcePropertyJson) throws JaxenException {
         return evaluateJson(synCtx, synLog, sourcePropertyJson, null);
     }
+    /**
+     * Reads a JSON path from the parsed JSON payload shared with the other evaluations on the message. The result is
+     * copied, as it is enriched into another part of the message.
+     */
+    private JsonElement readJsonPayload(org.apache.axis2.context.MessageContext context, String jsonPath) {
+        try {
+            Object document = SynapseJsonPath.getJsonPayloadDocument(context);
+            if (document != null) {
+                JsonElement result = JsonPath.parse(document).read(jsonPath);
+                return result == null ? null : result.deepCopy();
+            }
+        } catch (IOException e) {
+            log.debug("Could not parse the JSON payload, reading the payload as a string", e);
+        }
+        return JsonPath.parse(JsonUtil.jsonPayloadToString(context)).read(jsonPath);
+    }
+
     /**
      * This method will evaluate a specified source json element.
      *
@@ -313,6 +331,10 @@ public class Source {
         switch (sourceType) {
             case EnrichMediator.CUSTOM: {
                 assert jsonPath != null : "JSONPath should be non null in case of CUSTOM";
+                if (clone && JsonUtil.hasAJsonPayload(context)) {
+                    object = readJsonPayload(context, jsonPath);
+                    break;
+                }
                 String jsonString = JsonUtil.jsonPayloadToString(context);
                 object = JsonPath.parse(jsonString).read(jsonPath);
                 if (!clone) {
@@ -149,8 +149,7 @@ public class FaultMediator extends AbstractMediator {
 		if (pipe != null) {
 			// cleaning the OUTPUT PIPE with older references
 			// if there is a [protocal violation when sending out message etc.]
-			pipe.getBuffer().clear();
-			pipe.resetOutputStream();
+			pipe.discard();
 		}
 
         // if the message has to be marked as a response mark it as response
@@ -32,6 +32,7 @@ import org.apache.axiom.soap.SOAP12Constants;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.Constants;
+import org.apache.commons.io.input.CharSequenceReader;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,7 +47,11 @@ import org.apache.synapse.mediators.transform.pfutils.TemplateProcessor;
 import org.apache.synapse.mediators.transform.pfutils.TemplateProcessorException;
 import org.apache.synapse.util.AXIOMUtils;
 
-import java.io.StringReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -82,6 +87,10 @@ public class PayloadFactoryMediator extends AbstractMediator {
     public static final String QUOTE_STRING_IN_PAYLOAD_FACTORY_JSON = "QUOTE_STRING_IN_PAYLOAD_FACTORY_JSON";
     private TemplateProcessor templateProcessor;
     private static final Log log = LogFactory.getLog(PayloadFactoryMediator.class);
+    /* Largest render buffer a thread keeps for its next payload, a larger one is dropped after use */
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    /* Render buffer of each mediation thread, reused by the payload factories running on it */
+    private static final ThreadLocal<StringBuilder> PAYLOAD_BUFFER = new ThreadLocal<>();
 
     public PayloadFactoryMediator() {
         //ignore DTDs for XML Input
@@ -119,36 +128,42 @@ public class PayloadFactoryMediator extends AbstractMediator {
             return false;
         }
         org.apache.axis2.context.MessageContext axis2MessageContext = ((Axis2MessageContext) synCtx).getAxis2MessageContext();
-        StringBuilder result = new StringBuilder();
-        transform(result, synCtx, format);
-        String out = result.toString().trim();
-        String updatedFormat = templateProcessor.getFormat();
-        if (log.isDebugEnabled()) {
-            log.debug("#mediate. Transformed payload format>>> " + out);
-        }
-        if (mediaType.equals(XML_TYPE)) {
-            try {
-                if (templateType.equals(FREEMARKER_TEMPLATE_TYPE)
-                        && StringUtils.isNotEmpty(updatedFormat) && updatedFormat.startsWith("<#ftl")) {
-                    out = "<pfPadding>" + out + "</pfPadding>";
+        StringBuilder result = borrowBuffer();
+        try {
+            transform(result, synCtx, format);
+            int start = trim(result);
+            String updatedFormat = templateProcessor.getFormat();
+            if (log.isDebugEnabled()) {
+                log.debug("#mediate. Transformed payload format>>> " + result.substring(start));
+            }
+            if (mediaType.equals(XML_TYPE)) {
+                try {
+                    if (templateType.equals(FREEMARKER_TEMPLATE_TYPE)
+                            && StringUtils.isNotEmpty(updatedFormat) && updatedFormat.startsWith("<#ftl")) {
+                        result.replace(0, start, "<pfPadding>").append("</pfPadding>");
+                        start = 0;
+                    }
+                    JsonUtil.removeJsonPayload(axis2MessageContext);
+                    OMElement omXML = convertToOM(CharBuffer.wrap(result, start, result.length()));
+                    // check if the target of the PF 'format' is the entire SOAP envelop, not just the body.
+                    if (!checkAndReplaceEnvelope(omXML, synCtx)) {
+                        axis2MessageContext.getEnvelope().getBody().addChild(omXML.getFirstElement());
+                    }
+                } catch (XMLStreamException e) {
+                    handleException("Error creating SOAP Envelope from source " + result.substring(start), synCtx);
                 }
-                JsonUtil.removeJsonPayload(axis2MessageContext);
-                OMElement omXML = convertStringToOM(out);
-                if (!checkAndReplaceEnvelope(omXML, synCtx)) { // check if the target of the PF 'format' is the entire SOAP envelop, not just the body.
-                    axis2MessageContext.getEnvelope().getBody().addChild(omXML.getFirstElement());
+            } else if (mediaType.equals(JSON_TYPE)) {
+                try {
+                    JsonUtil.getNewJsonPayload(axis2MessageContext, toJsonStream(result, start), true, true);
+                } catch (AxisFault axisFault) {
+                    handleException("Error creating JSON Payload from source " + result.substring(start), synCtx);
                 }
-            } catch (XMLStreamException e) {
-                handleException("Error creating SOAP Envelope from source " + out, synCtx);
-            }
-        } else if  (mediaType.equals(JSON_TYPE)) {
-            try {
-                JsonUtil.getNewJsonPayload(axis2MessageContext, out, true, true);
-            } catch (AxisFault axisFault) {
-                handleException("Error creating JSON Payload from source " + out, synCtx);
+            } else if (mediaType.equals(TEXT_TYPE)) {
+                JsonUtil.removeJsonPayload(axis2MessageContext);
+                axis2MessageContext.getEnvelope().getBody().addChild(getTextElement(result.substring(start)));
             }
-        } else if  (mediaType.equals(TEXT_TYPE)) {
-            JsonUtil.removeJsonPayload(axis2MessageContext);
-            axis2MessageContext.getEnvelope().getBody().addChild(getTextElement(out));
+        } finally {
+            releaseBuffer(result);
         }
         //need to honour a content-type of the payload media-type as output from the payload 
         //{re-merging patch https://wso2.org/jira/browse/ESBJAVA-3014}
@@ -203,12 +218,72 @@ public class PayloadFactoryMediator extends AbstractMediator {
     private void processTemplate(StringBuilder result, MessageContext synCtx, String text) {
 
         try {
-            result.append(templateProcessor.processTemplate(text, mediaType, synCtx));
+            templateProcessor.processTemplate(text, mediaType, synCtx, result);
         } catch (TemplateProcessorException e) {
             handleException(e.getMessage(), synCtx);
         }
     }
 
+    /**
+     * Takes the render buffer of this thread, or a new one if it is in use or was dropped.
+     *
+     * @return an empty buffer, to be given back with {@link #releaseBuffer(StringBuilder)}
+     */
+    private static StringBuilder borrowBuffer() {
+
+        StringBuilder buffer = PAYLOAD_BUFFER.get();
+        if (buffer == null) {
+            return new StringBuilder();
+        }
+        PAYLOAD_BUFFER.set(null);
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private static void releaseBuffer(StringBuilder buffer) {
+
+        if (buffer.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+            PAYLOAD_BUFFER.set(buffer);
+        }
+    }
+
+    /**
+     * Removes the trailing white space of the rendered payload, as {@link String#trim()} does.
+     *
+     * @param buffer the rendered payload
+     * @return index of the first character of the payload which is not white space
+     */
+    private static int trim(StringBuilder buffer) {
+
+        int end = buffer.length();
+        while (end > 0 && buffer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        buffer.setLength(end);
+        int start = 0;
+        while (start < end && buffer.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Encodes the rendered JSON payload for the JSON builder. The message keeps the stream and reads it later, so
+     * the bytes are owned by the message rather than by the render buffer.
+     *
+     * @param buffer the rendered payload
+     * @param start  index of the first character of the payload
+     * @return stream of the payload, or of an empty object if the payload is empty
+     */
+    private static InputStream toJsonStream(StringBuilder buffer, int start) {
+
+        if (start == buffer.length()) {
+            return new ByteArrayInputStream("{}".getBytes());
+        }
+        ByteBuffer bytes = Charset.defaultCharset().encode(CharBuffer.wrap(buffer, start, buffer.length()));
+        return new ByteArrayInputStream(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+
     /**
      * Sets the content type based on the request content type and payload factory media type. This should be called
      * at the end before returning from the mediate() function.
@@ -394,15 +469,19 @@ public class PayloadFactoryMediator extends AbstractMediator {
     }
 
     /**
-     * Converts String to OMElement
+     * Converts the rendered payload to OMElement. The element is built completely, as the render buffer is reused
+     * once the mediation of the payload is done.
      *
-     * @param value String value to convert
+     * @param value rendered payload to convert
      * @return parsed OMElement
      */
-    private OMElement convertStringToOM(String value) throws XMLStreamException, OMException {
-        javax.xml.stream.XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(new StringReader(value));
+    private OMElement convertToOM(CharSequence value) throws XMLStreamException, OMException {
+        javax.xml.stream.XMLStreamReader xmlReader =
+                inputFactory.createXMLStreamReader(new CharSequenceReader(value));
         StAXBuilder builder = new StAXOMBuilder(xmlReader);
-        return builder.getDocumentElement();
+        OMElement element = builder.getDocumentElement();
+        element.build();
+        return element;
     }
 
     public TemplateProcessor getTemplateProcessor() {
@@ -23,6 +23,8 @@ import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.OMNode;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.axis2.AxisFault;
+import org.apache.axis2.Constants;
+import org.apache.axis2.transport.TransportUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
@@ -31,11 +33,15 @@ import org.apache.synapse.SynapseLog;
 import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.config.Entry;
 import org.apache.synapse.config.SynapseConfigUtils;
-import org.apache.synapse.core.SynapseEnvironment;
+import org.apache.synapse.config.SynapsePropertiesLoader;
+import org.apache.synapse.config.xml.SynapsePath;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.mediators.AbstractMediator;
 import org.apache.synapse.mediators.MediatorProperty;
 import org.apache.synapse.mediators.Value;
+import org.apache.synapse.transport.passthru.PassThroughConstants;
+import org.apache.synapse.transport.passthru.Pipe;
+import org.apache.synapse.transport.passthru.util.RelayUtils;
 import org.apache.synapse.util.jaxp.DOOMResultBuilderFactory;
 import org.apache.synapse.util.jaxp.DOOMSourceBuilderFactory;
 import org.apache.synapse.util.jaxp.ResultBuilder;
@@ -50,19 +56,27 @@ import org.apache.synapse.util.resolver.ResourceMap;
 import org.apache.synapse.util.xpath.SourceXPathSupport;
 import org.apache.synapse.util.xpath.SynapseXPath;
 
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The XSLT mediator performs an XSLT transformation requested, using
@@ -77,6 +91,14 @@ import java.util.Map;
  * the transformation process. By default this is turned on as an optimization, but
  * should be set to false if issues are detected</p>
  *
+ * <p>Compiled stylesheets are cached per evaluated key and are recompiled only when the version
+ * of a dynamic registry resource changes. Transformers created from a cached stylesheet are
+ * reset and pooled for reuse by later messages.</p>
+ *
+ * <p>When the "http://ws.apache.org/ns/synapse/transform/feature/streamFromPipe" feature is
+ * enabled, a plain XML payload which has not been built yet is transformed straight from the
+ * pass-through pipe, without building an AXIOM tree for it.</p>
+ *
  * <p> Note: Set the TransformerFactory system property to generate and use translets
  *  -Djavax.xml.transform.TransformerFactory=org.apache.xalan.xsltc.trax.TransformerFactoryImpl
  * 
@@ -144,6 +166,27 @@ public class XSLTMediator extends AbstractMediator {
     public static final String RESULT_BUILDER_FACTORY =
         "http://ws.apache.org/ns/synapse/transform/attribute/rbf";
 
+    /**
+     * The feature which enables transforming an unbuilt XML payload straight from the pass-through
+     * pipe. It only takes effect when the mediator transforms the default source, replaces the
+     * message with the result and does not evaluate any content aware expressions.
+     */
+    public static final String STREAM_FROM_PIPE =
+        "http://ws.apache.org/ns/synapse/transform/feature/streamFromPipe";
+
+    /**
+     * The synapse property which defines the maximum number of idle transformers pooled
+     * for each cached stylesheet
+     */
+    public static final String TRANSFORMER_POOL_SIZE = "synapse.xslt.transformer.pool.size";
+
+    private static final int DEFAULT_TRANSFORMER_POOL_SIZE = 16;
+
+    /**
+     * Content type of the plain XML payloads that can be streamed from the pass-through pipe
+     */
+    private static final String APPLICATION_XML = "application/xml";
+
     /**
      * IF the user have set this property, the XSLTMediator does not build the result xml, instead it will be stored as
      * string property with name givent in "target" attribute
@@ -199,7 +242,14 @@ public class XSLTMediator extends AbstractMediator {
      * Unique string used as a key for each template
      * The Template instance used to create a Transformer object. This is  thread-safe
      */
-    private Map<String, Templates> cachedTemplatesMap = new Hashtable<String, Templates>();
+    private final ConcurrentMap<String, CachedTemplates> cachedTemplatesMap =
+            new ConcurrentHashMap<String, CachedTemplates>();
+
+    /**
+     * Maximum number of idle transformers kept for each cached template
+     */
+    private final int transformerPoolSize = Integer.parseInt(SynapsePropertiesLoader.getPropertyValue(
+            TRANSFORMER_POOL_SIZE, String.valueOf(DEFAULT_TRANSFORMER_POOL_SIZE)));
 
     /**
      * The TransformerFactory instance which use to create Templates. This is not thread-safe.
@@ -208,7 +258,7 @@ public class XSLTMediator extends AbstractMediator {
     private final TransformerFactory transFact = TransformerFactory.newInstance();
 
     /**
-     * Lock used to ensure thread-safe creation and use of the above Transformer
+     * Lock used to ensure thread-safe creation of templates using the above TransformerFactory
      */
     private final Object transformerLock = new Object();
 
@@ -227,6 +277,11 @@ public class XSLTMediator extends AbstractMediator {
      */
     private boolean useCache = true;
 
+    /**
+     * Determine if unbuilt XML payloads are transformed straight from the pass-through pipe
+     */
+    private boolean streamFromPipe = false;
+
     /**
      * Transforms this message (or its element specified as the source) using the
      * given XSLT transformation
@@ -249,6 +304,28 @@ public class XSLTMediator extends AbstractMediator {
             synLog.traceTrace("Message : " + synCtx.getEnvelope());
         }
 
+        if (streamFromPipe && !isContentAware()) {
+            org.apache.axis2.context.MessageContext axis2Ctx =
+                    ((Axis2MessageContext) synCtx).getAxis2MessageContext();
+            if (isStreamableFromPipe(axis2Ctx)) {
+                try {
+                    performXSLTFromPipe(synCtx, axis2Ctx, synLog);
+                } catch (Exception e) {
+                    handleException("Unable to perform XSLT transformation using : " + xsltKey +
+                            " against the pass-through pipe reason : " + e.getMessage(), e, synCtx);
+                }
+                JsonUtil.removeJsonStream(axis2Ctx);
+                synLog.traceOrDebug("End : XSLT mediator");
+                return true;
+            }
+            // the sequence did not build the message as this mediator is not content aware
+            try {
+                RelayUtils.buildMessage(axis2Ctx);
+            } catch (IOException | XMLStreamException e) {
+                handleException("Error building the message", e, synCtx);
+            }
+        }
+
         if (source.getXPath() == null && synCtx.getEnvelope().getBody().getFirstElement() == null) {
             synLog.auditWarn("Found empty soap body, skipping XSLT transformation and continuing the mediation");
             return true;
@@ -281,116 +358,26 @@ public class XSLTMediator extends AbstractMediator {
         boolean isSoapBody = (sourceNode == synCtx.getEnvelope().getBody());
         boolean isSoapHeader = (sourceNode == synCtx.getEnvelope().getHeader());
 
-        // Derive actual key from message context
-        String generatedXsltKey = xsltKey.evaluateValue(synCtx);
-
-        // get templates from generatedXsltKey
-        Templates cachedTemplates = null;
-
         if (synLog.isTraceTraceEnabled()) {
             synLog.traceTrace("Transformation source : " + sourceNode.toString());
         }
 
-        // determine if it is needed to create or create the template
-        if (isCreationOrRecreationRequired(synCtx)) {
-            // many threads can see this and come here for acquiring the lock
-            synchronized (transformerLock) {
-                // only first thread should create the template
-                if (isCreationOrRecreationRequired(synCtx)) {
-                    cachedTemplates = createTemplate(synCtx, synLog, generatedXsltKey);
-                } else {
-                    cachedTemplates = cachedTemplatesMap.get(generatedXsltKey);
-                }
-            }
-        }
-        else{
-            //If already cached template then load it from cachedTemplatesMap
-            synchronized (transformerLock){
-                cachedTemplates = cachedTemplatesMap.get(generatedXsltKey);
-            }
-        }
-
         try {
-            // perform transformation
-            Transformer transformer = null;
-            try {
-                transformer = cachedTemplates.newTransformer();
-            } catch (NullPointerException ex) {
-                handleException("Unable to create Transformer using cached template", ex, synCtx);
-            }
-            if (!properties.isEmpty()) {
-                // set the parameters which will pass to the Transformation
-                applyProperties(transformer, synCtx, synLog);
-            }
-
-            transformer.setErrorListener(new ErrorListenerImpl(synLog, XSLT_TRANSFORMATION_ACTIVITY));
-            
-            String outputMethod = transformer.getOutputProperty(OutputKeys.METHOD);
-            String encoding = transformer.getOutputProperty(OutputKeys.ENCODING);
-
-            if (synLog.isTraceOrDebugEnabled()) {
-                synLog.traceOrDebug("output method: " + outputMethod
-                        + "; encoding: " + encoding);
-            }
-            
-            ResultBuilderFactory.Output output;
-            if ("text".equals(outputMethod)) {
-                synLog.traceOrDebug("Processing non SOAP/XML (text) transformation result");
-                output = ResultBuilderFactory.Output.TEXT;
-            } else if (isSoapEnvelope) {
-                output = ResultBuilderFactory.Output.SOAP_ENVELOPE;
-            } else {
-                output = ResultBuilderFactory.Output.ELEMENT;
-            }
-            
-            SynapseEnvironment synEnv = synCtx.getEnvironment();
-            ResultBuilder resultBuilder =
-                    resultBuilderFactory.createResultBuilder(synEnv, output);
-            SourceBuilder sourceBuilder = sourceBuilderFactory.createSourceBuilder(synEnv);
-            
+            SourceBuilder sourceBuilder = sourceBuilderFactory.createSourceBuilder(synCtx.getEnvironment());
             if (synLog.isTraceOrDebugEnabled()) {
                 synLog.traceOrDebug("Using " + sourceBuilder.getClass().getName());
-                synLog.traceOrDebug("Using " + resultBuilder.getClass().getName());
             }
-            
+
+            OMElement result;
             try {
-                transformer.transform(sourceBuilder.getSource((OMElement)sourceNode),
-                                      resultBuilder.getResult());
+                result = transform(synCtx, synLog, sourceBuilder.getSource((OMElement) sourceNode),
+                        isSoapEnvelope);
             } finally {
                 sourceBuilder.release();
             }
-
-            synLog.traceOrDebug("Transformation completed - processing result");
-
-            /**
-             * If user have set transform.xslt.result.disableBuild property to true, we do not build the message to
-             * OMElement,
-             */
-            if (targetPropertyName != null && resultBuilder instanceof StreamResultBuilder &&
-                    synCtx.getProperty(TRANSFORM_XSLT_RESULT_DISABLE_BUILD) != null &&
-                    synCtx.getProperty(TRANSFORM_XSLT_RESULT_DISABLE_BUILD) instanceof String &&
-                    "true".equalsIgnoreCase((String) synCtx.getProperty(TRANSFORM_XSLT_RESULT_DISABLE_BUILD))) {
-
-                    // add result XML string as a message context property to the message
-                    if (synLog.isTraceOrDebugEnabled()) {
-                        synLog.traceOrDebug("Adding result string as message context property : " +
-                                targetPropertyName);
-                    }
-
-                    synCtx.setProperty(targetPropertyName, ((StreamResultBuilder) resultBuilder).getResultAsString());
-                    return;
-            }
-
-            // get the result OMElement
-            OMElement result = null;
-            try {
-                result = resultBuilder.getNode(encoding == null ? null : Charset.forName(encoding));
-            } catch (Exception e) {
-                throw new SynapseException("Unable to create an OMElement using XSLT result ",e);
-            }
-
-            if (synLog.isTraceTraceEnabled()) {
-                synLog.traceTrace("Transformation result : " + result.toString());
+            if (result == null) {
+                // the result has been stored as a string property
+                return;
             }
 
             if (targetPropertyName != null) {
@@ -449,16 +436,229 @@ public class XSLTMediator extends AbstractMediator {
         }
     }
 
+    /**
+     * Perform the XSLT transformation reading the unbuilt XML payload straight from the
+     * pass-through pipe, and replace the message with the result
+     *
+     * @param synCtx current message
+     * @param axis2Ctx axis2 message context of the current message
+     * @param synLog the logger to be used
+     * @throws IOException if the payload cannot be read from the pipe
+     * @throws TransformerException if the transformation fails
+     * @throws AxisFault if the message cannot be replaced with the result
+     */
+    private void performXSLTFromPipe(MessageContext synCtx, org.apache.axis2.context.MessageContext axis2Ctx,
+                                     SynapseLog synLog) throws IOException, TransformerException, AxisFault {
+
+        Pipe pipe = (Pipe) axis2Ctx.getProperty(PassThroughConstants.PASS_THROUGH_PIPE);
+        BufferedInputStream in = new BufferedInputStream(pipe.getInputStream());
+        in.mark(1);
+        if (in.read() == -1) {
+            axis2Ctx.setProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED, Boolean.TRUE);
+            axis2Ctx.setProperty(PassThroughConstants.NO_ENTITY_BODY, Boolean.TRUE);
+            synLog.auditWarn("Found empty payload, skipping XSLT transformation and continuing the mediation");
+            return;
+        }
+        in.reset();
+
+        // without a charset parameter the parser detects the encoding from the XML declaration
+        Charset charset = getCharset((String) axis2Ctx.getProperty(Constants.Configuration.CONTENT_TYPE));
+        StreamSource src = charset == null ?
+                new StreamSource(in) : new StreamSource(new InputStreamReader(in, charset));
+
+        synLog.traceOrDebug("Transforming the payload straight from the pass-through pipe");
+        OMElement result = transform(synCtx, synLog, src, false);
+
+        synLog.traceOrDebug("Replace message payload with result");
+        synCtx.setEnvelope(TransportUtils.createSOAPEnvelope(result));
+        axis2Ctx.setProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED, Boolean.TRUE);
+    }
+
+    /**
+     * @param contentType content type of the current message
+     * @return the charset given by the content type, or null if it does not have a charset parameter
+     */
+    private static Charset getCharset(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String[] parameters = contentType.split(";");
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "charset=", 0, 8)) {
+                String charset = parameter.substring(8).trim();
+                if (charset.length() > 1 && charset.startsWith("\"") && charset.endsWith("\"")) {
+                    charset = charset.substring(1, charset.length() - 1);
+                }
+                return Charset.forName(charset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the payload of the current message can be transformed straight from the
+     * pass-through pipe. This requires a plain XML payload which has not been built yet.
+     *
+     * @param axis2Ctx axis2 message context of the current message
+     * @return true if the payload can be streamed from the pipe
+     */
+    private boolean isStreamableFromPipe(org.apache.axis2.context.MessageContext axis2Ctx) {
+        if (Boolean.TRUE.equals(axis2Ctx.getProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED))
+                || axis2Ctx.getProperty(PassThroughConstants.PASS_THROUGH_PIPE) == null) {
+            return false;
+        }
+        Object contentType = axis2Ctx.getProperty(Constants.Configuration.CONTENT_TYPE);
+        return contentType instanceof String
+                && APPLICATION_XML.equals(RelayUtils.getMIMEContentType((String) contentType));
+    }
+
+    /**
+     * Transform the given source using a transformer of the template referred by the xslt key
+     *
+     * @param synCtx current message
+     * @param synLog the logger to be used
+     * @param src the source to transform
+     * @param isSoapEnvelope whether the source is the SOAP envelope of the message
+     * @return the result of the transformation, or null if it was stored as a string property
+     * @throws TransformerException if the transformation fails
+     */
+    private OMElement transform(MessageContext synCtx, SynapseLog synLog, Source src,
+                                boolean isSoapEnvelope) throws TransformerException {
+
+        // Derive actual key from message context
+        String generatedXsltKey = xsltKey.evaluateValue(synCtx);
+
+        CachedTemplates cachedTemplates = getCachedTemplates(synCtx, synLog, generatedXsltKey);
+        if (cachedTemplates == null) {
+            handleException("Unable to create Transformer using cached template", synCtx);
+        }
+
+        ResultBuilder resultBuilder;
+        String encoding;
+        // perform transformation
+        Transformer transformer = cachedTemplates.borrowTransformer();
+        try {
+            if (!properties.isEmpty()) {
+                // set the parameters which will pass to the Transformation
+                applyProperties(transformer, synCtx, synLog);
+            }
+
+            transformer.setErrorListener(new ErrorListenerImpl(synLog, XSLT_TRANSFORMATION_ACTIVITY));
+
+            String outputMethod = transformer.getOutputProperty(OutputKeys.METHOD);
+            encoding = transformer.getOutputProperty(OutputKeys.ENCODING);
+
+            if (synLog.isTraceOrDebugEnabled()) {
+                synLog.traceOrDebug("output method: " + outputMethod
+                        + "; encoding: " + encoding);
+            }
+
+            ResultBuilderFactory.Output output;
+            if ("text".equals(outputMethod)) {
+                synLog.traceOrDebug("Processing non SOAP/XML (text) transformation result");
+                output = ResultBuilderFactory.Output.TEXT;
+            } else if (isSoapEnvelope) {
+                output = ResultBuilderFactory.Output.SOAP_ENVELOPE;
+            } else {
+                output = ResultBuilderFactory.Output.ELEMENT;
+            }
+
+            resultBuilder = resultBuilderFactory.createResultBuilder(synCtx.getEnvironment(), output);
+
+            if (synLog.isTraceOrDebugEnabled()) {
+                synLog.traceOrDebug("Using " + resultBuilder.getClass().getName());
+            }
+
+            transformer.transform(src, resultBuilder.getResult());
+        } finally {
+            cachedTemplates.releaseTransformer(transformer);
+        }
+
+        synLog.traceOrDebug("Transformation completed - processing result");
+
+        /**
+         * If user have set transform.xslt.result.disableBuild property to true, we do not build the message to
+         * OMElement,
+         */
+        if (targetPropertyName != null && resultBuilder instanceof StreamResultBuilder &&
+                synCtx.getProperty(TRANSFORM_XSLT_RESULT_DISABLE_BUILD) != null &&
+                synCtx.getProperty(TRANSFORM_XSLT_RESULT_DISABLE_BUILD) instanceof String &&
+                "true".equalsIgnoreCase((String) synCtx.getProperty(TRANSFORM_XSLT_RESULT_DISABLE_BUILD))) {
+
+                // add result XML string as a message context property to the message
+                if (synLog.isTraceOrDebugEnabled()) {
+                    synLog.traceOrDebug("Adding result string as message context property : " +
+                            targetPropertyName);
+                }
+
+                synCtx.setProperty(targetPropertyName, ((StreamResultBuilder) resultBuilder).getResultAsString());
+                return null;
+        }
+
+        // get the result OMElement
+        OMElement result = null;
+        try {
+            result = resultBuilder.getNode(encoding == null ? null : Charset.forName(encoding));
+        } catch (Exception e) {
+            throw new SynapseException("Unable to create an OMElement using XSLT result ",e);
+        }
+
+        if (synLog.isTraceTraceEnabled()) {
+            synLog.traceTrace("Transformation result : " + result.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Look up the template of the given key, creating or recreating it when it is not cached
+     * or when the dynamic resource it was compiled from has changed
+     *
+     * @param synCtx current message
+     * @param synLog logger to use
+     * @param generatedXsltKey evaluated xslt key(real key value) for dynamic or static key
+     * @return the cached template
+     */
+    private CachedTemplates getCachedTemplates(MessageContext synCtx, SynapseLog synLog,
+                                               String generatedXsltKey) {
+        CachedTemplates cachedTemplates = useCache ? cachedTemplatesMap.get(generatedXsltKey) : null;
+        // determine if it is needed to create or create the template
+        if (isCreationOrRecreationRequired(synCtx, generatedXsltKey, cachedTemplates)) {
+            // many threads can see this and come here for acquiring the lock
+            synchronized (transformerLock) {
+                cachedTemplates = useCache ? cachedTemplatesMap.get(generatedXsltKey) : null;
+                // only first thread should create the template
+                if (isCreationOrRecreationRequired(synCtx, generatedXsltKey, cachedTemplates)) {
+                    cachedTemplates = createTemplate(synCtx, synLog, generatedXsltKey, cachedTemplates);
+                }
+            }
+        }
+        return cachedTemplates;
+    }
+
     /**
      * Create a XSLT template object and assign it to the cachedTemplates variable
      * @param synCtx current message
      * @param synLog logger to use
      * @param generatedXsltKey evaluated xslt key(real key value) for dynamic or static key 
+     * @param previous the template currently cached for the key, if any
      * @return cached template
      */
-    private Templates createTemplate(MessageContext synCtx, SynapseLog synLog, String generatedXsltKey) {
+    private CachedTemplates createTemplate(MessageContext synCtx, SynapseLog synLog, String generatedXsltKey,
+                                           CachedTemplates previous) {
         // Assign created template
-        Templates cachedTemplates = null;
+        CachedTemplates cachedTemplates = null;
+
+        // Fetching the entry refreshes an expired dynamic resource from the registry
+        Object xslt = synCtx.getEntry(generatedXsltKey);
+        long version = getEntryVersion(synCtx, generatedXsltKey);
+        if (previous != null && version != Long.MIN_VALUE && version == previous.version) {
+            if (synLog.isTraceOrDebugEnabled()) {
+                synLog.traceOrDebug("XSLT with key : " + generatedXsltKey + " has not changed, " +
+                        "reusing the compiled template");
+            }
+            return previous;
+        }
 
         // Set an error listener (SYNAPSE-307).
         transFact.setErrorListener(new ErrorListenerImpl(synLog, STYLESHEET_PARSING_ACTIVITY));
@@ -467,16 +667,16 @@ public class XSLTMediator extends AbstractMediator {
         transFact.setURIResolver(customJAXPURIResolver);
         if (resourceMap != null) customJAXPURIResolver.setMessageContext(synCtx);
         try {
-            cachedTemplates = transFact.newTemplates(
-                    SynapseConfigUtils.getStreamSource(synCtx.getEntry(generatedXsltKey)));
-            if (cachedTemplates == null) {
+            Templates templates = transFact.newTemplates(SynapseConfigUtils.getStreamSource(xslt));
+            if (templates == null) {
                 // if cached template creation failed
                 handleException("Error compiling the XSLT with key : " + xsltKey, synCtx);
+            } else if (useCache) {
+                // if cached template is created then put it in to cachedTemplatesMap
+                cachedTemplates = new CachedTemplates(templates, version, transformerPoolSize);
+                cachedTemplatesMap.put(generatedXsltKey, cachedTemplates);
             } else {
-                if (useCache) {
-                    // if cached template is created then put it in to cachedTemplatesMap
-                    cachedTemplatesMap.put(generatedXsltKey, cachedTemplates);
-                }
+                cachedTemplates = new CachedTemplates(templates, version, 0);
             }
         } catch (Exception e) {
             handleException("Error creating XSLT transformer using : " + xsltKey, e, synCtx);
@@ -490,29 +690,34 @@ public class XSLTMediator extends AbstractMediator {
      * Utility method to determine weather it is needed to create a XSLT template
      *
      * @param synCtx current message
+     * @param generatedXsltKey evaluated xslt key(real key value) for dynamic or static key
+     * @param cachedTemplates the template cached for the key, if any
      * @return true if it is needed to create a new XSLT template
      */
-    private boolean isCreationOrRecreationRequired(MessageContext synCtx) {
-        if (!useCache){
+    private boolean isCreationOrRecreationRequired(MessageContext synCtx, String generatedXsltKey,
+                                                   CachedTemplates cachedTemplates) {
+        if (!useCache || cachedTemplates == null) {
+            // this is a creation case
             return true;
         } else {
-            // Derive actual key from message context
-            String generatedXsltKey = xsltKey.evaluateValue(synCtx);
-
-            // if there are no cachedTemplates inside cachedTemplatesMap or
-            // if the template related to this generated key is not cached
-            // then it need to be cached
-            if (cachedTemplatesMap.isEmpty() || !cachedTemplatesMap.containsKey(generatedXsltKey)) {
-                // this is a creation case
-                return true;
-            } else {
-                // build transformer - if necessary
-                Entry dp = synCtx.getConfiguration().getEntryDefinition(generatedXsltKey);
-                // if the xsltKey refers to a dynamic resource, and if it has been expired
-                // it is a recreation case
-                return dp != null && dp.isDynamic() && (!dp.isCached() || dp.isExpired());
-            }
+            Entry dp = synCtx.getConfiguration().getEntryDefinition(generatedXsltKey);
+            // if the xsltKey refers to a dynamic resource, and if it has been expired
+            // it is a recreation case, unless the registry reports the same version
+            return dp != null && dp.isDynamic() && (!dp.isCached() || dp.isExpired());
+        }
+    }
+
+    /**
+     * @param synCtx current message
+     * @param generatedXsltKey evaluated xslt key(real key value) for dynamic or static key
+     * @return the registry version of a dynamic xslt resource, or Long.MIN_VALUE if it is not known
+     */
+    private long getEntryVersion(MessageContext synCtx, String generatedXsltKey) {
+        Entry dp = synCtx.getConfiguration().getEntryDefinition(generatedXsltKey);
+        if (dp == null || !dp.isDynamic()) {
+            return Long.MIN_VALUE;
         }
+        return dp.getVersion();
     }
 
     public SynapseXPath getSource() {
@@ -592,6 +797,8 @@ public class XSLTMediator extends AbstractMediator {
                 sourceBuilderFactory = new DOOMSourceBuilderFactory();
                 resultBuilderFactory = new DOOMResultBuilderFactory();
             }
+        } else if (STREAM_FROM_PIPE.equals(featureName)) {
+            streamFromPipe = isFeatureEnable;
         } else {
             try {
                 transFact.setFeature(featureName, isFeatureEnable);
@@ -694,6 +901,30 @@ public class XSLTMediator extends AbstractMediator {
     public boolean isContentAltering() {
         return true;
     }
+
+    /**
+     * The mediator is not content aware only when it can stream an unbuilt payload from the
+     * pass-through pipe, so that the enclosing sequence does not build the message for it.
+     */
+    @Override
+    public boolean isContentAware() {
+        if (!streamFromPipe || source.getXPath() != null || targetPropertyName != null) {
+            return true;
+        }
+        if (xsltKey != null && isContentAware(xsltKey.getExpression())) {
+            return true;
+        }
+        for (MediatorProperty prop : properties) {
+            if (prop != null && isContentAware(prop.getExpression())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isContentAware(SynapsePath expression) {
+        return expression != null && expression.isContentAware();
+    }
     
     public boolean isUseCache() {
         return useCache;
@@ -703,6 +934,49 @@ public class XSLTMediator extends AbstractMediator {
         this.useCache = useCache;
     }
 
+    public boolean isStreamFromPipe() {
+        return streamFromPipe;
+    }
+
+    /**
+     * A compiled stylesheet together with the registry version it was compiled from, and a bounded
+     * pool of idle transformers created from it. A transformer is used by one message at a time and
+     * is reset before it is returned to the pool.
+     */
+    private static final class CachedTemplates {
+
+        private final Templates templates;
+
+        private final long version;
+
+        private final BlockingQueue<Transformer> idleTransformers;
+
+        CachedTemplates(Templates templates, long version, int poolSize) {
+            this.templates = templates;
+            this.version = version;
+            this.idleTransformers = poolSize > 0 ? new ArrayBlockingQueue<Transformer>(poolSize) : null;
+        }
+
+        Transformer borrowTransformer() throws TransformerConfigurationException {
+            Transformer transformer = idleTransformers != null ? idleTransformers.poll() : null;
+            return transformer != null ? transformer : templates.newTransformer();
+        }
+
+        void releaseTransformer(Transformer transformer) {
+            if (idleTransformers == null) {
+                return;
+            }
+            try {
+                // clears parameters and restores the error listener and URI resolver
+                transformer.reset();
+            } catch (UnsupportedOperationException e) {
+                return;
+            }
+            // the transformer is dropped if the pool is full
+            idleTransformers.offer(transformer);
+        }
+    }
+
 }
 
 	
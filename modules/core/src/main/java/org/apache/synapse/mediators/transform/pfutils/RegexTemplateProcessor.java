@@ -37,9 +37,12 @@ import org.apache.synapse.util.InlineExpressionUtil;
 import org.apache.synapse.util.xpath.SynapseExpression;
 import org.jaxen.JaxenException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -57,14 +60,28 @@ public class RegexTemplateProcessor extends TemplateProcessor {
     private final Gson gson = new Gson();
     private final Map<String, SynapseExpression> inlineExpressionCache = new ConcurrentHashMap<>();
 
+    /** The format compiled at init, or the last processed one, reused while the format and media type are the same */
+    private volatile CompiledTemplate compiledTemplate;
+
     @Override
     public String processTemplate(String template, String mediaType, MessageContext synCtx) {
 
-        StringBuffer result = new StringBuffer();
-        replace(template, result, mediaType, synCtx);
+        StringBuilder result = new StringBuilder(template.length());
+        processTemplate(template, mediaType, synCtx, result);
         return result.toString();
     }
 
+    @Override
+    public void processTemplate(String template, String mediaType, MessageContext synCtx, StringBuilder result) {
+
+        CompiledTemplate compiled = compiledTemplate;
+        if (compiled == null || !compiled.isCompiledFrom(template, mediaType)) {
+            compiled = new CompiledTemplate(template, mediaType);
+            compiledTemplate = compiled;
+        }
+        replace(compiled, result, mediaType, synCtx);
+    }
+
     @Override
     public void init() throws SynapseException {
         String format = getFormat();
@@ -75,37 +92,37 @@ public class RegexTemplateProcessor extends TemplateProcessor {
                 String msg = "Invalid Payload format : " + e.getMessage();
                 throw new SynapseException(msg);
             }
+            compiledTemplate = new CompiledTemplate(format, getMediaType());
         }
         this.readInputFactoryProperties();
     }
 
     /**
-     * Replaces the payload format with SynapsePath arguments which are evaluated using getArgValues().
+     * Replaces the placeholders of the compiled payload format with SynapsePath arguments which are evaluated using
+     * getArgValues(), and inline expressions.
      *
-     * @param format
-     * @param result
+     * @param compiled compiled payload format
+     * @param result   builder the payload is written to
      * @param synCtx
      */
-    private void replace(String format, StringBuffer result, String mediaType, MessageContext synCtx) {
+    private void replace(CompiledTemplate compiled, StringBuilder result, String mediaType, MessageContext synCtx) {
 
-        Map<String, Object> inlineExpressionResults = new ConcurrentHashMap<>();
+        Object[] expressionResults = new Object[compiled.expressions.length];
         HashMap<String, ArgumentDetails>[] argValues = getArgValues(mediaType, synCtx);
         HashMap<String, ArgumentDetails> replacement;
         Map.Entry<String, ArgumentDetails> replacementEntry;
         String replacementValue;
-        Matcher matcher;
+        Segment[] segments = compiled.segments;
+        int i = 0;
 
-        if (JSON_TYPE.equals(mediaType) || TEXT_TYPE.equals(mediaType)) {
-            matcher = pattern.matcher(format);
-        } else {
-            matcher = pattern.matcher("<pfPadding>" + format + "</pfPadding>");
-        }
         try {
-            while (matcher.find()) {
-                if (matcher.group(1) != null) {
+            for (; i < segments.length; i++) {
+                Segment segment = segments[i];
+                if (segment.type == Segment.LITERAL) {
+                    result.append(segment.text);
+                } else if (segment.type == Segment.QUOTED_EXPRESSION) {
                     // Handle "${...}" pattern (with quotes)
-                    String expression = matcher.group(1);
-                    Object expressionResult = evaluateExpression(expression, synCtx, inlineExpressionResults);
+                    Object expressionResult = evaluateExpression(compiled, segment, synCtx, expressionResults);
                     if (expressionResult instanceof JsonPrimitive) {
                         replacementValue = prepareJSONPrimitiveReplacementValue(expressionResult, mediaType);
                     } else if (expressionResult instanceof JsonElement) {
@@ -127,11 +144,10 @@ public class RegexTemplateProcessor extends TemplateProcessor {
                             }
                         }
                     }
-                    matcher.appendReplacement(result, "\"" + replacementValue + "\"");
-                } else if (matcher.group(2) != null) {
+                    appendReplacement(result, "\"" + replacementValue + "\"", segment.groups);
+                } else if (segment.type == Segment.EXPRESSION) {
                     // Handle ${...} pattern (without quotes)
-                    String expression = matcher.group(2);
-                    Object expressionResult = evaluateExpression(expression, synCtx, inlineExpressionResults);
+                    Object expressionResult = evaluateExpression(compiled, segment, synCtx, expressionResults);
                     replacementValue = expressionResult.toString();
                     if (expressionResult instanceof JsonPrimitive) {
                         replacementValue = prepareJSONPrimitiveReplacementValue(expressionResult, mediaType);
@@ -152,22 +168,79 @@ public class RegexTemplateProcessor extends TemplateProcessor {
                             replacementValue = Matcher.quoteReplacement(replacementValue);
                         }
                     }
-                    matcher.appendReplacement(result, replacementValue);
-                } else if (matcher.group(3) != null) {
+                    appendReplacement(result, replacementValue, segment.groups);
+                } else {
                     // Handle $n pattern
-                    String matchSeq = matcher.group(3);
-                    replacement = getReplacementValue(argValues, matchSeq);
+                    replacement = getReplacementValue(argValues, segment.value);
                     replacementEntry = replacement.entrySet().iterator().next();
                     replacementValue = prepareReplacementValue(mediaType, synCtx, replacementEntry);
-                    matcher.appendReplacement(result, replacementValue);
+                    appendReplacement(result, replacementValue, segment.groups);
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
             log.error("#replace. Mis-match detected between number of formatters and arguments", e);
+            // leave the rest of the format as it is
+            for (; i < segments.length; i++) {
+                result.append(segments[i].text);
+            }
         } catch (JaxenException e) {
             throw new SynapseException("Error evaluating expression" , e);
         }
-        matcher.appendTail(result);
+    }
+
+    /**
+     * Appends a replacement value as {@link Matcher#appendReplacement} does, so that the values prepared for it are
+     * written unchanged: a backslash escapes the next character, and $n refers to a group of the placeholder.
+     *
+     * @param result      builder the payload is written to
+     * @param replacement the replacement value
+     * @param groups      the groups of the placeholder match
+     */
+    static void appendReplacement(StringBuilder result, String replacement, String[] groups) {
+
+        int length = replacement.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = replacement.charAt(i);
+            if (c == '\\' || c == '$') {
+                result.append(replacement, start, i);
+                i++;
+                if (c == '\\') {
+                    if (i == length) {
+                        throw new IllegalArgumentException("character to be escaped is missing");
+                    }
+                    result.append(replacement.charAt(i));
+                } else {
+                    if (i == length) {
+                        throw new IllegalArgumentException("Illegal group reference: group index is missing");
+                    }
+                    if (replacement.charAt(i) == '{') {
+                        throw new IllegalArgumentException("No group with name " + replacement.substring(i));
+                    }
+                    int group = replacement.charAt(i) - '0';
+                    if (group < 0 || group > 9) {
+                        throw new IllegalArgumentException("Illegal group reference");
+                    }
+                    // as the matcher, take the following digits while they refer to an existing group
+                    while (i + 1 < length) {
+                        int digit = replacement.charAt(i + 1) - '0';
+                        if (digit < 0 || digit > 9 || group * 10 + digit >= groups.length) {
+                            break;
+                        }
+                        group = group * 10 + digit;
+                        i++;
+                    }
+                    if (group >= groups.length) {
+                        throw new IndexOutOfBoundsException("No group " + group);
+                    }
+                    if (groups[group] != null) {
+                        result.append(groups[group]);
+                    }
+                }
+                start = i + 1;
+            }
+        }
+        result.append(replacement, start, length);
     }
 
     private String prepareJSONPrimitiveReplacementValue(Object expressionResult, String mediaType) {
@@ -180,35 +253,52 @@ public class RegexTemplateProcessor extends TemplateProcessor {
         return replacementValue;
     }
 
+    /**
+     * @param expression inline expression of a payload format
+     * @return the parsed expression, shared by the formats using the same expression
+     */
+    private SynapseExpression resolveExpression(String expression) {
+
+        SynapseExpression expressionObj = inlineExpressionCache.get(expression);
+        if (expressionObj == null) {
+            try {
+                expressionObj = new SynapseExpression(expression);
+            } catch (JaxenException e) {
+                throw new SynapseException("Error evaluating expression", e);
+            }
+            inlineExpressionCache.put(expression, expressionObj);
+        }
+        return expressionObj;
+    }
+
     /**
      * Evaluates the expression and returns the result as a string or an object.
      * If the expression contains "xpath(", we meed to evaluate it as a string.
      *
-     * @param expression expression to evaluate
-     * @param synCtx     message context
+     * @param compiled          compiled payload format
+     * @param segment           placeholder of the expression to evaluate
+     * @param synCtx            message context
+     * @param expressionResults results of the expressions of the format evaluated for this message
      * @return evaluated result
      * @throws JaxenException if an error occurs while evaluating the expression
      */
-    private Object evaluateExpression(String expression, MessageContext synCtx,
-                                      Map<String, Object> inlineExpressionResults) throws JaxenException {
+    private Object evaluateExpression(CompiledTemplate compiled, Segment segment, MessageContext synCtx,
+                                      Object[] expressionResults) throws JaxenException {
 
-        SynapseExpression expressionObj = inlineExpressionCache.get(expression);
-        if (expressionObj == null) {
-            expressionObj = new SynapseExpression(expression);
-            inlineExpressionCache.put(expression, expressionObj);
+        int index = segment.expressionIndex;
+        if (expressionResults[index] != null) {
+            return expressionResults[index];
         }
-        if (inlineExpressionResults.containsKey(expression)) {
-            return inlineExpressionResults.get(expression);
+        String expression = segment.value;
+        SynapseExpression expressionObj = compiled.expressions[index];
+        Object result;
+        if (expression.contains("xpath(")) {
+            result = expressionObj.stringValueOf(synCtx);
         } else {
-            Object result;
-            if (expression.contains("xpath(")) {
-                result = expressionObj.stringValueOf(synCtx);
-            } else {
-                result = expressionObj.objectValueOf(synCtx);
-            }
-            inlineExpressionResults.put(expression, result);
-            return result;
+            result = expressionObj.objectValueOf(synCtx);
         }
+        expressionResults[index] = result;
+        return result;
     }
 
     private String escapeJson(String value) {
@@ -284,4 +374,104 @@ public class RegexTemplateProcessor extends TemplateProcessor {
         return true;
     }
 
+    /**
+     * A payload format split into its literal text and placeholders, for a media type.
+     */
+    private final class CompiledTemplate {
+
+        private final String format;
+
+        private final String mediaType;
+
+        private final Segment[] segments;
+
+        /** Inline expressions of the format, indexed by the expression index of segments */
+        private final SynapseExpression[] expressions;
+
+        CompiledTemplate(String format, String mediaType) {
+            this.format = format;
+            this.mediaType = mediaType;
+
+            Matcher matcher;
+            String text;
+            if (JSON_TYPE.equals(mediaType) || TEXT_TYPE.equals(mediaType)) {
+                text = format;
+            } else {
+                text = "<pfPadding>" + format + "</pfPadding>";
+            }
+            matcher = pattern.matcher(text);
+            List<Segment> segmentList = new ArrayList<>();
+            Map<String, Integer> expressionIndexes = new HashMap<>();
+            int position = 0;
+            while (matcher.find()) {
+                if (matcher.start() > position) {
+                    segmentList.add(new Segment(Segment.LITERAL, text.substring(position, matcher.start()),
+                            null, -1, null));
+                }
+                String[] groups = new String[matcher.groupCount() + 1];
+                for (int i = 0; i < groups.length; i++) {
+                    groups[i] = matcher.group(i);
+                }
+                if (groups[1] != null || groups[2] != null) {
+                    String expression = groups[1] != null ? groups[1] : groups[2];
+                    Integer index = expressionIndexes.get(expression);
+                    if (index == null) {
+                        index = expressionIndexes.size();
+                        expressionIndexes.put(expression, index);
+                    }
+                    segmentList.add(new Segment(groups[1] != null ? Segment.QUOTED_EXPRESSION : Segment.EXPRESSION,
+                            groups[0], expression, index, groups));
+                } else {
+                    segmentList.add(new Segment(Segment.ARGUMENT, groups[0], groups[3], -1, groups));
+                }
+                position = matcher.end();
+            }
+            if (position < text.length()) {
+                segmentList.add(new Segment(Segment.LITERAL, text.substring(position), null, -1, null));
+            }
+            this.segments = segmentList.toArray(new Segment[0]);
+            // resolved here rather than on first use, so that the template can be shared by concurrent messages
+            SynapseExpression[] resolved = new SynapseExpression[expressionIndexes.size()];
+            for (Map.Entry<String, Integer> entry : expressionIndexes.entrySet()) {
+                resolved[entry.getValue()] = resolveExpression(entry.getKey());
+            }
+            this.expressions = resolved;
+        }
+
+        boolean isCompiledFrom(String format, String mediaType) {
+            return this.format.equals(format) && Objects.equals(this.mediaType, mediaType);
+        }
+    }
+
+    /**
+     * Literal text or a placeholder of a compiled payload format.
+     */
+    private static final class Segment {
+
+        static final int LITERAL = 0;
+        static final int QUOTED_EXPRESSION = 1;
+        static final int EXPRESSION = 2;
+        static final int ARGUMENT = 3;
+
+        private final int type;
+
+        /** The text of the segment in the format */
+        private final String text;
+
+        /** The inline expression, or the argument number */
+        private final String value;
+
+        private final int expressionIndex;
+
+        /** The groups of the placeholder match, which a replacement value may refer to */
+        private final String[] groups;
+
+        Segment(int type, String text, String value, int expressionIndex, String[] groups) {
+            this.type = type;
+            this.text = text;
+            this.value = value;
+            this.expressionIndex = expressionIndex;
+            this.groups = groups;
+        }
+    }
 }
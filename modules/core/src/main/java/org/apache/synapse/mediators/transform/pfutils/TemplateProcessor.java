@@ -88,6 +88,19 @@ public abstract class TemplateProcessor {
      */
     public abstract String processTemplate(String template, String mediaType, MessageContext synCtx);
 
+    /**
+     * Process the given template and append the output to the given builder
+     *
+     * @param template        Template string
+     * @param mediaType       Output media type
+     * @param synCtx          MessageContext
+     * @param result          Builder the output is appended to
+     */
+    public void processTemplate(String template, String mediaType, MessageContext synCtx, StringBuilder result) {
+
+        result.append(processTemplate(template, mediaType, synCtx));
+    }
+
     /**
      * Execute pre-processing steps if needed
      */
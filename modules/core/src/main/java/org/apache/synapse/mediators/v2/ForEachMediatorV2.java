@@ -64,6 +64,7 @@ import org.apache.synapse.mediators.eip.aggregator.ForEachAggregate;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
 import org.apache.synapse.util.MessageHelper;
 import org.apache.synapse.util.synapse.expression.constants.ExpressionConstants;
+import org.apache.synapse.util.xpath.CompiledExpressionCache;
 import org.apache.synapse.util.xpath.SynapseExpression;
 import org.apache.synapse.util.xpath.SynapseExpressionUtils;
 import org.apache.synapse.util.xpath.SynapseXPath;
@@ -721,7 +722,7 @@ public class ForEachMediatorV2 extends AbstractMediator implements ManagedLifecy
             jsonPath = expression.replaceAll(ExpressionConstants.VARIABLES + "\\.\\w+\\.(\\w+)", "\\$.$1")
                     .replaceAll(ExpressionConstants.VARIABLES + "\\.\\w+", "\\$");
         }
-        return JsonPath.compile(jsonPath);
+        return CompiledExpressionCache.getJsonPath(jsonPath);
     }
 
     private boolean isWholeContent(JsonPath jsonPath) {
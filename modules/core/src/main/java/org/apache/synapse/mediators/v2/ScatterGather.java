@@ -62,6 +62,7 @@ import org.apache.synapse.mediators.eip.Target;
 import org.apache.synapse.mediators.eip.aggregator.Aggregate;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
 import org.apache.synapse.util.MessageHelper;
+import org.apache.synapse.util.SharedEnvelope;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -136,11 +137,13 @@ public class ScatterGather extends AbstractMediator implements ManagedLifecycle,
         }
 
         MessageContext orginalMessageContext = null;
+        SharedEnvelope envelope = MessageHelper.shareEnvelope(synCtx, isTargetBody() ? targets.size() :
+                targets.size() + 1);
         if (!isTargetBody()) {
             try {
                 // Clone the original MessageContext and save it to continue the flow using it when the scatter gather
                 // output is set to a variable
-                orginalMessageContext = MessageHelper.cloneMessageContext(synCtx);
+                orginalMessageContext = MessageHelper.cloneMessageContext(synCtx, envelope);
             } catch (AxisFault e) {
                 handleException("Error cloning the message context", e, synCtx);
             }
@@ -155,7 +158,7 @@ public class ScatterGather extends AbstractMediator implements ManagedLifecycle,
                         " messages for " + (parallelExecution ? "parallel processing" : "sequential processing"));
             }
 
-            MessageContext clonedMsgCtx = getClonedMessageContext(synCtx, i++, targets.size());
+            MessageContext clonedMsgCtx = getClonedMessageContext(synCtx, i++, targets.size(), envelope);
             ContinuationStackManager.addReliantContinuationState(clonedMsgCtx, i - 1, getMediatorPosition());
             boolean result = iter.next().mediate(clonedMsgCtx);
             if (!parallelExecution && result) {
@@ -202,13 +205,15 @@ public class ScatterGather extends AbstractMediator implements ManagedLifecycle,
      * @param synCtx          - MessageContext which is subjected to the cloning
      * @param messageSequence - the position of this message of the cloned set
      * @param messageCount    - total of cloned copies
+     * @param envelope        - envelope shared by the cloned copies, or null to clone the envelope
      * @return MessageContext the cloned message context
      */
-    private MessageContext getClonedMessageContext(MessageContext synCtx, int messageSequence, int messageCount) {
+    private MessageContext getClonedMessageContext(MessageContext synCtx, int messageSequence, int messageCount,
+                                                   SharedEnvelope envelope) {
 
         MessageContext newCtx = null;
         try {
-            newCtx = MessageHelper.cloneMessageContext(synCtx);
+            newCtx = MessageHelper.cloneMessageContext(synCtx, envelope);
             // Set isServerSide property in the cloned message context
             ((Axis2MessageContext) newCtx).getAxis2MessageContext().setServerSide(
                     ((Axis2MessageContext) synCtx).getAxis2MessageContext().isServerSide());
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.metrics;
+
+import org.apache.synapse.transport.passthru.jmx.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request, error and latency metrics of a single artifact. The counters are striped, and recording a value neither
+ * locks nor allocates, so that the metrics can be kept for every message.
+ * <p>
+ * The count and the sum of the latencies are kept since the server started. The latency quantiles are computed over
+ * the last completed interval of the {@link LatencyHistogram}, which is rolled by the {@link MetricsRegistry}. The
+ * histogram is kept in microseconds, so that the quantiles of artifacts and pools which take less than a millisecond
+ * are not rounded down to zero.
+ */
+public class ArtifactMetrics {
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder latencyCount = new LongAdder();
+
+    private final LongAdder latencySum = new LongAdder();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /** Number of pools sharing these metrics, if they are the metrics of a pool, guarded by the pools map */
+    int poolReferences;
+
+    /** Metrics of the resources of an API, keyed by the URL pattern of the resource */
+    private final ConcurrentMap<String, ArtifactMetrics> resources;
+
+    ArtifactMetrics(boolean hasResources) {
+        this.resources = hasResources ? new ConcurrentHashMap<String, ArtifactMetrics>() : null;
+    }
+
+    /**
+     * Record a request which has been mediated by the artifact.
+     *
+     * @param latencyNanos time taken to mediate the request, in nanoseconds
+     * @param error        whether the mediation of the request failed
+     */
+    public void record(long latencyNanos, boolean error) {
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        recordLatency(latencyNanos);
+    }
+
+    public void incrementRequests() {
+        requests.increment();
+    }
+
+    public void incrementErrors() {
+        errors.increment();
+    }
+
+    public void recordLatency(long latencyNanos) {
+        if (latencyNanos < 0) {
+            return;
+        }
+        latencyCount.increment();
+        latencySum.add(latencyNanos);
+        latency.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getLatencyCount() {
+        return latencyCount.sum();
+    }
+
+    /**
+     * @return sum of all the recorded latencies, in nanoseconds
+     */
+    public long getLatencySum() {
+        return latencySum.sum();
+    }
+
+    /**
+     * @param percentileIndex index into {@link LatencyHistogram#PERCENTILES}
+     * @return latency at the given percentile over the last completed interval, in microseconds
+     */
+    public long getLatencyPercentileMicros(int percentileIndex) {
+        return latency.getIntervalPercentile(percentileIndex);
+    }
+
+    /**
+     * @param resource URL pattern of an API resource
+     * @return metrics of the given resource, or null if this artifact is not an API
+     */
+    ArtifactMetrics getResource(String resource) {
+        if (resources == null || resource == null) {
+            return null;
+        }
+        ArtifactMetrics metrics = resources.get(resource);
+        if (metrics == null) {
+            metrics = new ArtifactMetrics(false);
+            ArtifactMetrics existing = resources.putIfAbsent(resource, metrics);
+            if (existing != null) {
+                metrics = existing;
+            }
+        }
+        return metrics;
+    }
+
+    Map<String, ArtifactMetrics> getResources() {
+        return resources;
+    }
+
+    void rollInterval() {
+        latency.rollInterval();
+        if (resources != null) {
+            for (ArtifactMetrics resource : resources.values()) {
+                resource.rollInterval();
+            }
+        }
+    }
+}
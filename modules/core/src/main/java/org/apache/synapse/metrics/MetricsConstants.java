@@ -25,5 +25,28 @@ package org.apache.synapse.metrics;
 public final class MetricsConstants {
     public static final String GLOBAL_REQUEST_COUNTER = "__GLOBAL_REQUEST_COUNTER__";
     public static final String REQUEST_RECEIVED_TIME = "__REQUEST_RECEIVED_TIME__";
+
+    /** Number of fault handlers invoked for a message, see MetricsRegistry#notifyFault */
+    public static final String FAULT_COUNT = "__METRICS_FAULT_COUNT__";
+
+    /** Time, from System.nanoTime(), at which a message was sent out through a named endpoint */
+    public static final String ENDPOINT_CALL_START_TIME = "__ENDPOINT_CALL_START_TIME__";
+
+    /** Whether per artifact request, error and latency metrics are collected */
+    public static final String METRICS_REGISTRY_ENABLE = "synapse.metrics.registry.enable";
+
+    /** Interval, in milliseconds, over which the latency quantiles are computed */
+    public static final String METRICS_QUANTILE_INTERVAL = "synapse.metrics.quantile.interval";
+    public static final long DEFAULT_METRICS_QUANTILE_INTERVAL = 60000;
+
+    /** Port of the Prometheus text endpoint, the endpoint is not started unless a port is given */
+    public static final String PROMETHEUS_PORT = "synapse.metrics.prometheus.port";
+
+    /** Address the Prometheus text endpoint binds to */
+    public static final String PROMETHEUS_HOST = "synapse.metrics.prometheus.host";
+    public static final String DEFAULT_PROMETHEUS_HOST = "127.0.0.1";
+
+    /** Path on which the metrics are served */
+    public static final String PROMETHEUS_PATH = "/metrics";
 }
 
@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.SynapseConstants;
+import org.apache.synapse.aspects.ComponentType;
+import org.apache.synapse.config.SynapsePropertiesLoader;
+import org.apache.synapse.transport.passthru.jmx.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the request, error and latency metrics of the proxy services, APIs and their resources, sequences,
+ * endpoints and inbound endpoints. Unlike the mediation flow statistics, the registry does not build any events
+ * for a message; each collection point only updates the striped counters of the artifact, so it is kept on by
+ * default. The metrics can be scraped in the Prometheus text format from a local port.
+ * <p>
+ * The latency of a proxy service, API, sequence or inbound endpoint is the time spent mediating a request through
+ * it, while the latency of an endpoint is the time from sending a message through it until the response or the
+ * fault is received.
+ */
+public final class MetricsRegistry {
+
+    private static final Log log = LogFactory.getLog(MetricsRegistry.class);
+
+    private static final String REQUESTS_METRIC = "synapse_artifact_requests_total";
+    private static final String ERRORS_METRIC = "synapse_artifact_errors_total";
+    private static final String LATENCY_METRIC = "synapse_artifact_latency_seconds";
+    private static final String POOL_BORROWS_METRIC = "synapse_pool_borrows_total";
+    private static final String POOL_WAIT_METRIC = "synapse_pool_wait_seconds";
+
+    private static final Map<ComponentType, ConcurrentMap<String, ArtifactMetrics>> artifacts =
+            new EnumMap<ComponentType, ConcurrentMap<String, ArtifactMetrics>>(ComponentType.class);
+
+    /** Metrics of the time taken to borrow from the pools of the mediators, keyed by the name of the pool */
+    private static final ConcurrentMap<String, ArtifactMetrics> pools =
+            new ConcurrentHashMap<String, ArtifactMetrics>();
+
+    private static final Map<ComponentType, String> typeLabels =
+            new EnumMap<ComponentType, String>(ComponentType.class);
+
+    static {
+        typeLabels.put(ComponentType.PROXYSERVICE, "proxy");
+        typeLabels.put(ComponentType.API, "api");
+        typeLabels.put(ComponentType.SEQUENCE, "sequence");
+        typeLabels.put(ComponentType.ENDPOINT, "endpoint");
+        typeLabels.put(ComponentType.INBOUNDENDPOINT, "inbound_endpoint");
+        for (ComponentType type : typeLabels.keySet()) {
+            artifacts.put(type, new ConcurrentHashMap<String, ArtifactMetrics>());
+        }
+    }
+
+    private static volatile boolean enabled = true;
+
+    private static ScheduledExecutorService scheduler;
+
+    private static PrometheusMetricsServer server;
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Read the metrics configuration from synapse.properties, and start rolling the latency quantiles and the
+     * Prometheus endpoint if a port is configured.
+     */
+    public static synchronized void init() {
+        enabled = SynapsePropertiesLoader.getBooleanProperty(MetricsConstants.METRICS_REGISTRY_ENABLE, true);
+        if (!enabled) {
+            log.info("Artifact metrics collection is disabled");
+            return;
+        }
+        long interval = getLongProperty(MetricsConstants.METRICS_QUANTILE_INTERVAL,
+                MetricsConstants.DEFAULT_METRICS_QUANTILE_INTERVAL);
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "synapse-metrics-registry");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            scheduler.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    rollInterval();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        int port = (int) getLongProperty(MetricsConstants.PROMETHEUS_PORT, -1);
+        if (port >= 0 && server == null) {
+            String host = SynapsePropertiesLoader.getPropertyValue(MetricsConstants.PROMETHEUS_HOST,
+                    MetricsConstants.DEFAULT_PROMETHEUS_HOST);
+            try {
+                server = new PrometheusMetricsServer(host, port);
+                server.start();
+                log.info("Artifact metrics are served in the Prometheus text format on http://" + host + ":"
+                        + server.getPort() + MetricsConstants.PROMETHEUS_PATH);
+            } catch (IOException e) {
+                server = null;
+                log.error("Could not start the Prometheus metrics endpoint on " + host + ":" + port, e);
+            }
+        }
+    }
+
+    /**
+     * Stop the Prometheus endpoint and rolling the latency quantiles.
+     */
+    public static synchronized void destroy() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param type type of the artifact
+     * @param name name of the artifact
+     * @return metrics of the artifact, or null if metrics are disabled or not kept for the given type of artifacts
+     *         or for anonymous endpoints
+     */
+    public static ArtifactMetrics getMetrics(ComponentType type, String name) {
+        if (!enabled || name == null) {
+            return null;
+        }
+        if (type == ComponentType.ENDPOINT && SynapseConstants.ANONYMOUS_ENDPOINT.equals(name)) {
+            // anonymous endpoints all report the same name, so their metrics would be mixed into a single series
+            return null;
+        }
+        ConcurrentMap<String, ArtifactMetrics> metricsMap = artifacts.get(type);
+        if (metricsMap == null) {
+            return null;
+        }
+        ArtifactMetrics metrics = metricsMap.get(name);
+        if (metrics == null) {
+            metrics = new ArtifactMetrics(type == ComponentType.API);
+            ArtifactMetrics existing = metricsMap.putIfAbsent(name, metrics);
+            if (existing != null) {
+                metrics = existing;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Forget the metrics of an undeployed artifact, so that its series are no longer scraped. An artifact which is
+     * redeployed under the same name starts new series.
+     *
+     * @param type type of the artifact
+     * @param name name of the artifact, ignored if null
+     */
+    public static void remove(ComponentType type, String name) {
+        if (name == null) {
+            return;
+        }
+        ConcurrentMap<String, ArtifactMetrics> metricsMap = artifacts.get(type);
+        if (metricsMap != null) {
+            metricsMap.remove(name);
+        }
+    }
+
+    /**
+     * Get the metrics of a pool from which mediators borrow resources, such as the script engines of a script
+     * mediator. Each borrow is recorded as a request, and the time taken to borrow as its latency.
+     * <p>
+     * Pools of the same name share their metrics, such as the pools of a mediator which is being redeployed. Each
+     * call has to be matched by a call to {@link #releasePoolMetrics(String)} when the pool is destroyed.
+     *
+     * @param pool name of the pool
+     * @return metrics of the pool, or null if metrics are disabled
+     */
+    public static ArtifactMetrics getPoolMetrics(String pool) {
+        if (!enabled || pool == null) {
+            return null;
+        }
+        synchronized (pools) {
+            ArtifactMetrics metrics = pools.get(pool);
+            if (metrics == null) {
+                metrics = new ArtifactMetrics(false);
+                pools.put(pool, metrics);
+            }
+            metrics.poolReferences++;
+            return metrics;
+        }
+    }
+
+    /**
+     * Release the metrics of a destroyed pool. The metrics are removed once no pool of the name is left.
+     *
+     * @param pool name of the pool
+     */
+    public static void releasePoolMetrics(String pool) {
+        if (pool == null) {
+            return;
+        }
+        synchronized (pools) {
+            ArtifactMetrics metrics = pools.get(pool);
+            if (metrics != null && --metrics.poolReferences <= 0) {
+                pools.remove(pool);
+            }
+        }
+    }
+
+    /**
+     * Record the mediation of a message through an artifact. Only errors are counted for response messages, since
+     * the request of the message has already been counted.
+     *
+     * @param type      type of the artifact
+     * @param name      name of the artifact
+     * @param startTime time at which the mediation started, from {@link System#nanoTime()}
+     * @param response  whether the message is a response
+     * @param error     whether the mediation failed
+     */
+    public static void record(ComponentType type, String name, long startTime, boolean response, boolean error) {
+        record(getMetrics(type, name), startTime, response, error);
+    }
+
+    /**
+     * Record the mediation of a message through an API and the matching resource of it.
+     *
+     * @param api       name of the API
+     * @param resource  URL pattern of the resource, or null if the message was not dispatched to a resource
+     * @param startTime time at which the mediation started, from {@link System#nanoTime()}
+     * @param response  whether the message is a response
+     * @param error     whether the mediation failed
+     */
+    public static void recordApi(String api, String resource, long startTime, boolean response, boolean error) {
+        ArtifactMetrics metrics = getMetrics(ComponentType.API, api);
+        if (metrics != null) {
+            record(metrics, startTime, response, error);
+            record(metrics.getResource(resource), startTime, response, error);
+        }
+    }
+
+    /**
+     * Record that a fault handler was invoked for a message. The fault handler consumes the error, so the artifacts
+     * mediating the message would not see it fail otherwise.
+     *
+     * @param synCtx message being handled
+     */
+    public static void notifyFault(MessageContext synCtx) {
+        if (!enabled) {
+            return;
+        }
+        Object faults = synCtx.getProperty(MetricsConstants.FAULT_COUNT);
+        synCtx.setProperty(MetricsConstants.FAULT_COUNT, faults instanceof Integer ? (Integer) faults + 1 : 1);
+    }
+
+    /**
+     * Take a mark of the faults of a message before it is mediated through an artifact.
+     *
+     * @param synCtx message about to be mediated
+     * @return mark to be passed to {@link #hasFaulted(MessageContext, int)}
+     */
+    public static int getFaultMark(MessageContext synCtx) {
+        Object faults = synCtx.getProperty(MetricsConstants.FAULT_COUNT);
+        int mark = faults instanceof Integer ? (Integer) faults << 1 : 0;
+        // the low bit tells whether an error code is set, mediators such as the endpoints set one on failure
+        return synCtx.getProperty(SynapseConstants.ERROR_CODE) != null ? mark | 1 : mark;
+    }
+
+    /**
+     * @param synCtx    mediated message
+     * @param faultMark mark taken by {@link #getFaultMark(MessageContext)} before the mediation
+     * @return whether a fault handler was invoked for the message, or an error code was set on it, since the mark
+     */
+    public static boolean hasFaulted(MessageContext synCtx, int faultMark) {
+        return getFaultMark(synCtx) > faultMark;
+    }
+
+    /**
+     * Record that a message is sent out through a named endpoint, the call is completed by
+     * {@link #endEndpointCall(MessageContext, String, boolean)}.
+     *
+     * @param synCtx   message sent through the endpoint
+     * @param endpoint name of the endpoint, null for an anonymous endpoint which is not recorded
+     */
+    public static void startEndpointCall(MessageContext synCtx, String endpoint) {
+        ArtifactMetrics metrics = getMetrics(ComponentType.ENDPOINT, endpoint);
+        if (metrics != null) {
+            metrics.incrementRequests();
+            synCtx.setProperty(MetricsConstants.ENDPOINT_CALL_START_TIME, System.nanoTime());
+        }
+    }
+
+    /**
+     * Record that the response, or a fault, has been received for a message sent through a named endpoint. The
+     * latency of a call is only recorded once, even if a received response is turned into a fault afterwards.
+     *
+     * @param synCtx   message which was sent through the endpoint
+     * @param endpoint name of the endpoint
+     * @param error    whether the call failed
+     */
+    public static void endEndpointCall(MessageContext synCtx, String endpoint, boolean error) {
+        ArtifactMetrics metrics = getMetrics(ComponentType.ENDPOINT, endpoint);
+        if (metrics == null) {
+            return;
+        }
+        Object startTime = synCtx.getProperty(MetricsConstants.ENDPOINT_CALL_START_TIME);
+        if (startTime instanceof Long) {
+            Set keySet = synCtx.getPropertyKeySet();
+            if (keySet != null) {
+                keySet.remove(MetricsConstants.ENDPOINT_CALL_START_TIME);
+            }
+            metrics.recordLatency(System.nanoTime() - (Long) startTime);
+        }
+        if (error) {
+            metrics.incrementErrors();
+        }
+    }
+
+    private static void record(ArtifactMetrics metrics, long startTime, boolean response, boolean error) {
+        if (metrics == null) {
+            return;
+        }
+        if (!response) {
+            metrics.record(System.nanoTime() - startTime, error);
+        } else if (error) {
+            metrics.incrementErrors();
+        }
+    }
+
+    /**
+     * Close the current interval of the latency quantiles of all the artifacts.
+     */
+    public static void rollInterval() {
+        for (ConcurrentMap<String, ArtifactMetrics> metricsMap : artifacts.values()) {
+            for (ArtifactMetrics metrics : metricsMap.values()) {
+                metrics.rollInterval();
+            }
+        }
+        for (ArtifactMetrics metrics : pools.values()) {
+            metrics.rollInterval();
+        }
+    }
+
+    /**
+     * Forget the metrics of all the artifacts.
+     */
+    public static void clear() {
+        for (ConcurrentMap<String, ArtifactMetrics> metricsMap : artifacts.values()) {
+            metricsMap.clear();
+        }
+        pools.clear();
+    }
+
+    /**
+     * @return metrics of all the artifacts in the Prometheus text exposition format
+     */
+    public static String getPrometheusText() {
+        // snapshot the artifacts so that all the metric families list the same series, in a stable order
+        Map<String, ArtifactMetrics> series = new TreeMap<String, ArtifactMetrics>();
+        for (Map.Entry<ComponentType, ConcurrentMap<String, ArtifactMetrics>> type : artifacts.entrySet()) {
+            String typeLabel = typeLabels.get(type.getKey());
+            for (Map.Entry<String, ArtifactMetrics> artifact : type.getValue().entrySet()) {
+                String labels = "type=\"" + typeLabel + "\",name=\"" + escape(artifact.getKey()) + "\"";
+                series.put(labels, artifact.getValue());
+                Map<String, ArtifactMetrics> resources = artifact.getValue().getResources();
+                if (resources != null) {
+                    for (Map.Entry<String, ArtifactMetrics> resource : resources.entrySet()) {
+                        series.put(labels + ",resource=\"" + escape(resource.getKey()) + "\"", resource.getValue());
+                    }
+                }
+            }
+        }
+
+        StringBuilder text = new StringBuilder(256 + series.size() * 512);
+        text.append("# HELP ").append(REQUESTS_METRIC).append(" Number of requests mediated by an artifact\n");
+        text.append("# TYPE ").append(REQUESTS_METRIC).append(" counter\n");
+        for (Map.Entry<String, ArtifactMetrics> entry : series.entrySet()) {
+            text.append(REQUESTS_METRIC).append('{').append(entry.getKey()).append("} ")
+                    .append(entry.getValue().getRequestCount()).append('\n');
+        }
+        text.append("# HELP ").append(ERRORS_METRIC).append(" Number of requests which failed in an artifact\n");
+        text.append("# TYPE ").append(ERRORS_METRIC).append(" counter\n");
+        for (Map.Entry<String, ArtifactMetrics> entry : series.entrySet()) {
+            text.append(ERRORS_METRIC).append('{').append(entry.getKey()).append("} ")
+                    .append(entry.getValue().getErrorCount()).append('\n');
+        }
+        text.append("# HELP ").append(LATENCY_METRIC)
+                .append(" Latency of an artifact, with quantiles over the last interval\n");
+        text.append("# TYPE ").append(LATENCY_METRIC).append(" summary\n");
+        for (Map.Entry<String, ArtifactMetrics> entry : series.entrySet()) {
+            String labels = entry.getKey();
+            ArtifactMetrics metrics = entry.getValue();
+            for (int i = 0; i < LatencyHistogram.PERCENTILES.length; i++) {
+                text.append(LATENCY_METRIC).append('{').append(labels).append(",quantile=\"")
+                        .append(LatencyHistogram.QUANTILE_LABELS[i]).append("\"} ")
+                        .append(metrics.getLatencyPercentileMicros(i) / 1e6).append('\n');
+            }
+            text.append(LATENCY_METRIC).append("_sum{").append(labels).append("} ")
+                    .append(metrics.getLatencySum() / 1e9).append('\n');
+            text.append(LATENCY_METRIC).append("_count{").append(labels).append("} ")
+                    .append(metrics.getLatencyCount()).append('\n');
+        }
+        if (!pools.isEmpty()) {
+            appendPoolMetrics(text);
+        }
+        return text.toString();
+    }
+
+    private static void appendPoolMetrics(StringBuilder text) {
+        Map<String, ArtifactMetrics> series = new TreeMap<String, ArtifactMetrics>();
+        for (Map.Entry<String, ArtifactMetrics> pool : pools.entrySet()) {
+            series.put("pool=\"" + escape(pool.getKey()) + "\"", pool.getValue());
+        }
+        text.append("# HELP ").append(POOL_BORROWS_METRIC).append(" Number of resources borrowed from a pool\n");
+        text.append("# TYPE ").append(POOL_BORROWS_METRIC).append(" counter\n");
+        for (Map.Entry<String, ArtifactMetrics> entry : series.entrySet()) {
+            text.append(POOL_BORROWS_METRIC).append('{').append(entry.getKey()).append("} ")
+                    .append(entry.getValue().getRequestCount()).append('\n');
+        }
+        text.append("# HELP ").append(POOL_WAIT_METRIC)
+                .append(" Time waited to borrow from a pool, with quantiles over the last interval\n");
+        text.append("# TYPE ").append(POOL_WAIT_METRIC).append(" summary\n");
+        for (Map.Entry<String, ArtifactMetrics> entry : series.entrySet()) {
+            String labels = entry.getKey();
+            ArtifactMetrics metrics = entry.getValue();
+            for (int i = 0; i < LatencyHistogram.PERCENTILES.length; i++) {
+                text.append(POOL_WAIT_METRIC).append('{').append(labels).append(",quantile=\"")
+                        .append(LatencyHistogram.QUANTILE_LABELS[i]).append("\"} ")
+                        .append(metrics.getLatencyPercentileMicros(i) / 1e6).append('\n');
+            }
+            text.append(POOL_WAIT_METRIC).append("_sum{").append(labels).append("} ")
+                    .append(metrics.getLatencySum() / 1e9).append('\n');
+            text.append(POOL_WAIT_METRIC).append("_count{").append(labels).append("} ")
+                    .append(metrics.getLatencyCount()).append('\n');
+        }
+    }
+
+    private static String escape(String labelValue) {
+        if (labelValue.indexOf('\\') < 0 && labelValue.indexOf('"') < 0 && labelValue.indexOf('\n') < 0) {
+            return labelValue;
+        }
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static long getLongProperty(String name, long defaultValue) {
+        String value = SynapsePropertiesLoader.getPropertyValue(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value " + value + " for " + name + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
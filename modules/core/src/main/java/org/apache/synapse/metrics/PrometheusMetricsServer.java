@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A minimal HTTP endpoint which serves the {@link MetricsRegistry} in the Prometheus text format. Scrapes are
+ * infrequent, so the requests are served one at a time by a single daemon thread, and the endpoint does not depend
+ * on the HTTP transports of the server.
+ * <p>
+ * Since a single client can hold the thread, the whole request head has to arrive within the read timeout, and its
+ * lines and number of headers are bounded. Requests over these limits are dropped.
+ */
+class PrometheusMetricsServer implements Runnable {
+
+    private static final Log log = LogFactory.getLog(PrometheusMetricsServer.class);
+
+    private static final int READ_TIMEOUT = 5000;
+
+    /** Longest request line or header accepted */
+    static final int MAX_LINE_LENGTH = 8192;
+
+    private static final int MAX_HEADERS = 100;
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final ServerSocket serverSocket;
+
+    private final int readTimeout;
+
+    private Thread thread;
+
+    private volatile boolean running;
+
+    PrometheusMetricsServer(String host, int port) throws IOException {
+        this(host, port, READ_TIMEOUT);
+    }
+
+    /**
+     * @param readTimeout time in milliseconds within which the whole request head has to be received
+     */
+    PrometheusMetricsServer(String host, int port, int readTimeout) throws IOException {
+        this.readTimeout = readTimeout;
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName(host), port));
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "synapse-prometheus-metrics");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Error closing the Prometheus metrics endpoint", e);
+        }
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void run() {
+        while (running) {
+            try (Socket socket = serverSocket.accept()) {
+                serve(socket);
+            } catch (SocketTimeoutException e) {
+                log.warn("Prometheus metrics request was not received within " + readTimeout + "ms, dropping it");
+            } catch (SocketException e) {
+                if (running) {
+                    log.warn("Error serving a Prometheus metrics request", e);
+                }
+            } catch (IOException e) {
+                log.warn("Error serving a Prometheus metrics request", e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        InputStream in = new BufferedInputStream(new DeadlineInputStream(socket,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readTimeout)));
+        String requestLine = readLine(in);
+        if (requestLine == null) {
+            return;
+        }
+        // skip the headers, the request does not have a body
+        String header;
+        int headers = 0;
+        while ((header = readLine(in)) != null && !header.isEmpty()) {
+            if (++headers > MAX_HEADERS) {
+                throw new IOException("Prometheus metrics request has more than " + MAX_HEADERS + " headers");
+            }
+            if (log.isTraceEnabled()) {
+                log.trace("Prometheus metrics request header : " + header);
+            }
+        }
+
+        String[] parts = requestLine.split(" ");
+        String path = parts.length > 1 ? parts[1] : "";
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        OutputStream out = socket.getOutputStream();
+        if (!"GET".equals(parts[0]) && !"HEAD".equals(parts[0])) {
+            writeResponse(out, "405 Method Not Allowed", new byte[0], false);
+        } else if (!MetricsConstants.PROMETHEUS_PATH.equals(path)) {
+            writeResponse(out, "404 Not Found", new byte[0], false);
+        } else {
+            byte[] body = MetricsRegistry.getPrometheusText().getBytes(StandardCharsets.UTF_8);
+            writeResponse(out, "200 OK", body, "GET".equals(parts[0]));
+        }
+    }
+
+    private static void writeResponse(OutputStream out, String status, byte[] body, boolean writeBody)
+            throws IOException {
+        String head = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + CONTENT_TYPE + "\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        if (writeBody) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    /**
+     * Read a line terminated by LF or CRLF.
+     *
+     * @return the line without its terminator, or null at the end of the stream
+     * @throws IOException if the line is longer than {@link #MAX_LINE_LENGTH}
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (line.length() == MAX_LINE_LENGTH) {
+                throw new IOException("Prometheus metrics request line is longer than " + MAX_LINE_LENGTH + " bytes");
+            }
+            line.append((char) c);
+        }
+        if (c == -1 && line.length() == 0) {
+            return null;
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Fails the reads from a socket once a deadline has passed, so that a client sending a byte at a time cannot
+     * extend the read timeout.
+     */
+    private static final class DeadlineInputStream extends FilterInputStream {
+
+        private final Socket socket;
+
+        private final long deadlineNanos;
+
+        DeadlineInputStream(Socket socket, long deadlineNanos) throws IOException {
+            super(socket.getInputStream());
+            this.socket = socket;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            setTimeout();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            setTimeout();
+            return super.read(b, off, len);
+        }
+
+        private void setTimeout() throws IOException {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remaining <= 0) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            socket.setSoTimeout((int) Math.min(remaining, Integer.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.util;
+
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.MessageContext;
+import org.apache.synapse.SynapseException;
+
+import java.io.IOException;
+import java.io.ObjectOutput;
+
+/**
+ * An Axis2 message context cloned for a fan-out, which takes its SOAP envelope from a {@link SharedEnvelope} only
+ * when the envelope is first accessed. Setting a new envelope before that releases the shared envelope without
+ * copying it.
+ */
+public class CopyOnAccessMessageContext extends MessageContext {
+
+    private SharedEnvelope sharedEnvelope;
+
+    /**
+     * Creates a message context without a shared envelope, as required for deserialization.
+     */
+    public CopyOnAccessMessageContext() {
+    }
+
+    public CopyOnAccessMessageContext(SharedEnvelope sharedEnvelope) {
+        this.sharedEnvelope = sharedEnvelope;
+    }
+
+    @Override
+    public SOAPEnvelope getEnvelope() {
+        SharedEnvelope shared = sharedEnvelope;
+        if (shared != null) {
+            sharedEnvelope = null;
+            try {
+                super.setEnvelope(shared.getCopy());
+            } catch (AxisFault e) {
+                throw new SynapseException("Error setting the envelope of the cloned message", e);
+            }
+        }
+        return super.getEnvelope();
+    }
+
+    @Override
+    public void setEnvelope(SOAPEnvelope envelope) throws AxisFault {
+        SharedEnvelope shared = sharedEnvelope;
+        if (shared != null) {
+            sharedEnvelope = null;
+            shared.release();
+        }
+        super.setEnvelope(envelope);
+    }
+
+    @Override
+    public boolean isSOAP11() {
+        SharedEnvelope shared = sharedEnvelope;
+        return shared != null ? shared.isSOAP11() : super.isSOAP11();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        getEnvelope();
+        super.writeExternal(out);
+    }
+
+    /**
+     * @return whether the envelope is still the shared envelope, which has not been copied for this message context
+     */
+    public boolean isEnvelopeShared() {
+        return sharedEnvelope != null;
+    }
+}
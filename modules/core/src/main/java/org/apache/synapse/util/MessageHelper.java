@@ -129,6 +129,53 @@ public class MessageHelper {
      */
     public static MessageContext cloneMessageContext(MessageContext synCtx, boolean cloneSoapEnvelope,
                                                      boolean isCloneJson, boolean isAggregate, boolean isCloneCorrelationId) throws AxisFault {
+        return cloneMessageContext(synCtx, cloneSoapEnvelope, null, isCloneJson, isAggregate, isCloneCorrelationId);
+    }
+
+    /**
+     * Clones the provided message context for one of the branches of a fan-out, such as a target of the clone
+     * mediator. The envelope of the clone is taken from the given shared envelope only when the clone first
+     * accesses it; otherwise this method does exactly what {@link MessageHelper#cloneMessageContext(MessageContext)}
+     * does.
+     *
+     * @param synCtx         Synapse MessageContext which has to be cloned
+     * @param sharedEnvelope envelope shared by the branches of the fan-out, created with
+     *                       {@link #shareEnvelope(MessageContext, int)}, or null to clone the envelope right away
+     * @return cloned Synapse MessageContext.
+     * @throws AxisFault if there is a failure in creating the new Synapse MC or in a failure in
+     *                   cloning the underlying axis2 MessageContext.
+     */
+    public static MessageContext cloneMessageContext(MessageContext synCtx, SharedEnvelope sharedEnvelope)
+            throws AxisFault {
+        return cloneMessageContext(synCtx, true, sharedEnvelope, true, false, true);
+    }
+
+    /**
+     * Shares the envelope of a message among the given number of clones of the message, to be passed to
+     * {@link #cloneMessageContext(MessageContext, SharedEnvelope)} for each clone. A clone copies the envelope only
+     * if it accesses it, and the last clone to copy it takes the shared envelope itself.
+     *
+     * @param synCtx Synapse MessageContext which will be cloned
+     * @param copies number of clones which will be created
+     * @return the shared envelope, or null if no clones will be created or the message has a JSON payload, of which
+     * the envelope of each clone only keeps the headers
+     */
+    public static SharedEnvelope shareEnvelope(MessageContext synCtx, int copies) {
+        if (copies <= 0) {
+            return null;
+        }
+        org.apache.axis2.context.MessageContext mc = ((Axis2MessageContext) synCtx).getAxis2MessageContext();
+        buildMessage(mc);
+        if (mc.getEnvelope() == null || JsonUtil.hasAJsonPayload(mc)) {
+            return null;
+        }
+        return SharedEnvelope.copyOf(mc.getEnvelope(), copies);
+    }
+
+    private static MessageContext cloneMessageContext(MessageContext synCtx, boolean cloneSoapEnvelope,
+                                                      SharedEnvelope sharedEnvelope, boolean isCloneJson,
+                                                      boolean isAggregate, boolean isCloneCorrelationId)
+            throws AxisFault {
 
         // creates the new MessageContext and clone the internal axis2 MessageContext
         // inside the synapse message context and place that in the new one
@@ -136,7 +183,7 @@ public class MessageHelper {
         Axis2MessageContext axis2MC = (Axis2MessageContext) newCtx;
         axis2MC.setAxis2MessageContext(
                 cloneAxis2MessageContext(((Axis2MessageContext) synCtx).getAxis2MessageContext(),
-                        cloneSoapEnvelope, isCloneJson, isAggregate));
+                        cloneSoapEnvelope, sharedEnvelope, isCloneJson, isAggregate));
 
         newCtx.setConfiguration(synCtx.getConfiguration());
         newCtx.setEnvironment(synCtx.getEnvironment());
@@ -182,10 +229,8 @@ public class MessageHelper {
                     }
                 } else if (obj instanceof Stack
                            && strkey.equals(SynapseConstants.SYNAPSE__FUNCTION__STACK)) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Deep clone for Template function stack");
-                    }
-                    obj = getClonedTemplateStack((Stack<TemplateContext>) obj);
+                    // the template function stack is copied below
+                    continue;
                 } else if (obj instanceof OMElement) {
                     if (log.isDebugEnabled()) {
                         log.debug("Deep clone for OMElement");
@@ -395,25 +440,32 @@ public class MessageHelper {
     public static org.apache.axis2.context.MessageContext cloneAxis2MessageContext(
         org.apache.axis2.context.MessageContext mc, boolean cloneSoapEnvelope, boolean isCloneJson,
         boolean isAggregrate) throws AxisFault {
+        return cloneAxis2MessageContext(mc, cloneSoapEnvelope, null, isCloneJson, isAggregrate);
+    }
 
-        //building the message payload since buffer can not be cloned. otherwise cloned message will have
-        //empty buffer in PASS_THROUGH_PIPE without the message payload.
-        try {
-            MessageHandlerProvider.getMessageHandler(mc).buildMessage(mc, false);
-        } catch (IOException e) {
-            handleException(e);
-        } catch (XMLStreamException e) {
-            handleException(e);
-        }
+    private static org.apache.axis2.context.MessageContext cloneAxis2MessageContext(
+            org.apache.axis2.context.MessageContext mc, boolean cloneSoapEnvelope, SharedEnvelope sharedEnvelope,
+            boolean isCloneJson, boolean isAggregrate) throws AxisFault {
 
-        org.apache.axis2.context.MessageContext newMC = clonePartially(mc, isAggregrate);
-        if (cloneSoapEnvelope) {
-            newMC.setEnvelope(cloneSOAPEnvelope(mc.getEnvelope()));
+        buildMessage(mc);
+
+        org.apache.axis2.context.MessageContext newMC;
+        boolean skipBody = false;
+        if (cloneSoapEnvelope && sharedEnvelope != null) {
+            // the envelope is copied from the shared envelope when the clone first accesses it
+            newMC = clonePartially(mc, isAggregrate, sharedEnvelope);
+        } else {
+            newMC = clonePartially(mc, isAggregrate);
+            if (cloneSoapEnvelope) {
+                // the body of a JSON message is replaced with the cloned JSON payload below
+                skipBody = isCloneJson && JsonUtil.hasAJsonPayload(mc);
+                newMC.setEnvelope(cloneSOAPEnvelope(mc.getEnvelope(), !skipBody));
+            }
         }
         // XXX: always this section must come after the above step. ie. after applying Envelope.
         // That is to get the existing headers into the new envelope.
-        if (isCloneJson) {
-            JsonUtil.cloneJsonPayload(mc, newMC);
+        if (isCloneJson && !JsonUtil.cloneJsonPayload(mc, newMC) && skipBody) {
+            newMC.setEnvelope(cloneSOAPEnvelope(mc.getEnvelope()));
         }
         newMC.setOptions(cloneOptions(mc.getOptions()));
 
@@ -465,6 +517,20 @@ public class MessageHelper {
 	}
 
 
+    /**
+     * Builds the message payload since buffer can not be cloned. otherwise cloned message will have
+     * empty buffer in PASS_THROUGH_PIPE without the message payload.
+     */
+    private static void buildMessage(org.apache.axis2.context.MessageContext mc) {
+        try {
+            MessageHandlerProvider.getMessageHandler(mc).buildMessage(mc, false);
+        } catch (IOException e) {
+            handleException(e);
+        } catch (XMLStreamException e) {
+            handleException(e);
+        }
+    }
+
     public static Map getClonedTransportHeaders(org.apache.axis2.context.MessageContext msgCtx) {
 
         Map headers = (Map) msgCtx.
@@ -497,9 +563,15 @@ public class MessageHelper {
 
     public static org.apache.axis2.context.MessageContext clonePartially(
         org.apache.axis2.context.MessageContext ori, boolean isAggregate) throws AxisFault {
+        return clonePartially(ori, isAggregate, null);
+    }
 
-        org.apache.axis2.context.MessageContext newMC
-            = new org.apache.axis2.context.MessageContext();
+    private static org.apache.axis2.context.MessageContext clonePartially(
+            org.apache.axis2.context.MessageContext ori, boolean isAggregate, SharedEnvelope sharedEnvelope)
+            throws AxisFault {
+
+        org.apache.axis2.context.MessageContext newMC = sharedEnvelope != null
+            ? new CopyOnAccessMessageContext(sharedEnvelope) : new org.apache.axis2.context.MessageContext();
 
         // do not copy options from the original
         newMC.setConfigurationContext(ori.getConfigurationContext());
@@ -574,6 +646,17 @@ public class MessageHelper {
      * @return cloned SOAPEnvelope from the provided one
      */
     public static SOAPEnvelope cloneSOAPEnvelope(SOAPEnvelope envelope) {
+        return cloneSOAPEnvelope(envelope, true);
+    }
+
+    /**
+     * Clones the provided SOAPEnvelope, leaving the body of the cloned envelope empty unless asked to clone it.
+     *
+     * @param envelope  - this will be cloned to get the new envelope
+     * @param cloneBody - whether to clone the children of the body
+     * @return cloned SOAPEnvelope from the provided one
+     */
+    private static SOAPEnvelope cloneSOAPEnvelope(SOAPEnvelope envelope, boolean cloneBody) {
         SOAPFactory fac;
         if (SOAP11Constants.SOAP_ENVELOPE_NAMESPACE_URI
                 .equals(envelope.getBody().getNamespace().getNamespaceURI())) {
@@ -601,7 +684,12 @@ public class MessageHelper {
             }
         }
 
-        if (envelope.getBody() != null) {
+        if (!cloneBody) {
+            Iterator allDeclaredNamespaces = envelope.getAllDeclaredNamespaces();
+            while (allDeclaredNamespaces.hasNext()) {
+                newEnvelope.declareNamespace((OMNamespace) allDeclaredNamespaces.next());
+            }
+        } else if (envelope.getBody() != null) {
             // treat the SOAPFault cloning as a special case otherwise a cloning OMElement as the
             // fault would lead to class cast exceptions if accessed through the getFault method
         	if (envelope.getBody().getFirstElement() instanceof SOAPFault && envelope.getBody().hasFault()) {
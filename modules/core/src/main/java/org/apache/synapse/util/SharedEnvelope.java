@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.util;
+
+import org.apache.axiom.soap.SOAP11Constants;
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.synapse.SynapseException;
+
+/**
+ * A SOAP envelope shared by the message contexts cloned from a message for a fan-out, such as the targets of a
+ * clone mediator. A clone takes its own copy of the envelope only when it first accesses its envelope, so a clone
+ * that never reads the envelope, or that replaces it, does not copy it at all. The last clone to take a copy is
+ * given the shared envelope itself, so the envelope is not copied more than once per clone.
+ *
+ * @see CopyOnAccessMessageContext
+ */
+public final class SharedEnvelope {
+
+    private final SOAPEnvelope envelope;
+
+    private final boolean soap11;
+
+    /** number of clones that may still take a copy of the envelope */
+    private int remaining;
+
+    private SharedEnvelope(SOAPEnvelope envelope, int copies) {
+        this.envelope = envelope;
+        this.soap11 = SOAP11Constants.SOAP_ENVELOPE_NAMESPACE_URI.equals(
+                envelope.getNamespace().getNamespaceURI());
+        this.remaining = copies;
+    }
+
+    /**
+     * Shares a snapshot of an envelope which may still change, such as the envelope of the message being cloned.
+     *
+     * @param envelope envelope to be shared
+     * @param copies   number of clones sharing the envelope
+     * @return the shared envelope
+     */
+    public static SharedEnvelope copyOf(SOAPEnvelope envelope, int copies) {
+        return new SharedEnvelope(MessageHelper.cloneSOAPEnvelope(envelope), copies);
+    }
+
+    /**
+     * Shares an envelope which is not used by any message context. The caller must not change the envelope
+     * afterwards, as it is given to the last clone taking a copy.
+     *
+     * @param envelope envelope to be shared
+     * @param copies   number of clones sharing the envelope
+     * @return the shared envelope
+     */
+    public static SharedEnvelope of(SOAPEnvelope envelope, int copies) {
+        return new SharedEnvelope(envelope, copies);
+    }
+
+    /**
+     * Returns a copy of the envelope for a clone, which the clone may change. Each clone may take at most one copy.
+     *
+     * @return a copy of the envelope, or the envelope itself for the last clone
+     */
+    public synchronized SOAPEnvelope getCopy() {
+        if (remaining <= 0) {
+            throw new SynapseException("All the copies of the shared envelope have been taken");
+        }
+        remaining--;
+        return remaining == 0 ? envelope : MessageHelper.cloneSOAPEnvelope(envelope);
+    }
+
+    /**
+     * Called by a clone which will not take a copy of the envelope, so that the envelope can be given to the last
+     * of the other clones.
+     */
+    public synchronized void release() {
+        if (remaining > 0) {
+            remaining--;
+        }
+    }
+
+    /**
+     * @return whether the envelope is a SOAP 1.1 envelope
+     */
+    public boolean isSOAP11() {
+        return soap11;
+    }
+}
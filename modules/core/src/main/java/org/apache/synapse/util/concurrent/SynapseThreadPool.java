@@ -33,6 +33,7 @@ public class SynapseThreadPool extends ThreadPoolExecutor {
     public static final int SYNAPSE_THREAD_QLEN   = -1;
     public static final String SYNAPSE_THREAD_GROUP     = "synapse-thread-group";
     public static final String SYNAPSE_THREAD_ID_PREFIX = "SynapseWorker";
+    public static final int SYNAPSE_VIRTUAL_MAX_THREADS = 1000;
 
     // property keys
     public static final String SYN_THREAD_CORE     = "synapse.threads.core";
@@ -41,6 +42,8 @@ public class SynapseThreadPool extends ThreadPoolExecutor {
     public static final String SYN_THREAD_QLEN     = "synapse.threads.qlen";
     public static final String SYN_THREAD_GROUP    = "synapse.threads.group";
     public static final String SYN_THREAD_IDPREFIX = "synapse.threads.idprefix";
+    public static final String SYN_THREAD_VIRTUAL  = "synapse.threads.virtual";
+    public static final String SYN_THREAD_VIRTUAL_MAX = "synapse.threads.virtual.max";
 
     /**
      * Constructor for the Synapse thread poll
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.util.jaxp;
+
+import org.apache.axiom.om.OMContainer;
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMNamespace;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays an AXIOM element to a SAX {@link ContentHandler} as a document. The events are pulled
+ * from {@link OMElement#getXMLStreamReader()}, so the part of the element which has not been built
+ * yet is parsed from the underlying stream only once, while the builder caches it.
+ */
+public final class StAXContentHandlerBridge {
+
+    private StAXContentHandlerBridge() {
+    }
+
+    /**
+     * Replay the given element as a document to the given content handler. The namespaces declared
+     * on the ancestors of the element are reported as prefix mappings of the document.
+     *
+     * @param element the element to replay
+     * @param handler the content handler receiving the events
+     * @throws XMLStreamException if the element cannot be read
+     * @throws SAXException if the content handler fails
+     */
+    public static void replay(OMElement element, ContentHandler handler)
+            throws XMLStreamException, SAXException {
+
+        XMLStreamReader reader = element.getXMLStreamReader();
+        try {
+            handler.startDocument();
+            List<String> inheritedPrefixes = startInheritedPrefixMappings(element, handler);
+
+            int depth = 0;
+            int event = reader.getEventType();
+            while (true) {
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        startElement(reader, handler);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        endElement(reader, handler);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        handler.characters(reader.getTextCharacters(), reader.getTextStart(),
+                                reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        handler.processingInstruction(reader.getPITarget(), reader.getPIData());
+                        break;
+                    default:
+                        // comments and document level events carry nothing to replay
+                        break;
+                }
+                if ((event == XMLStreamConstants.END_ELEMENT && depth == 0) || !reader.hasNext()) {
+                    break;
+                }
+                event = reader.next();
+            }
+
+            for (String prefix : inheritedPrefixes) {
+                handler.endPrefixMapping(prefix);
+            }
+            handler.endDocument();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static List<String> startInheritedPrefixMappings(OMElement element, ContentHandler handler)
+            throws SAXException {
+        // the nearest declaration of a prefix is the one in scope
+        Map<String, String> inScope = new LinkedHashMap<String, String>();
+        OMContainer parent = element.getParent();
+        while (parent instanceof OMElement) {
+            for (Iterator itr = ((OMElement) parent).getAllDeclaredNamespaces(); itr.hasNext(); ) {
+                OMNamespace ns = (OMNamespace) itr.next();
+                String prefix = ns.getPrefix() == null ? XMLConstants.DEFAULT_NS_PREFIX : ns.getPrefix();
+                if (!inScope.containsKey(prefix)) {
+                    inScope.put(prefix, ns.getNamespaceURI());
+                }
+            }
+            parent = ((OMElement) parent).getParent();
+        }
+        List<String> prefixes = new ArrayList<String>(inScope.size());
+        for (Map.Entry<String, String> mapping : inScope.entrySet()) {
+            handler.startPrefixMapping(mapping.getKey(), mapping.getValue());
+            prefixes.add(mapping.getKey());
+        }
+        return prefixes;
+    }
+
+    private static void startElement(XMLStreamReader reader, ContentHandler handler) throws SAXException {
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            handler.startPrefixMapping(emptyIfNull(reader.getNamespacePrefix(i)),
+                    emptyIfNull(reader.getNamespaceURI(i)));
+        }
+        AttributesImpl attributes = new AttributesImpl();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String type = reader.getAttributeType(i);
+            attributes.addAttribute(emptyIfNull(reader.getAttributeNamespace(i)), reader.getAttributeLocalName(i),
+                    qName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    type == null ? "CDATA" : type, reader.getAttributeValue(i));
+        }
+        handler.startElement(emptyIfNull(reader.getNamespaceURI()), reader.getLocalName(),
+                qName(reader.getPrefix(), reader.getLocalName()), attributes);
+    }
+
+    private static void endElement(XMLStreamReader reader, ContentHandler handler) throws SAXException {
+        handler.endElement(emptyIfNull(reader.getNamespaceURI()), reader.getLocalName(),
+                qName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            handler.endPrefixMapping(emptyIfNull(reader.getNamespacePrefix(i)));
+        }
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static String emptyIfNull(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -27,14 +27,11 @@ import java.util.Map;
  */
 public class FilterExpressionNode implements ExpressionNode {
 
-
-    private String expression;
     private final String unProcessedExpression;
     private final Map<String, ExpressionNode> arguments;
 
     public FilterExpressionNode(String expression, Map<String, ExpressionNode> arguments) {
         this.unProcessedExpression = expression;
-        this.expression = expression;
         this.arguments = arguments;
     }
 
@@ -44,7 +41,8 @@ public class FilterExpressionNode implements ExpressionNode {
      */
     @Override
     public ExpressionResult evaluate(EvaluationContext context, boolean isObjectValue) {
-        expression = unProcessedExpression;
+        // resolved in a local, as the node is shared by the threads evaluating the expression
+        String expression = unProcessedExpression;
         for (Map.Entry<String, ExpressionNode> entry : arguments.entrySet()) {
             if (entry.getValue() != null) {
                 ExpressionResult result = entry.getValue().evaluate(context, isObjectValue);
@@ -17,12 +17,12 @@
  */
 package org.apache.synapse.util.synapse.expression.context;
 
+import com.google.gson.JsonElement;
 import com.jayway.jsonpath.JsonPath;
 import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.OMNode;
 import org.apache.axiom.om.OMText;
 import org.apache.axiom.om.impl.llom.OMTextImpl;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseConstants;
@@ -41,7 +41,6 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Properties;
 import java.util.Stack;
 
@@ -58,7 +57,8 @@ public class EvaluationContext {
 
     private Map<String, String> namespaceMap;
 
-    // re-use the payload string to avoid multiple evaluations ex: payload.num1 + payload.num2 requires two evaluations
+    // re-use the payload string of a non JSON payload to avoid multiple evaluations ex: payload.num1 + payload.num2
+    // requires two evaluations. JSON payloads are parsed once per message through SynapseJsonPath
     private String payload;
 
     private boolean isJSON = false;
@@ -76,16 +76,22 @@ public class EvaluationContext {
 
     // Payload methods
     public Object getJSONResult(String expression) throws IOException, JaxenException {
+        org.apache.axis2.context.MessageContext axis2MessageContext =
+                ((Axis2MessageContext) synCtx).getAxis2MessageContext();
         if (payload == null) {
-            if (JsonUtil.hasAJsonPayload(((Axis2MessageContext) synCtx).getAxis2MessageContext())) {
-                payload = IOUtils.toString(Objects.requireNonNull(JsonUtil.getJsonPayload(((Axis2MessageContext) synCtx)
-                        .getAxis2MessageContext())));
+            if (JsonUtil.hasAJsonPayload(axis2MessageContext)) {
+                Object document = SynapseJsonPath.getJsonPayloadDocument(axis2MessageContext);
+                if (document == null) {
+                    throw new EvaluationException("Payload is empty");
+                }
                 isJSON = true;
-            } else {
-                // handle non-json payloads
-                SynapseJsonPath jsonPath = new SynapseJsonPath("$.");
-                payload = jsonPath.stringValueOf(synCtx);
+                // the parsed payload is shared with the other evaluations on the message, hence the result is copied
+                Object result = JsonPath.parse(document).read(expression);
+                return result instanceof JsonElement ? ((JsonElement) result).deepCopy() : result;
             }
+            // handle non-json payloads
+            SynapseJsonPath jsonPath = new SynapseJsonPath("$.");
+            payload = jsonPath.stringValueOf(synCtx);
             if (StringUtils.isEmpty(payload)) {
                 throw new EvaluationException("Payload is empty");
             }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.util.xpath;
+
+import com.jayway.jsonpath.JsonPath;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.SynapseConstants;
+import org.apache.synapse.commons.jmx.MBeanRegistrar;
+import org.apache.synapse.config.SynapsePropertiesLoader;
+import org.jaxen.JaxenException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process wide, size bounded LRU cache of compiled expressions keyed by the expression string, so that JSON paths
+ * and Synapse expressions which are created or resolved at runtime are not compiled for every message.
+ * <p>
+ * The cache is split into segments by the hash of the expression, each of them an access ordered map guarded by its
+ * own lock, so that concurrent lookups of different expressions do not contend. The compiled values are shared
+ * between threads and must be immutable. The size of each cache is read from the
+ * {@value SynapseConstants#EXPRESSION_CACHE_SIZE} synapse property; 0 disables caching.
+ *
+ * @param <V> type of the compiled expression
+ */
+public class CompiledExpressionCache<V> {
+
+    private static final Log log = LogFactory.getLog(CompiledExpressionCache.class);
+
+    private static final String EXPRESSION_CACHE_VIEW = "ExpressionCache";
+
+    private static final int SEGMENTS = 16;
+
+    private static final int CACHE_SIZE = loadCacheSize();
+
+    /** Compiled JSON paths, keyed by the JSON path */
+    private static final CompiledExpressionCache<JsonPath> JSON_PATHS = newCache("JsonPath");
+
+    private final Segment<V>[] segments;
+
+    private final CompiledExpressionCacheView view;
+
+    /**
+     * Compiles an expression which is not in the cache.
+     *
+     * @param <V> type of the compiled expression
+     */
+    public interface Compiler<V> {
+
+        V compile(String expression) throws JaxenException;
+    }
+
+    @SuppressWarnings("unchecked")
+    CompiledExpressionCache(String name, int maxSize) {
+        this.view = new CompiledExpressionCacheView(maxSize);
+        if (maxSize > 0) {
+            int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+            segments = new Segment[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment<V>(segmentSize, view);
+            }
+        } else {
+            segments = null;
+        }
+        MBeanRegistrar.getInstance().registerMBean(view, EXPRESSION_CACHE_VIEW, name);
+    }
+
+    /**
+     * Creates a cache of the configured size, with its metrics registered under the given name.
+     *
+     * @param name name of the cache
+     * @param <V>  type of the compiled expression
+     * @return the cache
+     */
+    static <V> CompiledExpressionCache<V> newCache(String name) {
+        return new CompiledExpressionCache<V>(name, CACHE_SIZE);
+    }
+
+    /**
+     * Returns the compiled form of an expression, compiling it with the given compiler if it is not cached. An
+     * expression which fails to compile is not cached.
+     *
+     * @param expression the expression
+     * @param compiler   compiler used on a cache miss
+     * @return compiled expression
+     * @throws JaxenException if the expression could not be compiled
+     */
+    public V get(String expression, Compiler<V> compiler) throws JaxenException {
+        if (segments == null) {
+            view.notifyMiss();
+            return compiler.compile(expression);
+        }
+        Segment<V> segment = segments[(expression.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+        V compiled;
+        synchronized (segment) {
+            compiled = segment.get(expression);
+        }
+        if (compiled != null) {
+            view.notifyHit();
+            return compiled;
+        }
+        view.notifyMiss();
+        // compiled outside the lock, a concurrent miss on the same expression only compiles it twice
+        compiled = compiler.compile(expression);
+        synchronized (segment) {
+            segment.put(expression, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns the compiled form of a JSON path.
+     *
+     * @param jsonPath the JSON path
+     * @return compiled JSON path
+     */
+    public static JsonPath getJsonPath(String jsonPath) {
+        try {
+            return JSON_PATHS.get(jsonPath, JSON_PATH_COMPILER);
+        } catch (JaxenException e) {
+            // not thrown by the JSON path compiler, which fails with an InvalidPathException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int size() {
+        if (segments == null) {
+            return 0;
+        }
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        if (segments == null) {
+            return;
+        }
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    CompiledExpressionCacheView getView() {
+        return view;
+    }
+
+    private static final Compiler<JsonPath> JSON_PATH_COMPILER = new Compiler<JsonPath>() {
+        public JsonPath compile(String expression) {
+            return JsonPath.compile(expression);
+        }
+    };
+
+    private static int loadCacheSize() {
+        String size = SynapsePropertiesLoader.getPropertyValue(SynapseConstants.EXPRESSION_CACHE_SIZE,
+                String.valueOf(SynapseConstants.DEFAULT_EXPRESSION_CACHE_SIZE));
+        try {
+            return Math.max(0, Integer.parseInt(size.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value " + size + " for " + SynapseConstants.EXPRESSION_CACHE_SIZE
+                    + ", using the default " + SynapseConstants.DEFAULT_EXPRESSION_CACHE_SIZE);
+            return SynapseConstants.DEFAULT_EXPRESSION_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * An access ordered map which evicts its least recently used entry when it is full.
+     */
+    private static class Segment<V> extends LinkedHashMap<String, V> {
+
+        private final int maxSize;
+
+        private final CompiledExpressionCacheView view;
+
+        Segment(int maxSize, CompiledExpressionCacheView view) {
+            super(maxSize + 1, 1.0f, true);
+            this.maxSize = maxSize;
+            this.view = view;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            if (size() > maxSize) {
+                view.notifyEviction();
+                return true;
+            }
+            return false;
+        }
+    }
+}
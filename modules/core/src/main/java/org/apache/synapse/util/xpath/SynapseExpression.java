@@ -48,6 +48,19 @@ import java.util.Map;
  */
 public class SynapseExpression extends SynapsePath {
     private static final Log log = LogFactory.getLog(SynapseExpression.class);
+
+    /** Parsed expressions, shared by the instances created for the same expression */
+    private static final CompiledExpressionCache<ParsedExpression> PARSED_EXPRESSIONS =
+            CompiledExpressionCache.newCache("SynapseExpression");
+
+    private static final CompiledExpressionCache.Compiler<ParsedExpression> PARSER =
+            new CompiledExpressionCache.Compiler<ParsedExpression>() {
+                public ParsedExpression compile(String synapseExpression) throws JaxenException {
+                    return new ParsedExpression(parse(synapseExpression),
+                            SynapseExpressionUtils.isSynapseExpressionContentAware(synapseExpression));
+                }
+            };
+
     private final ExpressionNode expressionNode;
     private final Map<String, String> namespaceMap = new HashMap<>();
     private final boolean isContentAware;
@@ -55,7 +68,14 @@ public class SynapseExpression extends SynapsePath {
     public SynapseExpression(String synapseExpression) throws JaxenException {
         super(synapseExpression, org.apache.synapse.config.xml.SynapsePath.JSON_PATH, log);
 
-        CharStream input = CharStreams.fromString(expression);
+        ParsedExpression parsed = PARSED_EXPRESSIONS.get(expression, PARSER);
+        expressionNode = parsed.expressionNode;
+        isContentAware = parsed.isContentAware;
+        this.setPathType(SynapsePath.SYNAPSE_EXPRESSIONS_PATH);
+    }
+
+    private static ExpressionNode parse(String synapseExpression) throws JaxenException {
+        CharStream input = CharStreams.fromString(synapseExpression);
         ExpressionLexer lexer = new ExpressionLexer(input);
         CommonTokenStream tokens = new CommonTokenStream(lexer);
         ExpressionParser parser = new ExpressionParser(tokens);
@@ -70,7 +90,7 @@ public class SynapseExpression extends SynapsePath {
         }
 
         ExpressionVisitor visitor = new ExpressionVisitor();
-        expressionNode = visitor.visit(tree);
+        ExpressionNode expressionNode = visitor.visit(tree);
         if (errorListener.hasErrors()) {
             StringBuilder errorMessage = new StringBuilder("Syntax error in expression: " + synapseExpression);
             for (SyntaxError error : errorListener.getErrors()) {
@@ -78,8 +98,7 @@ public class SynapseExpression extends SynapsePath {
             }
             throw new JaxenException(errorMessage.toString());
         }
-        isContentAware = SynapseExpressionUtils.isSynapseExpressionContentAware(synapseExpression);
-        this.setPathType(SynapsePath.SYNAPSE_EXPRESSIONS_PATH);
+        return expressionNode;
     }
 
     @Override
@@ -122,4 +141,19 @@ public class SynapseExpression extends SynapsePath {
     public boolean isContentAware() {
         return this.isContentAware;
     }
+
+    /**
+     * The AST of an expression. The nodes of the tree keep no evaluation state, so it is shared between threads.
+     */
+    private static class ParsedExpression {
+
+        private final ExpressionNode expressionNode;
+
+        private final boolean isContentAware;
+
+        ParsedExpression(ExpressionNode expressionNode, boolean isContentAware) {
+            this.expressionNode = expressionNode;
+            this.isContentAware = isContentAware;
+        }
+    }
 }
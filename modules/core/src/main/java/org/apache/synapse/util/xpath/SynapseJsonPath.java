@@ -22,6 +22,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonObject;
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
@@ -35,6 +36,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseConstants;
+import org.apache.synapse.commons.json.JsonDocumentCache;
 import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.config.SynapsePropertiesLoader;
 import org.apache.synapse.config.xml.SynapsePath;
@@ -55,6 +57,13 @@ public class SynapseJsonPath extends SynapsePath {
 
     private static final String EXTRACT_PROP_REGEX = "^(\\$ctx|\\$trp|\\$axis2):([a-zA-Z0-9_-]+)";
 
+    /** Parses a JSON payload with the JSON provider of the JSON path configuration */
+    private static final JsonDocumentCache.DocumentParser JSON_PATH_PARSER = new JsonDocumentCache.DocumentParser() {
+        public Object parse(InputStream json) {
+            return Configuration.defaultConfiguration().jsonProvider().parse(json, "UTF-8");
+        }
+    };
+
     private String propertyExpression;
 
     private String resolvedExpression;
@@ -120,7 +129,7 @@ public class SynapseJsonPath extends SynapsePath {
         if (resolvedExpression.endsWith(".")) {
             resolvedExpression = resolvedExpression.substring(0, resolvedExpression.length() - 1);
         }
-        jsonPath = JsonPath.compile(resolvedExpression);
+        jsonPath = CompiledExpressionCache.getJsonPath(resolvedExpression);
         // Check if the JSON path expression evaluates to the whole payload. If so no point in evaluating the path.
         if ("$".equals(jsonPath.getPath().trim()) || "$.".equals(jsonPath.getPath().trim())) {
             isWholeBody = true;
@@ -147,7 +156,8 @@ public class SynapseJsonPath extends SynapsePath {
     public String stringValueOf(MessageContext synCtx) {
         if (isJSONPathNeedsProcessing) {
             // Create new JSON path by replacing dynamic values with content.
-            jsonPath = JsonPath.compile(InlineExpressionUtil.replaceDynamicValuesForJSONPath(synCtx, expression));
+            jsonPath = CompiledExpressionCache.getJsonPath(
+                    InlineExpressionUtil.replaceDynamicValuesForJSONPath(synCtx, expression));
         }
 
         // evaluating the jsonPath against a property
@@ -188,13 +198,56 @@ public class SynapseJsonPath extends SynapsePath {
             } catch (IOException e) {
                 handleException("Could not find JSON Stream in PassThrough Pipe during JSON path evaluation.", e);
             }
-        } else {
+        } else if (isWholeBody) {
             stream = JsonUtil.getJsonPayload(amc);
             return stringValueOf(stream);
+        } else {
+            return stringValueOfPayload(amc);
+        }
+        return "";
+    }
+
+    /*
+     * Evaluates the JSON path against the parsed document of the JSON payload, which is shared by the evaluations on
+     * the message until the payload changes
+     */
+    private String stringValueOfPayload(org.apache.axis2.context.MessageContext amc) {
+        Object read;
+        try {
+            Object document = getJsonPayloadDocument(amc);
+            if (document == null) {
+                return "";
+            }
+            read = formatJsonPathResponse(jsonPath.read(document));
+            if (log.isDebugEnabled()) {
+                log.debug("#stringValueOfPayload. Evaluated JSON path <" + jsonPath.getPath() + "> : <"
+                        + (read == null ? null : read.toString()) + ">");
+            }
+            return (null == read ? "null" : read.toString());
+        } catch (IOException e) {
+            handleException("Error evaluating JSON Path <" + jsonPath.getPath() + ">", e);
+        } catch (Exception e) { // catch invalid json paths that do not match with the existing JSON payload.
+            if (log.isDebugEnabled()) {
+                log.debug("#stringValueOfPayload. Error evaluating JSON Path <" + jsonPath.getPath()
+                        + ">. Returning empty result. Error>>> " + e.getLocalizedMessage());
+            }
         }
         return "";
     }
 
+    /**
+     * Returns the parsed JSON payload of the message context. The payload is parsed once and shared by every JSON
+     * path and Synapse expression evaluated on the message until the payload changes, so the returned document and
+     * the values read from it must not be modified.
+     *
+     * @param amc Axis2 message context
+     * @return the parsed payload, or null if the message does not have a JSON payload
+     * @throws IOException if the payload could not be read
+     */
+    public static Object getJsonPayloadDocument(org.apache.axis2.context.MessageContext amc) throws IOException {
+        return JsonDocumentCache.getDocument(amc, JSON_PATH_PARSER);
+    }
+
     @Override
     public Object objectValueOf(MessageContext synCtx) {
         return null;
@@ -288,12 +341,33 @@ public class SynapseJsonPath extends SynapsePath {
                 handleException("Could not find JSON Stream in PassThrough Pipe during JSON path evaluation.", e);
             }
         } else {
-            stream = JsonUtil.getJsonPayload(amc);
-            return listValueOf(stream);
+            return listValueOfPayload(amc);
         }
         return null;
     }
 
+    /*
+     * Same as listValueOf(InputStream), against the shared document of the JSON payload. The result is copied, as
+     * the caller may modify it.
+     */
+    private List listValueOfPayload(org.apache.axis2.context.MessageContext amc) {
+        Object read;
+        try {
+            Object document = getJsonPayloadDocument(amc);
+            if (document == null) {
+                return null;
+            }
+            read = jsonPath.read(document);
+        } catch (IOException e) {
+            log.error("AggregateMediator Failed to evaluate correlate expression: " + jsonPath.getPath());
+            return null;
+        }
+        if (read instanceof JsonElement) {
+            read = ((JsonElement) read).deepCopy();
+        }
+        return toList(formatJsonPathResponse(read));
+    }
+
     /**
      * This method always return a List and it will contains a list as the 0th
      * value, if the path is definite. if the path is not a definite list will
@@ -304,21 +378,9 @@ public class SynapseJsonPath extends SynapsePath {
         if (jsonStream == null) {
             return null;
         }
-        List result = new ArrayList();
+        List result;
         try {
-            Object object = formatJsonPathResponse(jsonPath.read(jsonStream));
-            if (object != null) {
-                if (object instanceof List && !jsonPath.isDefinite()) {
-                    result = (List) object;
-                } else if (object instanceof JsonArray) {
-                    for (JsonElement element:
-                            (JsonArray) object) {
-                        result.add(element);
-                    }
-                } else {
-                    result.add(object);
-                }
-            }
+            result = toList(formatJsonPathResponse(jsonPath.read(jsonStream)));
         } catch (IOException e) {
             // catch invalid json paths that do not match with the existing JSON payload.
             // not throwing the exception as done in Xpath
@@ -331,6 +393,23 @@ public class SynapseJsonPath extends SynapsePath {
         return result;
     }
 
+    private List toList(Object object) {
+        List result = new ArrayList();
+        if (object != null) {
+            if (object instanceof List && !jsonPath.isDefinite()) {
+                result = (List) object;
+            } else if (object instanceof JsonArray) {
+                for (JsonElement element:
+                        (JsonArray) object) {
+                    result.add(element);
+                }
+            } else {
+                result.add(object);
+            }
+        }
+        return result;
+    }
+
     /**
      * JayWay json-path response have additional elements like "members"(for objects) and "elements"(for arrays)
      * This method will correct such strings by removing additional elements.
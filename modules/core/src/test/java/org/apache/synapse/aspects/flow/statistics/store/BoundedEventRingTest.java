@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.aspects.flow.statistics.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Unit tests for BoundedEventRing class.
+ */
+public class BoundedEventRingTest {
+
+    /**
+     * Test that the ring holds at most its capacity, even when it is not a power of two.
+     */
+    @Test
+    public void testCapacity() {
+        BoundedEventRing<Integer> ring = new BoundedEventRing<>(3);
+        Assert.assertTrue(ring.offer(1));
+        Assert.assertTrue(ring.offer(2));
+        Assert.assertTrue(ring.offer(3));
+        Assert.assertFalse("Ring should be full", ring.offer(4));
+        Assert.assertEquals(3, ring.size());
+        Assert.assertEquals(Integer.valueOf(1), ring.poll());
+        Assert.assertTrue(ring.offer(4));
+        Assert.assertEquals(3, ring.size());
+    }
+
+    /**
+     * Test that events are taken in order over several rounds of the ring.
+     */
+    @Test
+    public void testOrderAcrossRounds() {
+        BoundedEventRing<Integer> ring = new BoundedEventRing<>(4);
+        int next = 0;
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(ring.offer(i));
+            if (i % 3 == 2) {
+                while (ring.size() > 1) {
+                    Assert.assertEquals(Integer.valueOf(next++), ring.poll());
+                }
+            }
+        }
+        Integer event;
+        while ((event = ring.poll()) != null) {
+            Assert.assertEquals(Integer.valueOf(next++), event);
+        }
+        Assert.assertEquals(100, next);
+        Assert.assertEquals(0, ring.size());
+    }
+
+    /**
+     * Test draining a batch of events.
+     */
+    @Test
+    public void testDrainTo() {
+        BoundedEventRing<Integer> ring = new BoundedEventRing<>(10);
+        for (int i = 0; i < 7; i++) {
+            ring.offer(i);
+        }
+        List<Integer> events = new ArrayList<>();
+        Assert.assertEquals(5, ring.drainTo(events, 5));
+        Assert.assertEquals(2, ring.drainTo(events, 5));
+        Assert.assertEquals(0, ring.drainTo(events, 5));
+        for (int i = 0; i < 7; i++) {
+            Assert.assertEquals(Integer.valueOf(i), events.get(i));
+        }
+    }
+
+    /**
+     * Test that every event added by concurrent producers is taken exactly once by the consumer.
+     */
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int producers = 4;
+        final int eventsPerProducer = 50000;
+        final BoundedEventRing<Integer> ring = new BoundedEventRing<>(1000);
+        final CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * eventsPerProducer;
+            new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        while (!ring.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        BitSet received = new BitSet(producers * eventsPerProducer);
+        int count = 0;
+        while (count < producers * eventsPerProducer) {
+            Integer event = ring.poll();
+            if (event == null) {
+                Thread.yield();
+                continue;
+            }
+            Assert.assertFalse("Event taken twice " + event, received.get(event));
+            received.set(event);
+            count++;
+        }
+        done.await();
+        Assert.assertNull(ring.poll());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.sampling;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for TailSamplingSpanProcessor class.
+ */
+public class TailSamplingSpanProcessorTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    private static final String ROOT_SPAN_ID = "b7ad6b7169203331";
+
+    private static final long TRACE_TIMEOUT = 1000;
+
+    private SpanProcessor delegate;
+
+    private TailSamplingSpanProcessor processor;
+
+    @Before
+    public void setUp() {
+        delegate = Mockito.mock(SpanProcessor.class);
+        processor = new TailSamplingSpanProcessor(delegate, 100, 10, TRACE_TIMEOUT);
+    }
+
+    @After
+    public void tearDown() {
+        processor.shutdown();
+    }
+
+    /**
+     * Test that the spans of a slow or failed trace are passed on when its root span ends, and the spans of a fast
+     * trace are dropped.
+     */
+    @Test
+    public void testTraceDecidedByRootSpan() {
+        ReadableSpan child = createSpan(TRACE_ID, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, false);
+        ReadableSpan root = createSpan(TRACE_ID, ROOT_SPAN_ID, null, 200, false);
+        processor.onEnd(child);
+        Mockito.verify(delegate, Mockito.never()).onEnd(Mockito.any(ReadableSpan.class));
+        Assert.assertEquals(1, processor.getBufferedTraceCount());
+        processor.onEnd(root);
+        InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).onEnd(child);
+        inOrder.verify(delegate).onEnd(root);
+        Assert.assertEquals(0, processor.getBufferedTraceCount());
+
+        String failedTraceId = "1af7651916cd43dd8448eb211c80319c";
+        ReadableSpan failedChild = createSpan(failedTraceId, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, true);
+        ReadableSpan fastRoot = createSpan(failedTraceId, ROOT_SPAN_ID, null, 20, false);
+        processor.onEnd(failedChild);
+        processor.onEnd(fastRoot);
+        Mockito.verify(delegate).onEnd(failedChild);
+        Mockito.verify(delegate).onEnd(fastRoot);
+
+        String fastTraceId = "2af7651916cd43dd8448eb211c80319c";
+        ReadableSpan fastChild = createSpan(fastTraceId, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, false);
+        processor.onEnd(fastChild);
+        processor.onEnd(createSpan(fastTraceId, ROOT_SPAN_ID, null, 20, false));
+        Mockito.verify(delegate, Mockito.times(4)).onEnd(Mockito.any(ReadableSpan.class));
+        Assert.assertEquals(0, processor.getBufferedTraceCount());
+    }
+
+    /**
+     * Test that spans ending after the root span of their trace follow the decision taken for the trace, instead of
+     * being buffered as a new trace.
+     */
+    @Test
+    public void testLateSpansFollowDecision() {
+        processor.onEnd(createSpan(TRACE_ID, ROOT_SPAN_ID, null, 20, false));
+        processor.onEnd(createSpan(TRACE_ID, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, false));
+        Assert.assertEquals("A late span of a dropped trace should not be buffered",
+                0, processor.getBufferedTraceCount());
+        Mockito.verify(delegate, Mockito.never()).onEnd(Mockito.any(ReadableSpan.class));
+
+        String slowTraceId = "1af7651916cd43dd8448eb211c80319c";
+        ReadableSpan root = createSpan(slowTraceId, ROOT_SPAN_ID, null, 200, false);
+        ReadableSpan late = createSpan(slowTraceId, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, false);
+        processor.onEnd(root);
+        processor.onEnd(late);
+        Assert.assertEquals(0, processor.getBufferedTraceCount());
+        InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).onEnd(root);
+        inOrder.verify(delegate).onEnd(late);
+
+        // once the decision has expired a late span starts a new buffer
+        processor.expireTraces(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TRACE_TIMEOUT));
+        processor.onEnd(createSpan(slowTraceId, "10f067aa0ba902b7", ROOT_SPAN_ID, 10, false));
+        Assert.assertEquals(1, processor.getBufferedTraceCount());
+    }
+
+    /**
+     * Test that a trace whose root span does not end within the trace timeout is passed on, and so are its spans
+     * ending afterwards.
+     */
+    @Test
+    public void testIncompleteTraceExpired() {
+        ReadableSpan child = createSpan(TRACE_ID, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, false);
+        processor.onEnd(child);
+        processor.expireTraces(System.nanoTime());
+        Mockito.verify(delegate, Mockito.never()).onEnd(Mockito.any(ReadableSpan.class));
+
+        processor.expireTraces(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TRACE_TIMEOUT));
+        Mockito.verify(delegate).onEnd(child);
+        Assert.assertEquals(0, processor.getBufferedTraceCount());
+
+        ReadableSpan root = createSpan(TRACE_ID, ROOT_SPAN_ID, null, 20, false);
+        processor.onEnd(root);
+        Mockito.verify(delegate).onEnd(root);
+    }
+
+    /**
+     * Test that the buffered traces are passed on when the processor is shut down.
+     */
+    @Test
+    public void testShutdownFlushesBufferedTraces() {
+        ReadableSpan child = createSpan(TRACE_ID, "00f067aa0ba902b7", ROOT_SPAN_ID, 10, false);
+        processor.onEnd(child);
+        processor.shutdown();
+        InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).onEnd(child);
+        inOrder.verify(delegate).shutdown();
+        Assert.assertEquals(0, processor.getBufferedTraceCount());
+    }
+
+    private static ReadableSpan createSpan(String traceId, String spanId, String parentSpanId, long latencyMillis,
+                                           boolean failed) {
+        SpanContext parent = parentSpanId == null ? SpanContext.getInvalid() :
+                SpanContext.create(traceId, parentSpanId, TraceFlags.getSampled(), TraceState.getDefault());
+        SpanData spanData = Mockito.mock(SpanData.class);
+        Mockito.when(spanData.getParentSpanContext()).thenReturn(parent);
+        Mockito.when(spanData.getStatus()).thenReturn(failed ? StatusData.error() : StatusData.unset());
+
+        ReadableSpan span = Mockito.mock(ReadableSpan.class);
+        Mockito.when(span.toSpanData()).thenReturn(spanData);
+        Mockito.when(span.getSpanContext()).thenReturn(
+                SpanContext.create(traceId, spanId, TraceFlags.getSampled(), TraceState.getDefault()));
+        Mockito.when(span.getLatencyNanos()).thenReturn(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        return span;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.sampling;
+
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.aspects.ComponentType;
+import org.apache.synapse.aspects.flow.statistics.tracing.opentelemetry.management.TelemetryConstants;
+import org.apache.synapse.config.Entry;
+import org.apache.synapse.mediators.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for TracingSampler class.
+ */
+public class TracingSamplerTest {
+
+    private static MessageContext createMessageContext() throws Exception {
+        return TestUtils.getAxis2MessageContext("<test>value</test>", new HashMap<String, Entry>());
+    }
+
+    private static TracingSampler createSampler(double rate, Map<String, Double> apiRates) {
+        return new TracingSampler(rate, apiRates, Collections.<String, Double>emptyMap(), false,
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_LATENCY_THRESHOLD,
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_MAX_TRACES,
+                TelemetryConstants.DEFAULT_TAIL_SAMPLING_TRACE_TIMEOUT);
+    }
+
+    /**
+     * Test that every message is traced by default, without keeping a decision in the message.
+     */
+    @Test
+    public void testSampleAll() throws Exception {
+        TracingSampler sampler = new TracingSampler();
+        MessageContext synCtx = createMessageContext();
+        Assert.assertTrue(sampler.sample(synCtx, "TestAPI", ComponentType.API));
+        Assert.assertNull(synCtx.getProperty(TelemetryConstants.TRACE_SAMPLED_PROPERTY));
+        Assert.assertTrue(TracingSampler.isSampled(synCtx));
+    }
+
+    /**
+     * Test that the decision taken at the first entry component is kept for the rest of the message flow.
+     */
+    @Test
+    public void testDecisionKeptForMessage() throws Exception {
+        TracingSampler sampler = createSampler(0, Collections.singletonMap("TracedAPI", 1.0));
+        MessageContext synCtx = createMessageContext();
+        Assert.assertFalse(sampler.sample(synCtx, "TestProxy", ComponentType.PROXYSERVICE));
+        Assert.assertFalse(TracingSampler.isSampled(synCtx));
+        Assert.assertFalse("Decision should not change within the flow",
+                sampler.sample(synCtx, "TracedAPI", ComponentType.API));
+
+        synCtx = createMessageContext();
+        Assert.assertTrue(sampler.sample(synCtx, "TracedAPI", ComponentType.API));
+        Assert.assertTrue(TracingSampler.isSampled(synCtx));
+    }
+
+    /**
+     * Test the sampling rates configured for APIs and for other components.
+     */
+    @Test
+    public void testSamplingRates() throws Exception {
+        TracingSampler sampler = createSampler(0.25, Collections.singletonMap("TestAPI", 0.5));
+        Assert.assertEquals(0.5, sampler.getSamplingRate("TestAPI", ComponentType.API), 0);
+        Assert.assertEquals(0.25, sampler.getSamplingRate("OtherAPI", ComponentType.API), 0);
+        Assert.assertEquals(0.25, sampler.getSamplingRate("TestAPI", ComponentType.PROXYSERVICE), 0);
+
+        int sampled = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (sampler.sample(createMessageContext(), "TestAPI", ComponentType.API)) {
+                sampled++;
+            }
+        }
+        Assert.assertTrue("Sampled " + sampled + " of 2000 messages", sampled > 800 && sampled < 1200);
+    }
+}
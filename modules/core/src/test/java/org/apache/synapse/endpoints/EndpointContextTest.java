@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.endpoints;
+
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for EndpointContext class.
+ */
+public class EndpointContextTest {
+
+    /**
+     * Test that timeouts are retried before the endpoint is suspended, and a success makes it active again.
+     */
+    @Test
+    public void testTimeoutUntilSuspended() {
+        EndpointContext context = new EndpointContext("test", createDefinition(1), false, null, null);
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+
+        context.onTimeout();
+        Assert.assertTrue("Endpoint should be in timeout state", context.isState(EndpointContext.ST_TIMEOUT));
+        Assert.assertFalse("Endpoint should not be retried before the retry duration",
+                context.readyToSend());
+
+        context.onTimeout();
+        Assert.assertTrue("Endpoint should be suspended when no retries remain",
+                context.isState(EndpointContext.ST_SUSPENDED));
+
+        context.onSuccess();
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+        Assert.assertTrue(context.readyToSend());
+        context.onTimeout();
+        Assert.assertTrue("Retries should be reset on activation", context.isState(EndpointContext.ST_TIMEOUT));
+    }
+
+    /**
+     * Test that a switched off endpoint stays off on success, until it is switched on.
+     */
+    @Test
+    public void testSwitchOff() {
+        EndpointContext context = new EndpointContext("test", createDefinition(1), false, null, null);
+        context.switchOff();
+        context.onSuccess();
+        Assert.assertTrue(context.isState(EndpointContext.ST_OFF));
+        Assert.assertFalse(context.readyToSend());
+
+        context.switchOn();
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+        Assert.assertTrue(context.readyToSend());
+    }
+
+    /**
+     * Test that the failover retry limit is disabled by default, and an endpoint reaching it is suspended.
+     */
+    @Test
+    public void testFailoverRetryLimit() {
+        EndpointContext context = new EndpointContext("test", createDefinition(1), false, null, null);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertFalse(context.isMaxRetryLimitReached(false));
+            Assert.assertFalse(context.isMaxRetryLimitReached(true));
+        }
+        context.onFailoverRetryLimit(false);
+        Assert.assertTrue(context.isState(EndpointContext.ST_SUSPENDED));
+        Assert.assertFalse(context.readyToSend());
+
+        // activating the endpoint resets both the failover and the recursive failover retries to their limits
+        Whitebox.setInternalState(context, "maximumRetryLimit", 2);
+        Whitebox.setInternalState(context, "maximumRecursiveRetryLimit", 1);
+        context.onSuccess();
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+        Assert.assertFalse(context.isMaxRetryLimitReached(false));
+        Assert.assertFalse(context.isMaxRetryLimitReached(false));
+        Assert.assertTrue(context.isMaxRetryLimitReached(false));
+        Assert.assertFalse(context.isMaxRetryLimitReached(true));
+
+        context.onFailoverRetryLimit(false);
+        Assert.assertTrue(context.isState(EndpointContext.ST_SUSPENDED));
+        context.onSuccess();
+        Assert.assertFalse("Failover retries should be reset on activation",
+                context.isMaxRetryLimitReached(false));
+        Assert.assertFalse("Recursive failover retries should be reset on activation",
+                context.isMaxRetryLimitReached(true));
+        Assert.assertTrue(context.isMaxRetryLimitReached(true));
+
+        context.switchOff();
+        context.switchOn();
+        Assert.assertFalse(context.isMaxRetryLimitReached(false));
+        Assert.assertFalse(context.isMaxRetryLimitReached(true));
+    }
+
+    /**
+     * Test that in a clustered environment each transition is replicated, and the local and the replicated states
+     * are ordered by their versions rather than by the time they were created.
+     */
+    @Test
+    public void testClusteredState() throws Exception {
+        ConfigurationContext cfgCtx = new ConfigurationContext(new AxisConfiguration());
+        String key = "synapse.endpoint.clustered.state";
+        EndpointContext context = new EndpointContext("clustered", createDefinition(1), true, cfgCtx, null);
+        EndpointContext.EndpointState initial = (EndpointContext.EndpointState) cfgCtx.getPropertyNonReplicable(key);
+        Assert.assertNotNull("Initial state should be replicated", initial);
+        Assert.assertEquals(EndpointContext.ST_ACTIVE, initial.state);
+
+        context.onTimeout();
+        EndpointContext.EndpointState replicated =
+                (EndpointContext.EndpointState) cfgCtx.getPropertyNonReplicable(key);
+        Assert.assertEquals(EndpointContext.ST_TIMEOUT, replicated.state);
+        Assert.assertEquals(initial.version + 1, replicated.version);
+
+        // a newer state replicated by another member takes precedence over the local state
+        EndpointContext.EndpointState remote = new EndpointContext.EndpointState(EndpointContext.ST_SUSPENDED,
+                System.currentTimeMillis() + 60000, 0, 60000, -1, -1, replicated.version + 1);
+        cfgCtx.setNonReplicableProperty(key, remote);
+        Assert.assertTrue(context.isState(EndpointContext.ST_SUSPENDED));
+        Assert.assertFalse(context.readyToSend());
+
+        // the next local transition is computed from the replicated state and supersedes it
+        context.onSuccess();
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+        replicated = (EndpointContext.EndpointState) cfgCtx.getPropertyNonReplicable(key);
+        Assert.assertEquals(EndpointContext.ST_ACTIVE, replicated.state);
+        Assert.assertEquals(remote.version + 1, replicated.version);
+
+        // a stale state does not override the local state, even if it was created later
+        Thread.sleep(5);
+        cfgCtx.setNonReplicableProperty(key, new EndpointContext.EndpointState(EndpointContext.ST_SUSPENDED,
+                System.currentTimeMillis() + 60000, 0, 60000, -1, -1, remote.version));
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+        Assert.assertTrue(context.readyToSend());
+
+        // on equal versions the local state is used
+        cfgCtx.setNonReplicableProperty(key, new EndpointContext.EndpointState(EndpointContext.ST_SUSPENDED,
+                System.currentTimeMillis() + 60000, 0, 60000, -1, -1, replicated.version));
+        Assert.assertTrue(context.isState(EndpointContext.ST_ACTIVE));
+    }
+
+    /**
+     * Test that concurrent faults do not lose a suspension, which is extended on each of them.
+     */
+    @Test
+    public void testConcurrentFaults() throws Exception {
+        EndpointDefinition definition = createDefinition(0);
+        definition.setSuspendProgressionFactor(1.0f);
+        final EndpointContext context = new EndpointContext("test", definition, false, null, null);
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        for (int j = 0; j < 1000; j++) {
+                            context.onFault();
+                            context.onSuccess();
+                        }
+                        context.onFault();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertTrue("Endpoint should be suspended after the last fault",
+                context.isState(EndpointContext.ST_SUSPENDED));
+    }
+
+    private static EndpointDefinition createDefinition(int retriesOnTimeout) {
+        EndpointDefinition definition = new EndpointDefinition();
+        definition.setRetriesOnTimeoutBeforeSuspend(retriesOnTimeout);
+        definition.setRetryDurationOnTimeout(60000);
+        definition.setInitialSuspendDuration(60000);
+        definition.setSuspendProgressionFactor(2.0f);
+        definition.setSuspendMaximumDuration(600000);
+        return definition;
+    }
+}
@@ -79,6 +79,19 @@ public class ValidateMediatorSerializationTest extends AbstractTestCase {
 
     }
 
+    public void testValidateMediatorSerializationWithStreaming() throws Exception {
+
+        validateMediatorFactory = new ValidateMediatorFactory();
+        validateMediatorSerializer = new ValidateMediatorSerializer();
+
+        String validateConfiguration = "<validate xmlns=\"http://ws.apache.org/ns/synapse\" " +
+                                       "cache-schema=\"true\" streaming=\"true\">" +
+                                       "<schema key=\"file:synapse_repository/conf/sample/validate.xsd\" />" +
+                                       "<on-fail><drop /></on-fail>" +
+                                       "</validate>";
+        assertTrue(serialization(validateConfiguration, validateMediatorFactory, validateMediatorSerializer));
+    }
+
     public void testValidateMediatorSerializationWithJSONPath() throws Exception {
 
         validateMediatorFactory = new ValidateMediatorFactory();
@@ -425,6 +425,60 @@ public class ValidateMediatorTest extends TestCase {
         test(validate, synCtx, true);
     }
 
+    public void testValidateMediatorStreamingValidCase() throws Exception {
+        // create a validate mediator in the streaming mode
+        ValidateMediator validate = new ValidateMediator();
+        validate.setStreaming(true);
+
+        // validate the first child of the body, reusing the pooled validator handler
+        validate.setSchemaKeys(createKeyListFromStaticKey("xsd-key"));
+
+        for (int i = 0; i < 3; i++) {
+            MessageContext synCtx = new TestMessageContextBuilder()
+                    .setRequireAxis2MessageContext(true)
+                    .addFileEntry("xsd-key", "./../../repository/conf/sample/resources/validate/validate.xsd")
+                    .setBodyFromString(VALID_ENVELOPE).build();
+
+            // test validate mediator, with static enveope
+            test(validate, synCtx, false);
+        }
+    }
+
+    public void testValidateMediatorStreamingInvalidCase() throws Exception {
+        // create a validate mediator in the streaming mode
+        ValidateMediator validate = new ValidateMediator();
+        validate.setStreaming(true);
+
+        // set the schema url, source xpath and any name spaces
+        validate.setSchemaKeys(createKeyListFromStaticKey("xsd-key-1"));
+        validate.setSource(createXPath("//m0:CheckPriceRequest"));
+
+        MessageContext synCtx = new TestMessageContextBuilder()
+                .setRequireAxis2MessageContext(true)
+                .addFileEntry("xsd-key-1", "./../../repository/conf/sample/resources/validate/validate.xsd")
+                .setBodyFromString(IN_VALID_ENVELOPE).build();
+
+        // test validate mediator, with static enveope
+        test(validate, synCtx, true);
+    }
+
+    public void testValidateMediatorStreamingJSONSchemaInValidCase() throws Exception {
+        // create a validate mediator in the streaming mode
+        ValidateMediator validate = new ValidateMediator();
+        validate.setStreaming(true);
+
+        // set the schema url, source xpath and any name spaces
+        validate.setSchemaKeys(createKeyListFromStaticKey("JSON-key"));
+
+        MessageContext synCtx = new TestMessageContextBuilder()
+                .setRequireAxis2MessageContext(true)
+                .addFileEntry("JSON-key", "./../../repository/conf/sample/resources/validate/StockQuoteSchema.json")
+                .setJsonBodyFromString(INVALID_JSON_MESSAGE2).build();
+
+        // test validate mediator, with static enveope
+        test(validate, synCtx, true);
+    }
+
     private void makeValidInvocation(ValidateMediator validate) throws Exception {
         // set the schema url, source xpath and any name spaces
         validate.setSchemaKeys(createKeyListFromStaticKey("xsd-key-1"));
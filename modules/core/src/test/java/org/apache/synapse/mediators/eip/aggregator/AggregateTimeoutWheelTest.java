@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.mediators.eip.aggregator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for AggregateTimeoutWheel class.
+ */
+public class AggregateTimeoutWheelTest {
+
+    private static final long START = 1000000L;
+
+    /**
+     * Test that an aggregate expires within a tick after its deadline, and only once.
+     */
+    @Test
+    public void testExpiry() {
+        AggregateTimeoutWheel wheel = new AggregateTimeoutWheel(100, START);
+        TestAggregate aggregate = new TestAggregate(START + 1050);
+        wheel.schedule(aggregate);
+
+        wheel.advance(START + 1000);
+        Assert.assertEquals("Aggregate should not expire before its deadline", 0, aggregate.expiries);
+        wheel.advance(START + 1100);
+        Assert.assertEquals("Aggregate should expire within a tick after its deadline", 1, aggregate.expiries);
+        wheel.advance(START + 100000);
+        Assert.assertEquals("Aggregate should expire once", 1, aggregate.expiries);
+    }
+
+    /**
+     * Test that aggregates due in a later rotation of the wheel are kept in their slot.
+     */
+    @Test
+    public void testLaterRotation() {
+        AggregateTimeoutWheel wheel = new AggregateTimeoutWheel(100, START);
+        long rotation = AggregateTimeoutWheel.SLOTS * 100L;
+        TestAggregate aggregate = new TestAggregate(START + 2 * rotation + 500);
+        wheel.schedule(aggregate);
+
+        wheel.advance(START + rotation + 600);
+        Assert.assertEquals(0, aggregate.expiries);
+        wheel.advance(START + 2 * rotation + 600);
+        Assert.assertEquals(1, aggregate.expiries);
+    }
+
+    /**
+     * Test that completed aggregates are dropped, and locked aggregates are retried at the next tick.
+     */
+    @Test
+    public void testCompletedAndLockedAggregates() {
+        AggregateTimeoutWheel wheel = new AggregateTimeoutWheel(100, START);
+        TestAggregate completed = new TestAggregate(START + 500);
+        completed.setCompleted(true);
+        TestAggregate locked = new TestAggregate(START + 500);
+        locked.locked = true;
+        wheel.schedule(completed);
+        wheel.schedule(locked);
+
+        wheel.advance(START + 500);
+        Assert.assertEquals("Completed aggregate should not expire", 0, completed.expiries);
+        Assert.assertEquals("Locked aggregate should not expire", 0, locked.expiries);
+
+        locked.locked = false;
+        wheel.advance(START + 600);
+        Assert.assertEquals("Locked aggregate should expire once released", 1, locked.expiries);
+        Assert.assertEquals(0, completed.expiries);
+    }
+
+    private static class TestAggregate extends Aggregate {
+
+        private int expiries = 0;
+
+        private boolean locked = false;
+
+        TestAggregate(long expiryTimeMillis) {
+            super(null, "correlation", 0, -1, -1, (AggregateMediator) null, null);
+            setExpiryTimeMillis(expiryTimeMillis);
+        }
+
+        @Override
+        boolean expire() {
+            if (isCompleted()) {
+                return true;
+            }
+            if (locked) {
+                return false;
+            }
+            expiries++;
+            setCompleted(true);
+            return true;
+        }
+    }
+}
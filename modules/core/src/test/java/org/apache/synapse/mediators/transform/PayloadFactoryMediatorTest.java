@@ -95,6 +95,40 @@ public class PayloadFactoryMediatorTest extends TestCase {
                 + "set expected format", expectedEnv, synCtx.getEnvelope().getBody().toString());
     }
 
+    /**
+     * Test that a payload built by the payloadFactory mediator is not changed when the next payload is rendered
+     * on the same thread
+     * @throws Exception in case of argument evaluation issue
+     */
+    public void testPayloadsRenderedOnSameThread() throws Exception {
+
+        PayloadFactoryMediator first = new PayloadFactoryMediator();
+        first.setTemplateProcessor(new RegexTemplateProcessor());
+        first.setFormat(format);
+        for (String value : new String[]{"John", "2017.09.26", "1234564632", "Colombo, Sri Lanka"}) {
+            Argument argument = new Argument();
+            argument.setValue(value);
+            first.getTemplateProcessor().addPathArgument(argument);
+        }
+        PayloadFactoryMediator second = new PayloadFactoryMediator();
+        second.setTemplateProcessor(new RegexTemplateProcessor());
+        second.setFormat("\n  <name>$1</name>  \n");
+        Argument argument = new Argument();
+        argument.setValue("Smith");
+        second.getTemplateProcessor().addPathArgument(argument);
+
+        MessageContext firstCtx = TestUtils.getAxis2MessageContext(inputPayload, null);
+        first.mediate(firstCtx);
+        String firstBody = firstCtx.getEnvelope().getBody().toString();
+        MessageContext secondCtx = TestUtils.getAxis2MessageContext(inputPayload, null);
+        second.mediate(secondCtx);
+
+        assertEquals("Payload should not change when the next one is rendered",
+                firstBody, firstCtx.getEnvelope().getBody().toString());
+        assertEquals("<soapenv:Body xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                + "<name>Smith</name></soapenv:Body>", secondCtx.getEnvelope().getBody().toString());
+    }
+
     /**
      * Test payloadFactory Mediator with dynamic expressions set
      * @throws Exception in case of argument evaluation issue
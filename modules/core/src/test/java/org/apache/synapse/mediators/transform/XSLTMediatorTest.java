@@ -22,16 +22,36 @@ package org.apache.synapse.mediators.transform;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 import org.apache.axiom.om.*;
+import org.apache.axis2.Constants;
 import org.apache.axis2.transport.base.BaseConstants;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseException;
 import org.apache.synapse.TestMessageContextBuilder;
+import org.apache.synapse.config.SynapseConfiguration;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.mediators.MediatorProperty;
+import org.apache.synapse.mediators.TestUtils;
 import org.apache.synapse.mediators.Value;
+import org.apache.synapse.registry.InMemoryRegistryEntry;
+import org.apache.synapse.registry.SimpleInMemoryRegistry;
+import org.apache.synapse.transport.passthru.PassThroughConstants;
+import org.apache.synapse.transport.passthru.Pipe;
+import org.apache.synapse.transport.passthru.config.BaseConfiguration;
+import org.apache.synapse.transport.passthru.util.BufferFactory;
 import org.apache.synapse.util.jaxp.*;
 import org.apache.synapse.util.xpath.SynapseXPath;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
 
 import javax.xml.namespace.QName;
 import javax.xml.transform.TransformerFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
 
 public class XSLTMediatorTest extends TestCase {
     private static final Class[] sourceBuilderFactories = {
@@ -64,6 +84,11 @@ public class XSLTMediatorTest extends TestCase {
         "<m0:DynamicXsltKey2>DynamicXsltKey2</m0:DynamicXsltKey2>\n" +
         "</m0:CheckPriceRequest>\n" ;
 
+    private static final String CONSTANT_XSLT =
+        "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+        "<xsl:template match=\"/\"><result>%s</result></xsl:template>" +
+        "</xsl:stylesheet>";
+
     private static final String SOURCE_STATIC_KEY =
         "<m0:CheckPriceRequest xmlns:m0=\"http://services.samples/xsd\">\n" +
         "<m0:StaticXsltKey>StaticXsltKey</m0:StaticXsltKey>\n" +
@@ -428,6 +453,200 @@ public class XSLTMediatorTest extends TestCase {
         transformMediator.mediate(synCtx);
     }
 
+    /**
+     * Transformers are pooled per template, so parameters of one message must not leak
+     * into the transformation of the next message
+     *
+     * @throws Exception Exception in case of an error in tests
+     */
+    public void testTransformerReuseWithParameters() throws Exception {
+        XSLTMediator transformMediator = new XSLTMediator();
+        setXsltTransformationURL(transformMediator, "xslt-key");
+        MediatorProperty parameter = new MediatorProperty();
+        parameter.setName("code");
+        parameter.setExpression(new SynapseXPath("$ctx:code"));
+        transformMediator.addProperty(parameter);
+
+        String[] codes = {"IBM", "MSFT", "IBM", "SUN"};
+        for (String code : codes) {
+            MessageContext synCtx = new TestMessageContextBuilder()
+                    .addEntry("xslt-key", getClass().getResource("parameter.xslt"))
+                    .setBodyFromString(SOURCE).setRequireAxis2MessageContext(true).build();
+            synCtx.setProperty("code", code);
+            transformMediator.mediate(synCtx);
+
+            OMElement result = synCtx.getEnvelope().getBody().getFirstElement();
+            assertEquals("result", result.getLocalName());
+            assertEquals(code, result.getText());
+        }
+    }
+
+    /**
+     * The mediator only declares itself not content aware when it can stream the payload
+     * from the pass-through pipe
+     *
+     * @throws Exception Exception in case of an error in tests
+     */
+    public void testStreamFromPipeContentAwareness() throws Exception {
+        XSLTMediator transformMediator = new XSLTMediator();
+        setXsltTransformationURL(transformMediator, "xslt-key");
+        assertTrue(transformMediator.isContentAware());
+
+        transformMediator.addFeature(XSLTMediator.STREAM_FROM_PIPE, true);
+        assertTrue(transformMediator.isStreamFromPipe());
+        assertFalse(transformMediator.isContentAware());
+
+        MediatorProperty parameter = new MediatorProperty();
+        parameter.setName("code");
+        parameter.setExpression(new SynapseXPath("//Code"));
+        transformMediator.addProperty(parameter);
+        assertTrue(transformMediator.isContentAware());
+    }
+
+    /**
+     * An XML payload is transformed straight from the pass-through pipe, decoding it with the
+     * charset of the content type, or with the encoding of its XML declaration if there is none
+     *
+     * @throws Exception Exception in case of an error in tests
+     */
+    public void testStreamFromPipe() throws Exception {
+        XSLTMediator transformMediator = new XSLTMediator();
+        setXsltTransformationURL(transformMediator, "xslt-key");
+        transformMediator.addFeature(XSLTMediator.STREAM_FROM_PIPE, true);
+
+        String payload = "<root><name>caf\u00e9</name></root>";
+        Charset latin1 = Charset.forName("ISO-8859-1");
+        MessageContext synCtx = createPipeMessageContext(payload.getBytes(latin1),
+                "application/xml; charset=ISO-8859-1");
+        assertTrue(transformMediator.mediate(synCtx));
+        assertPipeResult(synCtx, "caf\u00e9");
+
+        synCtx = createPipeMessageContext(payload.getBytes(latin1), "application/xml; charset=\"iso-8859-1\"");
+        assertTrue(transformMediator.mediate(synCtx));
+        assertPipeResult(synCtx, "caf\u00e9");
+
+        synCtx = createPipeMessageContext(
+                ("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" + payload).getBytes(latin1), "application/xml");
+        assertTrue(transformMediator.mediate(synCtx));
+        assertPipeResult(synCtx, "caf\u00e9");
+    }
+
+    /**
+     * An empty payload in the pass-through pipe is not transformed, and the message is marked
+     * as built without an entity body
+     *
+     * @throws Exception Exception in case of an error in tests
+     */
+    public void testStreamFromPipeEmptyPayload() throws Exception {
+        XSLTMediator transformMediator = new XSLTMediator();
+        setXsltTransformationURL(transformMediator, "xslt-key");
+        transformMediator.addFeature(XSLTMediator.STREAM_FROM_PIPE, true);
+
+        MessageContext synCtx = createPipeMessageContext(new byte[0], "application/xml");
+        assertTrue(transformMediator.mediate(synCtx));
+
+        org.apache.axis2.context.MessageContext axis2Ctx =
+                ((Axis2MessageContext) synCtx).getAxis2MessageContext();
+        assertEquals(Boolean.TRUE, axis2Ctx.getProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED));
+        assertEquals(Boolean.TRUE, axis2Ctx.getProperty(PassThroughConstants.NO_ENTITY_BODY));
+        assertNull(synCtx.getEnvelope().getBody().getFirstElement());
+    }
+
+    /**
+     * A stylesheet from the registry is only recompiled when its cache has expired and the
+     * registry reports a new version of it
+     *
+     * @throws Exception Exception in case of an error in tests
+     */
+    public void testTemplateRecompiledOnVersionChange() throws Exception {
+        String key = "dynamic-xslt";
+        Map<String, OMNode> data = Collections.<String, OMNode>singletonMap(
+                key, TestUtils.createOMElement(String.format(CONSTANT_XSLT, "first")));
+        SimpleInMemoryRegistry registry = new SimpleInMemoryRegistry(data, 60000L);
+        SynapseConfiguration config = new SynapseConfiguration();
+        config.setRegistry(registry);
+
+        XSLTMediator transformMediator = new XSLTMediator();
+        setXsltTransformationURL(transformMediator, key);
+        Map<String, ?> cachedTemplatesMap = Whitebox.getInternalState(transformMediator, "cachedTemplatesMap");
+
+        assertEquals("first", transform(transformMediator, config));
+        Object compiled = cachedTemplatesMap.get(key);
+        assertNotNull(compiled);
+
+        // the cache has expired, but the registry still has the same version
+        config.getEntryDefinition(key).setExpiryTime(1);
+        assertEquals("first", transform(transformMediator, config));
+        assertSame("The template should be reused for the same version", compiled, cachedTemplatesMap.get(key));
+
+        registry.updateResource(key, TestUtils.createOMElement(String.format(CONSTANT_XSLT, "second")));
+        long version = config.getEntryDefinition(key).getVersion();
+        ((InMemoryRegistryEntry) registry.getRegistryEntry(key)).setLastModifiedDate(version + 1);
+        config.getEntryDefinition(key).setExpiryTime(1);
+        assertEquals("second", transform(transformMediator, config));
+        assertNotSame("The template should be recompiled for a new version",
+                compiled, cachedTemplatesMap.get(key));
+    }
+
+    private static String transform(XSLTMediator transformMediator, SynapseConfiguration config)
+            throws Exception {
+        MessageContext synCtx = TestUtils.createLightweightSynapseMessageContext(SOURCE, config);
+        transformMediator.mediate(synCtx);
+        OMElement result = synCtx.getEnvelope().getBody().getFirstElement();
+        assertEquals("result", result.getLocalName());
+        return result.getText();
+    }
+
+    private static MessageContext createPipeMessageContext(byte[] payload, String contentType)
+            throws Exception {
+        MessageContext synCtx = new TestMessageContextBuilder()
+                .addEntry("xslt-key", XSLTMediatorTest.class.getResource("identity.xslt"))
+                .setRequireAxis2MessageContext(true).build();
+        org.apache.axis2.context.MessageContext axis2Ctx =
+                ((Axis2MessageContext) synCtx).getAxis2MessageContext();
+        axis2Ctx.setProperty(Constants.Configuration.CONTENT_TYPE, contentType);
+        axis2Ctx.setProperty(PassThroughConstants.PASS_THROUGH_PIPE, createPipe(payload));
+        return synCtx;
+    }
+
+    /**
+     * Create a pipe holding the whole payload, as received from a client
+     */
+    private static Pipe createPipe(byte[] payload) throws IOException {
+        BaseConfiguration configuration = Mockito.mock(BaseConfiguration.class);
+        Mockito.when(configuration.getBufferFactory()).thenReturn(new BufferFactory(1024, null, 4));
+        Pipe pipe = new Pipe(Mockito.mock(IOControl.class), configuration.getBufferFactory().getBuffer(),
+                "test", configuration);
+        final ByteBuffer content = ByteBuffer.wrap(payload);
+        pipe.produce(new ContentDecoder() {
+            public int read(ByteBuffer dst) {
+                if (!content.hasRemaining()) {
+                    return -1;
+                }
+                int length = Math.min(dst.remaining(), content.remaining());
+                ByteBuffer chunk = content.duplicate();
+                chunk.limit(chunk.position() + length);
+                dst.put(chunk);
+                content.position(content.position() + length);
+                return length;
+            }
+
+            public boolean isCompleted() {
+                return !content.hasRemaining();
+            }
+        });
+        return pipe;
+    }
+
+    private static void assertPipeResult(MessageContext synCtx, String name) {
+        org.apache.axis2.context.MessageContext axis2Ctx =
+                ((Axis2MessageContext) synCtx).getAxis2MessageContext();
+        assertEquals(Boolean.TRUE, axis2Ctx.getProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED));
+        OMElement root = synCtx.getEnvelope().getBody().getFirstElement();
+        assertEquals("root", root.getLocalName());
+        assertEquals(name, root.getFirstElement().getText());
+    }
+
     protected static void test(Class sbf, Class rbf) throws Exception {
 
         XSLTMediator transformMediator = new XSLTMediator();
@@ -39,6 +39,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Unit tests for Payload factory Regex Template Processor with inline synapse expressions
@@ -243,4 +250,102 @@ public class RegexTemplateProcessorTest extends TestCase {
             Assert.assertEquals(expectedOutput, result);
         }
     }
+
+    /**
+     * Tests that replacement values are written as Matcher#appendReplacement writes them.
+     */
+    public static class AppendReplacement {
+
+        private static final Pattern PLACEHOLDER = Pattern.compile("\"\\$\\{([^}]+)\\}\"|\\$\\{([^}]+)\\}|\\$(\\d+)");
+
+        @Test
+        public void testAppendReplacement() {
+            String[] replacements = {"", "plain", "a\\\\b", "\\$1", "quoted \\\"value\\\"", "$0", "$3", "$10", "x$1y"};
+            for (String placeholder : new String[]{"${payload.name}", "\"${payload.name}\"", "$1"}) {
+                for (String replacement : replacements) {
+                    Matcher matcher = PLACEHOLDER.matcher(placeholder);
+                    Assert.assertTrue(matcher.find());
+                    StringBuffer expected = new StringBuffer();
+                    matcher.appendReplacement(expected, replacement);
+
+                    String[] groups = new String[matcher.groupCount() + 1];
+                    for (int i = 0; i < groups.length; i++) {
+                        groups[i] = matcher.group(i);
+                    }
+                    StringBuilder actual = new StringBuilder();
+                    RegexTemplateProcessor.appendReplacement(actual, replacement, groups);
+                    Assert.assertEquals("Replacement " + replacement + " of " + placeholder,
+                            expected.toString(), actual.toString());
+                }
+            }
+        }
+
+        @Test
+        public void testCompiledFormatReuse() throws Exception {
+            MessageContext messageContext = TestUtils.getTestContextJson("{ \"name\": \"John\" }", null);
+            TemplateProcessor templateProcessor = new RegexTemplateProcessor();
+            templateProcessor.setFormat("{ \"first\": \"${payload.name}\" }");
+            templateProcessor.setMediaType("json");
+            templateProcessor.init();
+            Assert.assertEquals("{ \"first\": \"John\" }",
+                    templateProcessor.processTemplate(templateProcessor.getFormat(), "json", messageContext));
+            Assert.assertEquals("{ \"second\": \"John\" }",
+                    templateProcessor.processTemplate("{ \"second\": \"${payload.name}\" }", "json", messageContext));
+            StringBuilder result = new StringBuilder("prefix ");
+            templateProcessor.processTemplate("{ \"first\": \"${payload.name}\" }", "json", messageContext, result);
+            Assert.assertEquals("prefix { \"first\": \"John\" }", result.toString());
+        }
+
+        @Test
+        public void testCompiledFormatWithoutMediaType() throws Exception {
+            MessageContext messageContext = TestUtils.getTestContextJson("{ \"name\": \"John\" }", null);
+            TemplateProcessor templateProcessor = new RegexTemplateProcessor();
+            templateProcessor.setFormat("{ \"first\": \"${payload.name}\" }");
+            templateProcessor.setMediaType(null);
+            templateProcessor.init();
+            Assert.assertEquals("{ \"first\": \"John\" }",
+                    templateProcessor.processTemplate(templateProcessor.getFormat(), "json", messageContext));
+        }
+
+        @Test
+        public void testCompiledFormatSharedByThreads() throws Exception {
+            final TemplateProcessor templateProcessor = new RegexTemplateProcessor();
+            templateProcessor.setFormat("{ \"name\": \"${payload.name}\", \"age\": ${payload.age}, " +
+                    "\"again\": \"${payload.name}\" }");
+            templateProcessor.setMediaType("json");
+            templateProcessor.init();
+
+            int threads = 8;
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                for (int i = 0; i < threads; i++) {
+                    final String name = "user" + i;
+                    final MessageContext messageContext =
+                            TestUtils.getTestContextJson("{ \"name\": \"" + name + "\", \"age\": " + i + " }", null);
+                    final String expected = "{ \"name\": \"" + name + "\", \"age\": " + i + ", " +
+                            "\"again\": \"" + name + "\" }";
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            try {
+                                start.await();
+                                for (int j = 0; j < 200; j++) {
+                                    Assert.assertEquals(expected, templateProcessor.processTemplate(
+                                            templateProcessor.getFormat(), "json", messageContext));
+                                }
+                            } catch (Throwable e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        }
+                    });
+                }
+                start.countDown();
+            } finally {
+                executor.shutdown();
+            }
+            Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            Assert.assertNull("Concurrent evaluation failed : " + failure.get(), failure.get());
+        }
+    }
 }
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.metrics;
+
+import org.apache.synapse.FaultHandler;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.SynapseConstants;
+import org.apache.synapse.SynapseException;
+import org.apache.synapse.aspects.ComponentType;
+import org.apache.synapse.config.Entry;
+import org.apache.synapse.mediators.AbstractMediator;
+import org.apache.synapse.mediators.TestUtils;
+import org.apache.synapse.mediators.base.SequenceMediator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for MetricsRegistry class.
+ */
+public class MetricsRegistryTest {
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.clear();
+    }
+
+    /**
+     * Test that requests of a response message are not counted again, while its errors are.
+     */
+    @Test
+    public void testRecord() {
+        long startTime = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5);
+        MetricsRegistry.record(ComponentType.PROXYSERVICE, "StockQuoteProxy", startTime, false, false);
+        MetricsRegistry.record(ComponentType.PROXYSERVICE, "StockQuoteProxy", startTime, false, true);
+        MetricsRegistry.record(ComponentType.PROXYSERVICE, "StockQuoteProxy", startTime, true, true);
+        MetricsRegistry.record(ComponentType.PROXYSERVICE, null, startTime, false, false);
+
+        ArtifactMetrics metrics = MetricsRegistry.getMetrics(ComponentType.PROXYSERVICE, "StockQuoteProxy");
+        Assert.assertEquals("Requests should be counted for request messages only", 2, metrics.getRequestCount());
+        Assert.assertEquals("Errors should be counted for all messages", 2, metrics.getErrorCount());
+        Assert.assertEquals(2, metrics.getLatencyCount());
+        Assert.assertTrue("Latency should be recorded", metrics.getLatencySum() >= TimeUnit.MILLISECONDS.toNanos(10));
+        Assert.assertNull("Metrics should not be kept for mediators",
+                MetricsRegistry.getMetrics(ComponentType.MEDIATOR, "log"));
+    }
+
+    /**
+     * Test that the metrics of an API are kept for the API and each of its resources.
+     */
+    @Test
+    public void testRecordApi() {
+        long startTime = System.nanoTime();
+        MetricsRegistry.recordApi("OrdersAPI", "/orders", startTime, false, false);
+        MetricsRegistry.recordApi("OrdersAPI", "/orders/{id}", startTime, false, true);
+        MetricsRegistry.recordApi("OrdersAPI", null, startTime, false, false);
+        MetricsRegistry.recordApi(null, "/orders", startTime, false, false);
+
+        Assert.assertEquals(3, MetricsRegistry.getMetrics(ComponentType.API, "OrdersAPI").getRequestCount());
+        String text = MetricsRegistry.getPrometheusText();
+        Assert.assertTrue(text, text.contains(
+                "synapse_artifact_requests_total{type=\"api\",name=\"OrdersAPI\"} 3\n"));
+        Assert.assertTrue(text, text.contains(
+                "synapse_artifact_requests_total{type=\"api\",name=\"OrdersAPI\",resource=\"/orders\"} 1\n"));
+        Assert.assertTrue(text, text.contains(
+                "synapse_artifact_errors_total{type=\"api\",name=\"OrdersAPI\",resource=\"/orders/{id}\"} 1\n"));
+    }
+
+    /**
+     * Test that the latency of an endpoint call is recorded once, from the send until the response.
+     */
+    @Test
+    public void testEndpointCall() throws Exception {
+        MessageContext synCtx = TestUtils.getAxis2MessageContext("<test/>", new HashMap<String, Entry>());
+        MetricsRegistry.startEndpointCall(synCtx, "StockQuoteEP");
+        Assert.assertNotNull(synCtx.getProperty(MetricsConstants.ENDPOINT_CALL_START_TIME));
+
+        MetricsRegistry.endEndpointCall(synCtx, "StockQuoteEP", false);
+        // a response turned into a fault after it is received
+        MetricsRegistry.endEndpointCall(synCtx, "StockQuoteEP", true);
+
+        ArtifactMetrics metrics = MetricsRegistry.getMetrics(ComponentType.ENDPOINT, "StockQuoteEP");
+        Assert.assertEquals(1, metrics.getRequestCount());
+        Assert.assertEquals(1, metrics.getErrorCount());
+        Assert.assertEquals("Latency of a call should be recorded once", 1, metrics.getLatencyCount());
+        Assert.assertNull(synCtx.getProperty(MetricsConstants.ENDPOINT_CALL_START_TIME));
+    }
+
+    /**
+     * Test that anonymous endpoints, which all report the same name, are not recorded.
+     */
+    @Test
+    public void testAnonymousEndpointCall() throws Exception {
+        MessageContext synCtx = TestUtils.getAxis2MessageContext("<test/>", new HashMap<String, Entry>());
+        MetricsRegistry.startEndpointCall(synCtx, SynapseConstants.ANONYMOUS_ENDPOINT);
+        MetricsRegistry.endEndpointCall(synCtx, SynapseConstants.ANONYMOUS_ENDPOINT, false);
+        MetricsRegistry.startEndpointCall(synCtx, null);
+
+        Assert.assertNull(MetricsRegistry.getMetrics(ComponentType.ENDPOINT, SynapseConstants.ANONYMOUS_ENDPOINT));
+        Assert.assertNull(synCtx.getProperty(MetricsConstants.ENDPOINT_CALL_START_TIME));
+        String text = MetricsRegistry.getPrometheusText();
+        Assert.assertFalse(text, text.contains("type=\"endpoint\""));
+    }
+
+    /**
+     * Test that the series of an undeployed artifact are no longer scraped.
+     */
+    @Test
+    public void testRemove() {
+        long startTime = System.nanoTime();
+        MetricsRegistry.record(ComponentType.PROXYSERVICE, "StockQuoteProxy", startTime, false, false);
+        MetricsRegistry.record(ComponentType.SEQUENCE, "StockQuoteProxy", startTime, false, false);
+        MetricsRegistry.recordApi("OrdersAPI", "/orders", startTime, false, false);
+
+        MetricsRegistry.remove(ComponentType.PROXYSERVICE, "StockQuoteProxy");
+        MetricsRegistry.remove(ComponentType.API, "OrdersAPI");
+        MetricsRegistry.remove(ComponentType.ENDPOINT, null);
+
+        String text = MetricsRegistry.getPrometheusText();
+        Assert.assertFalse(text, text.contains("type=\"proxy\""));
+        Assert.assertFalse("Resources should be removed with their API", text.contains("OrdersAPI"));
+        Assert.assertTrue("Artifacts of other types should be kept", text.contains(
+                "synapse_artifact_requests_total{type=\"sequence\",name=\"StockQuoteProxy\"} 1\n"));
+
+        MetricsRegistry.record(ComponentType.PROXYSERVICE, "StockQuoteProxy", startTime, false, false);
+        Assert.assertEquals("A redeployed artifact should start new series", 1,
+                MetricsRegistry.getMetrics(ComponentType.PROXYSERVICE, "StockQuoteProxy").getRequestCount());
+    }
+
+    /**
+     * Test that an invoked fault handler or a new error code marks the message as faulted.
+     */
+    @Test
+    public void testFaultMark() throws Exception {
+        MessageContext synCtx = TestUtils.getAxis2MessageContext("<test/>", new HashMap<String, Entry>());
+        int mark = MetricsRegistry.getFaultMark(synCtx);
+        Assert.assertFalse(MetricsRegistry.hasFaulted(synCtx, mark));
+
+        synCtx.setProperty(SynapseConstants.ERROR_CODE, 101503);
+        Assert.assertTrue("Setting an error code should fault the message",
+                MetricsRegistry.hasFaulted(synCtx, mark));
+
+        mark = MetricsRegistry.getFaultMark(synCtx);
+        Assert.assertFalse("An error code set before the mark should not count",
+                MetricsRegistry.hasFaulted(synCtx, mark));
+        new NoOpFaultHandler().handleFault(synCtx, new SynapseException("Backend unavailable"));
+        Assert.assertTrue("Invoking a fault handler should fault the message",
+                MetricsRegistry.hasFaulted(synCtx, mark));
+    }
+
+    /**
+     * Test that a sequence whose error is consumed by a fault handler is counted as failed.
+     */
+    @Test
+    public void testHandledFaultCountedAsError() throws Exception {
+        SequenceMediator sequence = new SequenceMediator();
+        sequence.setName("HandledFaultSeq");
+        sequence.addChild(new AbstractMediator() {
+            public boolean mediate(MessageContext synCtx) {
+                new NoOpFaultHandler().handleFault(synCtx, new SynapseException("Transformation failed"));
+                return false;
+            }
+        });
+        Assert.assertFalse(sequence.mediate(TestUtils.getAxis2MessageContext("<test/>", new HashMap<String, Entry>())));
+
+        ArtifactMetrics metrics = MetricsRegistry.getMetrics(ComponentType.SEQUENCE, "HandledFaultSeq");
+        Assert.assertEquals(1, metrics.getRequestCount());
+        Assert.assertEquals("No exception escaped, but the fault handler was invoked", 1, metrics.getErrorCount());
+    }
+
+    /**
+     * Test the latency quantiles and the escaping of label values in the Prometheus text.
+     */
+    @Test
+    public void testPrometheusText() {
+        ArtifactMetrics metrics = MetricsRegistry.getMetrics(ComponentType.SEQUENCE, "main\"seq");
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(TimeUnit.MILLISECONDS.toNanos(i), false);
+        }
+        MetricsRegistry.rollInterval();
+
+        // the quantiles are the upper bounds of the histogram buckets holding 50ms and 99ms
+        String text = MetricsRegistry.getPrometheusText();
+        String labels = "type=\"sequence\",name=\"main\\\"seq\"";
+        Assert.assertTrue(text, text.contains("# TYPE synapse_artifact_latency_seconds summary\n"));
+        Assert.assertTrue(text, text.contains("synapse_artifact_latency_seconds{" + labels
+                + ",quantile=\"0.5\"} 0.050175\n"));
+        Assert.assertTrue(text, text.contains("synapse_artifact_latency_seconds{" + labels
+                + ",quantile=\"0.99\"} 0.100351\n"));
+        Assert.assertTrue(text, text.contains("synapse_artifact_latency_seconds_sum{" + labels + "} 5.05\n"));
+        Assert.assertTrue(text, text.contains("synapse_artifact_latency_seconds_count{" + labels + "} 100\n"));
+    }
+
+    /**
+     * Test that latencies below a millisecond are not reported as zero.
+     */
+    @Test
+    public void testSubMillisecondLatency() {
+        ArtifactMetrics metrics = MetricsRegistry.getMetrics(ComponentType.SEQUENCE, "fast");
+        for (int i = 0; i < 10; i++) {
+            metrics.record(TimeUnit.MICROSECONDS.toNanos(40), false);
+        }
+        MetricsRegistry.rollInterval();
+        Assert.assertEquals(40, metrics.getLatencyPercentileMicros(0));
+        Assert.assertTrue(MetricsRegistry.getPrometheusText().contains(
+                "synapse_artifact_latency_seconds{type=\"sequence\",name=\"fast\",quantile=\"0.5\"} 4.0E-5\n"));
+    }
+
+    /**
+     * Test the exact Prometheus text of an artifact, including the quantile labels.
+     */
+    @Test
+    public void testPrometheusTextFormat() {
+        ArtifactMetrics metrics = MetricsRegistry.getMetrics(ComponentType.PROXYSERVICE, "StockQuoteProxy");
+        // upper bounds of histogram buckets, so that the quantiles are exact
+        long[] latencies = {1023, 2047, 3071, 4095};
+        for (int i = 0; i < latencies.length; i++) {
+            metrics.record(TimeUnit.MICROSECONDS.toNanos(latencies[i]), i == 3);
+        }
+        MetricsRegistry.rollInterval();
+
+        String labels = "type=\"proxy\",name=\"StockQuoteProxy\"";
+        String expected = "# HELP synapse_artifact_requests_total Number of requests mediated by an artifact\n"
+                + "# TYPE synapse_artifact_requests_total counter\n"
+                + "synapse_artifact_requests_total{" + labels + "} 4\n"
+                + "# HELP synapse_artifact_errors_total Number of requests which failed in an artifact\n"
+                + "# TYPE synapse_artifact_errors_total counter\n"
+                + "synapse_artifact_errors_total{" + labels + "} 1\n"
+                + "# HELP synapse_artifact_latency_seconds"
+                + " Latency of an artifact, with quantiles over the last interval\n"
+                + "# TYPE synapse_artifact_latency_seconds summary\n"
+                + "synapse_artifact_latency_seconds{" + labels + ",quantile=\"0.5\"} 0.002047\n"
+                + "synapse_artifact_latency_seconds{" + labels + ",quantile=\"0.9\"} 0.004095\n"
+                + "synapse_artifact_latency_seconds{" + labels + ",quantile=\"0.99\"} 0.004095\n"
+                + "synapse_artifact_latency_seconds{" + labels + ",quantile=\"0.999\"} 0.004095\n"
+                + "synapse_artifact_latency_seconds_sum{" + labels + "} 0.010236\n"
+                + "synapse_artifact_latency_seconds_count{" + labels + "} 4\n";
+        Assert.assertEquals(expected, MetricsRegistry.getPrometheusText());
+    }
+
+    /**
+     * Test that the borrows and the wait times of a pool are listed apart from the artifacts, until the pool is
+     * released.
+     */
+    @Test
+    public void testPoolMetrics() {
+        ArtifactMetrics metrics = MetricsRegistry.getPoolMetrics("script:conf:/transform.js");
+        metrics.record(0, false);
+        metrics.record(TimeUnit.MILLISECONDS.toNanos(20), false);
+        Assert.assertSame(metrics, MetricsRegistry.getPoolMetrics("script:conf:/transform.js"));
+        Assert.assertNull(MetricsRegistry.getPoolMetrics(null));
+
+        String text = MetricsRegistry.getPrometheusText();
+        String labels = "pool=\"script:conf:/transform.js\"";
+        Assert.assertTrue(text, text.contains("synapse_pool_borrows_total{" + labels + "} 2\n"));
+        Assert.assertTrue(text, text.contains("# TYPE synapse_pool_wait_seconds summary\n"));
+        Assert.assertTrue(text, text.contains("synapse_pool_wait_seconds_sum{" + labels + "} 0.02\n"));
+        Assert.assertTrue(text, text.contains("synapse_pool_wait_seconds_count{" + labels + "} 2\n"));
+        Assert.assertFalse(text, text.contains("synapse_artifact_requests_total{" + labels));
+
+        // the metrics were taken twice above, and are kept until both are released
+        MetricsRegistry.releasePoolMetrics("script:conf:/transform.js");
+        Assert.assertTrue(MetricsRegistry.getPrometheusText().contains(labels));
+        MetricsRegistry.releasePoolMetrics("script:conf:/transform.js");
+        Assert.assertFalse(MetricsRegistry.getPrometheusText().contains(labels));
+    }
+
+    /**
+     * Test that the metrics are served on the local port.
+     */
+    @Test
+    public void testPrometheusServer() throws Exception {
+        MetricsRegistry.getMetrics(ComponentType.INBOUNDENDPOINT, "HttpListener").incrementRequests();
+        PrometheusMetricsServer server = new PrometheusMetricsServer("127.0.0.1", 0);
+        server.start();
+        try {
+            String response = get(server.getPort(), MetricsConstants.PROMETHEUS_PATH);
+            Assert.assertTrue(response, response.startsWith("HTTP/1.1 200 OK\r\n"));
+            Assert.assertTrue(response, response.contains(
+                    "synapse_artifact_requests_total{type=\"inbound_endpoint\",name=\"HttpListener\"} 1\n"));
+            Assert.assertTrue(get(server.getPort(), "/other").startsWith("HTTP/1.1 404 Not Found\r\n"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Test that a client which does not complete its request, or sends an overlong line, cannot hold the endpoint.
+     */
+    @Test
+    public void testPrometheusServerBoundsRequests() throws Exception {
+        PrometheusMetricsServer server = new PrometheusMetricsServer("127.0.0.1", 0, 500);
+        server.start();
+        try (Socket idle = new Socket("127.0.0.1", server.getPort())) {
+            // a request trickling in one byte at a time is dropped once the read timeout has passed in total
+            idle.setSoTimeout(5000);
+            OutputStream out = idle.getOutputStream();
+            long start = System.nanoTime();
+            try {
+                for (int i = 0; i < 8 && !isClosed(idle); i++) {
+                    out.write('G');
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (SocketException e) {
+                // closed by the server while writing
+            }
+            Assert.assertTrue("Request should be dropped", isClosed(idle));
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+            StringBuilder longPath = new StringBuilder("/");
+            for (int i = 0; i <= PrometheusMetricsServer.MAX_LINE_LENGTH; i++) {
+                longPath.append('a');
+            }
+            try {
+                Assert.assertEquals("Overlong request should not be answered", "",
+                        get(server.getPort(), longPath.toString()));
+            } catch (SocketException e) {
+                // reset by the server, which did not read the rest of the request
+            }
+
+            Assert.assertTrue(get(server.getPort(), MetricsConstants.PROMETHEUS_PATH)
+                    .startsWith("HTTP/1.1 200 OK\r\n"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static boolean isClosed(Socket socket) throws Exception {
+        try {
+            socket.setSoTimeout(1);
+            return socket.getInputStream().read() == -1;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (SocketException e) {
+            // reset by the server
+            return true;
+        }
+    }
+
+    private static String get(int port, String path) throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                response.write(buffer, 0, read);
+            }
+            return new String(response.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class NoOpFaultHandler extends FaultHandler {
+
+        public void onFault(MessageContext synCtx) {
+        }
+    }
+}
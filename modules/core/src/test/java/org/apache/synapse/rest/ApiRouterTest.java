@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.rest;
+
+import junit.framework.TestCase;
+import org.apache.synapse.api.API;
+import org.apache.synapse.api.ApiRouter;
+import org.apache.synapse.api.ApiUtils;
+import org.apache.synapse.api.version.URLBasedVersionStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ApiRouterTest extends TestCase {
+
+    private static final String[] PATHS = {
+            "/", "", "/test", "/test/", "/test?a=5", "/test/foo", "/test/foo/bar?a=5", "/testing", "/testing/x",
+            "/test1/bar", "/tes", "/foo/test", "/test/foobar", "/test/foo?x", "/other", "?a=1"
+    };
+
+    public void testMatchesLikeMatchApiPath() {
+        List<API> apis = Arrays.asList(new API("Root", "/"), new API("Test", "/test"),
+                new API("TestFoo", "/test/foo"), new API("Testing", "/testing"), new API("TestFooBar", "/test/foobar"),
+                new API("Other", "/other"));
+        ApiRouter router = new ApiRouter(apis);
+
+        for (String path : PATHS) {
+            List<API> expected = new ArrayList<API>();
+            for (API api : apis) {
+                if (ApiUtils.matchApiPath(path, api.getContext())) {
+                    expected.add(api);
+                }
+            }
+            assertEquals("Candidates of " + path, expected, router.select(path).getDeferredApis());
+            assertTrue(router.select(path).getVersionedApis().isEmpty());
+        }
+    }
+
+    public void testCandidatesKeepOrderAndSplitVersionedApis() {
+        API deep = new API("Deep", "/a/b/c");
+        API versioned = new API("Versioned", "/a");
+        versioned.setVersionStrategy(new URLBasedVersionStrategy(versioned, "1.0.0", null));
+        API shallow = new API("Shallow", "/a");
+        API middle = new API("Middle", "/a/b");
+        ApiRouter router = new ApiRouter(Arrays.asList(deep, versioned, shallow, middle));
+
+        ApiRouter.Candidates candidates = router.select("/a/b/c/d");
+        assertEquals(Arrays.asList(versioned), candidates.getVersionedApis());
+        assertEquals(Arrays.asList(deep, shallow, middle), candidates.getDeferredApis());
+
+        candidates = router.select("/a/bc");
+        assertEquals(Arrays.asList(versioned), candidates.getVersionedApis());
+        assertEquals(Arrays.asList(shallow), candidates.getDeferredApis());
+
+        candidates = router.select("/b");
+        assertTrue(candidates.getVersionedApis().isEmpty());
+        assertTrue(candidates.getDeferredApis().isEmpty());
+
+        assertEquals(Arrays.asList(versioned), router.getAll().getVersionedApis());
+        assertEquals(Arrays.asList(deep, shallow, middle), router.getAll().getDeferredApis());
+    }
+
+    public void testEmptyRouter() {
+        assertTrue(ApiRouter.EMPTY.isEmpty());
+        assertTrue(ApiRouter.EMPTY.select("/test").getDeferredApis().isEmpty());
+        assertFalse(new ApiRouter(Arrays.asList(new API("Test", "/test"))).isEmpty());
+    }
+}
@@ -24,12 +24,18 @@ import org.apache.axiom.om.OMAbstractFactory;
 import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.OMFactory;
 import org.apache.axiom.om.OMNamespace;
+import org.apache.axiom.om.util.AXIOMUtil;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.axiom.soap.SOAPFactory;
 import org.apache.axiom.soap.SOAPHeaderBlock;
 import org.apache.axiom.soap.impl.llom.soap11.SOAP11HeaderBlockImpl;
 import org.apache.axiom.soap.impl.llom.soap12.SOAP12HeaderBlockImpl;
+import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.synapse.config.SynapseConfiguration;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.core.axis2.Axis2SynapseEnvironment;
 
 import javax.activation.DataHandler;
 
@@ -87,4 +93,34 @@ public class MessageHelperTest extends TestCase {
         SOAPEnvelope clonedEnvelope= MessageHelper.cloneSOAPEnvelope(tempEnvelope);
         assertEquals(tempEnvelope.toString(),clonedEnvelope.toString());
     }
+
+    public void testCloneWithSharedEnvelope() throws Exception {
+        SynapseConfiguration synCfg = new SynapseConfiguration();
+        ConfigurationContext cfgCtx = new ConfigurationContext(new AxisConfiguration());
+        org.apache.synapse.MessageContext synCtx = new Axis2MessageContext(new MessageContext(), synCfg,
+                new Axis2SynapseEnvironment(cfgCtx, synCfg));
+        ((Axis2MessageContext) synCtx).getAxis2MessageContext().setConfigurationContext(cfgCtx);
+        SOAPEnvelope envelope = OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope();
+        envelope.getBody().addChild(AXIOMUtil.stringToOM("<original>value</original>"));
+        synCtx.setEnvelope(envelope);
+
+        SharedEnvelope sharedEnvelope = MessageHelper.shareEnvelope(synCtx, 3);
+        org.apache.synapse.MessageContext first = MessageHelper.cloneMessageContext(synCtx, sharedEnvelope);
+        org.apache.synapse.MessageContext second = MessageHelper.cloneMessageContext(synCtx, sharedEnvelope);
+        org.apache.synapse.MessageContext third = MessageHelper.cloneMessageContext(synCtx, sharedEnvelope);
+        // the original message may change once it is cloned
+        envelope.getBody().getFirstElement().setText("changed");
+
+        CopyOnAccessMessageContext firstMc =
+                (CopyOnAccessMessageContext) ((Axis2MessageContext) first).getAxis2MessageContext();
+        assertTrue("Envelope should not be copied before it is accessed", firstMc.isEnvelopeShared());
+        assertTrue(firstMc.isSOAP11());
+        first.getEnvelope().getBody().getFirstElement().setText("first");
+        assertFalse(firstMc.isEnvelopeShared());
+
+        second.setEnvelope(OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope());
+        assertEquals("value", third.getEnvelope().getBody().getFirstElement().getText());
+        assertEquals("first", first.getEnvelope().getBody().getFirstElement().getText());
+        assertEquals("changed", synCtx.getEnvelope().getBody().getFirstElement().getText());
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.util.xpath;
+
+import junit.framework.TestCase;
+import org.jaxen.JaxenException;
+
+/**
+ * Tests the bounded cache of compiled expressions.
+ */
+public class CompiledExpressionCacheTest extends TestCase {
+
+    private int compilations;
+
+    private final CompiledExpressionCache.Compiler<String> compiler = new CompiledExpressionCache.Compiler<String>() {
+        public String compile(String expression) throws JaxenException {
+            if (expression.startsWith("invalid")) {
+                throw new JaxenException("Invalid expression " + expression);
+            }
+            compilations++;
+            return "compiled:" + expression;
+        }
+    };
+
+    public void testCompiledOnce() throws JaxenException {
+        CompiledExpressionCache<String> cache = new CompiledExpressionCache<String>("CacheTestCompiledOnce", 64);
+        assertEquals("compiled:$.a", cache.get("$.a", compiler));
+        assertEquals("compiled:$.a", cache.get("$.a", compiler));
+        assertEquals("Expression should be compiled once", 1, compilations);
+        assertEquals(1, cache.getView().getHitCount());
+        assertEquals(1, cache.getView().getMissCount());
+    }
+
+    public void testLeastRecentlyUsedEvicted() throws JaxenException {
+        // 16 segments of one entry each
+        CompiledExpressionCache<String> cache = new CompiledExpressionCache<String>("CacheTestEvicted", 16);
+        for (int i = 0; i < 200; i++) {
+            cache.get("$.a" + i, compiler);
+        }
+        assertTrue("Cache should be bounded", cache.size() <= 16);
+        assertTrue("Entries should be evicted", cache.getView().getEvictionCount() >= 200 - 16);
+    }
+
+    public void testFailedCompilationNotCached() {
+        CompiledExpressionCache<String> cache = new CompiledExpressionCache<String>("CacheTestFailed", 64);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.get("invalid(", compiler);
+                fail("Compilation error expected");
+            } catch (JaxenException expected) {
+            }
+        }
+        assertEquals(0, cache.size());
+    }
+
+    public void testDisabled() throws JaxenException {
+        CompiledExpressionCache<String> cache = new CompiledExpressionCache<String>("CacheTestDisabled", 0);
+        cache.get("$.a", compiler);
+        cache.get("$.a", compiler);
+        assertEquals("Expression should be compiled on every lookup", 2, compilations);
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.mediators.bsf;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.metrics.ArtifactMetrics;
+import org.apache.synapse.metrics.MetricsRegistry;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of script engines, or of contexts on a shared script engine, each of which is used by a single
+ * thread at a time.
+ * <p>
+ * Engines are created on demand when every engine in the pool is in use, so the pool grows to the number of worker
+ * threads which run the script at the same time, up to its size. Once all the engines are in use a borrower waits
+ * for one to be released. The time each borrow takes, including the creation of an engine or the wait for one, is
+ * recorded in microseconds in the pool metrics of the {@link MetricsRegistry}, until the pool is destroyed. If
+ * no engine is released within the wait timeout an extra engine is created, so that a script which is mediated
+ * again from within itself can not dead lock, and the extra engine is dropped when it is released to a full pool.
+ */
+class ScriptEnginePool {
+
+    private static final Log log = LogFactory.getLog(ScriptEnginePool.class);
+
+    private final String name;
+
+    private final BlockingQueue<ScriptEngineWrapper> idle;
+
+    private final Supplier<ScriptEngineWrapper> factory;
+
+    private final int size;
+
+    private final long waitTimeout;
+
+    /** Number of engines created within the size of the pool */
+    private final AtomicInteger created = new AtomicInteger();
+
+    private final LongAdder waits = new LongAdder();
+
+    private final LongAdder waitTime = new LongAdder();
+
+    private final AtomicBoolean overflowLogged = new AtomicBoolean();
+
+    private final AtomicBoolean destroyed = new AtomicBoolean();
+
+    private final ArtifactMetrics metrics;
+
+    /**
+     * @param name        name of the pool in the metrics
+     * @param size        maximum number of idle engines, and of the engines created without waiting
+     * @param initialSize number of engines to create up front
+     * @param waitTimeout time in milliseconds to wait for a free engine before creating an extra one
+     * @param factory     creates the engines of the pool
+     */
+    ScriptEnginePool(String name, int size, int initialSize, long waitTimeout,
+                     Supplier<ScriptEngineWrapper> factory) {
+        this.name = name;
+        this.size = Math.max(1, size);
+        this.waitTimeout = waitTimeout;
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<ScriptEngineWrapper>(this.size);
+        this.metrics = MetricsRegistry.getPoolMetrics(name);
+        for (int i = 0; i < Math.min(initialSize, this.size); i++) {
+            idle.add(factory.get());
+            created.incrementAndGet();
+        }
+    }
+
+    /**
+     * Borrow an engine, which must be given back through {@link #release(ScriptEngineWrapper)} once the script has
+     * been executed.
+     *
+     * @return an engine which is not used by any other thread
+     */
+    ScriptEngineWrapper borrow() {
+        long borrowStart = System.nanoTime();
+        ScriptEngineWrapper sew = idle.poll();
+        if (sew == null) {
+            sew = create();
+        }
+        if (sew == null) {
+            long start = System.nanoTime();
+            try {
+                sew = idle.poll(waitTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long waited = System.nanoTime() - start;
+            waits.increment();
+            waitTime.add(waited);
+            if (sew == null) {
+                if (overflowLogged.compareAndSet(false, true)) {
+                    log.warn("All " + size + " script engines of " + name + " are in use, creating engines beyond "
+                            + "the pool size. Consider increasing " + ScriptMediatorConstants.POOL_SIZE_PROPERTY);
+                }
+                sew = factory.get();
+            }
+        }
+        if (metrics != null) {
+            metrics.record(System.nanoTime() - borrowStart, false);
+        }
+        return sew;
+    }
+
+    /**
+     * Give back a borrowed engine. The engine is dropped if the pool is already full.
+     *
+     * @param sew the borrowed engine
+     */
+    void release(ScriptEngineWrapper sew) {
+        if (!destroyed.get()) {
+            idle.offer(sew);
+        }
+    }
+
+    /**
+     * Drop the idle engines and the metrics of the pool. Engines borrowed at this point are dropped when released.
+     */
+    void destroy() {
+        if (destroyed.compareAndSet(false, true)) {
+            idle.clear();
+            if (metrics != null) {
+                MetricsRegistry.releasePoolMetrics(name);
+            }
+        }
+    }
+
+    private ScriptEngineWrapper create() {
+        while (true) {
+            int count = created.get();
+            if (count >= size) {
+                return null;
+            }
+            if (created.compareAndSet(count, count + 1)) {
+                try {
+                    return factory.get();
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of engines created within the size of the pool
+     */
+    int getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * @return number of borrows which had to wait for an engine to be released
+     */
+    long getWaitCount() {
+        return waits.sum();
+    }
+
+    /**
+     * @return total time spent waiting for engines to be released, in nanoseconds
+     */
+    long getWaitTime() {
+        return waitTime.sum();
+    }
+}
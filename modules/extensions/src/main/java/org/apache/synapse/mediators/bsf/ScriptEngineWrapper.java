@@ -19,17 +19,27 @@
 
 package org.apache.synapse.mediators.bsf;
 
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 
 public class ScriptEngineWrapper {
 
     private boolean initialized = false;
     private ScriptEngine engine;
+    /**
+     * Context in which scripts compiled by a shared engine are evaluated, null if the engine is not shared
+     */
+    private ScriptContext context;
 
     public ScriptEngineWrapper(ScriptEngine engine) {
         this.engine = engine;
     }
 
+    public ScriptEngineWrapper(ScriptEngine engine, ScriptContext context) {
+        this.engine = engine;
+        this.context = context;
+    }
+
     public boolean isInitialized() {
         return initialized;
     }
@@ -41,4 +51,8 @@ public class ScriptEngineWrapper {
     public ScriptEngine getEngine() {
         return engine;
     }
+
+    public ScriptContext getContext() {
+        return context;
+    }
 }
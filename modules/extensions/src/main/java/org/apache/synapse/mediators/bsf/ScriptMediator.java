@@ -30,12 +30,14 @@ import org.apache.bsf.xml.XMLHelper;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.ManagedLifecycle;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseException;
 import org.apache.synapse.SynapseLog;
 import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.commons.util.MiscellaneousUtil;
 import org.apache.synapse.config.Entry;
+import org.apache.synapse.core.SynapseEnvironment;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.mediators.AbstractMediator;
 import org.apache.synapse.mediators.Value;
@@ -62,16 +64,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
+import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.ARGUMENT_VAR_PREFIX;
+import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.DEFAULT_WORKER_POOL_SIZE_CORE;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.JAVA_SCRIPT;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.MC_VAR_NAME;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.NASHORN;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.NASHORN_JAVA_SCRIPT;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.ORACLE_NASHORN_NAME;
+import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.PASS_THROUGH_PROPERTIES;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.POOL_SIZE_PROPERTY;
+import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.POOL_WAIT_TIMEOUT_PROPERTY;
 import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.RHINO_JAVA_SCRIPT;
+import static org.apache.synapse.mediators.bsf.ScriptMediatorConstants.WORKER_POOL_SIZE_CORE_PROPERTY;
 import static org.apache.synapse.mediators.bsf.access.control.AccessControlConstants.CLASS_PREFIXES;
 import static org.apache.synapse.mediators.bsf.access.control.AccessControlConstants.ENABLE;
 import static org.apache.synapse.mediators.bsf.access.control.AccessControlConstants.LIMIT_CLASS_ACCESS_PREFIX;
@@ -96,7 +104,7 @@ import static org.apache.synapse.mediators.bsf.access.control.AccessControlConst
  * parameter which is the Synapse MessageContext. The function may return a boolean, if it
  * does not then true is assumed.
  */
-public class ScriptMediator extends AbstractMediator {
+public class ScriptMediator extends AbstractMediator implements ManagedLifecycle {
 
     private static final Log logger = LogFactory.getLog(ScriptMediator.class.getName());
 
@@ -147,17 +155,33 @@ public class ScriptMediator extends AbstractMediator {
      */
     private ScriptEngineManager engineManager;
     /**
-     * Default Pool Size
+     * Default time in milliseconds to wait for a free engine of the pool
      */
-    private int DEFAULT_POOL_SIZE = 15;
+    private static final long DEFAULT_POOL_WAIT_TIMEOUT = 1000;
     /**
-     * Pool size
+     * Pool size. Unless configured, the core size of the worker pool running the mediation, so that no worker
+     * waits for an engine and then creates one that is dropped after use. The engines are created on demand, so
+     * the pool holds only as many as there are scripts running at the same time
      */
-    private int poolSize = DEFAULT_POOL_SIZE;
+    private int poolSize;
     /**
      * Pool ScriptEngine Resources
      */
-    private BlockingQueue<ScriptEngineWrapper> pool;
+    private ScriptEnginePool pool;
+    /**
+     * Whether the scripts are compiled once by the script engine, and evaluated concurrently in a scope per
+     * thread. The scopes of external scripts are pooled, instead of a whole engine for each thread
+     */
+    private boolean sharedEngine;
+    /**
+     * External and include scripts compiled by the shared engine, keyed by the registry entry key
+     */
+    private final ConcurrentMap<String, CompiledScript> compiledScripts =
+            new ConcurrentHashMap<String, CompiledScript>();
+    /**
+     * The compiled call of the function of an external script, on the shared engine
+     */
+    private volatile CompiledScript compiledFunctionCall;
     /**
      * JSON parser used to parse JSON strings
      */
@@ -217,9 +241,6 @@ public class ScriptMediator extends AbstractMediator {
             this.function = function;
         }
 
-        Properties properties = MiscellaneousUtil.loadProperties("synapse.properties");
-        poolSize = Integer.parseInt(properties.getProperty(POOL_SIZE_PROPERTY, String.valueOf(DEFAULT_POOL_SIZE)));
-
         initScriptEngine();
         if (!(scriptEngine instanceof Invocable)) {
             throw new SynapseException("Script engine is not an Invocable" +
@@ -365,7 +386,6 @@ public class ScriptMediator extends AbstractMediator {
             ScriptMessageContext scriptMC;
             scriptMC = getScriptMessageContext(synCtx, helper, context);
             processJSONPayload(synCtx, scriptMC);
-            Invocable invocableScript = (Invocable) sew.getEngine();
 
             List<Object> scriptArgs = new ArrayList<>();
             // First argument is always the ScriptMessageContext
@@ -373,11 +393,17 @@ public class ScriptMediator extends AbstractMediator {
             for (InputArgument inputArgument : inputArgumentList) {
                 scriptArgs.add(inputArgument.getResolvedArgument(synCtx));
             }
-            obj = invocableScript.invokeFunction(function, scriptArgs.toArray());
+            if (sharedEngine) {
+                obj = invokeCompiledFunction(sew.getContext(), scriptArgs);
+            } else {
+                Invocable invocableScript = (Invocable) sew.getEngine();
+                obj = invocableScript.invokeFunction(function, scriptArgs.toArray());
+            }
         } finally {
           if(sew != null){
-              // return engine to front of queue or drop if queue is full (i.e. if getNewScriptEngine() spawns a new engine)
-              pool.offer(sew);
+              // return engine to the pool or drop if the pool is full
+              // (i.e. if getNewScriptEngine() spawns a new engine)
+              releaseScriptEngine(sew);
           }
         }
 
@@ -385,6 +411,36 @@ public class ScriptMediator extends AbstractMediator {
         return obj;
     }
 
+    /**
+     * Call the function of the external script in the given context, to which the compiled scripts have been
+     * evaluated. The arguments are passed through variables of the context, since Invocable only calls the functions
+     * of the default context of the engine.
+     *
+     * @param context    context of the borrowed engine
+     * @param scriptArgs arguments of the function
+     * @return result of the function
+     * @throws ScriptException For any errors, when running the function
+     */
+    private Object invokeCompiledFunction(ScriptContext context, List<Object> scriptArgs) throws ScriptException {
+        CompiledScript functionCall = compiledFunctionCall;
+        if (functionCall == null) {
+            StringBuilder call = new StringBuilder(function).append('(');
+            for (int i = 0; i < scriptArgs.size(); i++) {
+                if (i > 0) {
+                    call.append(", ");
+                }
+                call.append(ARGUMENT_VAR_PREFIX).append(i);
+            }
+            functionCall = ((Compilable) scriptEngine).compile(call.append(')').toString());
+            compiledFunctionCall = functionCall;
+        }
+        Bindings engineBinding = context.getBindings(ScriptContext.ENGINE_SCOPE);
+        for (int i = 0; i < scriptArgs.size(); i++) {
+            engineBinding.put(ARGUMENT_VAR_PREFIX + i, scriptArgs.get(i));
+        }
+        return functionCall.eval(context);
+    }
+
     /**
      * Get script message context according to scripting language.
      *
@@ -430,6 +486,8 @@ public class ScriptMediator extends AbstractMediator {
         ScriptMessageContext scriptMC;
         scriptMC = getScriptMessageContext(synCtx, xmlHelper, context);
         processJSONPayload(synCtx, scriptMC);
+        // a fresh scope per message, since declarations of the script can not be cleared from a reused one. With a
+        // shared engine the compiled script runs in each scope concurrently
         Bindings bindings = scriptEngine.createBindings();
         bindings.put(MC_VAR_NAME, scriptMC);
 
@@ -523,52 +581,48 @@ public class ScriptMediator extends AbstractMediator {
 
         // Derive actual key from xpath expression or get static key
         String generatedScriptKey = key.evaluateValue(synCtx);
+
+        ScriptEngineWrapper sew = getNewScriptEngine();
+        boolean prepared = false;
+        try {
+            if (sharedEngine) {
+                evaluateCompiledScripts(synCtx, generatedScriptKey, sew.getContext());
+            } else {
+                evaluateScripts(synCtx, generatedScriptKey, sew);
+            }
+            prepared = true;
+        } finally {
+            if (!prepared) {
+                releaseScriptEngine(sew);
+            }
+        }
+        return sew;
+    }
+
+    /**
+     * Evaluates the external script and the include scripts on a pooled engine of its own
+     *
+     * @param synCtx             MessageContext script
+     * @param generatedScriptKey registry entry key of the script
+     * @param sew                the borrowed engine
+     * @throws ScriptException For any errors , when compile the script
+     */
+    private void evaluateScripts(MessageContext synCtx, String generatedScriptKey, ScriptEngineWrapper sew)
+            throws ScriptException {
+
         Entry entry = synCtx.getConfiguration().getEntryDefinition(generatedScriptKey);
         boolean needsReload = (entry != null) && entry.isDynamic() &&
                 (!entry.isCached() || entry.isExpired());
 
-        ScriptEngineWrapper sew = getNewScriptEngine();
         Bindings engineBinding = sew.getEngine().getBindings(ScriptContext.ENGINE_SCOPE);
         engineBinding.clear(); // if we don't do this, previous state can affect successive executions! ESBJAVA-4583
 
         if (scriptSourceCode == null || needsReload || !sew.isInitialized()) {
-            Object o = synCtx.getEntry(generatedScriptKey);
-            if (o instanceof OMElement) {
-                scriptSourceCode = ((OMElement) (o)).getText();
-                sew.getEngine().eval(scriptSourceCode, engineBinding);
-            } else if (o instanceof String) {
-                scriptSourceCode = (String) o;
+            String source = readScriptSource(synCtx, synCtx.getEntry(generatedScriptKey));
+            if (source != null) {
+                scriptSourceCode = source;
                 sew.getEngine().eval(scriptSourceCode, engineBinding);
-            } else if (o instanceof OMText) {
-                DataHandler dataHandler = (DataHandler) ((OMText) o).getDataHandler();
-                if (dataHandler != null) {
-                    BufferedReader reader = null;
-                    try {
-                        reader = new BufferedReader(
-                                new InputStreamReader(dataHandler.getInputStream()));
-                        StringBuilder scriptSB = new StringBuilder();
-                        String currentLine;
-                        while ((currentLine = reader.readLine()) != null) {
-                            scriptSB.append(currentLine).append('\n');
-                        }
-                        scriptSourceCode = scriptSB.toString();
-                        sew.getEngine().eval(scriptSourceCode, engineBinding);
-                    } catch (IOException e) {
-                        handleException("Error in reading script as a stream ", e, synCtx);
-                    } finally {
-
-                        if (reader != null) {
-                            try {
-                                reader.close();
-                            } catch (IOException e) {
-                                handleException("Error in closing input stream ", e, synCtx);
-                            }
-                        }
-
-                    }
-                }
             }
-
         } else {
             sew.getEngine().eval(scriptSourceCode, engineBinding); // Will drop TPS, but is required for ESBJAVA-4583
         }
@@ -585,41 +639,10 @@ public class ScriptMediator extends AbstractMediator {
                     && (!includeEntry.isCached() || includeEntry.isExpired());
             if (includeSourceCode == null || includeEntryNeedsReload || !sew.isInitialized()) {
                 log.debug("Re-/Loading the include script with key " + includeKey);
-                Object o = synCtx.getEntry(generatedKey);
-                if (o instanceof OMElement) {
-                    includeSourceCode = ((OMElement) (o)).getText();
-                    sew.getEngine().eval(includeSourceCode, engineBinding);
-                } else if (o instanceof String) {
-                    includeSourceCode = (String) o;
+                String source = readScriptSource(synCtx, synCtx.getEntry(generatedKey));
+                if (source != null) {
+                    includeSourceCode = source;
                     sew.getEngine().eval(includeSourceCode, engineBinding);
-                } else if (o instanceof OMText) {
-                    DataHandler dataHandler = (DataHandler) ((OMText) o).getDataHandler();
-                    if (dataHandler != null) {
-                        BufferedReader reader = null;
-                        try {
-                            reader = new BufferedReader(
-                                    new InputStreamReader(dataHandler.getInputStream()));
-                            StringBuilder scriptSB = new StringBuilder();
-                            String currentLine;
-                            while ((currentLine = reader.readLine()) != null) {
-                                scriptSB.append(currentLine).append('\n');
-                            }
-                            includeSourceCode = scriptSB.toString();
-                            sew.getEngine().eval(includeSourceCode, engineBinding);
-                        } catch (IOException e) {
-                            handleException("Error in reading script as a stream ", e, synCtx);
-                        } finally {
-
-                            if (reader != null) {
-                                try {
-                                    reader.close();
-                                } catch (IOException e) {
-                                    handleException("Error in closing input" +
-                                            " stream ", e, synCtx);
-                                }
-                            }
-                        }
-                    }
                 }
                 includes.put(includeKey, includeSourceCode);
             } else {
@@ -628,8 +651,106 @@ public class ScriptMediator extends AbstractMediator {
         }
 
         sew.setInitialized(true);
+    }
 
-        return sew;
+    /**
+     * Evaluates the compiled external script and include scripts in the context of a borrowed engine. The context is
+     * cleared when the engine is released, so that the state of a previous execution can not affect this one
+     * (ESBJAVA-4583), but evaluating the compiled scripts again does not parse or compile them.
+     *
+     * @param synCtx             MessageContext script
+     * @param generatedScriptKey registry entry key of the script
+     * @param context            context of the borrowed engine
+     * @throws ScriptException For any errors , when compile the script
+     */
+    private void evaluateCompiledScripts(MessageContext synCtx, String generatedScriptKey, ScriptContext context)
+            throws ScriptException {
+
+        getCompiledScript(synCtx, generatedScriptKey, null).eval(context);
+        for (Value includeKey : includes.keySet()) {
+            getCompiledScript(synCtx, includeKey.evaluateValue(synCtx), includeKey).eval(context);
+        }
+    }
+
+    /**
+     * Get the script of a registry entry compiled by the shared engine, compiling it again if the entry has expired
+     *
+     * @param synCtx       MessageContext script
+     * @param generatedKey registry entry key of the script
+     * @param includeKey   key of the include, or null for the external script itself
+     * @return the compiled script
+     * @throws ScriptException For any errors , when compile the script
+     */
+    private CompiledScript getCompiledScript(MessageContext synCtx, String generatedKey, Value includeKey)
+            throws ScriptException {
+
+        Entry entry = synCtx.getConfiguration().getEntryDefinition(generatedKey);
+        boolean needsReload = (entry != null) && entry.isDynamic() &&
+                (!entry.isCached() || entry.isExpired());
+        CompiledScript compiled = compiledScripts.get(generatedKey);
+        if (compiled == null || needsReload) {
+            if (log.isDebugEnabled()) {
+                log.debug("Compiling the script with key " + generatedKey);
+            }
+            String source = readScriptSource(synCtx, synCtx.getEntry(generatedKey));
+            if (source == null) {
+                if (compiled != null) {
+                    return compiled;
+                }
+                throw new ScriptException("Could not load the script with key : " + generatedKey);
+            }
+            compiled = ((Compilable) scriptEngine).compile(source);
+            compiledScripts.put(generatedKey, compiled);
+            if (includeKey == null) {
+                scriptSourceCode = source;
+            } else {
+                includes.put(includeKey, source);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Read the source code of a script from the value of its registry entry
+     *
+     * @param synCtx MessageContext script
+     * @param o      value of the registry entry
+     * @return the source code, or null if the entry does not hold a script
+     */
+    private String readScriptSource(MessageContext synCtx, Object o) {
+        if (o instanceof OMElement) {
+            return ((OMElement) (o)).getText();
+        } else if (o instanceof String) {
+            return (String) o;
+        } else if (o instanceof OMText) {
+            DataHandler dataHandler = (DataHandler) ((OMText) o).getDataHandler();
+            if (dataHandler != null) {
+                BufferedReader reader = null;
+                try {
+                    reader = new BufferedReader(
+                            new InputStreamReader(dataHandler.getInputStream()));
+                    StringBuilder scriptSB = new StringBuilder();
+                    String currentLine;
+                    while ((currentLine = reader.readLine()) != null) {
+                        scriptSB.append(currentLine).append('\n');
+                    }
+                    return scriptSB.toString();
+                } catch (IOException e) {
+                    handleException("Error in reading script as a stream ", e, synCtx);
+                } finally {
+
+                    if (reader != null) {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            handleException("Error in closing input stream ", e, synCtx);
+                        }
+                    }
+
+                }
+            }
+        }
+        return null;
     }
 
     protected void initScriptEngine() {
@@ -664,19 +785,6 @@ public class ScriptMediator extends AbstractMediator {
             this.scriptEngine = engineManager.getEngineByExtension(language);
         }
 
-        pool = new LinkedBlockingQueue<ScriptEngineWrapper>(poolSize);
-
-        for (int i = 0; i< poolSize; i++) {
-            ScriptEngineWrapper sew;
-            if (language.equals(NASHORN_JAVA_SCRIPT)) {
-                sew = new ScriptEngineWrapper(engineManager.getEngineByName(NASHORN));
-            } else if (language.equals(RHINO_JAVA_SCRIPT)) {
-                sew = new ScriptEngineWrapper(engineManager.getEngineByExtension("jsEngine"));
-            } else {
-                sew = new ScriptEngineWrapper(engineManager.getEngineByExtension(language));
-            }
-            pool.add(sew);
-        }
         if (language.equals(NASHORN_JAVA_SCRIPT)) {
             this.jsEngine = engineManager.getEngineByName(NASHORN);
         } else {
@@ -695,13 +803,22 @@ public class ScriptMediator extends AbstractMediator {
         }
 
 
+        // GraalJS and Nashorn compile a script once, and run the compiled script in any number of scopes of the
+        // same engine concurrently. Each scope is used by one thread at a time, so no lock is needed
+        this.sharedEngine = (language.equals(JAVA_SCRIPT) || language.equals(NASHORN_JAVA_SCRIPT)) &&
+                scriptEngine instanceof Compilable;
         this.multiThreadedEngine = scriptEngine.getFactory().getParameter("THREADING") != null;
-        if (language.equals(JAVA_SCRIPT)) {
+        if (language.equals(JAVA_SCRIPT) || sharedEngine) {
             this.multiThreadedEngine = true;
         }
         log.debug("Script mediator for language : " + language +
                 " supports multithreading? : " + multiThreadedEngine);
 
+        // inline scripts are evaluated on the script engine and do not need a pool
+        if (key != null) {
+            initScriptEnginePool(MiscellaneousUtil.loadProperties("synapse.properties"));
+        }
+
         if (language.equals(RHINO_JAVA_SCRIPT)) {
             readAccessControlConfigurations(MiscellaneousUtil.loadProperties("synapse.properties"));
             if (nativeObjectAccessControlConfig != null && nativeObjectAccessControlConfig.isAccessControlEnabled() &&
@@ -745,19 +862,103 @@ public class ScriptMediator extends AbstractMediator {
     }
 
     public ScriptEngineWrapper getNewScriptEngine() {
+        return pool.borrow();
+    }
 
-        ScriptEngineWrapper scriptEngineWrapper = pool.poll();
-        if (scriptEngineWrapper == null) {
-            if (language.equals(NASHORN_JAVA_SCRIPT)) {
-                scriptEngineWrapper = new ScriptEngineWrapper(engineManager.getEngineByName(NASHORN));
-            } else if (language.equals(RHINO_JAVA_SCRIPT)) {
-                scriptEngineWrapper = new ScriptEngineWrapper(engineManager.getEngineByExtension("jsEngine"));
-            } else {
-                scriptEngineWrapper = new ScriptEngineWrapper(engineManager.getEngineByExtension(language));
+    /**
+     * Give back an engine borrowed through {@link #getNewScriptEngine()}. The state left in the context of a shared
+     * engine is cleared, so that it can not affect the next execution and does not hold on to the message.
+     *
+     * @param sew the borrowed engine
+     */
+    private void releaseScriptEngine(ScriptEngineWrapper sew) {
+        if (sew.getContext() != null) {
+            sew.getContext().getBindings(ScriptContext.ENGINE_SCOPE).clear();
+        }
+        pool.release(sew);
+    }
+
+    /**
+     * Create the pool of engines. Unless the size is configured, the engines are created when the worker threads
+     * running the script at the same time need them, and the engines of external scripts are no longer created up
+     * front.
+     *
+     * @param properties Synapse properties
+     */
+    private void initScriptEnginePool(Properties properties) {
+        String configuredSize = properties.getProperty(POOL_SIZE_PROPERTY);
+        poolSize = configuredSize != null ? Integer.parseInt(configuredSize.trim()) : getWorkerPoolCoreSize();
+        long waitTimeout = Long.parseLong(properties.getProperty(POOL_WAIT_TIMEOUT_PROPERTY,
+                String.valueOf(DEFAULT_POOL_WAIT_TIMEOUT)).trim());
+        String poolName = "script:" +
+                (key.getKeyValue() != null ? key.getKeyValue() : String.valueOf(key.getExpression()));
+        pool = new ScriptEnginePool(poolName, poolSize, configuredSize != null ? poolSize : 0, waitTimeout,
+                new Supplier<ScriptEngineWrapper>() {
+                    @Override
+                    public ScriptEngineWrapper get() {
+                        return createScriptEngine();
+                    }
+                });
+    }
+
+    /**
+     * @return core size of the pass-through worker pool, read as the transport reads it
+     */
+    private static int getWorkerPoolCoreSize() {
+        String size = System.getProperty(WORKER_POOL_SIZE_CORE_PROPERTY);
+        if (size == null) {
+            size = MiscellaneousUtil.loadProperties(PASS_THROUGH_PROPERTIES)
+                    .getProperty(WORKER_POOL_SIZE_CORE_PROPERTY);
+        }
+        if (size != null) {
+            try {
+                return Integer.parseInt(size.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid worker pool size : " + size + ", the script engine pool size defaults to "
+                        + DEFAULT_WORKER_POOL_SIZE_CORE);
             }
         }
-        // fall back
-        return scriptEngineWrapper;
+        return DEFAULT_WORKER_POOL_SIZE_CORE;
+    }
+
+    private ScriptEngineWrapper createScriptEngine() {
+        if (sharedEngine) {
+            ScriptContext context = new SimpleScriptContext();
+            context.setBindings(scriptEngine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            context.setBindings(scriptEngine.getBindings(ScriptContext.GLOBAL_SCOPE), ScriptContext.GLOBAL_SCOPE);
+            return new ScriptEngineWrapper(scriptEngine, context);
+        }
+        if (language.equals(NASHORN_JAVA_SCRIPT)) {
+            return new ScriptEngineWrapper(engineManager.getEngineByName(NASHORN));
+        } else if (language.equals(RHINO_JAVA_SCRIPT)) {
+            return new ScriptEngineWrapper(engineManager.getEngineByExtension("jsEngine"));
+        } else {
+            return new ScriptEngineWrapper(engineManager.getEngineByExtension(language));
+        }
+    }
+
+    /**
+     * @return the pool of engines, or null for inline scripts
+     */
+    ScriptEnginePool getScriptEnginePool() {
+        return pool;
+    }
+
+    /**
+     * Nothing to do, the script engines and their pool are created in the constructor.
+     */
+    @Override
+    public void init(SynapseEnvironment se) {
+    }
+
+    /**
+     * Drop the pool of engines, together with its metrics.
+     */
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.destroy();
+        }
     }
 
     public boolean isContentAltering() {
@@ -65,6 +65,31 @@ public class ScriptMediatorConstants {
      */
     public static String POOL_SIZE_PROPERTY = "synapse.script.mediator.pool.size";
 
+    /**
+     * Time in milliseconds to wait for a free script engine before creating one beyond the pool size
+     */
+    public static final String POOL_WAIT_TIMEOUT_PROPERTY = "synapse.script.mediator.pool.wait.timeout";
+
+    /**
+     * Property file of the pass-through transport, which configures the worker pool running the mediation
+     */
+    public static final String PASS_THROUGH_PROPERTIES = "passthru-http.properties";
+
+    /**
+     * Core size property of the pass-through worker pool
+     */
+    public static final String WORKER_POOL_SIZE_CORE_PROPERTY = "worker_pool_size_core";
+
+    /**
+     * Core size of the pass-through worker pool when it is not configured
+     */
+    public static final int DEFAULT_WORKER_POOL_SIZE_CORE = 40;
+
+    /**
+     * Prefix of the variables which pass the arguments to the function of an external script
+     */
+    public static final String ARGUMENT_VAR_PREFIX = "__synapse_script_arg";
+
     /**
      * Default Script Engine
      */
@@ -54,6 +54,7 @@ import org.apache.synapse.commons.throttle.core.ThrottleException;
 import org.apache.synapse.commons.throttle.core.ThrottleContext;
 import org.apache.synapse.commons.throttle.core.AccessInformation;
 import org.apache.synapse.commons.throttle.core.ThrottleFactory;
+import org.apache.synapse.commons.throttle.core.factory.AccessRateControllerFactory;
 
 import java.util.Map;
 
@@ -634,7 +635,7 @@ public class ThrottleMediator extends AbstractMediator implements ManagedLifecyc
             }
         }
         //access rate controller initialization
-        accessControler = new AccessRateController();
+        accessControler = AccessRateControllerFactory.createAccessRateController();
         //replicator for global concurrent state maintenance
         if (isClusteringEnable) {
             concurrentAccessReplicator = new ConcurrentAccessReplicator(configContext);
@@ -647,6 +648,12 @@ public class ThrottleMediator extends AbstractMediator implements ManagedLifecyc
         if (configContext != null) {
             dataHolder.removeConcurrentAccessController(key);
         }
+        if (throttle != null && accessControler != null) {
+            accessControler.removeThrottleContext(
+                    throttle.getThrottleContext(ThrottleConstants.DOMAIN_BASED_THROTTLE_KEY));
+            accessControler.removeThrottleContext(
+                    throttle.getThrottleContext(ThrottleConstants.IP_BASED_THROTTLE_KEY));
+        }
         if (onAcceptMediator instanceof ManagedLifecycle) {
             ((ManagedLifecycle) onAcceptMediator).destroy();
         }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.mediators.bsf;
+
+import junit.framework.TestCase;
+import org.apache.synapse.metrics.MetricsRegistry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for ScriptEnginePool class.
+ */
+public class ScriptEnginePoolTest extends TestCase {
+
+    private final AtomicInteger createdEngines = new AtomicInteger();
+
+    private final Supplier<ScriptEngineWrapper> factory = new Supplier<ScriptEngineWrapper>() {
+        public ScriptEngineWrapper get() {
+            createdEngines.incrementAndGet();
+            return new ScriptEngineWrapper(null);
+        }
+    };
+
+    /**
+     * Test that engines are only created when all the engines of the pool are in use.
+     */
+    public void testEnginesCreatedOnDemand() {
+        ScriptEnginePool pool = new ScriptEnginePool("test:demand", 4, 0, 1000, factory);
+        assertEquals(0, createdEngines.get());
+
+        ScriptEngineWrapper first = pool.borrow();
+        pool.release(first);
+        assertSame("A released engine should be reused", first, pool.borrow());
+        ScriptEngineWrapper second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(2, createdEngines.get());
+        assertEquals(0, pool.getWaitCount());
+    }
+
+    /**
+     * Test that the configured number of engines is created up front.
+     */
+    public void testInitialSize() {
+        ScriptEnginePool pool = new ScriptEnginePool("test:initial", 3, 3, 1000, factory);
+        assertEquals(3, createdEngines.get());
+        pool.borrow();
+        pool.borrow();
+        pool.borrow();
+        assertEquals("Idle engines should be borrowed before creating new ones", 3, createdEngines.get());
+    }
+
+    /**
+     * Test that a borrower waits for an engine once the pool size is reached.
+     */
+    public void testBorrowWaitsForRelease() throws Exception {
+        final ScriptEnginePool pool = new ScriptEnginePool("test:wait", 1, 0, 10000, factory);
+        final ScriptEngineWrapper engine = pool.borrow();
+        final AtomicReference<ScriptEngineWrapper> borrowed = new AtomicReference<ScriptEngineWrapper>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread borrower = new Thread(new Runnable() {
+            public void run() {
+                borrowed.set(pool.borrow());
+                done.countDown();
+            }
+        });
+        borrower.start();
+        assertFalse("The borrower should wait while the pool is in use", done.await(100, TimeUnit.MILLISECONDS));
+
+        pool.release(engine);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertSame(engine, borrowed.get());
+        assertEquals(1, createdEngines.get());
+        assertEquals(1, pool.getWaitCount());
+        assertTrue(pool.getWaitTime() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    /**
+     * Test that an extra engine is created if none is released within the wait timeout, and dropped on release.
+     */
+    public void testEngineCreatedAfterWaitTimeout() {
+        ScriptEnginePool pool = new ScriptEnginePool("test:timeout", 1, 0, 10, factory);
+        ScriptEngineWrapper engine = pool.borrow();
+        ScriptEngineWrapper extra = pool.borrow();
+        assertNotSame(engine, extra);
+        assertEquals(2, createdEngines.get());
+        assertEquals("The extra engine should not count towards the pool size", 1, pool.getCreatedCount());
+
+        pool.release(engine);
+        pool.release(extra);
+        assertSame(engine, pool.borrow());
+        assertNotSame("The extra engine should be dropped from a full pool", extra, pool.borrow());
+    }
+
+    /**
+     * Test that the time taken to borrow is recorded, and that the metrics are removed with the last pool of the name.
+     */
+    public void testPoolMetrics() {
+        ScriptEnginePool pool = new ScriptEnginePool("test:metrics", 1, 0, 20, factory);
+        ScriptEnginePool redeployed = new ScriptEnginePool("test:metrics", 1, 0, 20, factory);
+        pool.borrow();
+        // waits for the engine in use before creating an extra one
+        pool.borrow();
+        MetricsRegistry.rollInterval();
+
+        String labels = "{pool=\"test:metrics\"";
+        String text = MetricsRegistry.getPrometheusText();
+        assertTrue(text, text.contains("synapse_pool_borrows_total" + labels + "} 2\n"));
+        String quantile = "synapse_pool_wait_seconds" + labels + ",quantile=\"0.99\"} ";
+        int start = text.indexOf(quantile) + quantile.length();
+        double waited = Double.parseDouble(text.substring(start, text.indexOf('\n', start)));
+        assertTrue("The wait should be recorded, was " + waited + "s", waited >= 0.02);
+
+        pool.destroy();
+        assertTrue("The metrics should be kept while the redeployed pool uses them",
+                MetricsRegistry.getPrometheusText().contains(labels));
+        redeployed.destroy();
+        assertFalse(MetricsRegistry.getPrometheusText().contains(labels));
+    }
+
+    /**
+     * Test that an engine released after the pool is destroyed is dropped.
+     */
+    public void testDestroy() {
+        ScriptEnginePool pool = new ScriptEnginePool("test:destroy", 2, 2, 10, factory);
+        ScriptEngineWrapper engine = pool.borrow();
+        pool.destroy();
+        pool.release(engine);
+        assertNotSame(engine, pool.borrow());
+    }
+}
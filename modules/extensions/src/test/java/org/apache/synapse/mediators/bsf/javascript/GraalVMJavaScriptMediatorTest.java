@@ -29,10 +29,17 @@ import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.mediators.TestUtils;
 import org.apache.synapse.mediators.Value;
 import org.apache.synapse.mediators.bsf.ScriptMediator;
+import org.apache.synapse.metrics.MetricsRegistry;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Test functions of GraalVM Java Script Mediator
@@ -156,4 +163,48 @@ public class GraalVMJavaScriptMediatorTest extends TestCase {
         boolean responese = mediator.mediate(mc);
         assertTrue(responese);
     }
+
+    /**
+     * Test that an external script compiled once runs concurrently, and that the state of an execution does not
+     * affect the next one on the same pooled context.
+     *
+     * @throws Exception
+     */
+    public void testConcurrentExternalScriptOnGraalVMEngine() throws Exception {
+        final String scriptSrcKey = "conf:/repository/esb/counter.js";
+        final String scriptSrc = "var count = 0;\n"
+                + "function mediate(mc) {\n"
+                + "    count++;\n"
+                + "    var fresh = count == 1 && typeof leaked == 'undefined';\n"
+                + "    leaked = true;\n"
+                + "    return fresh;\n"
+                + "}";
+        final ScriptMediator mediator = new ScriptMediator("js", new LinkedHashMap<Value, Object>(),
+                new Value(scriptSrcKey), null, null);
+
+        int messages = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < messages; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        MessageContext mc = TestUtils.getTestContext("<foo/>", null);
+                        Entry e = new Entry();
+                        e.setKey(scriptSrcKey);
+                        e.setValue(scriptSrc);
+                        mc.getConfiguration().addEntry(scriptSrcKey, e);
+                        return mediator.mediate(mc);
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue("Each execution should start from a clean context", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("Each execution should borrow a context from the pool", messages,
+                MetricsRegistry.getPoolMetrics("script:" + scriptSrcKey).getRequestCount());
+    }
 }
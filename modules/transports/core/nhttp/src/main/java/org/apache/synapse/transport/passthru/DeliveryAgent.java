@@ -35,10 +35,10 @@ import org.apache.synapse.transport.http.conn.SynapseDebugInfoHolder;
 import org.apache.synapse.transport.passthru.config.PassThroughConfigPNames;
 import org.apache.synapse.transport.passthru.config.PassThroughConfiguration;
 import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.apache.synapse.transport.passthru.connections.AdaptiveConcurrencyLimiter;
 import org.apache.synapse.transport.passthru.connections.TargetConnections;
 import org.apache.synapse.transport.passthru.util.TargetRequestFactory;
 
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
@@ -85,6 +85,16 @@ public class DeliveryAgent {
 
     private TargetErrorHandler targetErrorHandler;
 
+    /** Adaptive in-flight request limits per route, null if adaptive concurrency limiting is disabled */
+    private Map<HttpRoute, AdaptiveConcurrencyLimiter> concurrencyLimiters;
+
+    private int concurrencyLimitInitial;
+    private int concurrencyLimitMin;
+    private int concurrencyLimitMax;
+
+    /** Time a request over the concurrency limit stays parked for a permit before it is rejected */
+    private int concurrencyLimitMaxWait;
+
     /** Lock for synchronizing access */
     private Lock lock = new ReentrantLock();
 
@@ -104,6 +114,16 @@ public class DeliveryAgent {
         PassThroughConfiguration conf = PassThroughConfiguration.getInstance();
         this.maxWaitingMessages = conf.getIntProperty(PassThroughConfigPNames.MAX_MESSAGES_PER_HOST_PORT,
                 Integer.MAX_VALUE);
+        if (conf.isAdaptiveConcurrencyLimitEnabled()) {
+            this.concurrencyLimiters = new ConcurrentHashMap<HttpRoute, AdaptiveConcurrencyLimiter>();
+            this.concurrencyLimitInitial = conf.getAdaptiveConcurrencyLimitInitial();
+            this.concurrencyLimitMin = conf.getAdaptiveConcurrencyLimitMin();
+            this.concurrencyLimitMax = conf.getAdaptiveConcurrencyLimitMax();
+            this.concurrencyLimitMaxWait = conf.getAdaptiveConcurrencyLimitMaxWait();
+            if (targetConfiguration.getMetrics() != null) {
+                targetConfiguration.getMetrics().setConcurrencyLimiters(concurrencyLimiters);
+            }
+        }
     }
 
 
@@ -151,61 +171,157 @@ public class DeliveryAgent {
                 route = new HttpRoute(target, null, secure);
             }
 
-            // first we queue the message
-            Queue<MessageContext> queue = null;
-            NHttpClientConnection conn = null;
-            lock.lock();
-            try {
-                queue = waitingMessages.get(route);
-                if (queue == null) {
-                    queue = new ConcurrentLinkedQueue<MessageContext>();
-                    waitingMessages.put(route, queue);
-                }
-                if (queue.size() >= maxWaitingMessages) {
-                    msgContext.setProperty(PassThroughConstants.INTERNAL_EXCEPTION_ORIGIN,
-                            PassThroughConstants.INTERNAL_ORIGIN_ERROR_HANDLER);
-                    log.warn("Delivery agent queue length exceeds the maximum number of waiting messages");
-                    if (msgContext != null) {
-                        targetErrorHandler.handleError(msgContext, ErrorCodes.CONNECTION_TIMEOUT,
-                                "Number of queued messages exceeds the limit",
-                                null, ProtocolState.REQUEST_READY);
-                    }
-                    return false;
-                }
+            if (concurrencyLimiters != null) {
+                return submitWithinConcurrencyLimit(msgContext, route);
+            }
+            return queueForDelivery(msgContext, route);
 
-                queue.add(msgContext);
-                conn = targetConnections.getConnection(route, msgContext, targetErrorHandler, queue);
-                if (conn == null && msgContext != null && "true".equalsIgnoreCase(
-                        (String) msgContext.getProperty(PassThroughConstants.CONNECTION_LIMIT_EXCEEDS))) {
-                    msgContext.removeProperty(PassThroughConstants.CONNECTION_LIMIT_EXCEEDS);
-                    return false;
-                }
+        } catch (MalformedURLException e) {
+            handleException("Malformed URL in the target EPR", e);
+        }
+        return true;
+    }
 
+    /**
+     * Queue the message for a connection to the route and send it if a connection is available.
+     *
+     * @param msgContext the message context to be sent
+     * @param route the route to the target
+     * @return false if the queue limit or the connection limit is exceeded
+     */
+    private boolean queueForDelivery(MessageContext msgContext, HttpRoute route) {
+        // first we queue the message
+        Queue<MessageContext> queue = null;
+        NHttpClientConnection conn = null;
+        lock.lock();
+        try {
+            queue = waitingMessages.get(route);
+            if (queue == null) {
+                queue = new ConcurrentLinkedQueue<MessageContext>();
+                waitingMessages.put(route, queue);
+            }
+            if (queue.size() >= maxWaitingMessages) {
+                msgContext.setProperty(PassThroughConstants.INTERNAL_EXCEPTION_ORIGIN,
+                        PassThroughConstants.INTERNAL_ORIGIN_ERROR_HANDLER);
+                log.warn("Delivery agent queue length exceeds the maximum number of waiting messages");
+                if (msgContext != null) {
+                    targetErrorHandler.handleError(msgContext, ErrorCodes.CONNECTION_TIMEOUT,
+                            "Number of queued messages exceeds the limit",
+                            null, ProtocolState.REQUEST_READY);
+                }
+                return false;
+            }
 
-            } finally {
-                lock.unlock();
+            queue.add(msgContext);
+            conn = targetConnections.getConnection(route, msgContext, targetErrorHandler, queue);
+            if (conn == null && msgContext != null && "true".equalsIgnoreCase(
+                    (String) msgContext.getProperty(PassThroughConstants.CONNECTION_LIMIT_EXCEEDS))) {
+                msgContext.removeProperty(PassThroughConstants.CONNECTION_LIMIT_EXCEEDS);
+                return false;
             }
 
-            if (conn != null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Connection found from pool for MessageID: " + msgContext.getMessageID() +
-                            ", conn: " + conn.toString());
-                }
-            	conn.resetInput();
-            	conn.resetOutput();
-                MessageContext messageContext = queue.poll();
 
-                if (messageContext != null) {
-                    tryNextMessage(messageContext, route, conn);
-                }
+        } finally {
+            lock.unlock();
+        }
+
+        if (conn != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Connection found from pool for MessageID: " + msgContext.getMessageID() +
+                        ", conn: " + conn.toString());
             }
+        	conn.resetInput();
+        	conn.resetOutput();
+            MessageContext messageContext = queue.poll();
 
-        } catch (MalformedURLException e) {
-            handleException("Malformed URL in the target EPR", e);
+            if (messageContext != null) {
+                tryNextMessage(messageContext, route, conn);
+            }
         }
         return true;
     }
 
+    /**
+     * Take an in-flight permit for the route and queue the message for delivery. The permit is kept in the message
+     * context until the response arrives or the request fails. If the route is at its limit the message is parked
+     * in the limiter, without blocking this thread, and queued for delivery from {@link ConcurrencyWaitListener}
+     * once a permit is returned.
+     *
+     * @param msgContext the message context to be sent
+     * @param route the route to the target
+     * @return false if the message was rejected or could not be queued
+     */
+    private boolean submitWithinConcurrencyLimit(MessageContext msgContext, HttpRoute route) {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiters.get(route);
+        if (limiter == null) {
+            limiter = new AdaptiveConcurrencyLimiter(concurrencyLimitInitial, concurrencyLimitMin,
+                    concurrencyLimitMax, new ConcurrencyWaitListener(route));
+            AdaptiveConcurrencyLimiter existing = concurrencyLimiters.putIfAbsent(route, limiter);
+            if (existing != null) {
+                limiter = existing;
+            }
+        }
+        // a message that is sent again must not keep the permit of the previous attempt
+        AdaptiveConcurrencyLimiter.release(msgContext);
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit != null) {
+            msgContext.setProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT, permit);
+            if (!queueForDelivery(msgContext, route)) {
+                AdaptiveConcurrencyLimiter.release(msgContext);
+                return false;
+            }
+            return true;
+        }
+        if (limiter.park(msgContext, concurrencyLimitMaxWait, maxWaitingMessages)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Parked MessageID: " + msgContext.getMessageID() + " until an in-flight request to "
+                        + route + " completes");
+            }
+            return true;
+        }
+        log.warn("Number of in-flight requests to " + route + " exceeds the adaptive concurrency limit of "
+                + limiter.getLimit());
+        failOverConcurrencyLimit(msgContext);
+        return false;
+    }
+
+    private void failOverConcurrencyLimit(MessageContext msgContext) {
+        msgContext.setProperty(PassThroughConstants.INTERNAL_EXCEPTION_ORIGIN,
+                PassThroughConstants.INTERNAL_ORIGIN_ERROR_HANDLER);
+        targetErrorHandler.handleError(msgContext, ErrorCodes.CONNECTION_TIMEOUT,
+                "Number of in-flight requests exceeds the adaptive concurrency limit",
+                null, ProtocolState.REQUEST_READY);
+    }
+
+    /**
+     * Sends the messages parked in the concurrency limiter of a route once they get a permit, and fails the ones
+     * that waited too long. The worker of a parked message is waiting for the connection to become ready, so it is
+     * woken up when the message fails.
+     */
+    private class ConcurrencyWaitListener implements AdaptiveConcurrencyLimiter.WaitListener {
+
+        private final HttpRoute route;
+
+        ConcurrencyWaitListener(HttpRoute route) {
+            this.route = route;
+        }
+
+        public void permitAcquired(MessageContext msgContext) {
+            if (!queueForDelivery(msgContext, route)) {
+                AdaptiveConcurrencyLimiter.release(msgContext);
+                RequestReadySignal.signal(msgContext, null);
+            }
+        }
+
+        public void waitTimedOut(MessageContext msgContext) {
+            log.warn("MessageID: " + msgContext.getMessageID() + " did not get an in-flight permit for " + route
+                    + " in " + concurrencyLimitMaxWait + "ms");
+            failOverConcurrencyLimit(msgContext);
+            RequestReadySignal.signal(msgContext, null);
+        }
+    }
+
     public void errorConnecting(HttpRoute route, int errorCode, String message, Exception exceptionToRaise) {
         Queue<MessageContext> queue = waitingMessages.get(route);
         if (queue != null) {
@@ -217,11 +333,7 @@ public class DeliveryAgent {
                 targetErrorHandler.handleError(msgCtx, errorCode,
                         "Error connecting to the back end", exceptionToRaise,
                         ProtocolState.REQUEST_READY);
-                synchronized (msgCtx) {
-                    msgCtx.setProperty(PassThroughConstants.WAIT_BUILDER_IN_STREAM_COMPLETE,
-                            Boolean.TRUE);
-                    msgCtx.notifyAll();
-                }
+                RequestReadySignal.signal(msgCtx, null);
             }
         } else {
             throw new IllegalStateException("Queue cannot be null for: " + route);
@@ -331,12 +443,7 @@ public class DeliveryAgent {
             pipe.attachConsumer(conn);
             request.connect(pipe);
             if (Boolean.TRUE.equals(msgContext.getProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED))) {
-                synchronized (msgContext) {
-                    OutputStream out = pipe.getOutputStream();
-                    msgContext.setProperty(PassThroughConstants.BUILDER_OUTPUT_STREAM, out);
-                    msgContext.setProperty(PassThroughConstants.WAIT_BUILDER_IN_STREAM_COMPLETE, Boolean.TRUE);
-                    msgContext.notifyAll();
-                }
+                RequestReadySignal.signal(msgContext, pipe.getOutputStream());
                 return;
             }
         }
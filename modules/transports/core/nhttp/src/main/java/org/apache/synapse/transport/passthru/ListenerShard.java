@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru;
+
+import org.apache.http.nio.reactor.IOReactorExceptionHandler;
+import org.apache.http.nio.reactor.ListenerEndpoint;
+import org.apache.synapse.transport.http.conn.ServerConnFactory;
+import org.apache.synapse.transport.passthru.config.SourceConfiguration;
+import org.apache.synapse.transport.passthru.core.PassThroughListeningIOReactorManager;
+import org.apache.synapse.transport.passthru.core.ReusePortListeningIOReactor;
+import org.apache.synapse.transport.passthru.jmx.BufferFactoryView;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+
+/**
+ * An additional listening shard of a {@link PassThroughHttpListener}. The shard listens on the same port as the
+ * listener through its own SO_REUSEPORT socket, and has its own IO reactor, {@code SourceConnections} and
+ * buffer factory, so that the state of a connection it accepts stays with the dispatcher threads of the shard.
+ * The worker pool, metrics and JMX views are shared with the listener, except for the view of the buffer pool of
+ * the shard.
+ */
+class ListenerShard {
+
+    private final SourceConfiguration sourceConfiguration;
+
+    private final SourceHandler handler;
+
+    private final ReusePortListeningIOReactor ioReactor;
+
+    private final ServerIODispatch serverIODispatch;
+
+    private final BufferFactoryView bufferFactoryView;
+
+    ListenerShard(SourceConfiguration sourceConfiguration, SourceHandler handler,
+                  ReusePortListeningIOReactor ioReactor, ServerConnFactory connFactory,
+                  BufferFactoryView bufferFactoryView) {
+        this.sourceConfiguration = sourceConfiguration;
+        this.handler = handler;
+        this.ioReactor = ioReactor;
+        this.serverIODispatch = new ServerIODispatch(handler, connFactory);
+        this.bufferFactoryView = bufferFactoryView;
+    }
+
+    void start(PassThroughListeningIOReactorManager manager, String prefix,
+               IOReactorExceptionHandler exceptionHandler) {
+        manager.startIOReactor(ioReactor, serverIODispatch, prefix);
+        ioReactor.setExceptionHandler(exceptionHandler);
+        if (sourceConfiguration.getHttpGetRequestProcessor() != null) {
+            sourceConfiguration.getHttpGetRequestProcessor().init(
+                    sourceConfiguration.getConfigurationContext(), handler);
+        }
+    }
+
+    void listen(PassThroughListeningIOReactorManager manager, InetSocketAddress address, String namePrefix) {
+        manager.startPTTEndpoint(address, ioReactor, namePrefix);
+    }
+
+    /**
+     * Close the listening sockets of the shard bound to one of the given addresses, or all of them.
+     *
+     * @param bindAddresses addresses to stop listening on, null to close all listening sockets
+     */
+    void closeEndpoints(Collection<InetSocketAddress> bindAddresses) {
+        for (ListenerEndpoint endpoint : ioReactor.getEndpoints()) {
+            if (bindAddresses == null) {
+                endpoint.close();
+                continue;
+            }
+            for (InetSocketAddress address : bindAddresses) {
+                if (address.getHostName().equalsIgnoreCase(
+                        ((InetSocketAddress) endpoint.getAddress()).getHostName())) {
+                    endpoint.close();
+                }
+            }
+        }
+    }
+
+    void update(ServerConnFactory connFactory) {
+        serverIODispatch.update(connFactory);
+    }
+
+    void pause() throws IOException {
+        ioReactor.pause();
+    }
+
+    void resume() throws IOException {
+        ioReactor.resume();
+    }
+
+    void shutdown(long waitMillis) throws IOException {
+        if (waitMillis > 0) {
+            ioReactor.shutdown(waitMillis);
+        } else {
+            ioReactor.shutdown();
+        }
+    }
+
+    void destroy() {
+        bufferFactoryView.destroy();
+        handler.stop();
+    }
+
+    ReusePortListeningIOReactor getIOReactor() {
+        return ioReactor;
+    }
+}
@@ -127,6 +127,11 @@ public class PassThroughConstants {
 
     public static final String CONNECTION_LIMIT_EXCEEDS = "CONNECTION_LIMIT_EXCEEDS";
 
+    /**
+     * Holds the adaptive concurrency limiter permit of a request sent to the backend
+     */
+    public static final String CONCURRENCY_LIMIT_PERMIT = "PASS_THROUGH_CONCURRENCY_LIMIT_PERMIT";
+
     /**
      * Name of the .mar file
      */
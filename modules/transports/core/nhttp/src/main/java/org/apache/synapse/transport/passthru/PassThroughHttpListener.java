@@ -69,7 +69,9 @@ import org.apache.synapse.transport.passthru.config.PassThroughConfiguration;
 import org.apache.synapse.transport.passthru.config.SourceConfiguration;
 import org.apache.synapse.transport.passthru.core.PassThroughSharedListenerConfiguration;
 import org.apache.synapse.transport.passthru.core.PassThroughListeningIOReactorManager;
+import org.apache.synapse.transport.passthru.core.ReusePortListeningIOReactor;
 
+import org.apache.synapse.transport.passthru.jmx.BufferFactoryView;
 import org.apache.synapse.transport.passthru.jmx.MBeanRegistrar;
 import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
 import org.apache.synapse.transport.passthru.jmx.TransportView;
@@ -117,6 +119,9 @@ public class PassThroughHttpListener implements TransportListener {
 
     private String namePrefix;
 
+    /** JMX view of the buffer pool of the listener */
+    private BufferFactoryView bufferFactoryView;
+
     /** Active Connection Monitor Scheduler **/
     private final ScheduledExecutorService activeConnectionMonitorScheduler = Executors.newSingleThreadScheduledExecutor();
 
@@ -137,6 +142,10 @@ public class PassThroughHttpListener implements TransportListener {
      * HttpListener Running port
      */
     private  int operatingPort;
+
+    /** Additional SO_REUSEPORT listening shards on the same port, empty unless sharding is enabled */
+    private List<ListenerShard> shards = new ArrayList<ListenerShard>();
+
     protected Scheme initScheme() {
         return new Scheme("http", 80, false);
     }
@@ -188,6 +197,13 @@ public class PassThroughHttpListener implements TransportListener {
         handler = new SourceHandler(sourceConfiguration , interceptors);
         passThroughListeningIOReactorManager = PassThroughListeningIOReactorManager.getInstance();
 
+        int shardCount = getReusePortShardCount();
+        if (shardCount > 1) {
+            // the IO threads of the listener are split between the shards
+            sourceConfiguration.setIOThreadCount(
+                    getShardIOThreadCount(sourceConfiguration.getIOReactorConfig().getIoThreadCount(), shardCount));
+        }
+
         // register to receive updates on services for lifetime management
         //cfgCtx.getAxisConfiguration().addObservers(axisObserver);
         String prefix = namePrefix + "-Listener I/O dispatcher";
@@ -196,7 +212,10 @@ public class PassThroughHttpListener implements TransportListener {
                     initIOReactor(operatingPort,handler,
                             new PassThroughSharedListenerConfiguration(
                                     new NativeThreadFactory(new ThreadGroup(prefix + " thread group"), prefix),
-                                    connFactory, sourceConfiguration));
+                                    connFactory, sourceConfiguration, shardCount > 1));
+            for (int i = 1; i < shardCount; i++) {
+                shards.add(createShard(i, cfgCtx, transportInDescription, metrics));
+            }
         } catch (IOReactorException e) {
             handleException("Error initiating " + namePrefix + " ListeningIOReactor", e);
         }
@@ -235,6 +254,84 @@ public class PassThroughHttpListener implements TransportListener {
         MBeanRegistrar.getInstance().registerMBean(
                 view, "Transport",
                 "passthru-" + namePrefix.toLowerCase() + "-receiver");
+        bufferFactoryView = new BufferFactoryView("passthru-" + namePrefix.toLowerCase() + "-receiver",
+                sourceConfiguration.getBufferFactory());
+    }
+
+    /**
+     * Number of SO_REUSEPORT listening shards to open on the port. Sharding needs a listening IOReactor of its
+     * own, so it is not used when the IOReactor is shared with inbound endpoints.
+     */
+    private int getReusePortShardCount() {
+        PassThroughConfiguration conf = PassThroughConfiguration.getInstance();
+        int shardCount = conf.getListenerReusePortShards();
+        if (shardCount <= 1) {
+            return 1;
+        }
+        if (conf.isListeningIOReactorShared()) {
+            log.warn("Listener sharding is not supported with a shared listening IO reactor, " + namePrefix
+                    + " Listener uses a single listening socket");
+            return 1;
+        }
+        if (!ReusePortListeningIOReactor.isSupported()) {
+            log.warn("SO_REUSEPORT is not supported on this platform, " + namePrefix
+                    + " Listener uses a single listening socket");
+            return 1;
+        }
+        log.info(namePrefix + " Listener uses " + shardCount + " SO_REUSEPORT listening shards");
+        return shardCount;
+    }
+
+    private ListenerShard createShard(int index, ConfigurationContext cfgCtx,
+                                      TransportInDescription transportInDescription,
+                                      PassThroughTransportMetricsCollector metrics)
+            throws AxisFault, IOReactorException {
+        SourceConfiguration shardConfiguration = new SourceConfiguration(cfgCtx, transportInDescription, scheme,
+                sourceConfiguration.getWorkerPool(), metrics);
+        shardConfiguration.build();
+        shardConfiguration.setIOThreadCount(sourceConfiguration.getIOReactorConfig().getIoThreadCount());
+        SourceHandler shardHandler = new SourceHandler(shardConfiguration, interceptors, handler);
+        String prefix = namePrefix + "-Listener-" + index + " I/O dispatcher";
+        ReusePortListeningIOReactor shardReactor = passThroughListeningIOReactorManager
+                .createReusePortListeningIOReactor(new PassThroughSharedListenerConfiguration(
+                        new NativeThreadFactory(new ThreadGroup(prefix + " thread group"), prefix),
+                        connFactory, shardConfiguration, true));
+        BufferFactoryView shardBufferFactoryView = new BufferFactoryView(
+                "passthru-" + namePrefix.toLowerCase() + "-receiver-shard-" + index,
+                shardConfiguration.getBufferFactory());
+        return new ListenerShard(shardConfiguration, shardHandler, shardReactor, connFactory,
+                shardBufferFactoryView);
+    }
+
+    /**
+     * Number of IO dispatcher threads of each listening shard, when the IO threads of the listener are split
+     * between its shards. Every shard keeps at least one thread.
+     *
+     * @param ioThreadCount IO threads configured for the listener
+     * @param shardCount    number of listening shards
+     * @return IO threads of each shard
+     */
+    static int getShardIOThreadCount(int ioThreadCount, int shardCount) {
+        return Math.max(ioThreadCount / shardCount, 1);
+    }
+
+    private IOReactorExceptionHandler createExceptionHandler() {
+        return new IOReactorExceptionHandler() {
+
+            public boolean handle(IOException ioException) {
+                log.warn("System may be unstable: " + namePrefix +
+                        " ListeningIOReactor encountered a checked exception : " +
+                        ioException.getMessage(), ioException);
+                return true;
+            }
+
+            public boolean handle(RuntimeException runtimeException) {
+                log.warn("System may be unstable: " + namePrefix +
+                        " ListeningIOReactor encountered a runtime exception : "
+                        + runtimeException.getMessage(), runtimeException);
+                return true;
+            }
+        };
     }
 
     public void start() throws AxisFault {
@@ -246,25 +343,14 @@ public class PassThroughHttpListener implements TransportListener {
             passThroughListeningIOReactorManager.startIOReactor(ioReactor,
                     passThroughListeningIOReactorManager.getServerIODispatch(operatingPort), prefix);
 
-            ioReactor.setExceptionHandler(new IOReactorExceptionHandler() {
-
-                public boolean handle(IOException ioException) {
-                    log.warn("System may be unstable: " + namePrefix +
-                            " ListeningIOReactor encountered a checked exception : " +
-                            ioException.getMessage(), ioException);
-                    return true;
-                }
-
-                public boolean handle(RuntimeException runtimeException) {
-                    log.warn("System may be unstable: " + namePrefix +
-                            " ListeningIOReactor encountered a runtime exception : "
-                            + runtimeException.getMessage(), runtimeException);
-                    return true;
-                }
-            });
+            ioReactor.setExceptionHandler(createExceptionHandler());
         if(sourceConfiguration.getHttpGetRequestProcessor() != null){
             sourceConfiguration.getHttpGetRequestProcessor().init(sourceConfiguration.getConfigurationContext(), handler);
         }
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).start(passThroughListeningIOReactorManager,
+                    namePrefix + "-Listener-" + (i + 1) + " I/O dispatcher", createExceptionHandler());
+        }
 
 
         startEndpoints();
@@ -313,6 +399,9 @@ public class PassThroughHttpListener implements TransportListener {
         });
         for (InetSocketAddress address: addressList) {
             passThroughListeningIOReactorManager.startPTTEndpoint(address, ioReactor, namePrefix);
+            for (ListenerShard shard : shards) {
+                shard.listen(passThroughListeningIOReactorManager, address, namePrefix);
+            }
         }
     }
 
@@ -340,6 +429,9 @@ public class PassThroughHttpListener implements TransportListener {
         });
         for (InetSocketAddress address : addressList) {
             passThroughListeningIOReactorManager.startPTTEndpoint(address, ioReactor, namePrefix);
+            for (ListenerShard shard : shards) {
+                shard.listen(passThroughListeningIOReactorManager, address, namePrefix);
+            }
         }
     }
 
@@ -356,6 +448,11 @@ public class PassThroughHttpListener implements TransportListener {
     private void addMaxActiveConnectionCountController(int maxActiveConnections) {
         ActiveConnectionMonitor activeConnectionMonitor = new ActiveConnectionMonitor(sourceConfiguration.getMetrics(), ioReactor, maxActiveConnections);
         activeConnectionMonitorScheduler.scheduleWithFixedDelay(activeConnectionMonitor, 0, ACTIVE_CONNECTION_MONITOR_DELAY, TimeUnit.MILLISECONDS);
+        for (ListenerShard shard : shards) {
+            activeConnectionMonitorScheduler.scheduleWithFixedDelay(new ActiveConnectionMonitor(
+                    sourceConfiguration.getMetrics(), shard.getIOReactor(), maxActiveConnections), 0,
+                    ACTIVE_CONNECTION_MONITOR_DELAY, TimeUnit.MILLISECONDS);
+        }
     }
 
     public EndpointReference getEPRForService(String serviceName, String ip) throws AxisFault {
@@ -428,21 +525,31 @@ public class PassThroughHttpListener implements TransportListener {
         try {
             int wait = PassThroughConfiguration.getInstance().getListenerShutdownWaitTime();
             passThroughListeningIOReactorManager.pauseIOReactor(operatingPort);
+            for (ListenerShard shard : shards) {
+                shard.pause();
+            }
             if (wait > 0) {
                 log.info("Waiting " + wait/1000 + " seconds to cleanup active connections...");
                 Thread.sleep(wait);
                 passThroughListeningIOReactorManager.shutdownIOReactor(operatingPort, wait);
+                for (ListenerShard shard : shards) {
+                    shard.shutdown(wait);
+                }
             } else {
                 boolean isGracefulShutdownEnabled = Boolean.parseBoolean(
                         System.getProperty("gracefulShutdown", "true"));
                 if (isGracefulShutdownEnabled) {
                     long so_timeout = PassThroughConfiguration.getInstance()
                             .getIntProperty(HttpConnectionParams.SO_TIMEOUT, Pipe.DEFAULT_TIME_OUT_VALUE);
+                    // the shards share the metrics of the listener, so this waits for their requests as well
                     passThroughListeningIOReactorManager.shutdownIOReactor(
                             operatingPort, sourceConfiguration, so_timeout);
                 } else {
                     passThroughListeningIOReactorManager.shutdownIOReactor(operatingPort);
                 }
+                for (ListenerShard shard : shards) {
+                    shard.shutdown(0);
+                }
             }
             serviceTracker.stop();
         } catch (IOException e) {
@@ -460,7 +567,13 @@ public class PassThroughHttpListener implements TransportListener {
                 getAxisConfiguration().getObserversList().remove(axisObserver);*/
 //        serviceTracker.stop();
         sourceConfiguration.getMetrics().destroy();
+        if (bufferFactoryView != null) {
+            bufferFactoryView.destroy();
+        }
         handler.stop();
+        for (ListenerShard shard : shards) {
+            shard.destroy();
+        }
     }
 
     /**
@@ -473,6 +586,9 @@ public class PassThroughHttpListener implements TransportListener {
         if (state != BaseConstants.STARTED) return;
         try {
            passThroughListeningIOReactorManager.pauseIOReactor(operatingPort);
+            for (ListenerShard shard : shards) {
+                shard.pause();
+            }
 
             state = BaseConstants.PAUSED;
             log.info(namePrefix + " Listener Paused");
@@ -490,6 +606,9 @@ public class PassThroughHttpListener implements TransportListener {
         if (state != BaseConstants.PAUSED) return;
         try {
             passThroughListeningIOReactorManager.resumeIOReactor(operatingPort);
+            for (ListenerShard shard : shards) {
+                shard.resume();
+            }
             state = BaseConstants.STARTED;
             log.info(namePrefix + " Listener Resumed");
         } catch (IOException e) {
@@ -502,6 +621,9 @@ public class PassThroughHttpListener implements TransportListener {
 
         // Close all listener endpoints and stop accepting new connections
        passThroughListeningIOReactorManager.closeAllPTTListenerEndpoints(operatingPort);
+        for (ListenerShard shard : shards) {
+            shard.closeEndpoints(null);
+        }
 
         // Rebuild connection factory
         HttpHost host = new HttpHost(
@@ -512,6 +634,9 @@ public class PassThroughHttpListener implements TransportListener {
                 this.configurationContext);
         connFactory = connFactoryBuilder.build(sourceConfiguration.getHttpParams());
         passThroughListeningIOReactorManager.getServerIODispatch(operatingPort).update(connFactory);
+        for (ListenerShard shard : shards) {
+            shard.update(connFactory);
+        }
 
         startEndpoints();
 
@@ -541,6 +666,10 @@ public class PassThroughHttpListener implements TransportListener {
         // Close listener endpoints and stop accepting new connections
         passThroughListeningIOReactorManager.closeSpecificPTTListenerEndpoints(operatingPort, connFactory.getBindAddresses());
         passThroughListeningIOReactorManager.getServerIODispatch(operatingPort).update(connFactory);
+        for (ListenerShard shard : shards) {
+            shard.closeEndpoints(connFactory.getBindAddresses());
+            shard.update(connFactory);
+        }
 
         //start end points from new configuration
         startSpecificEndpoints(connFactory.getBindAddresses());
@@ -560,7 +689,13 @@ public class PassThroughHttpListener implements TransportListener {
         try {
             long start = System.currentTimeMillis();
             passThroughListeningIOReactorManager.pauseIOReactor(operatingPort);
+            for (ListenerShard shard : shards) {
+                shard.pause();
+            }
             passThroughListeningIOReactorManager.shutdownIOReactor(operatingPort, milliSecs);
+            for (ListenerShard shard : shards) {
+                shard.shutdown(milliSecs);
+            }
             state = BaseConstants.STOPPED;
             serviceTracker.stop();
             log.info("Listener shutdown in : " + (System.currentTimeMillis() - start) / 1000 + "s");
@@ -60,6 +60,7 @@ import org.apache.synapse.transport.passthru.config.SourceConfiguration;
 import org.apache.synapse.transport.passthru.config.TargetConfiguration;
 import org.apache.synapse.transport.passthru.connections.TargetConnections;
 import org.apache.synapse.transport.passthru.core.PassThroughSenderManager;
+import org.apache.synapse.transport.passthru.jmx.BufferFactoryView;
 import org.apache.synapse.transport.passthru.jmx.MBeanRegistrar;
 import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
 import org.apache.synapse.transport.passthru.jmx.TransportView;
@@ -114,6 +115,9 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
 
     private String namePrefix;
 
+    /** JMX view of the buffer pool of the sender */
+    private BufferFactoryView bufferFactoryView;
+
     private DigestGenerator digestGenerator  = CachingConstants.DEFAULT_XML_IDENTIFIER;
 
     private ConfigurationContext configurationContext;
@@ -205,6 +209,8 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
         TransportView view = new TransportView(null, this, metrics, targetConfiguration.getWorkerPool());
         MBeanRegistrar.getInstance().registerMBean(view, "Transport",
                 "passthru-" + namePrefix.toLowerCase() + "-sender");
+        bufferFactoryView = new BufferFactoryView("passthru-" + namePrefix.toLowerCase() + "-sender",
+                targetConfiguration.getBufferFactory());
 
         // create the delivery agent to hand over messages
         deliveryAgent = new DeliveryAgent(targetConfiguration, targetConnections, proxyConfig);
@@ -239,11 +245,18 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
     }
 
     public void stop() {
+        if (targetConnections != null) {
+            targetConnections.shutdown();
+        }
         try {
             ioReactor.shutdown();
         } catch (IOException e) {
             log.error("Error shutting down the PassThroughHttpSender", e);
         }
+        if (bufferFactoryView != null) {
+            bufferFactoryView.destroy();
+            bufferFactoryView = null;
+        }
     }
 
 
@@ -349,22 +362,7 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
     }
 
     private boolean waitForReady(final MessageContext msgContext) {
-        synchronized (msgContext) {
-            while (!Boolean.TRUE.equals(msgContext.getProperty(PassThroughConstants.WAIT_BUILDER_IN_STREAM_COMPLETE)) &&
-                   !Boolean.TRUE.equals(msgContext.getProperty("PASSTHRU_CONNECT_ERROR"))) {
-                try {
-                    msgContext.wait();
-                } catch (InterruptedException e) {
-                    log.error("Interrupted while waiting for passthru connection..", e);
-                }
-            }
-        }
-
-        if (Boolean.TRUE.equals(msgContext.getProperty("PASSTHRU_CONNECT_ERROR"))) {
-            return false;
-        }
-
-        return true;
+        return RequestReadySignal.await(msgContext);
     }
 
     private void sendRequestContent(final MessageContext msgContext, final EndpointReference epr) throws AxisFault {
@@ -515,6 +513,13 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
         }
 
         SourceRequest sourceRequest = SourceContext.getRequest(conn);
+        if (sourceConfiguration.isPipeliningEnabled()) {
+            // pipelined requests are mediated concurrently, so the request being served may not be this one
+            ServerWorker serverWorker = (ServerWorker) msgContext.getProperty(Constants.OUT_TRANSPORT_INFO);
+            if (serverWorker != null) {
+                sourceRequest = serverWorker.getSourceRequest();
+            }
+        }
 
         if (sourceRequest == null) { // We'll get here if the connection is already closed
             //this is a special case we dropped source connection where message size exceeds the user defined threshold
@@ -531,9 +536,6 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
                 sourceRequest, sourceConfiguration);
         sourceResponse.checkResponseChunkDisable(msgContext);
 
-        conn.getContext().setAttribute(PassThroughConstants.RESPONSE_MESSAGE_CONTEXT, msgContext);
-
-        SourceContext.setResponse(conn, sourceResponse);
         Boolean noEntityBody = (Boolean) msgContext.getProperty(PassThroughConstants.NO_ENTITY_BODY);
         Pipe pipe = (Pipe) msgContext.getProperty(PassThroughConstants.PASS_THROUGH_PIPE);
         if ((noEntityBody == null || !noEntityBody) || pipe != null) {
@@ -551,11 +553,19 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
         Integer errorCode = (Integer) msgContext.getProperty(PassThroughConstants.ERROR_CODE);
         if (errorCode != null) {
             sourceResponse.setStatus(HttpStatus.SC_BAD_GATEWAY);
-            SourceContext.get(conn).setShutDown(true);
+            if (sourceRequest == SourceContext.getRequest(conn)) {
+                SourceContext.get(conn).setShutDown(true);
+            } else {
+                // a pipelined request, close the connection once the response to it is written
+                sourceResponse.setKeepAlive(false);
+            }
         }
 
+        // the response to a pipelined request is held until the responses to the earlier requests are written
+        boolean writeNow = SourceContext.offerResponse(conn, sourceRequest, sourceResponse, msgContext);
+
         ProtocolState state = SourceContext.getState(conn);
-        if (state != null && state.compareTo(ProtocolState.REQUEST_DONE) <= 0) {
+        if (!writeNow || (state != null && state.compareTo(ProtocolState.REQUEST_DONE) <= 0)) {
             // start sending the response if we
         	
 			boolean noEntityBodyResponse = false;
@@ -605,8 +615,10 @@ public class PassThroughHttpSender extends AbstractHandler implements TransportS
                 }
                 out.close();
             }
-            
-            conn.requestOutput();
+
+            if (writeNow) {
+                conn.requestOutput();
+            }
         } else {
             // nothing much to do as we have started the response already
             if (errorCode != null) {
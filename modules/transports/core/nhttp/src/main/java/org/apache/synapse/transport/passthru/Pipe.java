@@ -19,6 +19,8 @@ package org.apache.synapse.transport.passthru;
 import org.apache.http.TruncatedChunkException;
 import org.apache.http.nio.ContentDecoder;
 import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentDecoder;
+import org.apache.http.nio.FileContentEncoder;
 import org.apache.http.nio.IOControl;
 import org.apache.http.nio.NHttpClientConnection;
 import org.apache.http.nio.NHttpServerConnection;
@@ -32,6 +34,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -39,6 +48,20 @@ import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This is a buffer shared by both producers and consumers.
+ * <p>
+ * When relay spooling is enabled and a message is relayed without being built, content which does not fit in to
+ * the buffer is not left in the decoder. It is transferred from the decoder straight in to a temporary file and
+ * from there straight to the encoder, using the {@link FileContentDecoder} and {@link FileContentEncoder} transfer
+ * methods which let the operating system move the bytes without copying them through the Java heap. The producer
+ * input is suspended while the spool file holds content, and resumed once the consumer has drained it. Decoders
+ * and encoders which do not support file transfers, such as chunked codecs and the wire log decorators, and pipes
+ * used with stream interceptors, keep the in-memory behaviour.
+ * <p>
+ * When more than one ring buffer is configured, the producer does not suspend its input as soon as the buffer is
+ * full. It continues in to further buffers taken from the buffer factory, up to the configured number, and the
+ * consumer moves on to the next buffer once it has drained the current one. Input suspended because all the
+ * buffers are full is only resumed once the consumer has drained them down to the resume level, so that on a
+ * fast link the decoder and the encoder overlap rather than taking turns on a single buffer.
  */
 public class Pipe {
 
@@ -67,6 +90,12 @@ public class Pipe {
     private Condition readCondition = lock.newCondition();
     private Condition writeCondition = lock.newCondition();
 
+    /**
+     * Lock guarding the creation of the streams. A ReentrantLock rather than a monitor, so that a virtual thread
+     * holding it does not pin its carrier thread.
+     */
+    private final Lock streamLock = new ReentrantLock();
+
     /** Name to identify the buffer */
     private String name = "Buffer";
 
@@ -105,12 +134,62 @@ public class Pipe {
     private ByteBufferInputStream inputStream;
     private ByteBufferOutputStream outputStream;
 
+    private final boolean relaySpoolEnabled;
+
+    private final long relaySpoolMaxSize;
+
+    /** Temporary file holding the content which overflowed the buffer, created on demand */
+    private Path spoolFile;
+
+    private FileChannel spoolChannel;
+
+    /** Position up to which content has been written in to the spool file */
+    private long spoolWritePosition = 0;
+
+    /** Position up to which content has been read from the spool file */
+    private long spoolReadPosition = 0;
+
+    private boolean spoolReleased = false;
+
+    /** Maximum number of buffers the producer may fill, including the main buffer */
+    private final int ringSize;
+
+    /** Number of filled buffers at or below which suspended producer input is resumed */
+    private final int ringResumeSize;
+
+    /** Buffers filled by the producer after the main buffer, in the order they are consumed */
+    private final Deque<ControlledByteBuffer> ringBuffers = new ArrayDeque<ControlledByteBuffer>();
+
+    /** Drained buffers kept for the producer to fill again */
+    private final Deque<ControlledByteBuffer> freeRingBuffers = new ArrayDeque<ControlledByteBuffer>();
+
+    private boolean ringReleased = false;
+
+    /** Whether the producer input is suspended because the buffers are full */
+    private boolean inputSuspended = false;
+
+    /** Number of times the producer input was suspended because the buffers were full */
+    private int inputSuspendCount = 0;
+
     public Pipe(IOControl producerIoControl, ControlledByteBuffer buffer,
                 String name, BaseConfiguration baseConfig) {
+        this(producerIoControl, buffer, name, baseConfig, baseConfig.getPipeRingBuffers(),
+                baseConfig.getPipeRingResumeBuffers());
+    }
+
+    /**
+     * Create a pipe with the given number of ring buffers, used by the tests.
+     */
+    Pipe(IOControl producerIoControl, ControlledByteBuffer buffer, String name, BaseConfiguration baseConfig,
+         int ringSize, int ringResumeSize) {
         this.producerIoControl = producerIoControl;
         this.buffer = buffer;
         this.name += "_" + name;
         this.baseConfig = baseConfig;
+        this.ringSize = Math.max(ringSize, 1);
+        this.ringResumeSize = Math.min(Math.max(ringResumeSize, 1), this.ringSize);
+        this.relaySpoolEnabled = baseConfig.isRelaySpoolEnabled();
+        this.relaySpoolMaxSize = baseConfig.getRelaySpoolMaxSize();
     }
 
     public Pipe(ControlledByteBuffer buffer, String name, BaseConfiguration baseConfig) {
@@ -118,6 +197,10 @@ public class Pipe {
         this.name += "_" + name;
         this.baseConfig = baseConfig;
         this.hasHttpProducer = false;
+        this.ringSize = 1;
+        this.ringResumeSize = 1;
+        this.relaySpoolEnabled = false;
+        this.relaySpoolMaxSize = 0;
     }
 
     /**
@@ -160,6 +243,15 @@ public class Pipe {
             }
             setOutputMode(consumerBuffer);
             int bytesWritten = encoder.write(consumerBuffer.getByteBuffer());
+            if (consumerBuffer == buffer) {
+                while (!buffer.hasRemaining() && advanceRing()) {
+                    consumerBuffer = buffer;
+                    bytesWritten += encoder.write(buffer.getByteBuffer());
+                }
+                if (!buffer.hasRemaining() && hasSpooledData()) {
+                    bytesWritten += consumeSpool(encoder);
+                }
+            }
             consumePostActions(consumerBuffer, encoder, bytesWritten);
             return bytesWritten;
         } finally {
@@ -192,6 +284,13 @@ public class Pipe {
                 return null;
             }
             setOutputMode(consumerBuffer);
+            if (consumerBuffer == buffer && !buffer.hasRemaining() && advanceRing()) {
+                consumerBuffer = buffer;
+            }
+            if (consumerBuffer == buffer && !buffer.hasRemaining() && hasSpooledData()) {
+                // interceptors need the consumed content in a buffer, so spooled content is read back in to it
+                refillFromSpool();
+            }
             // clone original buffer
             ByteBuffer originalBuffer = consumerBuffer.getByteBuffer();
             int bytesWritten = encoder.write(originalBuffer);
@@ -213,7 +312,8 @@ public class Pipe {
             throws IOException {
 
         setInputMode(consumerBuffer);
-        if (consumerBuffer.position() == 0) {
+        // content left in the ring or the spool file is not relayed once a separate output buffer is attached
+        if (consumerBuffer.position() == 0 && (outputBuffer != null || (ringBuffers.isEmpty() && !hasSpooledData()))) {
             if (outputBuffer == null) {
                 if (producerCompleted) {
                     encoder.complete();
@@ -225,7 +325,9 @@ public class Pipe {
                 encoder.complete();
             }
         }
-        if (bytesWritten > 0 && !encoder.isCompleted() && !producerCompleted && hasHttpProducer) {
+        if (bytesWritten > 0 && !encoder.isCompleted() && !producerCompleted && hasHttpProducer && !hasSpooledData()
+                && (!inputSuspended || ringBuffers.size() + 1 <= ringResumeSize)) {
+            inputSuspended = false;
             producerIoControl.requestInput();
         }
         writeCondition.signalAll();
@@ -245,27 +347,42 @@ public class Pipe {
 
         lock.lock();
         try {
-            setInputMode(buffer);
+            ControlledByteBuffer producerBuffer = getProducerBuffer();
+            setInputMode(producerBuffer);
             int totalBytesRead = 0;
             int bytesRead;
             try {
                 // Drain the decoder until the end of the underlying stream is found or until the Pipe#buffer is full.
                 // bytesRead = -1 means reached out to the end of underlying stream.
                 // bytesRead = 0 means Pipe's input buffer is full.
-                while ((bytesRead = decoder.read(buffer.getByteBuffer())) > 0) {
-                    totalBytesRead += bytesRead;
+                if (!hasSpooledData()) {
+                    while (true) {
+                        while ((bytesRead = decoder.read(producerBuffer.getByteBuffer())) > 0) {
+                            totalBytesRead += bytesRead;
+                        }
+                        if (bytesRead < 0 || producerBuffer.hasRemaining() || !canGrowRing(decoder)) {
+                            break;
+                        }
+                        producerBuffer = growRing();
+                    }
+                }
+                // content already spooled must be consumed before the content still in the decoder,
+                // hence once spooling starts it continues until the consumer catches up
+                if (!producerBuffer.hasRemaining() && canSpool(decoder)) {
+                    totalBytesRead = (int) Math.min((long) totalBytesRead + spool((FileContentDecoder) decoder),
+                            Integer.MAX_VALUE);
                 }
             } catch (TruncatedChunkException ex) {
                 try {
                     // we should add the EoF character
-                    buffer.putInt(-1);
+                    producerBuffer.putInt(-1);
                     // now the buffer's position should give us the bytes read.
-                    totalBytesRead = buffer.position();
+                    totalBytesRead = producerBuffer.position();
                 } catch (BufferOverflowException ignore) {
                     // ignore
                 }
             }
-            producePostActions(decoder);
+            producePostActions(decoder, true);
             return totalBytesRead;
         } finally {
             lock.unlock();
@@ -316,26 +433,36 @@ public class Pipe {
                     // ignore
                 }
             }
-            producePostActions(decoder);
+            // the copy is taken from the buffer, so this path never spools
+            producePostActions(decoder, false);
             return duplicate;
         } finally {
             lock.unlock();
         }
     }
 
-    private void producePostActions(final ContentDecoder decoder) {
+    /**
+     * @param decoder   decoder the content was read from
+     * @param spoolable whether the produce call can spool the content which does not fit in to the buffer
+     */
+    private void producePostActions(final ContentDecoder decoder, boolean spoolable) {
 
         // if consumer is at error we have to let the producer complete
         if (consumerError) {
             buffer.clear();
+            recycleRing();
         }
-        if (!buffer.hasRemaining()) {
-            // Input buffer is full. Suspend client input
-            // until the origin handler frees up some space in the buffer
+        if (hasSpooledData() || (!getProducerBuffer().hasRemaining() && !(spoolable && canSpool(decoder)))) {
+            // Input buffer is full, or content is waiting in the spool file. Suspend client input
+            // until the origin handler frees up some space in the buffer and drains the spool file
             producerIoControl.suspendInput();
+            if (!inputSuspended) {
+                inputSuspended = true;
+                inputSuspendCount++;
+            }
         }
         // If there is some content in the input buffer make sure consumer output is active
-        if (buffer.position() > 0 || decoder.isCompleted()) {
+        if (buffer.position() > 0 || !ringBuffers.isEmpty() || hasSpooledData() || decoder.isCompleted()) {
             if (consumerIoControl != null) {
                 consumerIoControl.requestOutput();
             }
@@ -405,11 +532,16 @@ public class Pipe {
      *
      * @return An InputStream object
      */
-    public synchronized InputStream getInputStream() {
-        if (inputStream == null) {
-            inputStream = new ByteBufferInputStream();
+    public InputStream getInputStream() {
+        streamLock.lock();
+        try {
+            if (inputStream == null) {
+                inputStream = new ByteBufferInputStream();
+            }
+            return inputStream;
+        } finally {
+            streamLock.unlock();
         }
-        return inputStream;
     }
 
     /**
@@ -418,12 +550,17 @@ public class Pipe {
      *
      * @return An OutputStream object
      */
-    public synchronized OutputStream getOutputStream() {
-        if (outputStream == null) {
-            outputBuffer = baseConfig.getBufferFactory().getBuffer();
-            outputStream = new ByteBufferOutputStream();
+    public OutputStream getOutputStream() {
+        streamLock.lock();
+        try {
+            if (outputStream == null) {
+                outputBuffer = baseConfig.getBufferFactory().getBuffer();
+                outputStream = new ByteBufferOutputStream();
+            }
+            return outputStream;
+        } finally {
+            streamLock.unlock();
         }
-        return outputStream;
     }
 
 
@@ -433,18 +570,47 @@ public class Pipe {
      *
      * @return An OutputStream object
      */
-    public synchronized OutputStream resetOutputStream() {
-        outputBuffer = baseConfig.getBufferFactory().getBuffer();
-        outputStream = new ByteBufferOutputStream();
-        return outputStream;
+    public OutputStream resetOutputStream() {
+        streamLock.lock();
+        try {
+            outputBuffer = baseConfig.getBufferFactory().getBuffer();
+            outputStream = new ByteBufferOutputStream();
+            return outputStream;
+        } finally {
+            streamLock.unlock();
+        }
     }
 
-    public synchronized void setSerializationComplete(boolean serializationComplete) {
-        if (!this.serializationComplete) {
-            this.serializationComplete = serializationComplete;
-            if (consumerIoControl != null) {
-                consumerIoControl.requestOutput();
+    /**
+     * Discard the content produced in to the pipe, including the content in the ring buffers and the spool file,
+     * and create a separate buffer for the content which is written instead, such as a serialized fault.
+     *
+     * @return An OutputStream object on top of the separate buffer
+     */
+    public OutputStream discard() {
+        lock.lock();
+        try {
+            buffer.clear();
+            recycleRing();
+            spoolReadPosition = 0;
+            spoolWritePosition = 0;
+        } finally {
+            lock.unlock();
+        }
+        return resetOutputStream();
+    }
+
+    public void setSerializationComplete(boolean serializationComplete) {
+        streamLock.lock();
+        try {
+            if (!this.serializationComplete) {
+                this.serializationComplete = serializationComplete;
+                if (consumerIoControl != null) {
+                    consumerIoControl.requestOutput();
+                }
             }
+        } finally {
+            streamLock.unlock();
         }
     }
 
@@ -491,16 +657,217 @@ public class Pipe {
         }
     }
 
-    private boolean hasData(ControlledByteBuffer buffer) {
+    private boolean hasData(ControlledByteBuffer buffer) throws IOException {
         lock.lock();
         try {
             setOutputMode(buffer);
+            if (!buffer.hasRemaining() && buffer == this.buffer) {
+                if (advanceRing()) {
+                    buffer = this.buffer;
+                    resumeInputIfDrained();
+                } else if (hasSpooledData()) {
+                    // the message is being built after the content started to spool, serve it through the buffer
+                    refillFromSpool();
+                    resumeInputIfDrained();
+                }
+            }
             return buffer.hasRemaining();
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * @return the buffer the producer writes in to, which is the last ring buffer or else the main buffer
+     */
+    private ControlledByteBuffer getProducerBuffer() {
+        return ringBuffers.isEmpty() ? buffer : ringBuffers.peekLast();
+    }
+
+    private boolean canGrowRing(ContentDecoder decoder) {
+        return ringBuffers.size() + 1 < ringSize && !ringReleased && !consumerError && !decoder.isCompleted();
+    }
+
+    private ControlledByteBuffer growRing() {
+        ControlledByteBuffer next = freeRingBuffers.pollFirst();
+        if (next == null) {
+            next = baseConfig.getBufferFactory().getBuffer();
+        }
+        ringBuffers.addLast(next);
+        return next;
+    }
+
+    /**
+     * Move the consumer on to the next ring buffer once the main buffer has been drained. The drained buffer is
+     * kept for the producer to fill again.
+     *
+     * @return whether the consumer moved on to a buffer with content
+     */
+    private boolean advanceRing() {
+        ControlledByteBuffer next = ringBuffers.pollFirst();
+        if (next == null) {
+            return false;
+        }
+        buffer.clear();
+        buffer.forceSetInputMode();
+        freeRingBuffers.addFirst(buffer);
+        buffer = next;
+        setOutputMode(buffer);
+        return true;
+    }
+
+    private void recycleRing() {
+        ControlledByteBuffer ringBuffer;
+        while ((ringBuffer = ringBuffers.pollFirst()) != null) {
+            ringBuffer.clear();
+            ringBuffer.forceSetInputMode();
+            freeRingBuffers.addFirst(ringBuffer);
+        }
+    }
+
+    private void resumeInputIfDrained() {
+        if (inputSuspended && ringBuffers.size() + 1 <= ringResumeSize && !hasSpooledData() && hasHttpProducer
+                && !producerCompleted) {
+            inputSuspended = false;
+            producerIoControl.requestInput();
+        }
+    }
+
+    /**
+     * Return the ring buffers other than the current main buffer to the buffer factory. Called when the pipe is
+     * no longer used, along with the release of the main buffer.
+     */
+    public void releaseRingBuffers() {
+        lock.lock();
+        try {
+            ringReleased = true;
+            recycleRing();
+            ControlledByteBuffer ringBuffer;
+            while ((ringBuffer = freeRingBuffers.pollFirst()) != null) {
+                baseConfig.getBufferFactory().release(ringBuffer);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of times the input of the producer was suspended because the pipe buffers were full
+     */
+    public int getInputSuspendCount() {
+        lock.lock();
+        try {
+            return inputSuspendCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the content which does not fit in to the buffer can be spooled to the temporary file. This is only
+     * the case for a decoder which supports file transfers, while the message is not being built, and while the
+     * spool file has not reached the maximum size.
+     */
+    private boolean canSpool(ContentDecoder decoder) {
+        return relaySpoolEnabled && !spoolReleased && !consumerError && inputStream == null
+                && decoder instanceof FileContentDecoder && !decoder.isCompleted()
+                && spoolWritePosition < relaySpoolMaxSize;
+    }
+
+    private boolean hasSpooledData() {
+        return spoolWritePosition > spoolReadPosition;
+    }
+
+    private long spool(FileContentDecoder decoder) throws IOException {
+        if (spoolChannel == null) {
+            spoolFile = Files.createTempFile(Paths.get(baseConfig.getRelaySpoolDirectory()),
+                    "synapse-relay-", ".tmp");
+            spoolChannel = FileChannel.open(spoolFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        long total = 0;
+        long transferred;
+        while (spoolWritePosition < relaySpoolMaxSize && (transferred = decoder.transfer(spoolChannel,
+                spoolWritePosition, relaySpoolMaxSize - spoolWritePosition)) > 0) {
+            spoolWritePosition += transferred;
+            total += transferred;
+        }
+        return total;
+    }
+
+    /**
+     * Write the spooled content to the encoder. The buffer must be drained before calling this method.
+     */
+    private int consumeSpool(ContentEncoder encoder) throws IOException {
+        long written;
+        if (encoder instanceof FileContentEncoder) {
+            written = ((FileContentEncoder) encoder).transfer(spoolChannel, spoolReadPosition,
+                    spoolWritePosition - spoolReadPosition);
+            if (written > 0) {
+                spoolReadPosition += written;
+            }
+        } else {
+            refillFromSpool();
+            written = encoder.write(buffer.getByteBuffer());
+        }
+        resetSpoolIfDrained();
+        return written > 0 ? (int) Math.min(written, Integer.MAX_VALUE) : 0;
+    }
+
+    private void refillFromSpool() throws IOException {
+        setInputMode(buffer);
+        ByteBuffer byteBuffer = buffer.getByteBuffer();
+        int limit = byteBuffer.limit();
+        long pending = spoolWritePosition - spoolReadPosition;
+        if (pending < byteBuffer.remaining()) {
+            byteBuffer.limit(byteBuffer.position() + (int) pending);
+        }
+        int read = spoolChannel.read(byteBuffer, spoolReadPosition);
+        byteBuffer.limit(limit);
+        if (read > 0) {
+            spoolReadPosition += read;
+        }
+        setOutputMode(buffer);
+        resetSpoolIfDrained();
+    }
+
+    private void resetSpoolIfDrained() {
+        if (spoolReadPosition == spoolWritePosition) {
+            // start again from the beginning of the file so that it does not grow with the message size
+            spoolReadPosition = 0;
+            spoolWritePosition = 0;
+        }
+    }
+
+    /**
+     * Close and delete the spool file, if one was created. Called when the pipe is no longer used.
+     */
+    public void releaseSpool() {
+        lock.lock();
+        try {
+            spoolReleased = true;
+            spoolReadPosition = 0;
+            spoolWritePosition = 0;
+            if (spoolChannel != null) {
+                try {
+                    spoolChannel.close();
+                } catch (IOException ignore) {
+                    // the file is deleted below regardless
+                }
+                spoolChannel = null;
+            }
+            if (spoolFile != null) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                } catch (IOException ignore) {
+                    // nothing more can be done here, the file is in the temporary directory
+                }
+                spoolFile = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public boolean isDiscardable() {
         return discardable ;
     }
@@ -614,7 +981,7 @@ public class Pipe {
             }
         }
 
-        private boolean isEndOfStream() {
+        private boolean isEndOfStream() throws IOException {
             return !hasData(buffer) && producerCompleted;
         }
     }
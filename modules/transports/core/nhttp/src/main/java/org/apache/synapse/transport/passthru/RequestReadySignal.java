@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru;
+
+import org.apache.axis2.context.MessageContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hand-off between the worker which serializes a request and the {@link DeliveryAgent}, which tells it when a
+ * target connection is ready to take the request body.
+ * <p>
+ * The wait used to be a monitor wait on the message context, which pins the carrier thread of a virtual thread.
+ * The waits are done on a fixed set of lock stripes instead, chosen by the identity of the message context.
+ */
+final class RequestReadySignal {
+
+    private static final Log log = LogFactory.getLog(RequestReadySignal.class);
+
+    private static final String CONNECT_ERROR = "PASSTHRU_CONNECT_ERROR";
+
+    private static final int STRIPES = 64;
+
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+    private static final Condition[] CONDITIONS = new Condition[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+            CONDITIONS[i] = LOCKS[i].newCondition();
+        }
+    }
+
+    private RequestReadySignal() {
+    }
+
+    /**
+     * Mark the request as ready to be written and wake up the worker waiting on it.
+     *
+     * @param msgContext request message
+     * @param out        stream the request body should be written to, or null if there is none
+     */
+    static void signal(MessageContext msgContext, OutputStream out) {
+        int stripe = stripe(msgContext);
+        LOCKS[stripe].lock();
+        try {
+            if (out != null) {
+                msgContext.setProperty(PassThroughConstants.BUILDER_OUTPUT_STREAM, out);
+            }
+            msgContext.setProperty(PassThroughConstants.WAIT_BUILDER_IN_STREAM_COMPLETE, Boolean.TRUE);
+            CONDITIONS[stripe].signalAll();
+        } finally {
+            LOCKS[stripe].unlock();
+        }
+    }
+
+    /**
+     * Wait until the request is ready to be written or connecting to the target has failed.
+     *
+     * @param msgContext request message
+     * @return false if connecting to the target failed
+     */
+    static boolean await(MessageContext msgContext) {
+        int stripe = stripe(msgContext);
+        LOCKS[stripe].lock();
+        try {
+            while (!Boolean.TRUE.equals(msgContext.getProperty(PassThroughConstants.WAIT_BUILDER_IN_STREAM_COMPLETE))
+                    && !Boolean.TRUE.equals(msgContext.getProperty(CONNECT_ERROR))) {
+                try {
+                    CONDITIONS[stripe].await();
+                } catch (InterruptedException e) {
+                    log.error("Interrupted while waiting for passthru connection..", e);
+                }
+            }
+        } finally {
+            LOCKS[stripe].unlock();
+        }
+        return !Boolean.TRUE.equals(msgContext.getProperty(CONNECT_ERROR));
+    }
+
+    private static int stripe(MessageContext msgContext) {
+        int hash = System.identityHashCode(msgContext);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
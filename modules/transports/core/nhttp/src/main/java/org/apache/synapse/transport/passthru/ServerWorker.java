@@ -225,7 +225,8 @@ private WorkerState state;
         //if WSDL done then moved out rather than hand over to entity handle methods.
         SourceContext info = (SourceContext) request.getConnection().getContext().
                 getAttribute(SourceContext.CONNECTION_INFORMATION);
-        if (info != null && info.getState().equals(ProtocolState.WSDL_RESPONSE_DONE) ||
+        // the state of the connection is not the state of a pipelined request which is mediated ahead
+        if (info != null && !request.isDispatchedAhead() && info.getState().equals(ProtocolState.WSDL_RESPONSE_DONE) ||
             (msgContext.getProperty(PassThroughConstants.WSDL_GEN_HANDLED) != null &&
              Boolean.TRUE.equals((msgContext.getProperty(PassThroughConstants.WSDL_GEN_HANDLED))))) {
             return true;
@@ -364,7 +365,10 @@ private WorkerState state;
                         msgContext.getProperty(NhttpConstants.HTTP_SC).toString()));
             }
 
-            SourceContext.setResponse(conn, sourceResponse);
+            if (!SourceContext.offerResponse(conn, request, sourceResponse, null)) {
+                // held until the responses to the requests pipelined before this one are written
+                return;
+            }
             ProtocolState state = SourceContext.getState(conn);
             if (state != null && state.compareTo(ProtocolState.REQUEST_DONE) <= 0) {
                 conn.requestOutput();
@@ -710,7 +714,10 @@ private WorkerState state;
 
             pipe.setSerializationComplete(true);
 
-            SourceContext.setResponse(conn, sourceResponse);
+            if (!SourceContext.offerResponse(conn, request, sourceResponse, null)) {
+                // held until the responses to the requests pipelined before this one are written
+                return;
+            }
             ProtocolState state = SourceContext.getState(conn);
             if (state != null
                     && state.compareTo(ProtocolState.REQUEST_DONE) <= 0) {
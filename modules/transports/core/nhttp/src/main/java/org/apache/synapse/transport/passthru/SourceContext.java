@@ -16,15 +16,22 @@
 
 package org.apache.synapse.transport.passthru;
 
+import org.apache.axis2.context.MessageContext;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
 import org.apache.http.HttpRequest;
 import org.apache.http.nio.NHttpConnection;
+import org.apache.http.protocol.HTTP;
 import org.apache.synapse.commons.logger.ContextAwareLogger;
 import org.apache.synapse.transport.passthru.config.PassThroughCorrelationConfigDataHolder;
 import org.apache.synapse.transport.passthru.config.SourceConfiguration;
 import org.apache.synapse.transport.passthru.util.ControlledByteBuffer;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -57,9 +64,30 @@ public class SourceContext {
 
     private Lock lock = new ReentrantLock();
 
+    /**
+     * Pipelined requests received while an earlier request on the connection is being served, in arrival order.
+     * Requests are added and taken by the IO reactor thread, server workers look up whether theirs is still waiting.
+     */
+    private final Queue<SourceRequest> pipelinedRequests = new ArrayDeque<SourceRequest>();
+
+    /**
+     * Responses to pipelined requests which were mediated before the responses to the earlier requests were
+     * written, by the sequence of their request. Only the response to the request being served is written.
+     */
+    private final Map<Long, PendingResponse> pendingResponses = new HashMap<Long, PendingResponse>();
+
+    /** Sequence of the next request received on the connection */
+    private long nextSequence = 0;
+
+    /** Whether the client closed its side of the connection after pipelining requests */
+    private boolean inputEnded = false;
+
     /** Time that state got updated*/
     private long lastStateUpdatedTime;
 
+    /** Number of times the input of the connection was suspended because a request pipe was full */
+    private long inputSuspendCount = 0;
+
     public SourceContext(SourceConfiguration sourceConfiguration) {
         this.sourceConfiguration = sourceConfiguration;
     }
@@ -85,19 +113,19 @@ public class SourceContext {
         this.state = state;
     }
 
-    public SourceRequest getRequest() {
+    public synchronized SourceRequest getRequest() {
         return request;
     }
 
-    public void setRequest(SourceRequest request) {
+    public synchronized void setRequest(SourceRequest request) {
         this.request = request;
     }
 
-    public SourceResponse getResponse() {
+    public synchronized SourceResponse getResponse() {
         return response;
     }
 
-    public void setResponse(SourceResponse response) {
+    public synchronized void setResponse(SourceResponse response) {
         this.response = response;
     }
 
@@ -118,7 +146,7 @@ public class SourceContext {
      *                situations like same buffer is getting released to both source and target
      *                buffer factories
      */
-    public void reset(boolean isError) {
+    public synchronized void reset(boolean isError) {
 		this.request = null;
 		this.response = null;
 		this.state = ProtocolState.REQUEST_READY;
@@ -127,6 +155,15 @@ public class SourceContext {
 			if (!isError) {      // If there is an error we do not release the buffer to the factory
                 ControlledByteBuffer buffer = writer.getBuffer();
 				sourceConfiguration.getBufferFactory().release(buffer);
+				writer.releaseRingBuffers();
+			}
+			writer.releaseSpool();
+		}
+		if (reader != null) {
+			int suspensions = reader.getInputSuspendCount();
+			if (suspensions > 0) {
+				inputSuspendCount += suspensions;
+				sourceConfiguration.getMetrics().notifyInputSuspensions(suspensions);
 			}
 		}
 
@@ -134,6 +171,147 @@ public class SourceContext {
 		this.writer = null;
 	}
 
+    /**
+     * @return sequence of the next request received on the connection
+     */
+    public long nextSequence() {
+        return nextSequence++;
+    }
+
+    public synchronized void addPipelinedRequest(SourceRequest request) {
+        pipelinedRequests.add(request);
+    }
+
+    /**
+     * Take the next pipelined request to be served, making it the request of the connection. If its response
+     * was submitted already, it becomes the response of the connection as well.
+     *
+     * @param conn the connection
+     * @return the request, or null if no request is waiting
+     */
+    public synchronized SourceRequest pollPipelinedRequest(NHttpConnection conn) {
+        SourceRequest next = pipelinedRequests.poll();
+        if (next == null) {
+            return null;
+        }
+        this.request = next;
+        PendingResponse pending = pendingResponses.remove(next.getSequence());
+        if (pending != null) {
+            this.response = pending.response;
+            this.writer = pending.response.getPipe();
+            conn.getContext().setAttribute(PassThroughConstants.RESPONSE_MESSAGE_CONTEXT, pending.messageContext);
+        }
+        return next;
+    }
+
+    /**
+     * Submit the response to a request received on the connection. The response becomes the response of the
+     * connection if its request is the one being served. The response to a pipelined request which is still
+     * waiting is held until the responses to the earlier requests have been written, and the response to a
+     * request which will not be served any more is dropped. The pipe of the response must be connected.
+     *
+     * @param conn            the connection
+     * @param request         the request the response is for
+     * @param response        the response
+     * @param responseContext message context of the response, or null if there is none
+     * @return true if the response can be written now, false if it was held or dropped
+     */
+    public static boolean offerResponse(NHttpConnection conn, SourceRequest request, SourceResponse response,
+                                        MessageContext responseContext) {
+        SourceContext info = get(conn);
+        if (info == null) {
+            throw new IllegalStateException("Connection information should be present");
+        }
+        synchronized (info) {
+            if (info.request == request) {
+                if (responseContext != null) {
+                    conn.getContext().setAttribute(PassThroughConstants.RESPONSE_MESSAGE_CONTEXT, responseContext);
+                }
+                info.setResponse(response);
+                return true;
+            }
+            if (info.pipelinedRequests.contains(request)) {
+                info.pendingResponses.put(request.getSequence(), new PendingResponse(response, responseContext));
+            } else if (response.getPipe() != null) {
+                // nobody will consume the response, do not let its producer wait for that
+                response.getPipe().consumerError();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Set the pipe of the response to the given request as the writer of the connection, if that request is
+     * the one being served. The pipe of a held response becomes the writer when its request is taken.
+     *
+     * @param request the request the response is for
+     * @param pipe    the pipe of the response
+     */
+    public synchronized void connectWriter(SourceRequest request, Pipe pipe) {
+        if (this.request == request) {
+            this.writer = pipe;
+        }
+    }
+
+    /**
+     * Drop the pipelined requests waiting on the connection, and any responses held for them, when it is closed
+     * before they could be served.
+     */
+    public synchronized void clearPipelinedRequests() {
+        pipelinedRequests.clear();
+        for (PendingResponse pending : pendingResponses.values()) {
+            if (pending.response.getPipe() != null) {
+                pending.response.getPipe().consumerError();
+            }
+        }
+        pendingResponses.clear();
+    }
+
+    /**
+     * @return whether the client asked to close the connection after the request being served or after one of the
+     * pipelined requests, so that the requests it sends after that one will not be served
+     */
+    public synchronized boolean isCloseRequested() {
+        if (request != null && isCloseRequest(request)) {
+            return true;
+        }
+        for (SourceRequest pipelined : pipelinedRequests) {
+            if (isCloseRequest(pipelined)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCloseRequest(SourceRequest request) {
+        Header connectionHeader = request.getRequest().getFirstHeader(HTTP.CONN_DIRECTIVE);
+        return connectionHeader != null && HTTP.CONN_CLOSE.equalsIgnoreCase(connectionHeader.getValue());
+    }
+
+    public synchronized int getPipelinedRequestCount() {
+        return pipelinedRequests.size();
+    }
+
+    /**
+     * @return whether an entity enclosing request is waiting, whose body has not been read from the connection yet
+     */
+    public synchronized boolean hasPipelinedEntityEnclosingRequest() {
+        for (SourceRequest request : pipelinedRequests) {
+            if (request.isEntityEnclosing()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isInputEnded() {
+        return inputEnded;
+    }
+
+    public void setInputEnded(boolean inputEnded) {
+        this.inputEnded = inputEnded;
+    }
+
     public Lock getLock() {
         return lock;
     }
@@ -150,6 +328,14 @@ public class SourceContext {
         return reader;
     }
 
+    /**
+     * @return number of times the input of this connection was suspended because the pipe of a request was full,
+     * for the requests completed on the connection so far
+     */
+    public long getInputSuspendCount() {
+        return inputSuspendCount;
+    }
+
     public void setReader(Pipe reader) {
         this.reader = reader;
     }
@@ -283,4 +469,19 @@ public class SourceContext {
         this.lastStateUpdatedTime = System.currentTimeMillis();
         return this.lastStateUpdatedTime;
     }
+
+    /**
+     * A response held until the responses to the requests pipelined before its request have been written.
+     */
+    private static class PendingResponse {
+
+        private final SourceResponse response;
+
+        private final MessageContext messageContext;
+
+        PendingResponse(SourceResponse response, MessageContext messageContext) {
+            this.response = response;
+            this.messageContext = messageContext;
+        }
+    }
 }
@@ -93,6 +93,9 @@ public class SourceHandler implements NHttpServerEventHandler {
     private LatencyView s2sLatencyView = null;
     private  ThreadingView threadingView;
 
+    /** Whether the JMX views and the worker pool belong to the handler of another listener shard */
+    private final boolean sharedViews;
+
     private static boolean isMessageSizeValidationEnabled = false;
 
     private static int validMaxMessageSize = Integer.MAX_VALUE;
@@ -113,14 +116,32 @@ public class SourceHandler implements NHttpServerEventHandler {
     }
 
     public SourceHandler(SourceConfiguration sourceConfiguration, List<StreamInterceptor> streamInterceptors) {
+        this(sourceConfiguration, streamInterceptors, null);
+    }
+
+    /**
+     * Create a handler for an additional listener shard, which reports to the JMX views of the handler of the
+     * first shard and shares its worker pool.
+     *
+     * @param sourceConfiguration configuration of the shard
+     * @param streamInterceptors  stream interceptors
+     * @param viewOwner           handler of the first shard, or null if this handler owns its views
+     */
+    SourceHandler(SourceConfiguration sourceConfiguration, List<StreamInterceptor> streamInterceptors,
+                  SourceHandler viewOwner) {
         this.sourceConfiguration = sourceConfiguration;
         this.metrics = sourceConfiguration.getMetrics();
         this.streamInterceptors = streamInterceptors;
         this.interceptStream = !streamInterceptors.isEmpty();
         this.noOfInterceptors = streamInterceptors.size();
+        this.sharedViews = viewOwner != null;
 
         String strNamePostfix = "";
-        if (sourceConfiguration.getInDescription() != null &&
+        if (viewOwner != null) {
+            this.latencyView = viewOwner.latencyView;
+            this.s2sLatencyView = viewOwner.s2sLatencyView;
+            this.threadingView = viewOwner.threadingView;
+        } else if (sourceConfiguration.getInDescription() != null &&
             sourceConfiguration.getInDescription().getName() != null) {
             strNamePostfix = "-" + sourceConfiguration.getInDescription().getName();
             Scheme scheme = sourceConfiguration.getScheme();
@@ -158,13 +179,156 @@ public class SourceHandler implements NHttpServerEventHandler {
     }
 
     public void requestReceived(NHttpServerConnection conn) {
+        if (sourceConfiguration.isPipeliningEnabled() && queuePipelinedRequest(conn)) {
+            return;
+        }
+        processRequest(conn, createSourceRequest(conn, conn.getHttpRequest()));
+    }
+
+    /**
+     * Queue a request which was pipelined behind a request which is still being served. A request without a body
+     * is handed over to a server worker right away, so that it is mediated concurrently with the earlier requests
+     * while its response is held until the responses to those have been written. Other requests are processed
+     * once they are the first in line. Either way responses go out in the order of the requests. Reading ahead
+     * stops once the queue is full, or at an entity enclosing request since its body can only be read after it
+     * is dispatched.
+     *
+     * @param conn the connection the request was received on
+     * @return true if the request was queued, false if it should be processed now
+     */
+    private boolean queuePipelinedRequest(NHttpServerConnection conn) {
+        SourceContext sourceContext = SourceContext.get(conn);
+        if (sourceContext == null) {
+            return false;
+        }
+        ProtocolState state = sourceContext.getState();
+        boolean idle = state == ProtocolState.REQUEST_READY || state == ProtocolState.WSDL_RESPONSE_DONE;
+        if (idle && sourceContext.getPipelinedRequestCount() == 0) {
+            return false;
+        }
+        if ((!idle && (state.compareTo(ProtocolState.REQUEST_DONE) < 0 || state.compareTo(ProtocolState.CLOSING) >= 0))
+                || sourceContext.getPipelinedRequestCount() >= sourceConfiguration.getPipeliningMaxQueuedRequests()) {
+            // not a pipelining situation we can serve, let the usual state checks handle it
+            return false;
+        }
+        SourceRequest request = createSourceRequest(conn, conn.getHttpRequest());
+        // a request sent after the client asked to close the connection is not going to be answered
+        boolean dispatchAhead = canDispatchAhead(request) && !sourceContext.isCloseRequested();
+        sourceContext.addPipelinedRequest(request);
+        if (log.isDebugEnabled()) {
+            log.debug(conn + ": Queued pipelined request " + request.getRequest().getRequestLine() + ", "
+                    + sourceContext.getPipelinedRequestCount() + " request(s) waiting");
+        }
+        if (dispatchAhead) {
+            request.setDispatchedAhead(true);
+            setCorrelationId(conn, request.getRequest());
+            metrics.incrementMessagesReceived();
+            dispatch(conn, request, null);
+            metrics.requestReceived();
+            // the connection keeps reporting the request being served
+            SourceRequest current = sourceContext.getRequest();
+            if (current != null) {
+                setCorrelationId(conn, current.getRequest());
+            }
+        }
+        if (request.isEntityEnclosing()
+                || sourceContext.getPipelinedRequestCount() >= sourceConfiguration.getPipeliningMaxQueuedRequests()) {
+            conn.suspendInput();
+        }
+        return true;
+    }
+
+    /**
+     * Whether a pipelined request can be mediated ahead of the requests before it. Requests with a body, and
+     * requests the transport answers by itself such as ?wsdl requests, use the connection while they are
+     * processed, so they are processed in turn.
+     *
+     * @param request the pipelined request
+     * @return true if the request can be handed over to a server worker while it is waiting
+     */
+    private boolean canDispatchAhead(SourceRequest request) {
+        if (request.isEntityEnclosing()) {
+            return false;
+        }
+        String uri = request.getUri();
+        if ("/favicon.ico".equals(uri) || "/services".equals(uri) || "/services/".equals(uri)) {
+            return false;
+        }
+        int queryStart = uri.indexOf('?');
+        if (queryStart >= 0) {
+            for (String parameter : uri.substring(queryStart + 1).split("&")) {
+                String name = parameter.split("=")[0];
+                if ("wsdl".equals(name) || "wsdl2".equals(name) || "xsd".equals(name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serve the next pipelined request of the connection, if the response to the previous request has been
+     * written and the connection was released for a new request.
+     *
+     * @param conn the connection
+     */
+    private void processPipelinedRequest(NHttpServerConnection conn) {
+        SourceContext sourceContext = SourceContext.get(conn);
+        if (sourceContext == null || sourceContext.getState() != ProtocolState.REQUEST_READY) {
+            return;
+        }
+        SourceRequest request = sourceContext.pollPipelinedRequest(conn);
+        if (request != null) {
+            if (!sourceContext.isInputEnded() && !sourceContext.hasPipelinedEntityEnclosingRequest()) {
+                // read ahead again, or read the body of the request if it has one
+                conn.requestInput();
+            }
+            if (request.isDispatchedAhead()) {
+                // already handed over to a server worker, write the response once it has been submitted
+                sourceConfiguration.getSourceConnections().useConnection(conn);
+                setCorrelationId(conn, request.getRequest());
+                SourceContext.updateState(conn, ProtocolState.REQUEST_DONE);
+                if (sourceContext.getResponse() != null) {
+                    conn.requestOutput();
+                }
+            } else {
+                processRequest(conn, request);
+            }
+        } else if (sourceContext.isInputEnded()) {
+            // the client has closed its side of the connection and all of its requests have been served
+            try {
+                conn.close();
+            } catch (IOException e) {
+                logIOException(conn, e);
+            }
+        }
+    }
+
+    /**
+     * Create the request for a request head read from the connection, in the order of arrival.
+     *
+     * @param conn        the connection the request was received on
+     * @param httpRequest the request head
+     * @return the request
+     */
+    private SourceRequest createSourceRequest(NHttpServerConnection conn, HttpRequest httpRequest) {
+        SourceRequest request = new SourceRequest(sourceConfiguration, httpRequest, conn);
+        SourceContext sourceContext = SourceContext.get(conn);
+        if (sourceContext != null) {
+            request.setSequence(sourceContext.nextSequence());
+        }
+        return request;
+    }
+
+    private void processRequest(NHttpServerConnection conn, SourceRequest sourceRequest) {
+        HttpRequest httpRequest = sourceRequest.getRequest();
         try {
             long requestArrivalTimestamp = 0L;
             if (transportLatencyLog.isDebugEnabled()) {
                 requestArrivalTimestamp = System.currentTimeMillis();
             }
             HttpContext httpContext = conn.getContext();
-            setCorrelationId(conn);
+            setCorrelationId(conn, httpRequest);
             if (PassThroughCorrelationConfigDataHolder.isEnable()) {
                 SourceContext sourceContext = (SourceContext)
                         conn.getContext().getAttribute(TargetContext.CONNECTION_INFORMATION);
@@ -175,7 +339,7 @@ public class SourceHandler implements NHttpServerEventHandler {
             if (isMessageSizeValidationEnabled) {
                 httpContext.setAttribute(PassThroughConstants.MESSAGE_SIZE_VALIDATION_SUM, 0);
             }
-            SourceRequest request = getSourceRequest(conn);
+            SourceRequest request = getSourceRequest(conn, sourceRequest);
             if (transportLatencyLog.isDebugEnabled()) {
                 String method = request == null ? "null" : request.getMethod();
                 String uri = request == null ? "null" : request.getUri();
@@ -193,19 +357,7 @@ public class SourceHandler implements NHttpServerEventHandler {
                 conn.getContext().setAttribute(PassThroughConstants.REQ_FROM_CLIENT_READ_END_TIME, System.currentTimeMillis());
             }
             OutputStream os = getOutputStream(method, request);
-            Object correlationId = conn.getContext().getAttribute(CorrelationConstants.CORRELATION_ID);
-            if (correlationId != null) {
-                WorkerPool workerPool = sourceConfiguration.getWorkerPool();
-                ServerWorker serverWorker = new ServerWorker(request, sourceConfiguration, os,
-                        System.currentTimeMillis(), correlationId.toString());
-                conn.getContext().setAttribute(PassThroughConstants.SERVER_WORKER_REFERENCE, serverWorker);
-                workerPool.execute(serverWorker);
-            } else {
-                WorkerPool workerPool = sourceConfiguration.getWorkerPool();
-                ServerWorker serverWorker = new ServerWorker(request, sourceConfiguration, os);
-                conn.getContext().setAttribute(PassThroughConstants.SERVER_WORKER_REFERENCE, serverWorker);
-                workerPool.execute(serverWorker);
-            }
+            dispatch(conn, request, os);
             //increasing the input request metric
             metrics.requestReceived();
         } catch (HttpException e) {
@@ -234,16 +386,41 @@ public class SourceHandler implements NHttpServerEventHandler {
         }
     }
 
+    /**
+     * Hand a request over to a server worker, which mediates it and writes its response.
+     *
+     * @param conn    the connection the request was received on
+     * @param request the request
+     * @param os      stream for the response of a GET or HEAD request, null otherwise
+     */
+    void dispatch(NHttpServerConnection conn, SourceRequest request, OutputStream os) {
+        Object correlationId = conn.getContext().getAttribute(CorrelationConstants.CORRELATION_ID);
+        WorkerPool workerPool = sourceConfiguration.getWorkerPool();
+        ServerWorker serverWorker;
+        if (correlationId != null) {
+            serverWorker = new ServerWorker(request, sourceConfiguration, os,
+                    System.currentTimeMillis(), correlationId.toString());
+        } else {
+            serverWorker = new ServerWorker(request, sourceConfiguration, os);
+        }
+        conn.getContext().setAttribute(PassThroughConstants.SERVER_WORKER_REFERENCE, serverWorker);
+        workerPool.execute(serverWorker);
+    }
+
     public void setCorrelationId(NHttpServerConnection conn) {
+        setCorrelationId(conn, conn.getHttpRequest());
+    }
+
+    private void setCorrelationId(NHttpServerConnection conn, HttpRequest httpRequest) {
         HttpContext httpContext = conn.getContext();
         String correlationHeaderName = PassThroughConfiguration.getInstance().getCorrelationHeaderName();
-        Header[] correlationHeader = conn.getHttpRequest().getHeaders(correlationHeaderName);
+        Header[] correlationHeader = httpRequest.getHeaders(correlationHeaderName);
         String correlationId;
         if (correlationHeader.length != 0) {
             correlationId = correlationHeader[0].getValue();
         } else {
             correlationId = UUID.randomUUID().toString();
-            conn.getHttpRequest().setHeader(correlationHeaderName, correlationId);
+            httpRequest.setHeader(correlationHeaderName, correlationId);
             httpContext.setAttribute(CorrelationConstants.SYSTEM_GENERATED_CORRELATION_ID, true);
         }
         httpContext.setAttribute(CorrelationConstants.CORRELATION_ID, correlationId);
@@ -324,8 +501,8 @@ public class SourceHandler implements NHttpServerEventHandler {
             long chunkReadEndTime = 0L;
             if (transportLatencyLog.isTraceEnabled()) {
                 chunkReadEndTime = System.currentTimeMillis();
-                String method = conn.getHttpRequest().getRequestLine().getMethod().toUpperCase();
-                String uri = conn.getHttpRequest().getRequestLine().getUri();
+                String method = request.getMethod().toUpperCase();
+                String uri = request.getUri();
                 transportLatencyLog.trace(conn.getContext().getAttribute(CorrelationConstants.CORRELATION_ID) + "|" +
                         "Request chunk from Client with Method/URL: " + method + "/" + uri +
                         " reading completed at time stamp: " + System.currentTimeMillis() +
@@ -334,8 +511,8 @@ public class SourceHandler implements NHttpServerEventHandler {
             if (decoder.isCompleted()) {
                 if (transportLatencyLog.isDebugEnabled()) {
                     chunkReadEndTime = System.currentTimeMillis();
-                    String method = conn.getHttpRequest().getRequestLine().getMethod().toUpperCase();
-                    String uri = conn.getHttpRequest().getRequestLine().getUri();
+                    String method = request.getMethod().toUpperCase();
+                    String uri = request.getUri();
                     long requestReadTime = chunkReadEndTime - (long) conn.getContext()
                             .getAttribute(PassThroughConstants.REQ_FROM_CLIENT_BODY_READ_START_TIME);
                     transportLatencyLog.debug(conn.getContext().getAttribute(CorrelationConstants.CORRELATION_ID) + "|" +
@@ -490,6 +667,9 @@ public class SourceHandler implements NHttpServerEventHandler {
                         logCorrelationRoundTrip(context,request);
                     }
                     updateMetricsView(context);
+                    if (sourceConfiguration.isPipeliningEnabled()) {
+                        processPipelinedRequest(conn);
+                    }
                 }
             }
         } catch (IOException e) {
@@ -537,6 +717,9 @@ public class SourceHandler implements NHttpServerEventHandler {
                   conn.requestInput();
                   if(outBuf instanceof SimpleOutputBuffer && !((SimpleOutputBuffer)outBuf).hasData()){
                       sourceConfiguration.getSourceConnections().releaseConnection(conn);
+                      if (sourceConfiguration.isPipeliningEnabled()) {
+                          processPipelinedRequest(conn);
+                      }
                   }
                   endTransaction(conn);
                 return;
@@ -625,6 +808,9 @@ public class SourceHandler implements NHttpServerEventHandler {
             }
             endTransaction(conn);
             metrics.incrementBytesSent(bytesSent);
+            if (encoder.isCompleted() && sourceConfiguration.isPipeliningEnabled()) {
+                processPipelinedRequest(conn);
+            }
         } catch (IOException e) {
             logIOException(conn, e);
 
@@ -869,6 +1055,20 @@ public class SourceHandler implements NHttpServerEventHandler {
     }
 
     public void endOfInput(NHttpServerConnection conn) throws IOException {
+        if (sourceConfiguration.isPipeliningEnabled()) {
+            SourceContext sourceContext = SourceContext.get(conn);
+            if (sourceContext != null) {
+                ProtocolState state = sourceContext.getState();
+                if (sourceContext.getPipelinedRequestCount() > 0 || (state.compareTo(ProtocolState.REQUEST_DONE) >= 0
+                        && state.compareTo(ProtocolState.CLOSING) < 0)) {
+                    // input is read ahead while requests are served, so the client may have finished sending and
+                    // closed its side early. Serve what it has sent before closing the connection
+                    sourceContext.setInputEnded(true);
+                    conn.suspendInput();
+                    return;
+                }
+            }
+        }
         conn.close();
     }
 
@@ -1050,6 +1250,9 @@ public class SourceHandler implements NHttpServerEventHandler {
      * Shutting down the thread pools.
      */
     public void stop() {
+        if (sharedViews) {
+            return;
+        }
         latencyView.destroy();
         s2sLatencyView.destroy();
         threadingView.destroy();
@@ -1109,6 +1312,11 @@ public class SourceHandler implements NHttpServerEventHandler {
      * @throws HttpException
      */
     public SourceRequest getSourceRequest(NHttpServerConnection conn) throws IOException, HttpException {
+        return getSourceRequest(conn, createSourceRequest(conn, conn.getHttpRequest()));
+    }
+
+    private SourceRequest getSourceRequest(NHttpServerConnection conn, SourceRequest request)
+            throws IOException, HttpException {
         HttpContext context = conn.getContext();
         context.setAttribute(PassThroughConstants.REQ_ARRIVAL_TIME, System.currentTimeMillis());
 
@@ -1122,8 +1330,6 @@ public class SourceHandler implements NHttpServerEventHandler {
         // at this point we have read the HTTP Headers
         SourceContext.updateState(conn, ProtocolState.REQUEST_HEAD);
 
-        SourceRequest request = new SourceRequest(
-                sourceConfiguration, conn.getHttpRequest(), conn);
         SourceContext.setRequest(conn, request);
         request.start(conn);
         metrics.incrementMessagesReceived();
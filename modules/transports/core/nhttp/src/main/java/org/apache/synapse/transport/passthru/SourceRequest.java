@@ -67,6 +67,12 @@ public class SourceRequest {
     /** Excess headers of the request */
     private Map excessHeaders = new MultiValueMap();
 
+    /** Position of the request among the requests received on its connection */
+    private long sequence;
+
+    /** Whether the request was handed over to a server worker while earlier requests were being served */
+    private boolean dispatchedAhead = false;
+
 
     public SourceRequest(SourceConfiguration sourceConfiguration,
                          HttpRequest request,
@@ -118,8 +124,10 @@ public class SourceRequest {
         } else {
             // this request is completed, there is nothing more to read
             SourceContext.updateState(conn, ProtocolState.REQUEST_DONE);
-            // No httpRequest content expected. Suspend client input
-            conn.suspendInput();
+            // No httpRequest content expected. Suspend client input, unless pipelined requests are read ahead
+            if (!sourceConfiguration.isPipeliningEnabled()) {
+                conn.suspendInput();
+            }
         }
     }
 
@@ -177,8 +185,10 @@ public class SourceRequest {
                     notifyReceivedMessageSize(conn.getMetrics().getReceivedBytesCount());
             // Update connection state
             SourceContext.updateState(conn, ProtocolState.REQUEST_DONE);
-            // Suspend client input
-            conn.suspendInput();
+            // Suspend client input, unless pipelined requests are read ahead
+            if (!sourceConfiguration.isPipeliningEnabled()) {
+                conn.suspendInput();
+            }
         }
     }
 
@@ -221,4 +231,20 @@ public class SourceRequest {
     public boolean isEntityEnclosing() {
         return entityEnclosing;
     }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public boolean isDispatchedAhead() {
+        return dispatchedAhead;
+    }
+
+    public void setDispatchedAhead(boolean dispatchedAhead) {
+        this.dispatchedAhead = dispatchedAhead;
+    }
 }
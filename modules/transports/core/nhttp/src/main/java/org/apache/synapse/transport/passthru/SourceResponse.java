@@ -97,7 +97,7 @@ public class SourceResponse {
         this.pipe = pipe;
 
         if (request != null && pipe != null) {
-            SourceContext.get(request.getConnection()).setWriter(pipe);
+            SourceContext.get(request.getConnection()).connectWriter(request, pipe);
         }
     }
 
@@ -399,6 +399,10 @@ public class SourceResponse {
        return this.hasEntity;
     }
 
+    public Pipe getPipe() {
+        return pipe;
+    }
+
 	public void setKeepAlive(boolean keepAlive) {
 		this.keepAlive = keepAlive;
 	}
@@ -25,6 +25,7 @@ import org.apache.synapse.commons.CorrelationConstants;
 import org.apache.synapse.commons.logger.ContextAwareLogger;
 import org.apache.synapse.transport.passthru.config.PassThroughCorrelationConfigDataHolder;
 import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.apache.synapse.transport.passthru.connections.AdaptiveConcurrencyLimiter;
 import org.apache.synapse.transport.passthru.util.ControlledByteBuffer;
 
 /**
@@ -51,6 +52,8 @@ public class TargetContext {
     private static final Log correlationLog = LogFactory.getLog(PassThroughConstants.CORRELATION_LOGGER);
     /** Time that state got updated*/
     private long lastStateUpdatedTime;
+    /** Number of times the input of the connection was suspended because a response pipe was full */
+    private long inputSuspendCount = 0;
 
     public TargetContext(TargetConfiguration targetConfiguration) {
         this.targetConfiguration = targetConfiguration;
@@ -96,6 +99,14 @@ public class TargetContext {
         return reader;
     }
 
+    /**
+     * @return number of times the input of this connection was suspended because the pipe of a response was full,
+     * for the responses completed on the connection so far
+     */
+    public long getInputSuspendCount() {
+        return inputSuspendCount;
+    }
+
     public Pipe getWriter() {
         return writer;
     }
@@ -129,10 +140,26 @@ public class TargetContext {
         request = null;
         response = null;
 
+        // make sure a request which ends without a response or an error report does not keep its permit
+        if (isError) {
+            AdaptiveConcurrencyLimiter.onError(requestMsgCtx);
+        } else {
+            AdaptiveConcurrencyLimiter.release(requestMsgCtx);
+        }
+
         if (writer != null) {
             if (!isError) {      // If there is an error we do not release the buffer to the factory
                 ControlledByteBuffer buffer = writer.getBuffer();
                 targetConfiguration.getBufferFactory().release(buffer);
+                writer.releaseRingBuffers();
+            }
+            writer.releaseSpool();
+        }
+        if (reader != null) {
+            int suspensions = reader.getInputSuspendCount();
+            if (suspensions > 0) {
+                inputSuspendCount += suspensions;
+                targetConfiguration.getMetrics().notifyInputSuspensions(suspensions);
             }
         }
 
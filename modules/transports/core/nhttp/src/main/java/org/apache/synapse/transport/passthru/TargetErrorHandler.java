@@ -30,6 +30,7 @@ import org.apache.logging.log4j.ThreadContext;
 import org.apache.synapse.commons.CorrelationConstants;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.apache.synapse.transport.passthru.connections.AdaptiveConcurrencyLimiter;
 import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
 
 import java.io.PrintWriter;
@@ -60,6 +61,8 @@ public class TargetErrorHandler {
                                final Exception exceptionToRaise,
                                final ProtocolState state) {
 
+        AdaptiveConcurrencyLimiter.onError(mc);
+
         if (errorCode == -1 && errorMessage == null && exceptionToRaise == null) {
             return;
         }
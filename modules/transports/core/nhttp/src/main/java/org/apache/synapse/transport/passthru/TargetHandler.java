@@ -49,6 +49,7 @@ import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.apache.synapse.transport.passthru.config.PassThroughConfiguration;
 import org.apache.synapse.transport.passthru.config.PassThroughCorrelationConfigDataHolder;
 import org.apache.synapse.transport.passthru.config.TargetConfiguration;
+import org.apache.synapse.transport.passthru.connections.AdaptiveConcurrencyLimiter;
 import org.apache.synapse.transport.passthru.connections.HostConnections;
 import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
 import org.apache.synapse.transport.passthru.util.PassThroughTransportUtils;
@@ -422,6 +423,7 @@ public class TargetHandler implements NHttpClientEventHandler {
                 return;
             }
             context.setAttribute(PassThroughConstants.RES_HEADER_ARRIVAL_TIME, System.currentTimeMillis());
+            AdaptiveConcurrencyLimiter.onResponse(TargetContext.get(conn).getRequestMsgCtx(), statusCode);
             connState = TargetContext.getState(conn);
             //check correlation logs enabled
             if (PassThroughCorrelationConfigDataHolder.isEnable()
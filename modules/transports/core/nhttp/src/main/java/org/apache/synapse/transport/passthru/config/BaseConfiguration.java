@@ -21,16 +21,22 @@ import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.description.ParameterInclude;
 import org.apache.axis2.transport.base.threads.WorkerPool;
 import org.apache.axis2.transport.base.threads.WorkerPoolFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.util.ByteBufferAllocator;
+import org.apache.http.nio.util.DirectByteBufferAllocator;
 import org.apache.http.nio.util.HeapByteBufferAllocator;
 import org.apache.http.params.BasicHttpParams;
 import org.apache.http.params.HttpConnectionParams;
 import org.apache.http.params.HttpParams;
 import org.apache.http.params.HttpProtocolParams;
 import org.apache.http.protocol.HTTP;
+import org.apache.synapse.commons.executors.VirtualThreadExecutor;
 import org.apache.synapse.transport.passthru.PassThroughConstants;
 import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
 import org.apache.synapse.transport.passthru.util.BufferFactory;
+import org.apache.synapse.transport.passthru.util.VirtualThreadWorkerPool;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,6 +47,8 @@ import java.util.List;
  */
 public abstract class BaseConfiguration {
 
+    private static final Log log = LogFactory.getLog(BaseConfiguration.class);
+
     /**
      * Configurations given by axis2.xml
      */
@@ -74,6 +82,13 @@ public abstract class BaseConfiguration {
 
     private int iOBufferSize;
 
+    /** Relay spooling and pipe ring settings, read once per configuration for the pipes created with it */
+    private boolean relaySpoolEnabled;
+    private long relaySpoolMaxSize;
+    private String relaySpoolDirectory;
+    private int pipeRingBuffers = 1;
+    private int pipeRingResumeBuffers = 1;
+
     protected PassThroughConfiguration conf = PassThroughConfiguration.getInstance();
 
     private static final String PASSTHROUGH_THREAD_GROUP = "Pass-through Message Processing Thread Group";
@@ -98,6 +113,23 @@ public abstract class BaseConfiguration {
 
     public void build() throws AxisFault {
         iOBufferSize = conf.getIOBufferSize();
+        relaySpoolEnabled = conf.isRelaySpoolEnabled();
+        relaySpoolMaxSize = conf.getRelaySpoolMaxSize();
+        relaySpoolDirectory = conf.getRelaySpoolDirectory();
+        pipeRingBuffers = conf.getPipeRingBuffers();
+        pipeRingResumeBuffers = conf.getPipeRingResumeBuffers();
+
+        if (workerPool == null && conf.isWorkerPoolVirtualThreads()) {
+            if (VirtualThreadExecutor.isSupported()) {
+                log.info("Using virtual threads for the pass-through worker pool with a maximum concurrency of "
+                        + conf.getWorkerPoolVirtualThreadsMaxConcurrency());
+                workerPool = new VirtualThreadWorkerPool(PASSTHROUGH_THREAD_ID,
+                        conf.getWorkerPoolVirtualThreadsMaxConcurrency(), conf.getWorkerPoolQueueLen());
+            } else {
+                log.warn("Virtual threads are not supported by this Java runtime, using the platform thread "
+                        + "worker pool");
+            }
+        }
 
         if (workerPool == null) {
             workerPool = WorkerPoolFactory.getWorkerPool(
@@ -126,7 +158,10 @@ public abstract class BaseConfiguration {
             PassThroughCorrelationConfigDataHolder.setSystemEnable(Boolean.parseBoolean(sysCorrelationStatus));
         }
 
-        bufferFactory = new BufferFactory(iOBufferSize, new HeapByteBufferAllocator(), 512);
+        ByteBufferAllocator allocator = conf.isIOBufferPoolDirect() ?
+                DirectByteBufferAllocator.INSTANCE : HeapByteBufferAllocator.INSTANCE;
+        bufferFactory = new BufferFactory(iOBufferSize, allocator, conf.getIOBufferPoolHighWatermark(),
+                conf.getIOBufferPoolLowWatermark(), conf.getIOBufferPoolThreadCacheSize());
     }
 
 
@@ -162,6 +197,26 @@ public abstract class BaseConfiguration {
         return iOBufferSize;
     }
 
+    public boolean isRelaySpoolEnabled() {
+        return relaySpoolEnabled;
+    }
+
+    public long getRelaySpoolMaxSize() {
+        return relaySpoolMaxSize;
+    }
+
+    public String getRelaySpoolDirectory() {
+        return relaySpoolDirectory;
+    }
+
+    public int getPipeRingBuffers() {
+        return pipeRingBuffers;
+    }
+
+    public int getPipeRingResumeBuffers() {
+        return pipeRingResumeBuffers;
+    }
+
     public WorkerPool getWorkerPool() {
         return workerPool;
     }
@@ -44,6 +44,17 @@ public interface PassThroughConfigPNames {
      */
     public String WORKER_POOL_QUEUE_LENGTH = "worker_pool_queue_length";
 
+    /**
+     * Defines whether the worker pool runs each task on its own virtual thread instead of a platform thread pool.
+     * Only takes effect on a Java runtime which supports virtual threads.
+     */
+    public String WORKER_POOL_VIRTUAL_THREADS = "worker_pool_virtual_threads";
+
+    /**
+     * Defines the maximum number of tasks the virtual thread worker pool runs at the same time.
+     */
+    public String WORKER_POOL_VIRTUAL_THREADS_MAX_CONCURRENCY = "worker_pool_virtual_threads_max_concurrency";
+
     /**
      * Defines the number of IO dispatcher threads used per reactor
      */
@@ -74,6 +85,51 @@ public interface PassThroughConfigPNames {
      */
     public String IO_BUFFER_SIZE = "io_buffer_size";
 
+    /**
+     * Defines whether the pass-through buffer pool allocates direct (off-heap) buffers
+     */
+    public String IO_BUFFER_POOL_DIRECT = "io_buffer_pool_direct";
+
+    /**
+     * Defines the maximum number of buffers retained in the shared tier of the buffer pool
+     */
+    public String IO_BUFFER_POOL_HIGH_WATERMARK = "io_buffer_pool_high_watermark";
+
+    /**
+     * Defines the number of buffers pre-allocated in the buffer pool
+     */
+    public String IO_BUFFER_POOL_LOW_WATERMARK = "io_buffer_pool_low_watermark";
+
+    /**
+     * Defines the maximum number of buffers cached per thread by the buffer pool, 0 disables thread caching
+     */
+    public String IO_BUFFER_POOL_THREAD_CACHE_SIZE = "io_buffer_pool_thread_cache_size";
+
+    /**
+     * Defines whether content of relayed messages which overflows the pipe buffer is spooled to a temporary file
+     */
+    public String RELAY_SPOOL_ENABLED = "pipe_relay_spool_enabled";
+
+    /**
+     * Defines the maximum size in bytes of the temporary file a single pipe may spool to
+     */
+    public String RELAY_SPOOL_MAX_SIZE = "pipe_relay_spool_max_size";
+
+    /**
+     * Defines the directory in which the relay spool files are created
+     */
+    public String RELAY_SPOOL_DIRECTORY = "pipe_relay_spool_directory";
+
+    /**
+     * Defines the number of buffers a pipe may fill before the input of the producer is suspended
+     */
+    public String PIPE_RING_BUFFERS = "pipe_ring_buffers";
+
+    /**
+     * Defines the number of filled pipe buffers at or below which the suspended input of the producer is resumed
+     */
+    public String PIPE_RING_RESUME_BUFFERS = "pipe_ring_resume_buffers";
+
 
     /**
      * Defines the maximum open connection limit.
@@ -139,6 +195,11 @@ public interface PassThroughConfigPNames {
      */
     public String MAXIMUM_CONNECTION_LIFESPAN = "transport.sender.connection.maximum.lifespan";
 
+    /**
+     * Defines the interval in milliseconds at which expired idle sender connections are evicted, 0 disables it
+     */
+    public String CONNECTION_EVICTION_INTERVAL = "transport.sender.connection.eviction.interval";
+
 
     /**
      * Defines the maximum number of connections per host port
@@ -150,6 +211,38 @@ public interface PassThroughConfigPNames {
      */
     public String MAX_MESSAGES_PER_HOST_PORT = "http.max.messages.per.host.port";
 
+    /**
+     * Defines the number of pipelined requests read ahead and queued per client connection while an earlier
+     * request on it is being served, 0 disables HTTP pipelining support
+     */
+    public String PIPELINING_MAX_QUEUED_REQUESTS = "http.pipelining.max.queued.requests";
+
+    /**
+     * Defines whether the in-flight requests per host port are limited by an adaptive concurrency limit
+     */
+    public String ADAPTIVE_CONCURRENCY_LIMIT_ENABLED = "http.adaptive.concurrency.limit.enabled";
+
+    /**
+     * Defines the initial adaptive concurrency limit per host port
+     */
+    public String ADAPTIVE_CONCURRENCY_LIMIT_INITIAL = "http.adaptive.concurrency.limit.initial";
+
+    /**
+     * Defines the lowest value the adaptive concurrency limit per host port can be reduced to
+     */
+    public String ADAPTIVE_CONCURRENCY_LIMIT_MIN = "http.adaptive.concurrency.limit.min";
+
+    /**
+     * Defines the highest value the adaptive concurrency limit per host port can grow to
+     */
+    public String ADAPTIVE_CONCURRENCY_LIMIT_MAX = "http.adaptive.concurrency.limit.max";
+
+    /**
+     * Defines the time in milliseconds a request over the adaptive concurrency limit stays parked for a permit before
+     * it is rejected, 0 rejects such requests at once
+     */
+    public String ADAPTIVE_CONCURRENCY_LIMIT_MAX_WAIT = "http.adaptive.concurrency.limit.max.wait";
+
     public String TRANSPORT_LISTENER_SHUTDOWN_WAIT_TIME_SEC = "transport.listener.shutdown.wait.sec";
 
     /**
@@ -157,6 +250,12 @@ public interface PassThroughConfigPNames {
      */
     public String HTTP_LISTENING_IO_REACTOR_SHARING_ENABLE ="http_listening_io_reactor_sharing_enable";
 
+    /**
+     * Defines the number of listening sockets the HTTP/S listener opens on its port with SO_REUSEPORT, each served
+     * by its own IO reactor. Values below 2 disable the sharding
+     */
+    public String HTTP_LISTENER_REUSE_PORT_SHARDS = "http_listener_reuse_port_shards";
+
     /**
      * Defines the header name set for correlation logs
      */
@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.params.HttpConnectionParams;
 import org.apache.synapse.transport.passthru.PassThroughConstants;
+import org.apache.synapse.transport.passthru.util.BufferFactory;
 import org.apache.synapse.transport.util.ConfigurationBuilderUtil;
 
 import java.io.File;
@@ -45,12 +46,21 @@ public class PassThroughConfiguration {
     private static final int DEFAULT_WORKER_POOL_SIZE_MAX        = 200;
     private static final int DEFAULT_WORKER_THREAD_KEEPALIVE_SEC = 60;
     private static final int DEFAULT_WORKER_POOL_QUEUE_LENGTH    = -1;
+    private static final int DEFAULT_WORKER_POOL_VIRTUAL_THREADS_MAX_CONCURRENCY = 1000;
     private static final int DEFAULT_IO_BUFFER_SIZE              = 8 * 1024;
+    private static final int DEFAULT_IO_BUFFER_POOL_HIGH_WATERMARK = 512;
+    private static final int DEFAULT_IO_BUFFER_POOL_LOW_WATERMARK  = 0;
+    private static final long DEFAULT_RELAY_SPOOL_MAX_SIZE         = 64L * 1024 * 1024;
     private static final int DEFAULT_IO_THREADS_PER_REACTOR      =
                                                          Runtime.getRuntime().availableProcessors();
     private static final int DEFAULT_MAX_ACTIVE_CON = -1;
     private static final int DEFAULT_LISTENER_SHUTDOWN_WAIT_TIME = 0;
     private static final int DEFAULT_CONNECTION_GRACE_TIME = 10000;
+    private static final int DEFAULT_CONNECTION_EVICTION_INTERVAL = 5000;
+    private static final int DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_INITIAL = 20;
+    private static final int DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_MIN = 1;
+    private static final int DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_MAX = 1000;
+    private static final int DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_MAX_WAIT = 0;
 
     private static final String EXPECTED_MAX_QUEUEING_TIME_DEFAULT = "1000";
     private Boolean isKeepAliveDisabled = null;
@@ -125,6 +135,17 @@ public class PassThroughConfiguration {
                 DEFAULT_WORKER_POOL_QUEUE_LENGTH, props);
     }
 
+    public boolean isWorkerPoolVirtualThreads() {
+        return ConfigurationBuilderUtil.getBooleanProperty(PassThroughConfigPNames.WORKER_POOL_VIRTUAL_THREADS,
+                false, props);
+    }
+
+    public int getWorkerPoolVirtualThreadsMaxConcurrency() {
+        return ConfigurationBuilderUtil.getIntProperty(
+                PassThroughConfigPNames.WORKER_POOL_VIRTUAL_THREADS_MAX_CONCURRENCY,
+                DEFAULT_WORKER_POOL_VIRTUAL_THREADS_MAX_CONCURRENCY, props);
+    }
+
     public int getSecondaryWorkerPoolQueueLen() {
         return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.SECONDARY_WORKER_POOL_QUEUE_LENGTH,
                 DEFAULT_WORKER_POOL_QUEUE_LENGTH, props);
@@ -140,6 +161,61 @@ public class PassThroughConfiguration {
                 DEFAULT_IO_BUFFER_SIZE, props);
     }
 
+    public boolean isIOBufferPoolDirect() {
+        return ConfigurationBuilderUtil.getBooleanProperty(PassThroughConfigPNames.IO_BUFFER_POOL_DIRECT,
+                false, props);
+    }
+
+    public int getIOBufferPoolHighWatermark() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.IO_BUFFER_POOL_HIGH_WATERMARK,
+                DEFAULT_IO_BUFFER_POOL_HIGH_WATERMARK, props);
+    }
+
+    public int getIOBufferPoolLowWatermark() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.IO_BUFFER_POOL_LOW_WATERMARK,
+                DEFAULT_IO_BUFFER_POOL_LOW_WATERMARK, props);
+    }
+
+    public int getIOBufferPoolThreadCacheSize() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.IO_BUFFER_POOL_THREAD_CACHE_SIZE,
+                BufferFactory.DEFAULT_THREAD_CACHE_SIZE, props);
+    }
+
+    public boolean isRelaySpoolEnabled() {
+        return ConfigurationBuilderUtil.getBooleanProperty(PassThroughConfigPNames.RELAY_SPOOL_ENABLED,
+                false, props);
+    }
+
+    public long getRelaySpoolMaxSize() {
+        String maxSize = getStringProperty(PassThroughConfigPNames.RELAY_SPOOL_MAX_SIZE, null);
+        if (maxSize == null) {
+            return DEFAULT_RELAY_SPOOL_MAX_SIZE;
+        }
+        try {
+            return Long.parseLong(maxSize.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value for " + PassThroughConfigPNames.RELAY_SPOOL_MAX_SIZE + ". Using the default "
+                    + "value " + DEFAULT_RELAY_SPOOL_MAX_SIZE);
+            return DEFAULT_RELAY_SPOOL_MAX_SIZE;
+        }
+    }
+
+    public String getRelaySpoolDirectory() {
+        return getStringProperty(PassThroughConfigPNames.RELAY_SPOOL_DIRECTORY, System.getProperty("java.io.tmpdir"));
+    }
+
+    public int getPipeRingBuffers() {
+        return Math.max(ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.PIPE_RING_BUFFERS,
+                1, props), 1);
+    }
+
+    public int getPipeRingResumeBuffers() {
+        int ringBuffers = getPipeRingBuffers();
+        int resumeBuffers = ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.PIPE_RING_RESUME_BUFFERS,
+                ringBuffers / 2, props);
+        return Math.min(Math.max(resumeBuffers, 1), ringBuffers);
+    }
+
     public boolean isKeepAliveDisabled() {
         if (isKeepAliveDisabled == null) {
             isKeepAliveDisabled =
@@ -240,6 +316,41 @@ public class PassThroughConfiguration {
         return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.MAXIMUM_CONNECTION_LIFESPAN,
                 Integer.MAX_VALUE, props);
     }
+    public int getConnectionEvictionInterval() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.CONNECTION_EVICTION_INTERVAL,
+                DEFAULT_CONNECTION_EVICTION_INTERVAL, props);
+    }
+
+    public int getPipeliningMaxQueuedRequests() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.PIPELINING_MAX_QUEUED_REQUESTS,
+                0, props);
+    }
+
+    public boolean isAdaptiveConcurrencyLimitEnabled() {
+        return ConfigurationBuilderUtil.getBooleanProperty(PassThroughConfigPNames.ADAPTIVE_CONCURRENCY_LIMIT_ENABLED,
+                false, props);
+    }
+
+    public int getAdaptiveConcurrencyLimitInitial() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.ADAPTIVE_CONCURRENCY_LIMIT_INITIAL,
+                DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_INITIAL, props);
+    }
+
+    public int getAdaptiveConcurrencyLimitMin() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.ADAPTIVE_CONCURRENCY_LIMIT_MIN,
+                DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_MIN, props);
+    }
+
+    public int getAdaptiveConcurrencyLimitMax() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.ADAPTIVE_CONCURRENCY_LIMIT_MAX,
+                DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_MAX, props);
+    }
+
+    public int getAdaptiveConcurrencyLimitMaxWait() {
+        return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.ADAPTIVE_CONCURRENCY_LIMIT_MAX_WAIT,
+                DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT_MAX_WAIT, props);
+    }
+
     public int getConnectionGraceTime() {
         return ConfigurationBuilderUtil.getIntProperty(PassThroughConfigPNames.CONNECTION_GRACE_TIME,
                 DEFAULT_CONNECTION_GRACE_TIME, props);
@@ -371,6 +482,11 @@ public class PassThroughConfiguration {
                 .getBooleanProperty(PassThroughConfigPNames.HTTP_LISTENING_IO_REACTOR_SHARING_ENABLE, false, props);
     }
 
+    public int getListenerReusePortShards() {
+        return ConfigurationBuilderUtil
+                .getIntProperty(PassThroughConfigPNames.HTTP_LISTENER_REUSE_PORT_SHARDS, 1, props);
+    }
+
     public String getAllowedResponseProperties() {
         return ConfigurationBuilderUtil.getStringProperty(ALLOWED_RESPONSE_PROPERTIES, null, props);
     }
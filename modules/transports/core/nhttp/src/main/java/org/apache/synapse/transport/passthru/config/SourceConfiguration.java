@@ -77,6 +77,9 @@ public class SourceConfiguration extends BaseConfiguration {
     /** WSDL processor for Get requests*/
     private HttpGetRequestProcessor httpGetRequestProcessor = null;
 
+    /** Maximum number of pipelined requests queued per connection, 0 if pipelining is not supported */
+    private int pipeliningMaxQueuedRequests = 0;
+
 
     public SourceConfiguration(ConfigurationContext configurationContext,
                                TransportInDescription description,
@@ -138,6 +141,7 @@ public class SourceConfiguration extends BaseConfiguration {
             }
         }
         populatePreserveHttpHeaders(conf.getResponsePreseveHttpHeaders());
+        pipeliningMaxQueuedRequests = Math.max(conf.getPipeliningMaxQueuedRequests(), 0);
     }
 
     public HttpParams getHttpParams() {
@@ -148,6 +152,15 @@ public class SourceConfiguration extends BaseConfiguration {
         return ioReactorConfig;
     }
 
+    /**
+     * Change the number of IO dispatcher threads of the listening IOReactor created with this configuration.
+     *
+     * @param ioThreadCount number of IO dispatcher threads
+     */
+    public void setIOThreadCount(int ioThreadCount) {
+        ioReactorConfig = IOReactorConfig.copy(ioReactorConfig).setIoThreadCount(ioThreadCount).build();
+    }
+
     public HttpProcessor getHttpProcessor() {
         return httpProcessor;
     }
@@ -188,6 +201,14 @@ public class SourceConfiguration extends BaseConfiguration {
 		return httpGetRequestProcessor;
 	}
 
+    public int getPipeliningMaxQueuedRequests() {
+        return pipeliningMaxQueuedRequests;
+    }
+
+    public boolean isPipeliningEnabled() {
+        return pipeliningMaxQueuedRequests > 0;
+    }
+
 	/**
      * Return the EPR prefix for services made available over this transport
      * @param cfgCtx configuration context to retrieve the service context path
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.connections;
+
+import org.apache.axis2.context.MessageContext;
+import org.apache.http.HttpStatus;
+import org.apache.synapse.transport.passthru.PassThroughConstants;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of in-flight requests to a single backend route and adapts that limit to the measured round
+ * trip time, using an additive increase / multiplicative decrease rule.
+ * <p>
+ * A request takes a {@link Permit} before it is queued for a connection and returns it when the response headers
+ * arrive or the request fails. The limit grows by one for each timely response while the route is using at least
+ * half of it, and is cut by {@link #BACKOFF_RATIO} whenever a request fails, the backend answers 429 or 503, or the
+ * round trip time exceeds {@link #RTT_TOLERANCE} times the baseline. The baseline is the smallest round trip time
+ * seen in the previous window of {@link #RTT_WINDOW_SAMPLES} samples, so that it follows a backend whose normal
+ * latency changes over time.
+ * <p>
+ * Requests over the limit are either rejected at once or parked in the queue of the limiter, without blocking the
+ * thread that submitted them. A parked request is handed to the {@link WaitListener} of the limiter as soon as a
+ * permit is returned, and is timed out by a timer shared by all limiters once its deadline has passed, so the wait
+ * bound holds even if no permit is ever returned.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    static final double RTT_TOLERANCE = 2.0;
+
+    static final int RTT_WINDOW_SAMPLES = 500;
+
+    /** Round trip times within this much of the baseline never count as congestion, it absorbs timer jitter */
+    static final long RTT_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Times out the parked requests of all limiters, it only hands them to their {@link WaitListener} */
+    private static final ScheduledThreadPoolExecutor EXPIRY_TIMER = createExpiryTimer();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private volatile int limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private final AtomicInteger waiting = new AtomicInteger(0);
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /** Round trip time state, guarded by the limiter instance */
+    private long baselineRttNanos;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private volatile long lastRttNanos;
+
+    /** Requests parked until a permit is returned, in arrival order */
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<Waiter>();
+
+    private final WaitListener waitListener;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, null);
+    }
+
+    /**
+     * @param waitListener notified when a parked request gets a permit or times out, null if requests are never
+     *                     parked
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, WaitListener waitListener) {
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.waitListener = waitListener;
+    }
+
+    /**
+     * Take a permit without waiting.
+     *
+     * @return the permit or null if the route is at its limit
+     */
+    public Permit tryAcquire() {
+        int current = inFlight.get();
+        while (current < limit) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+            current = inFlight.get();
+        }
+        return null;
+    }
+
+    /**
+     * Park a request that did not get a permit from {@link #tryAcquire()}. The request is handed to the
+     * {@link WaitListener} with a permit set on it when one is returned, or failed once the wait time has passed.
+     * This method never blocks.
+     *
+     * @param msgContext    the request
+     * @param maxWaitMillis maximum time the request may stay parked, 0 or less to reject it at once
+     * @param maxWaiting    maximum number of parked requests
+     * @return false if the request was rejected, in which case the caller has to fail it
+     */
+    public boolean park(MessageContext msgContext, long maxWaitMillis, int maxWaiting) {
+        if (maxWaitMillis <= 0 || waitListener == null || waiting.get() >= maxWaiting) {
+            rejected.increment();
+            return false;
+        }
+        waiting.incrementAndGet();
+        final Waiter waiter = new Waiter(msgContext, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis));
+        waiters.add(waiter);
+        waiter.expiry = EXPIRY_TIMER.schedule(new Runnable() {
+            public void run() {
+                expire(waiter);
+            }
+        }, maxWaitMillis, TimeUnit.MILLISECONDS);
+        // a permit may have been returned after the caller failed to take one, and before it was parked
+        drain();
+        return true;
+    }
+
+    private void release(Permit permit, long rttNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        if (rttNanos >= 0) {
+            update(rttNanos, permit.inFlightAtStart, failed);
+        }
+        if (!waiters.isEmpty()) {
+            drain();
+        }
+    }
+
+    /**
+     * Hand the free permits to the parked requests in arrival order and time out the ones past their deadline.
+     * May run on several threads at once, each parked request is taken by only one of them.
+     */
+    private void drain() {
+        while (true) {
+            Waiter waiter = waiters.peek();
+            if (waiter == null) {
+                return;
+            }
+            if (waiter.isExpired(System.nanoTime())) {
+                expire(waiter);
+                continue;
+            }
+            Permit permit = tryAcquire();
+            if (permit == null) {
+                return;
+            }
+            waiter = waiters.poll();
+            if (waiter == null) {
+                // another thread took the last parked request, the permit was never handed out
+                inFlight.decrementAndGet();
+                return;
+            }
+            waiting.decrementAndGet();
+            waiter.cancelExpiry();
+            waiter.msgContext.setProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT, permit);
+            waitListener.permitAcquired(waiter.msgContext);
+        }
+    }
+
+    /**
+     * Time out a parked request, unless it already got a permit or was timed out by another thread.
+     */
+    private void expire(Waiter waiter) {
+        if (waiters.remove(waiter)) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            waiter.cancelExpiry();
+            waitListener.waitTimedOut(waiter.msgContext);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createExpiryTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ConcurrencyLimitExpiry");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // most parked requests get a permit well before their deadline, do not keep their timeouts around
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart, boolean failed) {
+        if (failed) {
+            dropped.increment();
+        } else {
+            lastRttNanos = rttNanos;
+            if (baselineRttNanos == 0) {
+                baselineRttNanos = rttNanos;
+            }
+            if (rttNanos < windowMinRttNanos) {
+                windowMinRttNanos = rttNanos;
+            }
+            if (++windowSamples >= RTT_WINDOW_SAMPLES) {
+                baselineRttNanos = windowMinRttNanos;
+                windowMinRttNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+        }
+
+        int current = limit;
+        boolean congested = rttNanos > RTT_TOLERANCE * baselineRttNanos
+                && rttNanos > baselineRttNanos + RTT_SLACK_NANOS;
+        if (failed || congested) {
+            limit = Math.max(minLimit, (int) (current * BACKOFF_RATIO));
+        } else if (inFlightAtStart * 2 >= current) {
+            // only grow while the route is actually using the limit, otherwise an idle route would grow unbounded
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public synchronized long getBaselineRttMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(baselineRttNanos);
+    }
+
+    public long getLastRttMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastRttNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "limit=" + limit + ", inFlight=" + inFlight.get() + ", waiting=" + waiting.get() +
+                ", rejected=" + rejected.sum() + ", dropped=" + dropped.sum() +
+                ", baselineRtt=" + getBaselineRttMillis() + "ms, lastRtt=" + getLastRttMillis() + "ms";
+    }
+
+    /**
+     * Complete the request of the given message with the status code of its response.
+     *
+     * @param msgContext request message, ignored if it does not hold a permit
+     * @param statusCode status code of the response
+     */
+    public static void onResponse(MessageContext msgContext, int statusCode) {
+        Permit permit = removePermit(msgContext);
+        if (permit != null) {
+            if (statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE || statusCode == 429) {
+                permit.onDropped();
+            } else {
+                permit.onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Complete the request of the given message as failed.
+     *
+     * @param msgContext request message, ignored if it does not hold a permit
+     */
+    public static void onError(MessageContext msgContext) {
+        Permit permit = removePermit(msgContext);
+        if (permit != null) {
+            permit.onDropped();
+        }
+    }
+
+    /**
+     * Return the permit of the given message without taking a sample.
+     *
+     * @param msgContext request message, ignored if it does not hold a permit
+     */
+    public static void release(MessageContext msgContext) {
+        Permit permit = removePermit(msgContext);
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    private static Permit removePermit(MessageContext msgContext) {
+        if (msgContext == null) {
+            return null;
+        }
+        Object permit = msgContext.getProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT);
+        if (permit instanceof Permit) {
+            msgContext.removeProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT);
+            return (Permit) permit;
+        }
+        return null;
+    }
+
+    /**
+     * Notified of the outcome of the requests parked in a limiter, on the thread that returned a permit, parked
+     * another request or timed out the request.
+     */
+    public interface WaitListener {
+
+        /**
+         * The parked request got a permit, which is set on the message context, and should be sent now.
+         *
+         * @param msgContext the parked request
+         */
+        void permitAcquired(MessageContext msgContext);
+
+        /**
+         * The parked request did not get a permit in time and should be failed.
+         *
+         * @param msgContext the parked request
+         */
+        void waitTimedOut(MessageContext msgContext);
+    }
+
+    private static final class Waiter {
+
+        private final MessageContext msgContext;
+
+        private final long deadlineNanos;
+
+        private volatile ScheduledFuture<?> expiry;
+
+        private Waiter(MessageContext msgContext, long deadlineNanos) {
+            this.msgContext = msgContext;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - deadlineNanos >= 0;
+        }
+
+        private void cancelExpiry() {
+            ScheduledFuture<?> future = expiry;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Permission to send one request to the route. Only the first completion of a permit has any effect.
+     */
+    public class Permit {
+
+        private final long startNanos = System.nanoTime();
+
+        private final int inFlightAtStart;
+
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            if (completed.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, System.nanoTime() - startNanos, false);
+            }
+        }
+
+        public void onDropped() {
+            if (completed.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, System.nanoTime() - startNanos, true);
+            }
+        }
+
+        public void release() {
+            if (completed.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, -1, false);
+            }
+        }
+    }
+}
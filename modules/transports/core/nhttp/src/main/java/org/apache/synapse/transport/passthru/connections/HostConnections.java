@@ -27,13 +27,21 @@ import org.apache.synapse.transport.passthru.PassThroughConstants;
 import org.apache.synapse.transport.passthru.config.ConnectionTimeoutConfiguration;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This stores connections for a particular host + port.
+ * <p>
+ * Free connections are kept in a lock-free LIFO stack so that the most recently used (and hence least likely to
+ * be closed by the server) connection is handed out first, and busy connections are kept in a concurrent set.
+ * Idle and maximum life span expiry of free connections is enforced by {@link #evictExpiredConnections(long)}
+ * which is called periodically by {@link TargetConnections}. A connection taken from the free stack is still
+ * checked once before it is handed out so that no expired connection is used between two eviction runs.
  */
 public class HostConnections {
     private static final Log log = LogFactory.getLog(HostConnections.class);
@@ -48,7 +56,11 @@ public class HostConnections {
     /**
      * number of awaiting connections
      */
-    private int pendingConnections;
+    private final AtomicInteger pendingConnections = new AtomicInteger(0);
+    /**
+     * number of busy connections plus awaiting connections, compared against maxSize
+     */
+    private final AtomicInteger leasedConnections = new AtomicInteger(0);
     /**
      * connection idle time for connection removal
      */
@@ -64,15 +76,14 @@ public class HostConnections {
     private int connectionGraceTime;
 
     /**
-     * list of free connections available
+     * stack of free connections available, most recently released first
      */
-    private List<NHttpClientConnection> freeConnections = new ArrayList<NHttpClientConnection>();
+    private Deque<NHttpClientConnection> freeConnections = new ConcurrentLinkedDeque<NHttpClientConnection>();
     /**
-     * list of connections in use
+     * set of connections in use
      */
-    private List<NHttpClientConnection> busyConnections = new ArrayList<NHttpClientConnection>();
-
-    private Lock lock = new ReentrantLock();
+    private final Set<NHttpClientConnection> busyConnections =
+            ConcurrentHashMap.<NHttpClientConnection>newKeySet();
 
     public HostConnections(HttpRoute route, int maxSize) {
         if (log.isDebugEnabled()) {
@@ -102,38 +113,62 @@ public class HostConnections {
      * @return a connection
      */
     public NHttpClientConnection getConnection() {
-        lock.lock();
-        try {
-            while (!freeConnections.isEmpty()) {
+        NHttpClientConnection conn;
+        while ((conn = freeConnections.pollFirst()) != null) {
+            if (isExpired(conn, System.currentTimeMillis())) {
+                shutdownConnection(conn);
+            } else {
                 if (log.isDebugEnabled()) {
                     log.debug("Returning an existing free connection " + route);
                 }
-                NHttpClientConnection conn = freeConnections.get(0);
-                long currentTime = System.currentTimeMillis();
-                long connectionInitTime = (Long) conn.getContext().getAttribute(PassThroughConstants.
-                                                                                        CONNECTION_INIT_TIME);
-                long expiryTime = (Long) conn.getContext().getAttribute(PassThroughConstants.
-                        CONNECTION_EXPIRY_TIME);
-                if (isMaximumLifeSpanExceeded(currentTime, connectionInitTime) ||  currentTime >= expiryTime
-                        || conn.isStale()) {
-                    freeConnections.remove(conn);
-                    try {
-                        conn.shutdown();
-                    } catch (IOException io) {
-                        log.error("Error occurred while shutting down connection." + io.getMessage(), io);
-                    }
-                } else {
-                    freeConnections.remove(conn);
-                    busyConnections.add(conn);
-                    return conn;
-                }
+                busyConnections.add(conn);
+                leasedConnections.incrementAndGet();
+                return conn;
             }
-        } finally {
-            lock.unlock();
         }
         return null;
     }
 
+    /**
+     * Close the free connections which have exceeded the idle time or the maximum life span. Connections in use
+     * are not touched, they are checked when they are released back to the pool and taken again.
+     *
+     * @param currentTime current time in milliseconds
+     * @return number of connections evicted
+     */
+    public int evictExpiredConnections(long currentTime) {
+        int evicted = 0;
+        Iterator<NHttpClientConnection> iterator = freeConnections.iterator();
+        while (iterator.hasNext()) {
+            NHttpClientConnection conn = iterator.next();
+            // only the thread which manages to remove the connection from the stack owns it
+            if (isExpired(conn, currentTime) && freeConnections.removeFirstOccurrence(conn)) {
+                shutdownConnection(conn);
+                evicted++;
+            }
+        }
+        if (evicted > 0 && log.isDebugEnabled()) {
+            log.debug("Evicted " + evicted + " expired connections of " + route);
+        }
+        return evicted;
+    }
+
+    private boolean isExpired(NHttpClientConnection conn, long currentTime) {
+        HttpContext context = conn.getContext();
+        Long connectionInitTime = (Long) context.getAttribute(PassThroughConstants.CONNECTION_INIT_TIME);
+        Long expiryTime = (Long) context.getAttribute(PassThroughConstants.CONNECTION_EXPIRY_TIME);
+        return (connectionInitTime != null && isMaximumLifeSpanExceeded(currentTime, connectionInitTime))
+                || (expiryTime != null && currentTime >= expiryTime) || conn.isStale();
+    }
+
+    private void shutdownConnection(NHttpClientConnection conn) {
+        try {
+            conn.shutdown();
+        } catch (IOException io) {
+            log.error("Error occurred while shutting down connection." + io.getMessage(), io);
+        }
+    }
+
     private boolean isMaximumLifeSpanExceeded(long currentTime, long connectionInitTime) {
         if (maximumConnectionLifeSpan > 0 && currentTime > maximumConnectionLifeSpan + connectionInitTime) {
             if (log.isDebugEnabled()) {
@@ -155,15 +190,11 @@ public class HostConnections {
         ctx.removeAttribute(SynapseHTTPRequestFactory.ENDPOINT_URL);
         ctx.removeAttribute(PassThroughConstants.REQUEST_MESSAGE_CONTEXT);
         ctx.removeAttribute(PassThroughConstants.RESPONSE_MESSAGE_CONTEXT);
-        lock.lock();
-        try {
-            if (busyConnections.remove(conn)) {
-                freeConnections.add(conn);
-            } else {
-                log.error("Attempted to releaseConnection connection not in the busy list");
-            }
-        } finally {
-            lock.unlock();
+        if (busyConnections.remove(conn)) {
+            leasedConnections.decrementAndGet();
+            freeConnections.offerFirst(conn);
+        } else {
+            log.error("Attempted to releaseConnection connection not in the busy list");
         }
     }
 
@@ -186,13 +217,11 @@ public class HostConnections {
     }
 
     public void forget(NHttpClientConnection conn) {
-        lock.lock();
-        try {
-            if (!freeConnections.remove(conn)) {
-                busyConnections.remove(conn);
-            }
-        } finally {
-            lock.unlock();
+        // busy set removal is O(1), the free stack is only searched for connections closed while idle
+        if (busyConnections.remove(conn)) {
+            leasedConnections.decrementAndGet();
+        } else {
+            freeConnections.removeFirstOccurrence(conn);
         }
     }
 
@@ -200,27 +229,19 @@ public class HostConnections {
         if (log.isDebugEnabled()) {
             log.debug("New connection " + route + " is added to the free list");
         }
-        lock.lock();
-        try {
-            pendingConnections--;
-            conn.getContext().setAttribute(PassThroughConstants.CONNECTION_INIT_TIME, System.currentTimeMillis());
-            busyConnections.add(conn);
-        } finally {
-            lock.unlock();
-        }
+        // the connection was counted as leased when it was requested, it now moves from pending to busy
+        pendingConnections.decrementAndGet();
+        conn.getContext().setAttribute(PassThroughConstants.CONNECTION_INIT_TIME, System.currentTimeMillis());
+        busyConnections.add(conn);
     }
 
     /**
      * Indicates that a connection has been successfully established with a remote server
      * as notified by the session request call back.
      */
-    public synchronized void pendingConnectionSucceeded() {
-        lock.lock();
-        try {
-            pendingConnections--;
-        } finally {
-            lock.unlock();
-        }
+    public void pendingConnectionSucceeded() {
+        pendingConnections.decrementAndGet();
+        leasedConnections.decrementAndGet();
     }
 
     /**
@@ -228,12 +249,8 @@ public class HostConnections {
      * consecutively
      */
     public void pendingConnectionFailed() {
-        lock.lock();
-        try {
-            pendingConnections--;
-        } finally {
-            lock.unlock();
-        }
+        pendingConnections.decrementAndGet();
+        leasedConnections.decrementAndGet();
     }
 
     public HttpRoute getRoute() {
@@ -241,16 +258,27 @@ public class HostConnections {
     }
 
     public boolean checkAndIncrementPendingConnections() {
-        lock.lock();
-        int totalConnections = busyConnections.size() + pendingConnections;
-        try {
-            if (totalConnections < maxSize) {
-                //We are expecting that this check is made if and only if in the state where new connection is added
-                pendingConnections++;
+        int leased;
+        do {
+            leased = leasedConnections.get();
+            if (leased >= maxSize) {
+                return false;
             }
-            return totalConnections < maxSize;
-        } finally {
-            lock.unlock();
-        }
+        } while (!leasedConnections.compareAndSet(leased, leased + 1));
+        //We are expecting that this check is made if and only if in the state where new connection is added
+        pendingConnections.incrementAndGet();
+        return true;
+    }
+
+    public int getFreeConnectionCount() {
+        return freeConnections.size();
+    }
+
+    public int getBusyConnectionCount() {
+        return busyConnections.size();
+    }
+
+    public int getPendingConnectionCount() {
+        return pendingConnections.get();
     }
 }
@@ -148,7 +148,10 @@ public class SourceConnections {
         }
         lock.lock();
         try {
-            SourceContext.get(conn).reset(isError);
+            SourceContext sourceContext = SourceContext.get(conn);
+            // the connection goes away, so the requests pipelined on it must not be served after the reset
+            sourceContext.clearPipelinedRequests();
+            sourceContext.reset(isError);
 
             if (!busyConnections.remove(conn)) {
                 freeConnections.remove(conn);
@@ -187,7 +190,10 @@ public class SourceConnections {
         }
         lock.lock();
         try {
-            SourceContext.get(conn).reset(isError);
+            SourceContext sourceContext = SourceContext.get(conn);
+            // the connection goes away, so the requests pipelined on it must not be served after the reset
+            sourceContext.clearPipelinedRequests();
+            sourceContext.reset(isError);
 
             if (!busyConnections.remove(conn)) {
                 freeConnections.remove(conn);
@@ -41,6 +41,11 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages the connection from transport to the back end servers. It keeps track of the
@@ -51,7 +56,7 @@ public class TargetConnections {
     private static final Log transportLatencyLog = LogFactory.getLog(PassThroughConstants.TRANSPORT_LATENCY_LOGGER);
 
     /** map to hold the ConnectionPools. The key is host:port */
-    private final Map<HttpRoute, HostConnections> poolMap =
+    private final ConcurrentMap<HttpRoute, HostConnections> poolMap =
             new ConcurrentHashMap<HttpRoute, HostConnections>();
 
     private final String sslSchemaName = "https";
@@ -68,6 +73,9 @@ public class TargetConnections {
 
     private ConnectionTimeoutConfiguration connectionTimeoutConfiguration;
 
+    /** scheduler which evicts idle and over aged connections from the pools */
+    private ScheduledExecutorService connectionEvictor;
+
     /**
      * Create a TargetConnections with the given IO-Reactor
      *
@@ -86,6 +94,46 @@ public class TargetConnections {
         connectionTimeoutConfiguration = new ConnectionTimeoutConfiguration(PassThroughConfiguration.getInstance().
                 getConnectionIdleTime(), PassThroughConfiguration.getInstance().getMaximumConnectionLifespan(),
                 PassThroughConfiguration.getInstance().getConnectionGraceTime());
+
+        int evictionInterval = PassThroughConfiguration.getInstance().getConnectionEvictionInterval();
+        if (evictionInterval > 0) {
+            connectionEvictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "PassThroughTargetConnectionEvictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            connectionEvictor.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    evictExpiredConnections();
+                }
+            }, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Close the idle connections of all the pools which have exceeded the connection idle time or the
+     * maximum connection life span.
+     */
+    public void evictExpiredConnections() {
+        long currentTime = System.currentTimeMillis();
+        for (HostConnections pool : poolMap.values()) {
+            try {
+                pool.evictExpiredConnections(currentTime);
+            } catch (Throwable t) {
+                log.warn("Error while evicting expired connections of " + pool.getRoute(), t);
+            }
+        }
+    }
+
+    /**
+     * Stop the background connection eviction.
+     */
+    public void shutdown() {
+        if (connectionEvictor != null) {
+            connectionEvictor.shutdownNow();
+        }
     }
 
     /**
@@ -260,16 +308,15 @@ public class TargetConnections {
 
     private HostConnections getConnectionPool(HttpRoute route) {
         // see weather a pool already exists for this host:port
-        synchronized (poolMap) {
-            HostConnections pool = poolMap.get(route);
-
+        HostConnections pool = poolMap.get(route);
+        if (pool == null) {
+            HostConnections newPool = new HostConnections(route, maxConnections, connectionTimeoutConfiguration);
+            pool = poolMap.putIfAbsent(route, newPool);
             if (pool == null) {
-                pool = new HostConnections(route, maxConnections, connectionTimeoutConfiguration);
-                poolMap.put(route, pool);
+                pool = newPool;
             }
-            return pool;
-
         }
+        return pool;
     }
 
     /**
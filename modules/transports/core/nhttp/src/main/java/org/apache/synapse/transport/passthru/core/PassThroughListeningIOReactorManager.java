@@ -266,7 +266,12 @@ public class PassThroughListeningIOReactorManager {
                 // create IOReactor for Inbounds
                 serverIODispatch = new ServerIODispatch(nHttpServerEventHandler,
                                                         passThroughSharedListenerConfiguration.getServerConnFactory());
-                defaultListeningIOReactor = createListeningIOReactor(passThroughSharedListenerConfiguration);
+                if (passThroughSharedListenerConfiguration.isReusePort()) {
+                    defaultListeningIOReactor = createReusePortListeningIOReactor(
+                            passThroughSharedListenerConfiguration);
+                } else {
+                    defaultListeningIOReactor = createListeningIOReactor(passThroughSharedListenerConfiguration);
+                }
 
             }
             passThroughListenerServerIODispatchMapper.put(port, serverIODispatch);
@@ -660,12 +665,35 @@ public class PassThroughListeningIOReactorManager {
     }
 
 
+    /**
+     * Create an IOReactor which binds its listening sockets with SO_REUSEPORT, so that further reactors created
+     * this way can listen on the same port
+     *
+     * @param passThroughSharedListenerConfiguration configuration related to create the IOReactor
+     * @return IOReactor
+     */
+    public ReusePortListeningIOReactor createReusePortListeningIOReactor(
+            PassThroughSharedListenerConfiguration passThroughSharedListenerConfiguration) throws IOReactorException {
+        try {
+            return new ReusePortListeningIOReactor(
+                    passThroughSharedListenerConfiguration.getSourceConfiguration().getIOReactorConfig(),
+                    passThroughSharedListenerConfiguration.getThreadFactory());
+        } catch (IOReactorException e) {
+            throw new IOReactorException
+                    ("Error creating ReusePortListeningIOReactor, ioReactorConfig or thread factory may have problems",
+                     e);
+        }
+    }
+
     private ListenerEndpoint startEndpoint(InetSocketAddress inetSocketAddress,
                                            ListeningIOReactor defaultListeningIOReactor, String endPointName)
             throws Exception {
         ListenerEndpoint endpoint = defaultListeningIOReactor.listen(inetSocketAddress);
         try {
             endpoint.waitFor();
+            if (endpoint.getException() != null) {
+                throw endpoint.getException();
+            }
             InetSocketAddress address = (InetSocketAddress) endpoint.getAddress();
             if (!address.isUnresolved()) {
                 log.info((endPointName != null ? "Pass-through " + endPointName : " Pass-through Http ") +
@@ -43,6 +43,11 @@ public class PassThroughSharedListenerConfiguration {
      */
     private SourceConfiguration sourceConfiguration;
 
+    /**
+     * Whether the listening sockets are bound with SO_REUSEPORT to be shared with other IOReactors
+     */
+    private boolean reusePort;
+
     /**
      * @param threadFactory       ThreadFactory used by IO Reactor
      * @param serverConnFactory   ServerConnectionFactory used by IODispatcher to create connections
@@ -55,6 +60,18 @@ public class PassThroughSharedListenerConfiguration {
         this.sourceConfiguration = sourceConfiguration;
     }
 
+    /**
+     * @param threadFactory       ThreadFactory used by IO Reactor
+     * @param serverConnFactory   ServerConnectionFactory used by IODispatcher to create connections
+     * @param sourceConfiguration SourceConfiguration of the shared IOReactor initiated PTT Listener
+     * @param reusePort           whether the listening sockets are bound with SO_REUSEPORT
+     */
+    public PassThroughSharedListenerConfiguration(ThreadFactory threadFactory, ServerConnFactory serverConnFactory,
+                                                  SourceConfiguration sourceConfiguration, boolean reusePort) {
+        this(threadFactory, serverConnFactory, sourceConfiguration);
+        this.reusePort = reusePort;
+    }
+
     /**
      * @return ThreadFactory
      */
@@ -76,4 +93,11 @@ public class PassThroughSharedListenerConfiguration {
         return sourceConfiguration;
     }
 
+    /**
+     * @return whether the listening sockets are bound with SO_REUSEPORT
+     */
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
 }
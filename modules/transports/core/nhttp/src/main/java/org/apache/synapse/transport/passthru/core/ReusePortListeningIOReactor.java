@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.impl.nio.reactor.DefaultListeningIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.nio.reactor.ListenerEndpoint;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Listening IOReactor which binds its listening sockets with SO_REUSEPORT, so that several reactors can listen on
+ * the same port. The kernel then spreads the incoming connections over the sockets, and each connection is served
+ * from accept to close by the dispatcher threads of the reactor which accepted it.
+ * <p>
+ * SO_REUSEPORT is only used on Linux, where the kernel load balances connections between the sockets, and needs a
+ * Java 9 or later runtime; check {@link #isSupported()} before creating an instance.
+ */
+public class ReusePortListeningIOReactor extends DefaultListeningIOReactor {
+
+    private static final Log log = LogFactory.getLog(ReusePortListeningIOReactor.class);
+
+    private static final SocketOption<Boolean> SO_REUSEPORT = lookupReusePortOption();
+
+    private final Queue<ReusePortEndpoint> pendingEndpoints = new ConcurrentLinkedQueue<ReusePortEndpoint>();
+
+    private final Set<ReusePortEndpoint> endpoints = new CopyOnWriteArraySet<ReusePortEndpoint>();
+
+    private final List<SocketAddress> pausedAddresses = new ArrayList<SocketAddress>();
+
+    public ReusePortListeningIOReactor(IOReactorConfig config, ThreadFactory threadFactory)
+            throws IOReactorException {
+        super(config, threadFactory);
+    }
+
+    /**
+     * @return whether listening sockets can be shared between reactors on this platform
+     */
+    public static boolean isSupported() {
+        return SO_REUSEPORT != null;
+    }
+
+    @Override
+    public ListenerEndpoint listen(SocketAddress address) {
+        ReusePortEndpoint endpoint = new ReusePortEndpoint(address);
+        pendingEndpoints.add(endpoint);
+        // the socket is registered by the reactor thread, which may be blocked in select
+        selector.wakeup();
+        return endpoint;
+    }
+
+    @Override
+    public Set<ListenerEndpoint> getEndpoints() {
+        Set<ListenerEndpoint> all = new HashSet<ListenerEndpoint>(super.getEndpoints());
+        for (ReusePortEndpoint endpoint : endpoints) {
+            if (!endpoint.isClosed()) {
+                all.add(endpoint);
+            }
+        }
+        return Collections.unmodifiableSet(all);
+    }
+
+    @Override
+    protected void processEvents(int readyCount) throws IOReactorException {
+        ReusePortEndpoint endpoint;
+        while ((endpoint = pendingEndpoints.poll()) != null) {
+            bind(endpoint);
+        }
+        // accepting is done by the default reactor, for every channel registered with OP_ACCEPT
+        super.processEvents(readyCount);
+    }
+
+    private void bind(ReusePortEndpoint endpoint) {
+        ServerSocketChannel channel = null;
+        try {
+            channel = ServerSocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setReuseAddress(config.isSoReuseAddress());
+            channel.setOption(SO_REUSEPORT, Boolean.TRUE);
+            channel.socket().bind(endpoint.getRequestedAddress(), config.getBacklogSize());
+            SelectionKey key = registerChannel(channel, SelectionKey.OP_ACCEPT);
+            key.attach(endpoint);
+            endpoints.add(endpoint);
+            endpoint.bound(channel, key);
+        } catch (IOException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            endpoint.failed(e);
+        }
+    }
+
+    @Override
+    public void pause() throws IOException {
+        super.pause();
+        synchronized (pausedAddresses) {
+            for (ReusePortEndpoint endpoint : endpoints) {
+                if (!endpoint.isClosed()) {
+                    pausedAddresses.add(endpoint.getRequestedAddress());
+                    endpoint.close();
+                }
+            }
+            endpoints.clear();
+        }
+    }
+
+    @Override
+    public void resume() throws IOException {
+        super.resume();
+        synchronized (pausedAddresses) {
+            for (SocketAddress address : pausedAddresses) {
+                listen(address);
+            }
+            pausedAddresses.clear();
+        }
+    }
+
+    @Override
+    protected void cancelRequests() throws IOReactorException {
+        super.cancelRequests();
+        ReusePortEndpoint endpoint;
+        while ((endpoint = pendingEndpoints.poll()) != null) {
+            endpoint.failed(new IOException("IO reactor is shutting down"));
+        }
+        for (ReusePortEndpoint bound : endpoints) {
+            bound.close();
+        }
+        endpoints.clear();
+    }
+
+    private static SocketOption<Boolean> lookupReusePortOption() {
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.US).contains("linux")) {
+            return null;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            SocketOption<Boolean> option = (SocketOption<Boolean>)
+                    StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+            ServerSocketChannel probe = ServerSocketChannel.open();
+            try {
+                return probe.supportedOptions().contains(option) ? option : null;
+            } finally {
+                probe.close();
+            }
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("SO_REUSEPORT is not available: " + e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Listener endpoint of a socket bound by this reactor.
+     */
+    private static class ReusePortEndpoint implements ListenerEndpoint {
+
+        private final SocketAddress requestedAddress;
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private volatile SocketAddress address;
+
+        private volatile IOException exception;
+
+        private volatile ServerSocketChannel channel;
+
+        private volatile SelectionKey key;
+
+        private volatile boolean closed;
+
+        ReusePortEndpoint(SocketAddress requestedAddress) {
+            this.requestedAddress = requestedAddress;
+        }
+
+        SocketAddress getRequestedAddress() {
+            return requestedAddress;
+        }
+
+        void bound(ServerSocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            this.address = channel.socket().getLocalSocketAddress();
+            completed.countDown();
+        }
+
+        void failed(IOException exception) {
+            this.exception = exception;
+            this.closed = true;
+            completed.countDown();
+        }
+
+        public SocketAddress getAddress() {
+            return address != null ? address : requestedAddress;
+        }
+
+        public IOException getException() {
+            return exception;
+        }
+
+        public void waitFor() throws InterruptedException {
+            completed.await();
+        }
+
+        public boolean isClosed() {
+            return closed || (channel != null && !channel.isOpen());
+        }
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (key != null) {
+                key.cancel();
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("Error closing listening socket " + requestedAddress, e);
+                }
+            }
+        }
+    }
+}
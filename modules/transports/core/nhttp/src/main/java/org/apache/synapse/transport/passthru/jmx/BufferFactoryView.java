@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.synapse.transport.passthru.jmx;
+
+import org.apache.axis2.AxisFault;
+import org.apache.synapse.transport.passthru.util.BufferFactory;
+
+/**
+ * BufferFactoryView MBean exposes the usage of the pass-through buffer pool, the number of requests served from
+ * the pool (hits), the number of requests which needed a fresh allocation (misses) and the bytes held by the pool.
+ */
+public class BufferFactoryView implements BufferFactoryViewMBean {
+
+    private static final String PASS_THROUGH_BUFFER_POOL = "PassThroughBufferPool";
+
+    private final BufferFactory bufferFactory;
+
+    private final String name;
+
+    public BufferFactoryView(String name, BufferFactory bufferFactory) throws AxisFault {
+        this.name = name;
+        this.bufferFactory = bufferFactory;
+        MBeanRegistrar.getInstance().registerMBean(this, PASS_THROUGH_BUFFER_POOL, name);
+    }
+
+    public void destroy() {
+        MBeanRegistrar.getInstance().unRegisterMBean(PASS_THROUGH_BUFFER_POOL, name);
+    }
+
+    public long getHitCount() {
+        return bufferFactory.getHitCount();
+    }
+
+    public long getMissCount() {
+        return bufferFactory.getMissCount();
+    }
+
+    public long getDiscardCount() {
+        return bufferFactory.getDiscardCount();
+    }
+
+    public long getPooledBufferCount() {
+        return bufferFactory.getPooledBufferCount();
+    }
+
+    public long getPooledBytes() {
+        return bufferFactory.getPooledBytes();
+    }
+
+    public int getBufferSize() {
+        return bufferFactory.getBufferSize();
+    }
+
+    public int getHighWatermark() {
+        return bufferFactory.getHighWatermark();
+    }
+
+    public void reset() {
+        bufferFactory.resetStatistics();
+    }
+}
@@ -20,12 +20,14 @@
 package org.apache.synapse.transport.passthru.jmx;
 
 import org.apache.axis2.AxisFault;
+import org.apache.synapse.transport.passthru.connections.AdaptiveConcurrencyLimiter;
 
 import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ConnectionsView MBean can be used to collect and monitor statistics on HTTP connections
@@ -66,10 +68,16 @@ public class ConnectionsView implements ConnectionsViewMBean {
 
     private AtomicInteger unservedRequests = new AtomicInteger(0);
 
+    /** Number of times connection input was suspended because a pipe was full */
+    private AtomicLong inputSuspensions = new AtomicLong(0);
+
     // The array length must be equal to the number of buckets
     private AtomicInteger[] requestSizeCounters = new AtomicInteger[6];
     private AtomicInteger[] responseSizeCounters = new AtomicInteger[6];
 
+    /** Adaptive concurrency limiters of the sender per route, null if they are not enabled */
+    private volatile Map<?, AdaptiveConcurrencyLimiter> concurrencyLimiters;
+
     private Date resetTime = Calendar.getInstance().getTime();
 
     private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
@@ -284,6 +292,40 @@ public class ConnectionsView implements ConnectionsViewMBean {
         return getCountersMap(responseSizeCounters);
     }
 
+    protected void setConcurrencyLimiters(Map<?, AdaptiveConcurrencyLimiter> concurrencyLimiters) {
+        this.concurrencyLimiters = concurrencyLimiters;
+    }
+
+    public Map getConcurrencyLimitsMap() {
+        Map<String,String> map = new TreeMap<String,String>();
+        Map<?, AdaptiveConcurrencyLimiter> limiters = concurrencyLimiters;
+        if (limiters != null) {
+            for (Map.Entry<?, AdaptiveConcurrencyLimiter> entry : limiters.entrySet()) {
+                map.put(entry.getKey().toString(), entry.getValue().toString());
+            }
+        }
+        return map;
+    }
+
+    public long getConcurrencyLimitRejections() {
+        long rejections = 0;
+        Map<?, AdaptiveConcurrencyLimiter> limiters = concurrencyLimiters;
+        if (limiters != null) {
+            for (AdaptiveConcurrencyLimiter limiter : limiters.values()) {
+                rejections += limiter.getRejectedCount();
+            }
+        }
+        return rejections;
+    }
+
+    protected void notifyInputSuspensions(int count) {
+        inputSuspensions.addAndGet(count);
+    }
+
+    public long getInputSuspensions() {
+        return inputSuspensions.get();
+    }
+
     public Date getLastResetTime() {
         return resetTime;
     }
@@ -304,6 +346,7 @@ public class ConnectionsView implements ConnectionsViewMBean {
     public void reset() {
         initCounters(requestSizeCounters);
         initCounters(responseSizeCounters);
+        inputSuspensions.set(0);
         shortTermDataQueue.clear();
         longTermDataQueue.clear();
         resetTime = Calendar.getInstance().getTime();
@@ -39,6 +39,9 @@ public interface ConnectionsViewMBean {
     public int getLast24HourConnections();
     public Map getRequestSizesMap();
     public Map getResponseSizesMap();
+    public Map getConcurrencyLimitsMap();
+    public long getConcurrencyLimitRejections();
+    public long getInputSuspensions();
     public Date getLastResetTime();
 
     public void reset();
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.jmx;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below {@link #SUB_BUCKET_COUNT} are counted exactly. Each power of two range above that is split into
+ * {@link #SUB_BUCKET_COUNT}/2 linear buckets, which bounds the relative error of a reported percentile to about
+ * 3%. Values above {@link #MAX_TRACKABLE_VALUE} are counted in the last bucket.
+ * <p>
+ * {@link #record(long)} only increments an array slot and never allocates, so it can be called from the IO
+ * threads. The histogram is rolled into intervals by {@link #rollInterval()}, which is called by the scheduler of
+ * the owning view. Percentiles of the last completed interval are computed at roll time and can be read without
+ * touching the live counts.
+ */
+public class LatencyHistogram {
+
+    /** Percentiles computed for each interval */
+    public static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    /** {@link #PERCENTILES} as quantile labels of the Prometheus text format, such as 0.999 */
+    public static final String[] QUANTILE_LABELS = quantileLabels(PERCENTILES);
+
+    static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    /** Large enough for about 71 minutes in microseconds, or 49 days in milliseconds */
+    private static final int MAX_EXPONENT = 32;
+
+    /** Largest value which is tracked with full precision, in the unit of the recorded values */
+    static final long MAX_TRACKABLE_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    /** Counts since the last reset, only ever incremented by the recording threads */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong intervalMax = new AtomicLong(0);
+
+    /** Snapshot of the counts when the current interval started, owned by the rolling thread */
+    private final long[] intervalStartCounts = new long[BUCKET_COUNT];
+
+    /** Scratch space for the interval counts, owned by the rolling thread */
+    private final long[] intervalCounts = new long[BUCKET_COUNT];
+
+    /** Percentiles of the last completed interval followed by its maximum and the number of values */
+    private volatile long[] lastInterval = new long[PERCENTILES.length + 2];
+
+    /**
+     * Record a latency value.
+     *
+     * @param value latency in the unit chosen by the owner of the histogram, negative values are ignored
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        long max = intervalMax.get();
+        while (value > max && !intervalMax.compareAndSet(max, value)) {
+            max = intervalMax.get();
+        }
+    }
+
+    /**
+     * Close the current interval and compute its percentiles.
+     */
+    public synchronized void rollInterval() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long current = counts.get(i);
+            long delta = current - intervalStartCounts[i];
+            intervalStartCounts[i] = current;
+            // a concurrent reset may make the delta negative, treat the bucket as empty in that case
+            intervalCounts[i] = delta > 0 ? delta : 0;
+            total += intervalCounts[i];
+        }
+        long[] result = new long[PERCENTILES.length + 2];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            result[i] = valueAtPercentile(intervalCounts, total, PERCENTILES[i]);
+        }
+        result[PERCENTILES.length] = intervalMax.getAndSet(0);
+        result[PERCENTILES.length + 1] = total;
+        lastInterval = result;
+    }
+
+    /**
+     * @param percentileIndex index into {@link #PERCENTILES}
+     * @return the value at the given percentile in the last completed interval
+     */
+    public long getIntervalPercentile(int percentileIndex) {
+        return lastInterval[percentileIndex];
+    }
+
+    /**
+     * @return maximum value recorded in the last completed interval
+     */
+    public long getIntervalMax() {
+        return lastInterval[PERCENTILES.length];
+    }
+
+    /**
+     * @return number of values recorded in the last completed interval
+     */
+    public long getIntervalCount() {
+        return lastInterval[PERCENTILES.length + 1];
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+            intervalStartCounts[i] = 0;
+        }
+        intervalMax.set(0);
+        lastInterval = new long[PERCENTILES.length + 2];
+    }
+
+    private static long valueAtPercentile(long[] bucketCounts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long countAtPercentile = Math.max(1, (long) Math.ceil((percentile / 100.0) * total));
+        long cumulative = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            cumulative += bucketCounts[i];
+            if (cumulative >= countAtPercentile) {
+                return highestValueInBucket(i);
+            }
+        }
+        return highestValueInBucket(bucketCounts.length - 1);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        if (value > MAX_TRACKABLE_VALUE) {
+            return BUCKET_COUNT - 1;
+        }
+        // exponent of the power of two range, SUB_BUCKET_BITS for the first range above the exact values
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int range = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        int shift = range + 1;
+        return (((long) subBucket + 1) << shift) - 1;
+    }
+
+    private static String[] quantileLabels(double[] percentiles) {
+        String[] labels = new String[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            // dividing the double by 100 would print 0.9990000000000001 for the 99.9th percentile
+            labels[i] = BigDecimal.valueOf(percentiles[i]).movePointLeft(2).stripTrailingZeros().toPlainString();
+        }
+        return labels;
+    }
+}
@@ -64,12 +64,22 @@ public class LatencyParameter {
 
     private final boolean enabled;
 
+    /**
+     * Histogram of all latency values reported, rolled into one minute intervals by the short term data
+     * collector to compute the tail latencies.
+     */
+    private LatencyHistogram histogram;
+
+    /** Number of short term updates since the histogram interval was last rolled */
+    private int updatesSinceRoll = 0;
+
     public LatencyParameter(boolean enabled) {
         this.enabled = enabled;
         if (!this.enabled) {
             return;
         }
         lastValue = new AtomicLong(0);
+        histogram = new LatencyHistogram();
         cache = new ConcurrentLinkedQueue<Long>();
         shortTermCache = new LinkedList<Long>();
         longTermCache = new LinkedList<Long>();
@@ -94,6 +104,7 @@ public class LatencyParameter {
             allTimeAverage = 0.0;
             count = 0;
         }
+        histogram.reset();
     }
 
 
@@ -121,6 +132,10 @@ public class LatencyParameter {
             return;
         }
         updateCacheQueue();
+        if (++updatesSinceRoll >= SAMPLES_PER_MINUTE) {
+            updatesSinceRoll = 0;
+            histogram.rollInterval();
+        }
     }
 
     public void update(long value) {
@@ -129,6 +144,33 @@ public class LatencyParameter {
         }
         lastValue.set(value);
         cache.offer(lastValue.get());
+        histogram.record(value);
+    }
+
+    /**
+     * @param percentileIndex index into {@link LatencyHistogram#PERCENTILES}
+     * @return latency at the given percentile over the last minute
+     */
+    public long getPercentileLatency1m(int percentileIndex) {
+        return enabled ? histogram.getIntervalPercentile(percentileIndex) : 0L;
+    }
+
+    /**
+     * @return maximum latency over the last minute
+     */
+    public long getMaxLatency1m() {
+        return enabled ? histogram.getIntervalMax() : 0L;
+    }
+
+    /**
+     * @return number of latency values reported over the last minute
+     */
+    public long getCount1m() {
+        return enabled ? histogram.getIntervalCount() : 0L;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
     }
 
     private void updateCacheQueue() {
@@ -24,7 +24,9 @@ import org.apache.synapse.commons.jmx.MBeanRegistrar;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -84,6 +86,11 @@ public class LatencyView implements LatencyViewMBean {
 
     private List<LatencyParameter> latencies = new ArrayList<LatencyParameter>(10);
 
+    /** Latencies keyed by the stage name used when exposing percentiles */
+    private Map<String, LatencyParameter> stages = new LinkedHashMap<String, LatencyParameter>(16);
+
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
     /** Scheduled executor on which data collectors are executed */
     private ScheduledExecutorService scheduler;
 
@@ -188,6 +195,97 @@ public class LatencyView implements LatencyViewMBean {
         latencies.add(clientWorkerWaitTime);
         latencies.add(requestMediationLatency);
         latencies.add(responseMediationLatency);
+
+        stages.put("Latency", lastLatency);
+        stages.put("Latency_BackEnd", lastLatencyBe);
+        stages.put("Client_To_Esb_RequestReadTime", serverDecodeLatency);
+        stages.put("Esb_To_BackEnd_RequestWriteTime", clientEncodeLatency);
+        stages.put("BackEnd_To_Esb_ResponseReadTime", clientDecodeLatency);
+        stages.put("Esb_To_Client_ResponseWriteTime", serverEncodeLatency);
+        stages.put("ServerWorker_QueuedTime", serverWorkerWaitTime);
+        stages.put("ClientWorker_QueuedTime", clientWorkerWaitTime);
+        stages.put("request_Mediation_Latency", requestMediationLatency);
+        stages.put("response_Mediation_Latency", responseMediationLatency);
+    }
+
+    public long get1m_P50_Latency() {
+        return lastLatency.getPercentileLatency1m(0);
+    }
+
+    public long get1m_P90_Latency() {
+        return lastLatency.getPercentileLatency1m(1);
+    }
+
+    public long get1m_P99_Latency() {
+        return lastLatency.getPercentileLatency1m(2);
+    }
+
+    public long get1m_P999_Latency() {
+        return lastLatency.getPercentileLatency1m(3);
+    }
+
+    public long get1m_Max_Latency() {
+        return lastLatency.getMaxLatency1m();
+    }
+
+    public long get1m_P50_Latency_BackEnd() {
+        return lastLatencyBe.getPercentileLatency1m(0);
+    }
+
+    public long get1m_P90_Latency_BackEnd() {
+        return lastLatencyBe.getPercentileLatency1m(1);
+    }
+
+    public long get1m_P99_Latency_BackEnd() {
+        return lastLatencyBe.getPercentileLatency1m(2);
+    }
+
+    public long get1m_P999_Latency_BackEnd() {
+        return lastLatencyBe.getPercentileLatency1m(3);
+    }
+
+    public long get1m_Max_Latency_BackEnd() {
+        return lastLatencyBe.getMaxLatency1m();
+    }
+
+    public Map getPercentileLatenciesMap() {
+        Map<String, Long> percentiles = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, LatencyParameter> stage : stages.entrySet()) {
+            LatencyParameter latency = stage.getValue();
+            if (!latency.isEnabled()) {
+                continue;
+            }
+            for (int i = 0; i < PERCENTILE_NAMES.length; i++) {
+                percentiles.put(stage.getKey() + "." + PERCENTILE_NAMES[i], latency.getPercentileLatency1m(i));
+            }
+            percentiles.put(stage.getKey() + ".max", latency.getMaxLatency1m());
+            percentiles.put(stage.getKey() + ".count", latency.getCount1m());
+        }
+        return percentiles;
+    }
+
+    public String getPercentileLatenciesText() {
+        StringBuilder text = new StringBuilder(2048);
+        String metric = "synapse_passthru_latency_milliseconds";
+        text.append("# HELP ").append(metric).append(" Pass-through transport latency over the last minute\n");
+        text.append("# TYPE ").append(metric).append(" summary\n");
+        for (Map.Entry<String, LatencyParameter> stage : stages.entrySet()) {
+            LatencyParameter latency = stage.getValue();
+            if (!latency.isEnabled()) {
+                continue;
+            }
+            String labels = "view=\"" + latencyMode + "-" + name + "\",stage=\"" + stage.getKey() + "\"";
+            for (int i = 0; i < LatencyHistogram.PERCENTILES.length; i++) {
+                text.append(metric).append('{').append(labels).append(",quantile=\"")
+                        .append(LatencyHistogram.QUANTILE_LABELS[i]).append("\"} ")
+                        .append(latency.getPercentileLatency1m(i)).append('\n');
+            }
+            text.append(metric).append("_max{").append(labels).append("} ")
+                    .append(latency.getMaxLatency1m()).append('\n');
+            text.append(metric).append("_count{").append(labels).append("} ")
+                    .append(latency.getCount1m()).append('\n');
+        }
+        return text.toString();
     }
 
     public double getAvg_Latency() {
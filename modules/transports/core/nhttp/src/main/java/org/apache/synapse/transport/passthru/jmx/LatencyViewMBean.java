@@ -20,6 +20,7 @@
 package org.apache.synapse.transport.passthru.jmx;
 
 import java.util.Date;
+import java.util.Map;
 
 /**
  * Provides metrics related to the latency added by the NHTTP transport while mediating
@@ -117,4 +118,19 @@ public interface LatencyViewMBean {
 
     /** Provide LastReset Time **/
     public Date getLastResetTime();
+
+    /** Percentiles over the last minute */
+    public long get1m_P50_Latency();
+    public long get1m_P90_Latency();
+    public long get1m_P99_Latency();
+    public long get1m_P999_Latency();
+    public long get1m_Max_Latency();
+    public long get1m_P50_Latency_BackEnd();
+    public long get1m_P90_Latency_BackEnd();
+    public long get1m_P99_Latency_BackEnd();
+    public long get1m_P999_Latency_BackEnd();
+    public long get1m_Max_Latency_BackEnd();
+    public Map getPercentileLatenciesMap();
+    /** Percentiles over the last minute for all the enabled stages in Prometheus text format */
+    public String getPercentileLatenciesText();
 }
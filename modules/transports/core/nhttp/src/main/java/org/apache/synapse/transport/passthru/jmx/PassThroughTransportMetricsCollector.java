@@ -21,6 +21,9 @@ package org.apache.synapse.transport.passthru.jmx;
 
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.transport.base.MetricsCollector;
+import org.apache.synapse.transport.passthru.connections.AdaptiveConcurrencyLimiter;
+
+import java.util.Map;
 
 /**
  * <p>This simple extension of the Axis2 transport MetricsCollector implementation,
@@ -109,6 +112,16 @@ public class PassThroughTransportMetricsCollector extends MetricsCollector {
         }
     }
 
+    public void notifyInputSuspensions(int count) {
+        if (!metricsCollectionDisabled) {
+            view.notifyInputSuspensions(count);
+        }
+    }
+
+    public void setConcurrencyLimiters(Map<?, AdaptiveConcurrencyLimiter> concurrencyLimiters) {
+        view.setConcurrencyLimiters(concurrencyLimiters);
+    }
+
     public int getActiveConnectionCount() {
         return view.getActiveConnections();
     }
@@ -19,68 +19,279 @@ package org.apache.synapse.transport.passthru.util;
 import org.apache.http.nio.util.ByteBufferAllocator;
 import org.apache.http.nio.util.HeapByteBufferAllocator;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Pool of {@link ControlledByteBuffer}s used by the pass-through transport pipes.
+ * <p>
+ * Buffers are served from a small per-thread cache first and from a lock-free shared tier next. A buffer is
+ * only allocated through the {@link ByteBufferAllocator} when both tiers are empty. The shared tier never holds
+ * more than the high watermark number of buffers; released buffers above that are left to the garbage collector.
+ * The low watermark number of buffers are allocated up front so that a freshly started transport does not pay the
+ * allocation cost (which is significant for direct buffers) on its first requests.
+ * <p>
+ * The thread caches together never hold more than the high watermark number of buffers either, so that many
+ * short-lived threads cannot pin an unbounded number of buffers. The cache of a thread which has terminated is
+ * drained back in to the shared tier the next time a request misses the pool.
+ */
 public class BufferFactory {
 
-    private volatile ControlledByteBuffer [] buffers;
+    /** Default number of buffers kept in each thread local cache */
+    public static final int DEFAULT_THREAD_CACHE_SIZE = 8;
+
+    /** Minimum time between two scans for the caches of terminated threads */
+    private static final long CACHE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ByteBufferAllocator allocator;
+
+    private final int bufferSize;
+
+    private final int highWatermark;
+
+    private final int threadCacheSize;
+
+    /** Shared tier, accessed by all threads which could not be served from their local cache */
+    private final Queue<ControlledByteBuffer> sharedBuffers = new ConcurrentLinkedQueue<ControlledByteBuffer>();
+
+    /** Number of buffers in the shared tier. Tracked separately since ConcurrentLinkedQueue#size is O(n) */
+    private final AtomicInteger sharedCount = new AtomicInteger(0);
 
-    private volatile int marker = -1;
+    private final ThreadLocal<ThreadCache> threadCache;
 
-    private ByteBufferAllocator allocator = null;
+    /** Caches of all the threads which used the pool, so that the cache of a terminated thread can be drained */
+    private final Set<ThreadCache> threadCaches = ConcurrentHashMap.newKeySet();
 
-    private Lock lock = new ReentrantLock();
+    /** Number of buffers in all the thread caches, never more than the high watermark */
+    private final AtomicInteger threadCachedCount = new AtomicInteger(0);
 
-    private int bufferSize = 1024 * 8;
+    private final AtomicLong lastCacheSweep = new AtomicLong(System.nanoTime());
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder discards = new LongAdder();
 
     public BufferFactory(int bufferSize, ByteBufferAllocator allocator, int size) {
+        this(bufferSize, allocator, size, 0, DEFAULT_THREAD_CACHE_SIZE);
+    }
+
+    /**
+     * Create a buffer pool.
+     *
+     * @param bufferSize      size in bytes of the buffers handed out
+     * @param allocator       allocator used to create new buffers, heap allocator is used if null
+     * @param highWatermark   maximum number of buffers held in the shared tier
+     * @param lowWatermark    number of buffers allocated into the shared tier at creation
+     * @param threadCacheSize maximum number of buffers held in each thread local cache, 0 to disable
+     */
+    public BufferFactory(int bufferSize, ByteBufferAllocator allocator, int highWatermark, int lowWatermark,
+                         int threadCacheSize) {
         this.bufferSize = bufferSize;
         if (allocator != null) {
             this.allocator = allocator;
         } else {
             this.allocator = new HeapByteBufferAllocator();
         }
+        this.highWatermark = Math.max(highWatermark, 0);
+        this.threadCacheSize = Math.max(threadCacheSize, 0);
 
-        buffers = new ControlledByteBuffer[size];
-    }
+        if (this.threadCacheSize > 0) {
+            threadCache = new ThreadLocal<ThreadCache>() {
+                @Override
+                protected ThreadCache initialValue() {
+                    ThreadCache cache = new ThreadCache(Thread.currentThread(), BufferFactory.this.threadCacheSize);
+                    threadCaches.add(cache);
+                    return cache;
+                }
+            };
+        } else {
+            threadCache = null;
+        }
 
+        int initialBuffers = Math.min(Math.max(lowWatermark, 0), this.highWatermark);
+        for (int i = 0; i < initialBuffers; i++) {
+            sharedBuffers.offer(allocate());
+            sharedCount.incrementAndGet();
+        }
+    }
 
     public ControlledByteBuffer getBuffer() {
+        ControlledByteBuffer controlledByteBuffer = null;
+        if (threadCache != null) {
+            controlledByteBuffer = threadCache.get().buffers.pollFirst();
+            if (controlledByteBuffer != null) {
+                threadCachedCount.decrementAndGet();
+            }
+        }
+        if (controlledByteBuffer == null && sharedCount.get() > 0) {
+            controlledByteBuffer = sharedBuffers.poll();
+            if (controlledByteBuffer != null) {
+                sharedCount.decrementAndGet();
+            }
+        }
 
-        if (marker == -1) {
-            // System.out.println("allocating marker -1");
-            return new ControlledByteBuffer(allocator.allocate(bufferSize));
-        } else {
-            try {
-                lock.lock();
-                if (marker >= 0) {
-                    // System.out.println("Returning buffer");
-                    ControlledByteBuffer controlledByteBuffer = buffers[marker];
-                    controlledByteBuffer.clear();
-                    controlledByteBuffer.forceSetInputMode();
-                    buffers[marker] = null;
-                    marker--;
-                    return controlledByteBuffer;
+        if (controlledByteBuffer == null) {
+            misses.increment();
+            sweepThreadCaches();
+            return allocate();
+        }
+        hits.increment();
+        controlledByteBuffer.clear();
+        controlledByteBuffer.forceSetInputMode();
+        return controlledByteBuffer;
+    }
+
+    public void release(ControlledByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        buffer.clear();
+        buffer.forceSetInputMode();
+
+        if (threadCache != null) {
+            ArrayDeque<ControlledByteBuffer> cache = threadCache.get().buffers;
+            if (cache.size() < threadCacheSize) {
+                // reserve a slot so that the thread caches together never grow past the high watermark
+                if (threadCachedCount.incrementAndGet() <= highWatermark) {
+                    cache.offerFirst(buffer);
+                    return;
                 }
-            } finally {
-                lock.unlock();
+                threadCachedCount.decrementAndGet();
             }
         }
+        releaseToSharedTier(buffer);
+    }
 
-        return new ControlledByteBuffer(allocator.allocate(bufferSize));
+    private void releaseToSharedTier(ControlledByteBuffer buffer) {
+        // reserve a slot before publishing so that the shared tier never grows past the high watermark
+        if (sharedCount.incrementAndGet() <= highWatermark) {
+            sharedBuffers.offer(buffer);
+        } else {
+            sharedCount.decrementAndGet();
+            discards.increment();
+        }
     }
 
-    public void release(ControlledByteBuffer buffer) {
-        lock.lock();
-        try {
-            if (marker < buffers.length - 1) {
-                buffer.clear();
-                buffer.forceSetInputMode();
-                buffers[++marker] = buffer;
+    /**
+     * Drain the caches of the threads which have terminated in to the shared tier, at most once per
+     * {@link #CACHE_SWEEP_INTERVAL_NANOS}.
+     */
+    private void sweepThreadCaches() {
+        if (threadCache == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastCacheSweep.get();
+        if (now - last >= CACHE_SWEEP_INTERVAL_NANOS && lastCacheSweep.compareAndSet(last, now)) {
+            releaseTerminatedThreadCaches();
+        }
+    }
+
+    /**
+     * Drain the caches of the threads which have terminated in to the shared tier.
+     */
+    void releaseTerminatedThreadCaches() {
+        Iterator<ThreadCache> caches = threadCaches.iterator();
+        while (caches.hasNext()) {
+            ThreadCache cache = caches.next();
+            if (!cache.isOwnerAlive()) {
+                caches.remove();
+                drain(cache);
             }
-        } finally {
-            lock.unlock();
+        }
+    }
+
+    /**
+     * Move the buffers of a cache which is no longer used by its owner in to the shared tier.
+     */
+    private void drain(ThreadCache cache) {
+        ControlledByteBuffer buffer;
+        while ((buffer = cache.buffers.pollFirst()) != null) {
+            threadCachedCount.decrementAndGet();
+            releaseToSharedTier(buffer);
+        }
+    }
+
+    private ControlledByteBuffer allocate() {
+        return new ControlledByteBuffer(allocator.allocate(bufferSize));
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getHighWatermark() {
+        return highWatermark;
+    }
+
+    /**
+     * @return number of buffer requests served from the pool
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of buffer requests which required a new allocation
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of released buffers dropped since the shared tier was at the high watermark
+     */
+    public long getDiscardCount() {
+        return discards.sum();
+    }
+
+    /**
+     * @return number of buffers currently held by the pool, in the shared tier and in the thread caches
+     */
+    public long getPooledBufferCount() {
+        return sharedCount.get() + threadCachedCount.get();
+    }
+
+    /**
+     * @return number of bytes currently held by the pool
+     */
+    public long getPooledBytes() {
+        return getPooledBufferCount() * bufferSize;
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        discards.reset();
+    }
+
+    /**
+     * Buffers cached for a thread. The owner is only weakly referenced so that the cache does not keep a terminated
+     * thread alive; once it has terminated the buffers are only touched by the thread draining them.
+     */
+    private static final class ThreadCache {
+
+        private final WeakReference<Thread> owner;
+
+        private final ArrayDeque<ControlledByteBuffer> buffers;
+
+        ThreadCache(Thread owner, int size) {
+            this.owner = new WeakReference<Thread>(owner);
+            this.buffers = new ArrayDeque<ControlledByteBuffer>(size);
+        }
+
+        boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
         }
     }
 }
@@ -36,7 +36,6 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpRequest;
 import org.apache.http.nio.NHttpServerConnection;
 import org.apache.http.nio.reactor.IOSession;
 import org.apache.synapse.commons.CorrelationConstants;
@@ -48,6 +47,7 @@ import org.apache.synapse.transport.passthru.Pipe;
 import org.apache.synapse.transport.passthru.ProtocolState;
 import org.apache.synapse.transport.passthru.ServerWorker;
 import org.apache.synapse.transport.passthru.SourceContext;
+import org.apache.synapse.transport.passthru.SourceRequest;
 import org.apache.synapse.transport.passthru.TargetContext;
 import org.apache.synapse.transport.passthru.TargetRequest;
 import org.apache.synapse.transport.passthru.config.PassThroughConfiguration;
@@ -563,8 +563,7 @@ public class RelayUtils {
         }
         Pipe pipe = (Pipe) msgContext.getProperty(PassThroughConstants.PASS_THROUGH_PIPE);
         if (pipe != null) {
-            pipe.getBuffer().clear();
-            pipe.resetOutputStream();
+            pipe.discard();
             msgContext.setProperty(PassThroughConstants.MESSAGE_BUILDER_INVOKED, Boolean.TRUE);
         }
     }
@@ -581,10 +580,12 @@ public class RelayUtils {
                 PassThroughConstants.PASS_THROUGH_SOURCE_CONNECTION);
         if (conn instanceof LoggingNHttpServerConnection) {
             StringBuilder requestInfo = new StringBuilder();
-            HttpRequest httpRequest = conn.getHttpRequest();
-            if (httpRequest != null) {
-                requestInfo.append("HTTP_URL = ").append(httpRequest.getRequestLine().getUri()).append(", ")
-                        .append("HTTP_METHOD = ").append(httpRequest.getRequestLine().getMethod());
+            // the connection may have read pipelined requests ahead of the one of this message context
+            SourceRequest sourceRequest = (SourceRequest) msgContext.getProperty(
+                    PassThroughConstants.PASS_THROUGH_SOURCE_REQUEST);
+            if (sourceRequest != null) {
+                requestInfo.append("HTTP_URL = ").append(sourceRequest.getUri()).append(", ")
+                        .append("HTTP_METHOD = ").append(sourceRequest.getMethod());
             }
             IOSession session = ((LoggingNHttpServerConnection) conn).getIOSession();
             if (session != null && session.getRemoteAddress() != null) {
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.util;
+
+import org.apache.axis2.transport.base.threads.WorkerPool;
+import org.apache.synapse.commons.executors.VirtualThreadExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WorkerPool} which runs the pass-through {@code ServerWorker} and {@code ClientWorker} tasks on virtual
+ * threads. Blocking mediation then parks a virtual thread instead of holding one of a fixed number of platform
+ * threads, while the concurrency bound still limits how many messages are mediated at the same time.
+ */
+public class VirtualThreadWorkerPool implements WorkerPool {
+
+    private final VirtualThreadExecutor executor;
+
+    public VirtualThreadWorkerPool(String threadNamePrefix, int maxConcurrency, int queueLength) {
+        this.executor = new VirtualThreadExecutor(threadNamePrefix, maxConcurrency, queueLength);
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueueSize();
+    }
+
+    public void shutdown(int timeout) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+    }
+}
@@ -112,6 +112,14 @@ public class PassThroughHttpListenerTest {
         passThroughHttpListener.reload(transportInDescription);
     }
 
+    @Test
+    public void testShardIOThreadCount() throws Exception {
+        Assert.assertEquals("I/O threads should be split between the shards",
+                4, PassThroughHttpListener.getShardIOThreadCount(8, 2));
+        Assert.assertEquals("Every shard should keep an I/O thread",
+                1, PassThroughHttpListener.getShardIOThreadCount(2, 4));
+    }
+
     @AfterClass()
     public static void stopListener() throws Exception {
         passThroughHttpListener.stop();
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru;
+
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentDecoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.synapse.transport.passthru.config.BaseConfiguration;
+import org.apache.synapse.transport.passthru.util.BufferFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Tests relaying content through a {@link Pipe} with several ring buffers, and through the relay spool file.
+ */
+public class PipeTest {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder spoolDirectory = new TemporaryFolder();
+
+    private BaseConfiguration configuration;
+
+    @Before
+    public void setUp() {
+        configuration = Mockito.mock(BaseConfiguration.class);
+        Mockito.when(configuration.getBufferFactory()).thenReturn(new BufferFactory(BUFFER_SIZE, null, 16));
+    }
+
+    @Test(timeout = 10000)
+    public void testRingRelaysContentInOrder() throws Exception {
+        byte[] payload = createPayload(50 * BUFFER_SIZE + 123);
+
+        RecordingIOControl ringControl = new RecordingIOControl();
+        Pipe ringPipe = createPipe(ringControl, 4, 2);
+        Assert.assertArrayEquals(payload, relay(ringPipe, ringControl, payload, 3000));
+
+        RecordingIOControl singleControl = new RecordingIOControl();
+        Pipe singlePipe = createPipe(singleControl, 1, 1);
+        Assert.assertArrayEquals(payload, relay(singlePipe, singleControl, payload, 3000));
+
+        Assert.assertTrue("The ring should suspend the producer less often",
+                ringPipe.getInputSuspendCount() < singlePipe.getInputSuspendCount());
+        Assert.assertEquals(ringControl.suspensions, ringPipe.getInputSuspendCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testInputResumedAtResumeLevel() throws Exception {
+        RecordingIOControl control = new RecordingIOControl();
+        Pipe pipe = createPipe(control, 4, 2);
+        ChunkedDecoder decoder = new ChunkedDecoder(createPayload(10 * BUFFER_SIZE), 10 * BUFFER_SIZE);
+        BudgetEncoder encoder = new BudgetEncoder();
+
+        decoder.arrive();
+        Assert.assertEquals(4 * BUFFER_SIZE, pipe.produce(decoder));
+        Assert.assertTrue("Input should be suspended once all the buffers are full", control.inputSuspended);
+        Assert.assertEquals(1, pipe.getInputSuspendCount());
+
+        // three buffers still full
+        encoder.budget = BUFFER_SIZE;
+        Assert.assertEquals(BUFFER_SIZE, pipe.consume(encoder));
+        Assert.assertTrue("Input should stay suspended above the resume level", control.inputSuspended);
+
+        // two buffers still full
+        encoder.budget = BUFFER_SIZE;
+        Assert.assertEquals(BUFFER_SIZE, pipe.consume(encoder));
+        Assert.assertFalse("Input should be resumed at the resume level", control.inputSuspended);
+
+        Assert.assertEquals(2 * BUFFER_SIZE, pipe.produce(decoder));
+        Assert.assertTrue(control.inputSuspended);
+        Assert.assertEquals(2, pipe.getInputSuspendCount());
+        pipe.releaseRingBuffers();
+    }
+
+    @Test(timeout = 10000)
+    public void testSpoolOverflowToDisk() throws Exception {
+        RecordingIOControl control = new RecordingIOControl();
+        Pipe pipe = createSpoolingPipe(control, 64 * BUFFER_SIZE);
+        FileChunkedDecoder decoder = new FileChunkedDecoder(createPayload(20 * BUFFER_SIZE), 10 * BUFFER_SIZE);
+
+        decoder.arrive();
+        Assert.assertEquals("Content over the buffer should be spooled", 10 * BUFFER_SIZE, pipe.produce(decoder));
+        Assert.assertEquals(1, spoolFiles().length);
+        Assert.assertEquals(9 * BUFFER_SIZE, spoolFiles()[0].length());
+        Assert.assertTrue("Input should be suspended while the spool file holds content", control.inputSuspended);
+
+        FileBudgetEncoder encoder = new FileBudgetEncoder();
+        encoder.budget = 4 * BUFFER_SIZE;
+        pipe.consume(encoder);
+        Assert.assertTrue("Input should stay suspended until the spool file is drained", control.inputSuspended);
+
+        encoder.budget = 6 * BUFFER_SIZE;
+        pipe.consume(encoder);
+        Assert.assertFalse("Input should be resumed once the spool file is drained", control.inputSuspended);
+        Assert.assertTrue("Spooled content should be moved with file transfers", encoder.transferred > 0);
+        pipe.releaseSpool();
+    }
+
+    @Test(timeout = 10000)
+    public void testSpooledContentReadBackInOrder() throws Exception {
+        byte[] payload = createPayload(50 * BUFFER_SIZE + 123);
+
+        RecordingIOControl transferControl = new RecordingIOControl();
+        Pipe transferPipe = createSpoolingPipe(transferControl, 64 * BUFFER_SIZE);
+        Assert.assertArrayEquals(payload, relay(transferPipe, transferControl,
+                new FileChunkedDecoder(payload, 7 * BUFFER_SIZE), new FileBudgetEncoder(), 3000));
+
+        // an encoder without file transfers reads the spooled content back through the buffer
+        RecordingIOControl bufferControl = new RecordingIOControl();
+        Pipe bufferPipe = createSpoolingPipe(bufferControl, 64 * BUFFER_SIZE);
+        Assert.assertArrayEquals(payload, relay(bufferPipe, bufferControl,
+                new FileChunkedDecoder(payload, 7 * BUFFER_SIZE), new BudgetEncoder(), 3000));
+    }
+
+    @Test(timeout = 10000)
+    public void testSpoolMaxSize() throws Exception {
+        RecordingIOControl control = new RecordingIOControl();
+        Pipe pipe = createSpoolingPipe(control, 2 * BUFFER_SIZE);
+        FileChunkedDecoder decoder = new FileChunkedDecoder(createPayload(10 * BUFFER_SIZE), 10 * BUFFER_SIZE);
+
+        decoder.arrive();
+        Assert.assertEquals("Spooling should stop at the maximum size", 3 * BUFFER_SIZE, pipe.produce(decoder));
+        Assert.assertEquals(2 * BUFFER_SIZE, spoolFiles()[0].length());
+        Assert.assertTrue(control.inputSuspended);
+        Assert.assertFalse(decoder.isCompleted());
+        pipe.releaseSpool();
+    }
+
+    @Test(timeout = 10000)
+    public void testSpoolFileDeletedOnRelease() throws Exception {
+        RecordingIOControl control = new RecordingIOControl();
+        Pipe pipe = createSpoolingPipe(control, 64 * BUFFER_SIZE);
+        FileChunkedDecoder decoder = new FileChunkedDecoder(createPayload(4 * BUFFER_SIZE), 4 * BUFFER_SIZE);
+
+        decoder.arrive();
+        pipe.produce(decoder);
+        Assert.assertEquals(1, spoolFiles().length);
+
+        pipe.releaseSpool();
+        Assert.assertEquals("The spool file should be deleted when the pipe is released", 0, spoolFiles().length);
+    }
+
+    @Test(timeout = 10000)
+    public void testCopyingProducerSuspendedWhenBufferFull() throws Exception {
+        RecordingIOControl control = new RecordingIOControl();
+        Pipe pipe = createSpoolingPipe(control, 64 * BUFFER_SIZE);
+        FileChunkedDecoder decoder = new FileChunkedDecoder(createPayload(4 * BUFFER_SIZE), 4 * BUFFER_SIZE);
+
+        decoder.arrive();
+        Assert.assertEquals(BUFFER_SIZE, pipe.copyAndProduce(decoder).remaining());
+        Assert.assertEquals("Content copied for interceptors should not be spooled", 0, spoolFiles().length);
+        Assert.assertTrue("Input should be suspended once the buffer is full", control.inputSuspended);
+        pipe.releaseSpool();
+    }
+
+    @Test(timeout = 10000)
+    public void testDiscardSpooledContentBeforeSerializedResponse() throws Exception {
+        RecordingIOControl control = new RecordingIOControl();
+        Pipe pipe = createSpoolingPipe(control, 64 * BUFFER_SIZE);
+        FileChunkedDecoder decoder = new FileChunkedDecoder(createPayload(4 * BUFFER_SIZE), 4 * BUFFER_SIZE);
+
+        decoder.arrive();
+        pipe.produce(decoder);
+        Assert.assertEquals(3 * BUFFER_SIZE, spoolFiles()[0].length());
+
+        // a fault is serialized in place of the request content which was read but not relayed
+        byte[] fault = createPayload(100);
+        OutputStream out = pipe.discard();
+        out.write(fault);
+        pipe.setSerializationComplete(true);
+
+        BudgetEncoder encoder = new BudgetEncoder();
+        encoder.budget = 4 * BUFFER_SIZE;
+        pipe.consume(encoder);
+        Assert.assertTrue("The serialized response should complete", encoder.isCompleted());
+        Assert.assertArrayEquals(fault, encoder.content.toByteArray());
+        pipe.releaseSpool();
+    }
+
+    private Pipe createSpoolingPipe(RecordingIOControl control, long spoolMaxSize) {
+        BaseConfiguration spoolConfiguration = Mockito.mock(BaseConfiguration.class);
+        Mockito.when(spoolConfiguration.getBufferFactory()).thenReturn(configuration.getBufferFactory());
+        Mockito.when(spoolConfiguration.isRelaySpoolEnabled()).thenReturn(true);
+        Mockito.when(spoolConfiguration.getRelaySpoolMaxSize()).thenReturn(spoolMaxSize);
+        Mockito.when(spoolConfiguration.getRelaySpoolDirectory())
+                .thenReturn(spoolDirectory.getRoot().getAbsolutePath());
+        Pipe pipe = new Pipe(control, configuration.getBufferFactory().getBuffer(), "test", spoolConfiguration,
+                1, 1);
+        pipe.attachConsumer(control);
+        return pipe;
+    }
+
+    private File[] spoolFiles() {
+        return spoolDirectory.getRoot().listFiles();
+    }
+
+    private Pipe createPipe(RecordingIOControl control, int ringSize, int ringResumeSize) {
+        Pipe pipe = new Pipe(control, configuration.getBufferFactory().getBuffer(), "test", configuration,
+                ringSize, ringResumeSize);
+        pipe.attachConsumer(control);
+        return pipe;
+    }
+
+    private byte[] relay(Pipe pipe, RecordingIOControl control, byte[] payload, int chunkSize) throws Exception {
+        return relay(pipe, control, new ChunkedDecoder(payload, chunkSize), new BudgetEncoder(), chunkSize);
+    }
+
+    private byte[] relay(Pipe pipe, RecordingIOControl control, ChunkedDecoder decoder, BudgetEncoder encoder,
+                         int chunkSize) throws Exception {
+        while (!encoder.isCompleted()) {
+            if (!control.inputSuspended && !decoder.isCompleted()) {
+                decoder.arrive();
+                pipe.produce(decoder);
+            }
+            encoder.budget = chunkSize;
+            pipe.consume(encoder);
+        }
+        pipe.releaseRingBuffers();
+        pipe.releaseSpool();
+        return encoder.content.toByteArray();
+    }
+
+    private static byte[] createPayload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) i;
+        }
+        return payload;
+    }
+
+    /**
+     * Decoder which makes at most a chunk of the content available on each produce call, as a socket does.
+     */
+    private static class ChunkedDecoder implements ContentDecoder {
+
+        private final byte[] content;
+
+        private final int chunkSize;
+
+        private int position = 0;
+
+        private int available = 0;
+
+        ChunkedDecoder(byte[] content, int chunkSize) {
+            this.content = content;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Make the next chunk of the content available, if the previous one has been read.
+         */
+        void arrive() {
+            if (available == 0) {
+                available = Math.min(chunkSize, content.length - position);
+            }
+        }
+
+        public int read(ByteBuffer dst) {
+            if (position == content.length) {
+                return -1;
+            }
+            int length = Math.min(available, dst.remaining());
+            dst.put(content, position, length);
+            position += length;
+            available -= length;
+            return length;
+        }
+
+        public boolean isCompleted() {
+            return position == content.length;
+        }
+    }
+
+    /**
+     * Chunked decoder which can also transfer its content in to a file, as the decoder of a plain socket does.
+     */
+    private static class FileChunkedDecoder extends ChunkedDecoder implements FileContentDecoder {
+
+        FileChunkedDecoder(byte[] content, int chunkSize) {
+            super(content, chunkSize);
+        }
+
+        public long transfer(FileChannel dst, long position, long count) throws IOException {
+            ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(count, Integer.MAX_VALUE));
+            int length = read(chunk);
+            if (length <= 0) {
+                return length;
+            }
+            chunk.flip();
+            long written = 0;
+            while (chunk.hasRemaining()) {
+                written += dst.write(chunk, position + written);
+            }
+            return written;
+        }
+    }
+
+    /**
+     * Encoder which accepts at most the set budget of bytes until the budget is set again.
+     */
+    private static class BudgetEncoder implements ContentEncoder {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        int budget;
+
+        private boolean completed;
+
+        public int write(ByteBuffer src) {
+            int length = Math.min(budget, src.remaining());
+            byte[] bytes = new byte[length];
+            src.get(bytes);
+            content.write(bytes, 0, length);
+            budget -= length;
+            return length;
+        }
+
+        public void complete() {
+            completed = true;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+
+    /**
+     * Budget encoder which can also transfer content from a file, as the encoder of a plain socket does.
+     */
+    private static class FileBudgetEncoder extends BudgetEncoder implements FileContentEncoder {
+
+        private long transferred;
+
+        public long transfer(FileChannel src, long position, long count) throws IOException {
+            ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(Math.min(count, budget), Integer.MAX_VALUE));
+            src.read(chunk, position);
+            chunk.flip();
+            int length = write(chunk);
+            transferred += length;
+            return length;
+        }
+    }
+
+    private static class RecordingIOControl implements IOControl {
+
+        private boolean inputSuspended;
+
+        private int suspensions;
+
+        public void requestInput() {
+            inputSuspended = false;
+        }
+
+        public void suspendInput() {
+            if (!inputSuspended) {
+                suspensions++;
+            }
+            inputSuspended = true;
+        }
+
+        public void requestOutput() {
+        }
+
+        public void suspendOutput() {
+        }
+
+        public void shutdown() {
+        }
+    }
+}
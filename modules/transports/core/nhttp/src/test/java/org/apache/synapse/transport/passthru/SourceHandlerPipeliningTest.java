@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru;
+
+import org.apache.axis2.description.TransportInDescription;
+import org.apache.http.HttpRequest;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.NHttpServerConnection;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HTTP;
+import org.apache.synapse.transport.http.conn.Scheme;
+import org.apache.synapse.transport.passthru.config.SourceConfiguration;
+import org.apache.synapse.transport.passthru.connections.SourceConnections;
+import org.apache.synapse.transport.passthru.jmx.PassThroughTransportMetricsCollector;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests serving HTTP/1.1 requests pipelined on a connection through the {@link SourceHandler}. The server workers
+ * are replaced by a recorder, responses are submitted the way the server workers submit them, and are written
+ * the way {@link SourceResponse} completes them.
+ */
+public class SourceHandlerPipeliningTest {
+
+    private static final int MAX_QUEUED_REQUESTS = 2;
+
+    private SourceConfiguration configuration;
+
+    private NHttpServerConnection conn;
+
+    private RecordingSourceHandler handler;
+
+    @Before
+    public void setUp() {
+        configuration = Mockito.mock(SourceConfiguration.class);
+        Mockito.when(configuration.getMetrics()).thenReturn(Mockito.mock(PassThroughTransportMetricsCollector.class));
+        Mockito.when(configuration.getSourceConnections()).thenReturn(new SourceConnections());
+        Mockito.when(configuration.isPipeliningEnabled()).thenReturn(true);
+        Mockito.when(configuration.getPipeliningMaxQueuedRequests()).thenReturn(MAX_QUEUED_REQUESTS);
+        Mockito.when(configuration.getInDescription()).thenReturn(new TransportInDescription("http"));
+        Mockito.when(configuration.getScheme()).thenReturn(new Scheme("http", 80, false));
+        Mockito.when(configuration.getIOBufferSize()).thenReturn(1024);
+        handler = new RecordingSourceHandler(configuration);
+
+        conn = Mockito.mock(NHttpServerConnection.class);
+        Mockito.when(conn.getContext()).thenReturn(new BasicHttpContext());
+        handler.connected(conn);
+    }
+
+    @After
+    public void tearDown() {
+        handler.stop();
+    }
+
+    @Test
+    public void testPipelinedRequestsMediatedConcurrently() throws Exception {
+        receive("/a");
+        receive("/b");
+        receive("/c");
+        Assert.assertEquals("Pipelined requests should be mediated without waiting for the earlier responses",
+                Arrays.asList("/a", "/b", "/c"), handler.dispatchedUris());
+        Assert.assertEquals(2, SourceContext.get(conn).getPipelinedRequestCount());
+
+        // the later requests are mediated first, their responses wait for the response to the first request
+        SourceResponse responseC = Mockito.mock(SourceResponse.class);
+        Assert.assertFalse(submit("/c", responseC));
+        SourceResponse responseB = Mockito.mock(SourceResponse.class);
+        Assert.assertFalse(submit("/b", responseB));
+        Mockito.verify(conn, Mockito.never()).requestOutput();
+
+        respond(true);
+        Assert.assertSame(responseB, SourceContext.getResponse(conn));
+        Mockito.verify(conn).requestOutput();
+        write(responseB, true);
+        Assert.assertSame(responseC, SourceContext.getResponse(conn));
+        write(responseC, true);
+
+        Assert.assertEquals(ProtocolState.REQUEST_READY, SourceContext.getState(conn));
+        Assert.assertEquals(0, SourceContext.get(conn).getPipelinedRequestCount());
+        Mockito.verify(conn, Mockito.never()).close();
+    }
+
+    @Test
+    public void testSlowFirstResponse() throws Exception {
+        receive("/slow");
+        receive("/b");
+        receive("/c");
+        Mockito.verify(conn).suspendInput();
+
+        // the first response is written in several chunks while the response to the next request is ready
+        SourceResponse response = Mockito.mock(SourceResponse.class);
+        Assert.assertTrue(submit("/slow", response));
+        SourceContext.updateState(conn, ProtocolState.RESPONSE_HEAD);
+        handler.outputReady(conn, writeChunk(response, false, true));
+        SourceResponse responseB = Mockito.mock(SourceResponse.class);
+        Assert.assertFalse(submit("/b", responseB));
+        handler.outputReady(conn, writeChunk(response, false, true));
+        Assert.assertSame(response, SourceContext.getResponse(conn));
+        Assert.assertEquals(2, SourceContext.get(conn).getPipelinedRequestCount());
+
+        handler.outputReady(conn, writeChunk(response, true, true));
+        Assert.assertSame(responseB, SourceContext.getResponse(conn));
+        Mockito.verify(conn, Mockito.atLeastOnce()).requestInput();
+
+        // the response to the last request is submitted after the earlier ones have been written
+        write(responseB, true);
+        Assert.assertEquals(ProtocolState.REQUEST_DONE, SourceContext.getState(conn));
+        Assert.assertNull(SourceContext.getResponse(conn));
+        respond(true);
+        Assert.assertEquals(ProtocolState.REQUEST_READY, SourceContext.getState(conn));
+        Assert.assertEquals(Arrays.asList("/slow", "/b", "/c"), handler.dispatchedUris());
+    }
+
+    @Test
+    public void testConnectionCloseMidPipeline() throws Exception {
+        receive("/a");
+        receive("/b", HTTP.CONN_CLOSE);
+        respond(true);
+        receive("/c");
+        Assert.assertEquals("Requests after Connection: close should not be mediated", Arrays.asList("/a", "/b"),
+                handler.dispatchedUris());
+
+        respond(false);
+        Assert.assertEquals("Requests after Connection: close should not be served", Arrays.asList("/a", "/b"),
+                handler.dispatchedUris());
+        Assert.assertEquals(0, SourceContext.get(conn).getPipelinedRequestCount());
+        Mockito.verify(conn).close();
+    }
+
+    @Test
+    public void testErrorAbortsPipelinedRequests() throws Exception {
+        receive("/a");
+        receive("/b");
+        receive("/c");
+        SourceResponse responseC = Mockito.mock(SourceResponse.class);
+        Assert.assertFalse(submit("/c", responseC));
+        respond(true);
+
+        SourceResponse response = Mockito.mock(SourceResponse.class);
+        Assert.assertTrue(submit("/b", response));
+        SourceContext.updateState(conn, ProtocolState.RESPONSE_HEAD);
+        Mockito.when(response.write(Mockito.eq(conn), Mockito.any(ContentEncoder.class)))
+                .thenThrow(new IOException("Connection reset by peer"));
+        handler.outputReady(conn, Mockito.mock(ContentEncoder.class));
+
+        Assert.assertEquals(0, SourceContext.get(conn).getPipelinedRequestCount());
+        Assert.assertFalse("Responses after a failed one should not be written",
+                submit("/c", Mockito.mock(SourceResponse.class)));
+        Assert.assertNotSame(responseC, SourceContext.getResponse(conn));
+        Mockito.verify(conn).shutdown();
+    }
+
+    private void receive(String uri, String... connectionDirective) {
+        HttpRequest request = new BasicHttpRequest("GET", uri);
+        for (String directive : connectionDirective) {
+            request.addHeader(HTTP.CONN_DIRECTIVE, directive);
+        }
+        Mockito.when(conn.getHttpRequest()).thenReturn(request);
+        handler.requestReceived(conn);
+    }
+
+    /**
+     * Submit the response to a request the way a server worker does once it has mediated the request.
+     *
+     * @return whether the response can be written now
+     */
+    private boolean submit(String uri, SourceResponse response) {
+        return SourceContext.offerResponse(conn, handler.dispatched(uri), response, null);
+    }
+
+    /**
+     * Submit and write the whole response to the request being served.
+     */
+    private void respond(boolean keepAlive) throws IOException {
+        SourceResponse response = Mockito.mock(SourceResponse.class);
+        Assert.assertTrue(SourceContext.offerResponse(conn, SourceContext.getRequest(conn), response, null));
+        write(response, keepAlive);
+    }
+
+    /**
+     * Write the whole response, which must be the response of the connection.
+     */
+    private void write(SourceResponse response, boolean keepAlive) throws IOException {
+        Assert.assertEquals(ProtocolState.REQUEST_DONE, SourceContext.getState(conn));
+        Assert.assertSame(response, SourceContext.getResponse(conn));
+        SourceContext.updateState(conn, ProtocolState.RESPONSE_HEAD);
+        handler.outputReady(conn, writeChunk(response, true, keepAlive));
+    }
+
+    /**
+     * Make the next write of the response produce a chunk, completing the response the way
+     * {@link SourceResponse} does if it is the last one.
+     */
+    private ContentEncoder writeChunk(SourceResponse response, final boolean last, final boolean keepAlive)
+            throws IOException {
+        ContentEncoder encoder = Mockito.mock(ContentEncoder.class);
+        Mockito.when(encoder.isCompleted()).thenReturn(last);
+        Mockito.when(response.write(conn, encoder)).thenAnswer(new Answer<Integer>() {
+            public Integer answer(InvocationOnMock invocation) {
+                if (last) {
+                    SourceContext.updateState(conn, ProtocolState.RESPONSE_DONE);
+                    if (keepAlive) {
+                        configuration.getSourceConnections().releaseConnection(conn);
+                        conn.requestInput();
+                    } else {
+                        SourceContext.updateState(conn, ProtocolState.CLOSING);
+                        configuration.getSourceConnections().closeConnection(conn);
+                    }
+                }
+                return 100;
+            }
+        });
+        return encoder;
+    }
+
+    /**
+     * Records the requests handed over to the server workers instead of mediating them.
+     */
+    private static class RecordingSourceHandler extends SourceHandler {
+
+        private final List<SourceRequest> dispatched = new ArrayList<SourceRequest>();
+
+        RecordingSourceHandler(SourceConfiguration sourceConfiguration) {
+            super(sourceConfiguration);
+        }
+
+        @Override
+        void dispatch(NHttpServerConnection conn, SourceRequest request, OutputStream os) {
+            dispatched.add(request);
+        }
+
+        private List<String> dispatchedUris() {
+            List<String> uris = new ArrayList<String>();
+            for (SourceRequest request : dispatched) {
+                uris.add(request.getUri());
+            }
+            return uris;
+        }
+
+        private SourceRequest dispatched(String uri) {
+            for (SourceRequest request : dispatched) {
+                if (request.getUri().equals(uri)) {
+                    return request;
+                }
+            }
+            throw new AssertionError("No request was dispatched for " + uri);
+        }
+    }
+}
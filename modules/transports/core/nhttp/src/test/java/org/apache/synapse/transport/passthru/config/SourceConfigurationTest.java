@@ -113,6 +113,17 @@ public class SourceConfigurationTest {
                 expectedIOThreadCount, config.getIoThreadCount());
     }
 
+    @Test
+    public void testSetIOThreadCount() throws Exception {
+        IOReactorConfig before = sourceConfiguration.getIOReactorConfig();
+        sourceConfiguration.setIOThreadCount(3);
+        IOReactorConfig after = sourceConfiguration.getIOReactorConfig();
+        Assert.assertEquals("I/O reactor thread count isn't correct.", 3, after.getIoThreadCount());
+        Assert.assertEquals("Other I/O reactor settings should be kept.", before.getSoTimeout(), after.getSoTimeout());
+        Assert.assertEquals("Other I/O reactor settings should be kept.",
+                before.getSelectInterval(), after.getSelectInterval());
+    }
+
     @Test
     public void testGetHttpProcessor() throws Exception {
         Assert.assertNotNull("HttpProcessor hasn't been initialized.", sourceConfiguration.getHttpProcessor());
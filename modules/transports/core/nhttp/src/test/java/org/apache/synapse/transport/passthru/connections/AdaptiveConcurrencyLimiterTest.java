@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.connections;
+
+import org.apache.axis2.context.MessageContext;
+import org.apache.synapse.transport.passthru.PassThroughConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testRejectOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire();
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+        Assert.assertNull("Request over the limit should not get a permit", limiter.tryAcquire());
+        Assert.assertFalse("Request over the limit should be rejected",
+                limiter.park(new MessageContext(), 0, Integer.MAX_VALUE));
+        Assert.assertEquals(1, limiter.getRejectedCount());
+        Assert.assertEquals(2, limiter.getInFlight());
+
+        first.release();
+        first.release();
+        Assert.assertEquals("A permit should only be returned once", 1, limiter.getInFlight());
+        Assert.assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitGrowsAndShrinks() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire().onSuccess();
+        }
+        Assert.assertEquals("Limit should grow up to the maximum", 3, limiter.getLimit());
+
+        limiter.tryAcquire().onDropped();
+        Assert.assertEquals(2, limiter.getLimit());
+        Assert.assertEquals(1, limiter.getDroppedCount());
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire().onDropped();
+        }
+        Assert.assertEquals("Limit should not drop below the minimum", 1, limiter.getLimit());
+    }
+
+    @Test
+    public void testParkedRequestGetsReleasedPermit() {
+        RecordingListener listener = new RecordingListener();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, listener);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        MessageContext first = new MessageContext();
+        MessageContext second = new MessageContext();
+        Assert.assertTrue(limiter.park(first, 5000, 10));
+        Assert.assertTrue(limiter.park(second, 5000, 10));
+        Assert.assertEquals(2, limiter.getWaiting());
+        Assert.assertTrue("Parking should not hand out a permit", listener.acquired.isEmpty());
+
+        permit.release();
+        Assert.assertEquals("Released permit should go to the first parked request",
+                Collections.singletonList(first), listener.acquired);
+        Assert.assertNotNull(first.getProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT));
+        Assert.assertEquals(1, limiter.getWaiting());
+        Assert.assertEquals(1, limiter.getInFlight());
+
+        AdaptiveConcurrencyLimiter.onResponse(first, 200);
+        Assert.assertEquals(Arrays.asList(first, second), listener.acquired);
+        Assert.assertEquals(0, limiter.getWaiting());
+        Assert.assertEquals(0, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testParkedRequestTimesOut() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, listener);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        MessageContext expired = new MessageContext();
+        Assert.assertTrue(limiter.park(expired, 1, 10));
+        Thread.sleep(20);
+
+        MessageContext parked = new MessageContext();
+        Assert.assertTrue(limiter.park(parked, 5000, 10));
+        Assert.assertEquals("Parking should time out the expired request",
+                Collections.singletonList(expired), listener.timedOut);
+        Assert.assertEquals(1, limiter.getRejectedCount());
+
+        permit.release();
+        Assert.assertEquals(Collections.singletonList(parked), listener.acquired);
+        Assert.assertNull(expired.getProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT));
+    }
+
+    @Test
+    public void testParkedRequestTimesOutWithoutRelease() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, listener);
+        limiter.tryAcquire();
+        MessageContext parked = new MessageContext();
+        long start = System.nanoTime();
+        Assert.assertTrue(limiter.park(parked, 50, 10));
+
+        // the permit is never returned and nothing else is parked
+        Assert.assertTrue("Parked request should time out on its own",
+                listener.timedOutLatch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue("Parked request should not time out before its deadline",
+                System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals(Collections.singletonList(parked), listener.timedOut);
+        Assert.assertTrue(listener.acquired.isEmpty());
+        Assert.assertEquals(0, limiter.getWaiting());
+        Assert.assertEquals(1, limiter.getRejectedCount());
+        Assert.assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void testParkedRequestsAreBounded() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, new RecordingListener());
+        limiter.tryAcquire();
+        Assert.assertTrue(limiter.park(new MessageContext(), 5000, 1));
+        Assert.assertFalse("Request over the parking limit should be rejected",
+                limiter.park(new MessageContext(), 5000, 1));
+        Assert.assertEquals(1, limiter.getWaiting());
+        Assert.assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testPermitOfMessageContext() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        MessageContext msgContext = new MessageContext();
+        msgContext.setProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT, limiter.tryAcquire());
+
+        AdaptiveConcurrencyLimiter.onResponse(msgContext, 503);
+        Assert.assertNull(msgContext.getProperty(PassThroughConstants.CONCURRENCY_LIMIT_PERMIT));
+        Assert.assertEquals(0, limiter.getInFlight());
+        Assert.assertEquals("503 response should count as dropped", 1, limiter.getDroppedCount());
+
+        AdaptiveConcurrencyLimiter.onError(msgContext);
+        Assert.assertEquals(1, limiter.getDroppedCount());
+    }
+
+    private static class RecordingListener implements AdaptiveConcurrencyLimiter.WaitListener {
+
+        private final List<MessageContext> acquired =
+                Collections.synchronizedList(new ArrayList<MessageContext>());
+
+        private final List<MessageContext> timedOut =
+                Collections.synchronizedList(new ArrayList<MessageContext>());
+
+        private final CountDownLatch timedOutLatch = new CountDownLatch(1);
+
+        public void permitAcquired(MessageContext msgContext) {
+            acquired.add(msgContext);
+        }
+
+        public void waitTimedOut(MessageContext msgContext) {
+            timedOut.add(msgContext);
+            timedOutLatch.countDown();
+        }
+    }
+}
@@ -26,13 +26,14 @@ import org.apache.http.nio.NHttpClientConnection;
 import org.apache.http.protocol.HttpContext;
 import org.apache.synapse.transport.passthru.PassThroughConstants;
 import org.apache.synapse.transport.passthru.config.ConnectionTimeoutConfiguration;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.powermock.api.support.membermodification.MemberModifier;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 import static org.mockito.Mockito.times;
 
@@ -54,7 +55,7 @@ public class HostConnectionsTest {
                                   final int connectionGraceTime) throws Exception {
 
         NHttpClientConnection nHttpClientConnection = Mockito.mock(NHttpClientConnection.class);
-        List<NHttpClientConnection> freeConnections = new ArrayList<>();
+        Deque<NHttpClientConnection> freeConnections = new ConcurrentLinkedDeque<>();
         freeConnections.add(nHttpClientConnection);
         ConnectionTimeoutConfiguration conf = new ConnectionTimeoutConfiguration(connectionIdleTime,
                 maximumConnectionLifeSpan, connectionGraceTime);
@@ -77,4 +78,48 @@ public class HostConnectionsTest {
         hostConnections.getConnection();
         Mockito.verify(nHttpClientConnection, times(1)).shutdown();
     }
+
+    @Test
+    public void testEvictExpiredConnections() throws Exception {
+
+        NHttpClientConnection expired = Mockito.mock(NHttpClientConnection.class);
+        NHttpClientConnection active = Mockito.mock(NHttpClientConnection.class);
+        HttpContext expiredContext = Mockito.mock(HttpContext.class);
+        HttpContext activeContext = Mockito.mock(HttpContext.class);
+        Mockito.when(expired.getContext()).thenReturn(expiredContext);
+        Mockito.when(active.getContext()).thenReturn(activeContext);
+        long currentTime = System.currentTimeMillis();
+        Mockito.when(expiredContext.getAttribute(PassThroughConstants.CONNECTION_INIT_TIME)).thenReturn(currentTime);
+        Mockito.when(expiredContext.getAttribute(PassThroughConstants.CONNECTION_EXPIRY_TIME))
+                .thenReturn(currentTime - 1);
+        Mockito.when(activeContext.getAttribute(PassThroughConstants.CONNECTION_INIT_TIME)).thenReturn(currentTime);
+        Mockito.when(activeContext.getAttribute(PassThroughConstants.CONNECTION_EXPIRY_TIME))
+                .thenReturn(currentTime + 10000);
+
+        Deque<NHttpClientConnection> freeConnections = new ConcurrentLinkedDeque<>();
+        freeConnections.add(expired);
+        freeConnections.add(active);
+        HostConnections hostConnections = new HostConnections(null, 2,
+                new ConnectionTimeoutConfiguration(10000, 0, 3));
+        MemberModifier.field(HostConnections.class, "freeConnections").set(hostConnections, freeConnections);
+
+        Assert.assertEquals(1, hostConnections.evictExpiredConnections(currentTime));
+        Mockito.verify(expired, times(1)).shutdown();
+        Mockito.verify(active, times(0)).shutdown();
+        Assert.assertSame(active, hostConnections.getConnection());
+        Assert.assertEquals(1, hostConnections.getBusyConnectionCount());
+    }
+
+    @Test
+    public void testCheckAndIncrementPendingConnections() {
+
+        HostConnections hostConnections = new HostConnections(null, 2);
+        Assert.assertTrue(hostConnections.checkAndIncrementPendingConnections());
+        Assert.assertTrue(hostConnections.checkAndIncrementPendingConnections());
+        Assert.assertFalse("Pool should not exceed the maximum connections",
+                hostConnections.checkAndIncrementPendingConnections());
+        hostConnections.pendingConnectionFailed();
+        Assert.assertTrue(hostConnections.checkAndIncrementPendingConnections());
+        Assert.assertEquals(2, hostConnections.getPendingConnectionCount());
+    }
 }
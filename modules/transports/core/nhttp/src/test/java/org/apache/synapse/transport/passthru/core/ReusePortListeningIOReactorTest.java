@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.core;
+
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOEventDispatch;
+import org.apache.http.nio.reactor.IOReactorStatus;
+import org.apache.http.nio.reactor.IOSession;
+import org.apache.http.nio.reactor.ListenerEndpoint;
+import org.apache.synapse.transport.passthru.config.SourceConfiguration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests listening on one port through several {@link ReusePortListeningIOReactor} shards.
+ */
+public class ReusePortListeningIOReactorTest {
+
+    private static final int CONNECTIONS = 64;
+
+    private final List<ReusePortListeningIOReactor> reactors = new ArrayList<ReusePortListeningIOReactor>();
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("SO_REUSEPORT is not supported on this platform", ReusePortListeningIOReactor.isSupported());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (ReusePortListeningIOReactor reactor : reactors) {
+            reactor.shutdown(1000);
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testShardsListenOnSamePort() throws Exception {
+        CountingDispatch first = new CountingDispatch();
+        CountingDispatch second = new CountingDispatch();
+        ReusePortListeningIOReactor firstReactor = startShard(first);
+        ReusePortListeningIOReactor secondReactor = startShard(second);
+
+        int port = listen(firstReactor, 0);
+        Assert.assertEquals("The second shard should bind the port of the first", port, listen(secondReactor, port));
+        Assert.assertEquals(1, firstReactor.getEndpoints().size());
+        Assert.assertEquals(1, secondReactor.getEndpoints().size());
+
+        List<Socket> clients = new ArrayList<Socket>();
+        try {
+            for (int i = 0; i < CONNECTIONS; i++) {
+                clients.add(new Socket(InetAddress.getLoopbackAddress(), port));
+            }
+            long deadline = System.currentTimeMillis() + 10000;
+            while (first.connected.get() + second.connected.get() < CONNECTIONS
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            for (Socket client : clients) {
+                client.close();
+            }
+        }
+        Assert.assertEquals(CONNECTIONS, first.connected.get() + second.connected.get());
+        Assert.assertTrue("Connections should be spread over both shards, got " + first.connected.get()
+                + " and " + second.connected.get(), first.connected.get() > 0 && second.connected.get() > 0);
+    }
+
+    @Test(timeout = 30000)
+    public void testShutdown() throws Exception {
+        ReusePortListeningIOReactor firstReactor = startShard(new CountingDispatch());
+        ReusePortListeningIOReactor secondReactor = startShard(new CountingDispatch());
+        int port = listen(firstReactor, 0);
+        listen(secondReactor, port);
+
+        firstReactor.shutdown(1000);
+        Assert.assertEquals(IOReactorStatus.SHUT_DOWN, firstReactor.getStatus());
+        Assert.assertTrue("The endpoints of a shut down shard should be closed", firstReactor.getEndpoints().isEmpty());
+        new Socket(InetAddress.getLoopbackAddress(), port).close();
+
+        secondReactor.shutdown(1000);
+        Assert.assertEquals(IOReactorStatus.SHUT_DOWN, secondReactor.getStatus());
+        Assert.assertTrue(secondReactor.getEndpoints().isEmpty());
+        try {
+            new Socket(InetAddress.getLoopbackAddress(), port).close();
+            Assert.fail("The port should be closed once all shards are shut down");
+        } catch (ConnectException expected) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testBindFailure() throws Exception {
+        ServerSocket occupied = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        try {
+            ReusePortListeningIOReactor reactor = startShard(new CountingDispatch());
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    occupied.getLocalPort());
+            ListenerEndpoint endpoint = reactor.listen(address);
+            endpoint.waitFor();
+            Assert.assertNotNull("Binding a port taken without SO_REUSEPORT should fail", endpoint.getException());
+            Assert.assertTrue(endpoint.isClosed());
+            Assert.assertTrue(reactor.getEndpoints().isEmpty());
+
+            Assert.assertFalse("A listener whose socket could not be bound should not be reported as started",
+                    PassThroughListeningIOReactorManager.getInstance().startPTTEndpoint(address, reactor, "Test"));
+        } finally {
+            occupied.close();
+        }
+    }
+
+    /**
+     * Create a shard the way the listener does, and run its reactor.
+     */
+    private ReusePortListeningIOReactor startShard(final IOEventDispatch dispatch) throws Exception {
+        SourceConfiguration sourceConfiguration = Mockito.mock(SourceConfiguration.class);
+        Mockito.when(sourceConfiguration.getIOReactorConfig()).thenReturn(
+                IOReactorConfig.custom().setIoThreadCount(1).setSelectInterval(100).build());
+        final ReusePortListeningIOReactor reactor = PassThroughListeningIOReactorManager.getInstance()
+                .createReusePortListeningIOReactor(new PassThroughSharedListenerConfiguration(
+                        Executors.defaultThreadFactory(), null, sourceConfiguration, true));
+        reactors.add(reactor);
+        Thread reactorThread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    reactor.execute(dispatch);
+                } catch (IOException ignored) {
+                }
+            }
+        }, "ReusePortListeningIOReactorTest");
+        reactorThread.start();
+        return reactor;
+    }
+
+    private int listen(ReusePortListeningIOReactor reactor, int port) throws Exception {
+        ListenerEndpoint endpoint = reactor.listen(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        endpoint.waitFor();
+        Assert.assertNull(endpoint.getException());
+        return ((InetSocketAddress) endpoint.getAddress()).getPort();
+    }
+
+    /**
+     * Counts the connections accepted by a shard, and closes them.
+     */
+    private static class CountingDispatch implements IOEventDispatch {
+
+        private final AtomicInteger connected = new AtomicInteger();
+
+        public void connected(IOSession session) {
+            connected.incrementAndGet();
+            session.close();
+        }
+
+        public void inputReady(IOSession session) {
+        }
+
+        public void outputReady(IOSession session) {
+        }
+
+        public void timeout(IOSession session) {
+        }
+
+        public void disconnected(IOSession session) {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.jmx;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test class for LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long highest = LatencyHistogram.highestValueInBucket(index);
+            Assert.assertTrue("Bucket upper bound should not be below the value " + value, highest >= value);
+            Assert.assertTrue("Relative error should be bounded for " + value, highest - value <= value / 30);
+            if (index > 0) {
+                Assert.assertTrue(LatencyHistogram.highestValueInBucket(index - 1) < value);
+            }
+        }
+        Assert.assertEquals(LatencyHistogram.bucketIndex(LatencyHistogram.MAX_TRACKABLE_VALUE),
+                LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testIntervalPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.rollInterval();
+        assertWithinError(500, histogram.getIntervalPercentile(0));
+        assertWithinError(900, histogram.getIntervalPercentile(1));
+        assertWithinError(990, histogram.getIntervalPercentile(2));
+        assertWithinError(999, histogram.getIntervalPercentile(3));
+        Assert.assertEquals(1000, histogram.getIntervalMax());
+        Assert.assertEquals(1000, histogram.getIntervalCount());
+
+        // the next interval only sees the values recorded after the roll
+        histogram.record(5);
+        histogram.rollInterval();
+        Assert.assertEquals(5, histogram.getIntervalPercentile(2));
+        Assert.assertEquals(5, histogram.getIntervalMax());
+        Assert.assertEquals(1, histogram.getIntervalCount());
+
+        histogram.rollInterval();
+        Assert.assertEquals(0, histogram.getIntervalCount());
+        Assert.assertEquals(0, histogram.getIntervalPercentile(0));
+    }
+
+    @Test
+    public void testQuantileLabels() {
+        Assert.assertArrayEquals(new String[]{"0.5", "0.9", "0.99", "0.999"}, LatencyHistogram.QUANTILE_LABELS);
+    }
+
+    private void assertWithinError(long expected, long actual) {
+        Assert.assertTrue("Expected " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 30);
+    }
+}
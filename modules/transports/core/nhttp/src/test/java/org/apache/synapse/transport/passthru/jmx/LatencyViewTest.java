@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.synapse.transport.passthru.jmx;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test class for LatencyView.
+ */
+public class LatencyViewTest {
+
+    @Test
+    public void testPercentileLatenciesText() {
+        LatencyView view = new LatencyView("PassThroughLatencyViewTest", false);
+        try {
+            String labels = "view=\"PassThroughLatencyViewTest-nio-http\",stage=";
+            String expected = "# HELP synapse_passthru_latency_milliseconds"
+                    + " Pass-through transport latency over the last minute\n"
+                    + "# TYPE synapse_passthru_latency_milliseconds summary\n"
+                    + stage(labels + "\"Latency\"")
+                    + stage(labels + "\"Latency_BackEnd\"");
+            Assert.assertEquals(expected, view.getPercentileLatenciesText());
+        } finally {
+            view.destroy();
+        }
+    }
+
+    private static String stage(String labels) {
+        String metric = "synapse_passthru_latency_milliseconds";
+        return metric + "{" + labels + ",quantile=\"0.5\"} 0\n"
+                + metric + "{" + labels + ",quantile=\"0.9\"} 0\n"
+                + metric + "{" + labels + ",quantile=\"0.99\"} 0\n"
+                + metric + "{" + labels + ",quantile=\"0.999\"} 0\n"
+                + metric + "_max{" + labels + "} 0\n"
+                + metric + "_count{" + labels + "} 0\n";
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.synapse.transport.passthru.util;
+
+import org.apache.http.nio.util.DirectByteBufferAllocator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Test class for BufferFactory.
+ */
+public class BufferFactoryTest {
+
+    @Test
+    public void testBufferReuseFromThreadCache() {
+        BufferFactory factory = new BufferFactory(1024, null, 4, 0, 2);
+        ControlledByteBuffer buffer = factory.getBuffer();
+        Assert.assertEquals("First request should be a miss", 1, factory.getMissCount());
+        buffer.put((byte) 1);
+        factory.release(buffer);
+        Assert.assertEquals(1, factory.getPooledBufferCount());
+        ControlledByteBuffer reused = factory.getBuffer();
+        Assert.assertSame("Released buffer should be handed out again", buffer, reused);
+        Assert.assertEquals("Reused buffer should be cleared", 0, reused.position());
+        Assert.assertTrue("Reused buffer should be in input mode", reused.isInputMode());
+        Assert.assertEquals(1, factory.getHitCount());
+        Assert.assertEquals(0, factory.getPooledBufferCount());
+    }
+
+    @Test
+    public void testHighWatermark() {
+        BufferFactory factory = new BufferFactory(1024, null, 2, 0, 0);
+        List<ControlledByteBuffer> buffers = new ArrayList<ControlledByteBuffer>();
+        for (int i = 0; i < 5; i++) {
+            buffers.add(factory.getBuffer());
+        }
+        for (ControlledByteBuffer buffer : buffers) {
+            factory.release(buffer);
+        }
+        Assert.assertEquals("Shared tier should not grow past the high watermark", 2,
+                factory.getPooledBufferCount());
+        Assert.assertEquals(3, factory.getDiscardCount());
+        Assert.assertEquals(2 * 1024, factory.getPooledBytes());
+    }
+
+    @Test
+    public void testLowWatermarkPreAllocation() {
+        BufferFactory factory = new BufferFactory(1024, DirectByteBufferAllocator.INSTANCE, 8, 4, 0);
+        Assert.assertEquals(4, factory.getPooledBufferCount());
+        ControlledByteBuffer buffer = factory.getBuffer();
+        Assert.assertTrue("Buffer should be allocated off-heap", buffer.getByteBuffer().isDirect());
+        Assert.assertEquals(1, factory.getHitCount());
+        Assert.assertEquals(0, factory.getMissCount());
+    }
+
+    @Test
+    public void testReleaseFromAnotherThreadGoesToSharedTier() throws Exception {
+        final BufferFactory factory = new BufferFactory(1024, null, 4, 0, 0);
+        final ControlledByteBuffer buffer = factory.getBuffer();
+        final CountDownLatch latch = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            public void run() {
+                factory.release(buffer);
+                latch.countDown();
+            }
+        }).start();
+        latch.await();
+        Assert.assertSame(buffer, factory.getBuffer());
+    }
+
+    @Test
+    public void testThreadCachesAreBounded() throws Exception {
+        final BufferFactory factory = new BufferFactory(1024, null, 3, 0, 2);
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    ControlledByteBuffer first = factory.getBuffer();
+                    ControlledByteBuffer second = factory.getBuffer();
+                    factory.release(first);
+                    factory.release(second);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        // without a bound the four thread caches would pin eight buffers, here three are cached and the
+        // shared tier serves the later threads
+        Assert.assertEquals(5, factory.getPooledBufferCount());
+    }
+
+    @Test
+    public void testCacheOfTerminatedThreadIsDrained() throws Exception {
+        final BufferFactory factory = new BufferFactory(1024, null, 4, 0, 2);
+        final List<ControlledByteBuffer> cached = new ArrayList<ControlledByteBuffer>();
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                cached.add(factory.getBuffer());
+                cached.add(factory.getBuffer());
+                factory.release(cached.get(0));
+                factory.release(cached.get(1));
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertEquals(2, factory.getPooledBufferCount());
+
+        factory.releaseTerminatedThreadCaches();
+        Assert.assertEquals("Drained buffers should stay in the pool", 2, factory.getPooledBufferCount());
+        Assert.assertTrue("Buffers of the terminated thread should be handed out again",
+                cached.contains(factory.getBuffer()));
+        Assert.assertTrue(cached.contains(factory.getBuffer()));
+        Assert.assertEquals(0, factory.getPooledBufferCount());
+        Assert.assertEquals(2, factory.getHitCount());
+    }
+}